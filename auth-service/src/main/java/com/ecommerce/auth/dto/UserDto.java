@@ -22,4 +22,8 @@ public class UserDto {
     private String password;
 
     private String role;
+
+    // Language for the welcome email, a BCP 47 tag such as hi-IN; only read on registration
+    @Size(max = 35, message = "Locale must be at most 35 characters")
+    private String locale;
 }
\ No newline at end of file
@@ -7,10 +7,14 @@ import com.ecommerce.auth.exception.UserAlreadyExistsException;
 import com.ecommerce.auth.exception.UserNotFoundException;
 import com.ecommerce.auth.repository.UserRepository;
 import com.ecommerce.auth.util.JwtUtil;
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.events.UserRegistered;
+import com.ecommerce.outbox.OutboxEvent;
+import com.ecommerce.outbox.OutboxEventRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
 @Service
@@ -26,7 +30,7 @@ public class AuthServiceImpl implements IAuthService {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private OutboxEventRepository outboxEventRepository;
 
     @Override
     public String login(String email, String password) {
@@ -46,6 +50,7 @@ public class AuthServiceImpl implements IAuthService {
     }
 
     @Override
+    @Transactional
     public UserDto register(UserDto userDto) {
         // Check if user already exists
         if (userRepository.findByEmail(userDto.getEmail()).isPresent()) {
@@ -58,10 +63,10 @@ public class AuthServiceImpl implements IAuthService {
         user.setRole(userDto.getRole() != null ? userDto.getRole() : "USER");
         User savedUser = userRepository.save(user);
 
-        // Send notification via Kafka
-        String message = String.format("{\"to\":\"%s\",\"subject\":\"Welcome to ECommerce\",\"body\":\"Thank you for registering!\"}",
-                savedUser.getEmail());
-        kafkaTemplate.send("notification-events", message);
+        // Welcome notification goes out through the outbox, committed together with the user
+        UserRegistered event = new UserRegistered(savedUser.getId(), savedUser.getEmail(), System.currentTimeMillis(),
+                userDto.getLocale());
+        outboxEventRepository.save(OutboxEvent.of(NotificationEvent.TOPIC, String.valueOf(savedUser.getId()), event));
 
         UserDto response = new UserDto();
         response.setId(savedUser.getId());
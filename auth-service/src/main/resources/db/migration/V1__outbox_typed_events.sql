@@ -0,0 +1,7 @@
+-- Outbox payloads become binary typed events from the event-schema module. ddl-auto=update adds
+-- new columns but never changes a column's type, so run this against an existing database before
+-- starting the new version. Rows already in the table keep their JSON text as bytes and have no
+-- type, which the notification service still reads as a JSON email.
+ALTER TABLE outbox_event ADD COLUMN event_type VARCHAR(100);
+ALTER TABLE outbox_event ADD COLUMN schema_version INT;
+ALTER TABLE outbox_event MODIFY COLUMN payload LONGBLOB NOT NULL;
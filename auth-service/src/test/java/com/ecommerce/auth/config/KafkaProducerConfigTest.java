@@ -1,45 +0,0 @@
-package com.ecommerce.auth.config;
-
-import org.apache.kafka.clients.producer.ProducerConfig;
-import org.apache.kafka.common.serialization.StringSerializer;
-import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.test.util.ReflectionTestUtils;
-
-import java.util.Map;
-
-import static org.junit.jupiter.api.Assertions.*;
-
-@ExtendWith(MockitoExtension.class)
-class KafkaProducerConfigTest {
-
-    @InjectMocks
-    private KafkaProducerConfig kafkaProducerConfig;
-
-    @BeforeEach
-    void setUp() {
-        ReflectionTestUtils.setField(kafkaProducerConfig, "bootstrapServers", "localhost:9092");
-    }
-
-    @Test
-    void testKafkaProducerConfiguration() {
-        // Test: Producer factory, Kafka template, bootstrap servers, serializers
-        ProducerFactory<String, String> producerFactory = kafkaProducerConfig.producerFactory();
-        assertNotNull(producerFactory);
-
-        Map<String, Object> configProps = producerFactory.getConfigurationProperties();
-        assertEquals("localhost:9092", configProps.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
-        assertEquals(StringSerializer.class, configProps.get(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG));
-        assertEquals(StringSerializer.class, configProps.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
-
-        KafkaTemplate<String, String> kafkaTemplate = kafkaProducerConfig.kafkaTemplate();
-        assertNotNull(kafkaTemplate);
-        assertNotNull(kafkaTemplate.getProducerFactory());
-    }
-}
-
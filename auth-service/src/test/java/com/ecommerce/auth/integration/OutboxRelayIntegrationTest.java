@@ -0,0 +1,94 @@
+package com.ecommerce.auth.integration;
+
+import com.ecommerce.auth.dto.UserDto;
+import com.ecommerce.auth.exception.UserAlreadyExistsException;
+import com.ecommerce.auth.repository.UserRepository;
+import com.ecommerce.auth.service.IAuthService;
+import com.ecommerce.events.EventHeaders;
+import com.ecommerce.events.NotificationEventDeserializer;
+import com.ecommerce.events.UserRegistered;
+import com.ecommerce.outbox.OutboxEvent;
+import com.ecommerce.outbox.OutboxEventRepository;
+import com.ecommerce.outbox.OutboxRelay;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "outbox.relay.enabled=true",
+    // Only the run at startup is scheduled; the test drives the relay itself
+    "outbox.relay.interval-ms=3600000"
+})
+@EmbeddedKafka(partitions = 1, topics = "notification-events")
+@ActiveProfiles("test")
+class OutboxRelayIntegrationTest {
+
+    @Autowired
+    private IAuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testWelcomeEventIsPublishedFromOutbox() {
+        // Test: Registration stores the welcome event with the user; the relay publishes it once with its event id
+        UserDto user = new UserDto();
+        user.setEmail("outbox@example.com");
+        user.setPassword("password123");
+        UserDto registered = authService.register(user);
+        assertThrows(UserAlreadyExistsException.class, () -> authService.register(user));
+
+        List<OutboxEvent> pending = outboxEventRepository.findAll();
+        assertEquals(1, pending.size());
+        assertEquals(1, outboxRelay.relayBatch());
+        assertEquals(0, outboxRelay.relayBatch());
+
+        Map<String, Object> props = KafkaTestUtils.consumerProps("auth-outbox-test", "false", embeddedKafka);
+        try (Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, "notification-events");
+            ConsumerRecord<String, byte[]> record = KafkaTestUtils.getSingleRecord(consumer, "notification-events", Duration.ofSeconds(10));
+            assertEquals(String.valueOf(registered.getId()), record.key());
+            assertEquals(UserRegistered.TYPE, EventHeaders.eventType(record.headers()));
+            UserRegistered event = (UserRegistered) new NotificationEventDeserializer().deserialize(record.topic(), record.headers(), record.value());
+            assertEquals(registered.getId(), event.getUserId());
+            assertEquals("outbox@example.com", event.getEmail());
+            assertEquals(pending.get(0).getEventId(),
+                    new String(record.headers().lastHeader(OutboxRelay.EVENT_ID_HEADER).value(), StandardCharsets.UTF_8));
+        }
+        assertEquals(0, outboxEventRepository.count());
+    }
+}
@@ -7,13 +7,17 @@ import com.ecommerce.auth.exception.UserAlreadyExistsException;
 import com.ecommerce.auth.exception.UserNotFoundException;
 import com.ecommerce.auth.repository.UserRepository;
 import com.ecommerce.auth.util.JwtUtil;
+import com.ecommerce.events.NotificationEventCodec;
+import com.ecommerce.events.UserRegistered;
+import com.ecommerce.outbox.OutboxEvent;
+import com.ecommerce.outbox.OutboxEventRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
@@ -35,7 +39,7 @@ class AuthServiceImplTest {
     private JwtUtil jwtUtil;
 
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private OutboxEventRepository outboxEventRepository;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -55,6 +59,7 @@ class AuthServiceImplTest {
         testUserDto.setEmail("test@example.com");
         testUserDto.setPassword("password123");
         testUserDto.setRole("USER");
+        testUserDto.setLocale("hi-IN");
     }
 
     @Test
@@ -83,7 +88,7 @@ class AuthServiceImplTest {
 
     @Test
     void testRegister() {
-        // Test: New user, existing user, null role defaults to USER, password encoding, Kafka notification
+        // Test: New user, existing user, null role defaults to USER, password encoding, welcome notification in the outbox
         User savedUser = new User();
         savedUser.setId(1L);
         savedUser.setEmail(testUserDto.getEmail());
@@ -100,7 +105,14 @@ class AuthServiceImplTest {
         assertEquals(testUserDto.getEmail(), result.getEmail());
         assertEquals("USER", result.getRole());
         assertNull(result.getPassword());
-        verify(kafkaTemplate, times(1)).send(eq("notification-events"), contains(testUserDto.getEmail()));
+        ArgumentCaptor<OutboxEvent> outbox = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(outbox.capture());
+        assertEquals("notification-events", outbox.getValue().getTopic());
+        assertEquals(UserRegistered.TYPE, outbox.getValue().getEventType());
+        UserRegistered event = (UserRegistered) NotificationEventCodec.decode(outbox.getValue().getEventType(),
+                outbox.getValue().getSchemaVersion(), outbox.getValue().getPayload());
+        assertEquals(testUserDto.getEmail(), event.getEmail());
+        assertEquals("hi-IN", event.getLocale());
 
         when(userRepository.findByEmail(testUserDto.getEmail())).thenReturn(Optional.of(testUser));
         assertThrows(UserAlreadyExistsException.class, () -> authService.register(testUserDto));
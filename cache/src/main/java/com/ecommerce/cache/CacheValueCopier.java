@@ -0,0 +1,47 @@
+package com.ecommerce.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copies the mutable values a {@link TwoTierCache} keeps in its local tier. Each service registers
+ * a copy function for the entities it caches; lists are copied element by element, and any other
+ * value (strings, numbers, records) is treated as immutable and shared as is.
+ */
+public class CacheValueCopier {
+
+    private final Map<Class<?>, UnaryOperator<Object>> copiers = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> CacheValueCopier register(Class<T> type, UnaryOperator<T> copier) {
+        copiers.put(type, value -> copier.apply((T) value));
+        return this;
+    }
+
+    public Object copy(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) {
+                copy.add(copy(element));
+            }
+            return copy;
+        }
+        UnaryOperator<Object> copier = copiers.get(value.getClass());
+        if (copier == null) {
+            // Subclasses such as persistence proxies fall back to the copier of their entity type
+            for (Map.Entry<Class<?>, UnaryOperator<Object>> entry : copiers.entrySet()) {
+                if (entry.getKey().isInstance(value)) {
+                    copier = entry.getValue();
+                    break;
+                }
+            }
+        }
+        return copier != null ? copier.apply(value) : value;
+    }
+}
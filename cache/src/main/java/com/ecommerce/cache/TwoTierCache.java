@@ -0,0 +1,210 @@
+package com.ecommerce.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Cache that consults a bounded in-process tier before the shared Redis tier.
+ * Evictions are applied to both tiers and announced to other nodes through the
+ * invalidation publisher so their local copies are dropped as well.
+ * The local tier holds live objects and hands every caller its own copy, made by the
+ * {@link CacheValueCopier} at the entity level, so a caller that modifies a returned entity
+ * cannot change what other callers on this node read.
+ * Concurrent {@link #get(Object, Callable)} misses for the same key share one load.
+ * Subclasses can add access paths on top of the two tiers through the protected accessors.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final CacheValueCopier copier;
+    private final BiConsumer<String, String> invalidationPublisher;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+
+    public TwoTierCache(String name, Cache remote, long localMaxSize, Duration localTtl, BiConsumer<String, String> invalidationPublisher,
+                        CacheValueCopier copier) {
+        this.name = name;
+        this.remote = remote;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.invalidationPublisher = invalidationPublisher;
+        this.copier = copier;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = getLocal(localKey);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            remoteHits.increment();
+            putLocal(localKey, wrapper.get());
+            return wrapper;
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        String localKey = localKey(key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(localKey, load);
+        if (existing != null) {
+            coalescedLoads.increment();
+            try {
+                // The loader's result is shared by every waiter, so each gets its own copy
+                return (T) copier.copy(existing.join());
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        try {
+            T value = valueLoader.call();
+            if (value != null) {
+                // Null results (e.g. unknown ids) are not cached; Redis caches here disallow null values
+                put(key, value);
+            }
+            load.complete(value);
+            return value;
+        } catch (Throwable e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(localKey, load);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            putLocal(localKey(key), value);
+        } else {
+            local.invalidate(localKey(key));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.accept(name, null);
+    }
+
+    void invalidateLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    protected Cache getRemote() {
+        return remote;
+    }
+
+    protected void recordLocalHit() {
+        localHits.increment();
+    }
+
+    protected void recordRemoteHit() {
+        remoteHits.increment();
+    }
+
+    protected void recordMiss() {
+        misses.increment();
+    }
+
+    long getLocalHits() {
+        return localHits.sum();
+    }
+
+    long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    long getCoalescedLoads() {
+        return coalescedLoads.sum();
+    }
+
+    long getLocalSize() {
+        return local.estimatedSize();
+    }
+
+    protected Object getLocal(String localKey) {
+        return copier.copy(local.getIfPresent(localKey));
+    }
+
+    protected void putLocal(String localKey, Object value) {
+        // The caller keeps the value it passed in, so the local tier stores its own copy
+        local.put(localKey, copier.copy(value));
+    }
+
+    protected static String localKey(Object key) {
+        // RedisCache stringifies simple keys the same way, so peers can address entries by this form
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,126 @@
+package com.ecommerce.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Composite {@link CacheManager} that fronts every Redis cache with a local tier.
+ * Evictions are broadcast on a Redis pub/sub channel; messages from other nodes drop
+ * the matching local entries, messages from this node are ignored.
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private static final String CLEAR_MARKER = "*";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final String invalidationChannel;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final CacheValueCopier copier;
+    private final MeterRegistry meterRegistry;
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate, String invalidationChannel,
+                               long localMaxSize, Duration localTtl, CacheValueCopier copier, MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.invalidationChannel = invalidationChannel;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.copier = copier;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> {
+            TwoTierCache created = createCache(n, remote, localMaxSize, localTtl, this::publishInvalidation, copier);
+            registerMetrics(created);
+            return created;
+        });
+    }
+
+    /**
+     * Builds the cache for one name; services that need more than the {@link Cache} API, such as
+     * multi-key access, return a subclass of {@link TwoTierCache} here.
+     */
+    protected TwoTierCache createCache(String name, Cache remote, long localMaxSize, Duration localTtl,
+                                       BiConsumer<String, String> invalidationPublisher, CacheValueCopier copier) {
+        return new TwoTierCache(name, remote, localMaxSize, localTtl, invalidationPublisher, copier);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.invalidateLocal(CLEAR_MARKER.equals(parts[2]) ? null : parts[2]);
+        }
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(invalidationChannel, nodeId + "\n" + cacheName + "\n" + (key != null ? key : CLEAR_MARKER));
+        } catch (Exception e) {
+            // Peers fall back to the local TTL if the broadcast is lost
+            logger.warn("Failed to publish cache invalidation for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    private void registerMetrics(TwoTierCache cache) {
+        if (meterRegistry == null) {
+            return;
+        }
+        FunctionCounter.builder("cache.two-tier.gets", cache, TwoTierCache::getLocalHits)
+                .tag("cache", cache.getName()).tag("result", "local-hit").register(meterRegistry);
+        FunctionCounter.builder("cache.two-tier.gets", cache, TwoTierCache::getRemoteHits)
+                .tag("cache", cache.getName()).tag("result", "remote-hit").register(meterRegistry);
+        FunctionCounter.builder("cache.two-tier.gets", cache, TwoTierCache::getMisses)
+                .tag("cache", cache.getName()).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.two-tier.coalesced-loads", cache, TwoTierCache::getCoalescedLoads)
+                .tag("cache", cache.getName()).register(meterRegistry);
+        Gauge.builder("cache.two-tier.local.size", cache, TwoTierCache::getLocalSize)
+                .tag("cache", cache.getName()).register(meterRegistry);
+    }
+}
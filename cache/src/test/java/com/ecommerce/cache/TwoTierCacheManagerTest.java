@@ -0,0 +1,222 @@
+package com.ecommerce.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoTierCacheManagerTest {
+
+    private static final String CHANNEL = "test:cache:invalidation";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoTierCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager();
+        meterRegistry = new SimpleMeterRegistry();
+        CacheValueCopier copier = new CacheValueCopier().register(Basket.class, Basket::copy);
+        cacheManager = new TwoTierCacheManager(remoteCacheManager, redisTemplate, CHANNEL, 100, Duration.ofMinutes(1), copier, meterRegistry);
+    }
+
+    @Test
+    void testReadsGoLocalThenRemote() {
+        // Test: Miss, then remote hit populates the local tier, then local hit
+        Cache cache = cacheManager.getCache("product");
+        assertNull(cache.get(1L));
+
+        remoteCacheManager.getCache("product").put(1L, "Laptop");
+        assertEquals("Laptop", cache.get(1L).get());
+        assertEquals("Laptop", cache.get(1L, String.class));
+
+        assertEquals(1.0, meterRegistry.get("cache.two-tier.gets").tag("cache", "product").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.two-tier.gets").tag("cache", "product").tag("result", "remote-hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.two-tier.gets").tag("cache", "product").tag("result", "local-hit").functionCounter().count());
+    }
+
+    @Test
+    void testEvictClearsBothTiersAndBroadcasts() {
+        // Test: Evict and clear remove from both tiers and publish an invalidation for peers
+        Cache cache = cacheManager.getCache("product");
+        cache.put(1L, "Laptop");
+        cache.put(2L, "Phone");
+
+        cache.evict(1L);
+        assertNull(cache.get(1L));
+        assertNull(remoteCacheManager.getCache("product").get(1L));
+        verify(redisTemplate).convertAndSend(CHANNEL, cacheManager.getNodeId() + "\nproduct\n1");
+
+        cache.clear();
+        assertNull(cache.get(2L));
+        verify(redisTemplate).convertAndSend(CHANNEL, cacheManager.getNodeId() + "\nproduct\n*");
+    }
+
+    @Test
+    void testPeerInvalidationDropsLocalEntry() {
+        // Test: Messages from other nodes drop local copies; this node's own messages are ignored
+        Cache cache = cacheManager.getCache("product");
+        cache.put(1L, "Laptop");
+        remoteCacheManager.getCache("product").put(1L, "Laptop v2");
+
+        cacheManager.onMessage(message(cacheManager.getNodeId() + "\nproduct\n1"), null);
+        assertEquals("Laptop", cache.get(1L).get());
+
+        cacheManager.onMessage(message("other-node\nproduct\n1"), null);
+        assertEquals("Laptop v2", cache.get(1L).get());
+
+        remoteCacheManager.getCache("product").put(1L, "Laptop v3");
+        cacheManager.onMessage(message("other-node\nproduct\n*"), null);
+        assertEquals("Laptop v3", cache.get(1L).get());
+    }
+
+    @Test
+    void testPublishFailureDoesNotFailEviction() {
+        // Test: Redis pub/sub outage is logged, eviction still succeeds locally and remotely
+        doThrow(new RuntimeException("Redis down")).when(redisTemplate).convertAndSend(anyString(), anyString());
+        Cache cache = cacheManager.getCache("product");
+        cache.put(1L, "Laptop");
+
+        assertDoesNotThrow(() -> cache.evict(1L));
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        // Test: Many threads missing on the same key trigger a single loader call
+        Cache cache = cacheManager.getCache("product");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return "Laptop";
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("Laptop", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals("Laptop", remoteCacheManager.getCache("product").get(1L).get());
+    }
+
+    @Test
+    void testModifyingAReturnedEntityLeavesTheCachedValueIntact() {
+        // Test: Every local hit returns its own copy, so a caller's edits never reach other callers
+        Cache cache = cacheManager.getCache("cart");
+        Basket basket = new Basket(7L, 2);
+        cache.put(7L, basket);
+
+        basket.setItemCount(5);
+        Basket first = cache.get(7L, Basket.class);
+        first.setItemCount(9);
+
+        Basket second = cache.get(7L, Basket.class);
+        assertNotSame(first, second);
+        assertEquals(2, second.getItemCount());
+        assertEquals(7L, second.getUserId());
+    }
+
+    @Test
+    void testListsAreCopiedPerElement() {
+        // Test: A cached list is copied element by element, so neither the list nor its entries are shared
+        Cache cache = cacheManager.getCache("carts");
+        List<Basket> baskets = new ArrayList<>(List.of(new Basket(1L, 1), new Basket(2L, 2)));
+        cache.put("all", baskets);
+
+        @SuppressWarnings("unchecked")
+        List<Basket> first = cache.get("all", List.class);
+        first.get(0).setItemCount(9);
+        first.remove(1);
+
+        @SuppressWarnings("unchecked")
+        List<Basket> second = cache.get("all", List.class);
+        assertEquals(2, second.size());
+        assertEquals(1, second.get(0).getItemCount());
+        assertNotSame(baskets.get(0), second.get(0));
+    }
+
+    @Test
+    void testNullLoadIsNotCached() {
+        // Test: A loader returning null (unknown id) is not written to either tier
+        Cache cache = cacheManager.getCache("product");
+
+        assertNull(cache.get(99L, () -> null));
+        assertNull(remoteCacheManager.getCache("product").get(99L));
+        assertEquals("Laptop", cache.get(99L, () -> "Laptop"));
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static class Basket {
+
+        private Long userId;
+        private int itemCount;
+
+        Basket() {
+        }
+
+        Basket(Long userId, int itemCount) {
+            this.userId = userId;
+            this.itemCount = itemCount;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public int getItemCount() {
+            return itemCount;
+        }
+
+        public void setItemCount(int itemCount) {
+            this.itemCount = itemCount;
+        }
+
+        Basket copy() {
+            return new Basket(userId, itemCount);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.cart.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the write-behind flush when live carts are stored in Redis.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "cart.storage.mode", havingValue = "redis")
+public class RedisCartConfig {
+}
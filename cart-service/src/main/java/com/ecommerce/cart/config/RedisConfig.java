@@ -1,15 +1,24 @@
 package com.ecommerce.cart.config;
 
+import com.ecommerce.cache.CacheValueCopier;
+import com.ecommerce.cache.TwoTierCacheManager;
+import com.ecommerce.cart.entity.Cart;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
-import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -21,6 +30,15 @@ import java.time.Duration;
 @ConditionalOnClass(RedisConnectionFactory.class)
 public class RedisConfig {
 
+    @Value("${cache.local.max-size:10000}")
+    private long localMaxSize = 10000;
+
+    @Value("${cache.local.ttl:30s}")
+    private Duration localTtl = Duration.ofSeconds(30);
+
+    @Value("${cache.invalidation.channel:cart:cache:invalidation}")
+    private String invalidationChannel = "cart:cache:invalidation";
+
     @Bean
     @ConditionalOnBean(RedisConnectionFactory.class)
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
@@ -35,7 +53,7 @@ public class RedisConfig {
 
     @Bean
     @ConditionalOnBean(RedisConnectionFactory.class)
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
@@ -46,5 +64,23 @@ public class RedisConfig {
                 .cacheDefaults(config)
                 .build();
     }
-}
 
+    @Bean
+    @Primary
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    public TwoTierCacheManager cacheManager(RedisCacheManager redisCacheManager, RedisConnectionFactory connectionFactory,
+                                            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new TwoTierCacheManager(redisCacheManager, new StringRedisTemplate(connectionFactory), invalidationChannel,
+                localMaxSize, localTtl, new CacheValueCopier().register(Cart.class, Cart::copy), meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoTierCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+        return container;
+    }
+}
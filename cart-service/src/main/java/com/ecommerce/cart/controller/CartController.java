@@ -1,13 +1,17 @@
 package com.ecommerce.cart.controller;
 
 import com.ecommerce.cart.dto.AddToCartRequest;
+import com.ecommerce.cart.dto.CartBatchRequest;
+import com.ecommerce.cart.dto.CartBatchResult;
 import com.ecommerce.cart.dto.CartDto;
 import com.ecommerce.cart.service.ICartService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,6 +21,12 @@ public class CartController {
     @Autowired
     private ICartService cartService;
 
+    @Value("${cart.summary.max-batch:500}")
+    private int maxSummaryBatch = 500;
+
+    @Value("${cart.batch.max-operations:100}")
+    private int maxBatchOperations = 100;
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<CartDto> getCartByUserId(@PathVariable Long userId) {
         CartDto cart = cartService.getCartByUserId(userId);
@@ -29,12 +39,28 @@ public class CartController {
         return ResponseEntity.ok(summary);
     }
 
+    @GetMapping("/summaries")
+    public ResponseEntity<List<Map<String, Object>>> getCartSummaries(@RequestParam List<Long> userIds) {
+        if (userIds.size() > maxSummaryBatch) {
+            throw new IllegalArgumentException("At most " + maxSummaryBatch + " user ids per request");
+        }
+        return ResponseEntity.ok(cartService.getCartSummaries(userIds));
+    }
+
     @PostMapping("/add")
     public ResponseEntity<CartDto> addToCart(@Valid @RequestBody AddToCartRequest request) {
         CartDto cart = cartService.addToCart(request);
         return ResponseEntity.ok(cart);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<CartBatchResult> applyBatch(@Valid @RequestBody CartBatchRequest request) {
+        if (request.getOperations().size() > maxBatchOperations) {
+            throw new IllegalArgumentException("At most " + maxBatchOperations + " operations per batch");
+        }
+        return ResponseEntity.ok(cartService.applyBatch(request));
+    }
+
     @PutMapping("/update")
     public ResponseEntity<CartDto> updateCartItem(
             @RequestParam Long userId,
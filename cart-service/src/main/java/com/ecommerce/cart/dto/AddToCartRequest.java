@@ -1,5 +1,6 @@
 package com.ecommerce.cart.dto;
 
+import com.ecommerce.money.Money;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -27,6 +28,6 @@ public class AddToCartRequest {
 
     @NotNull(message = "Price is required")
     @Positive(message = "Price must be positive")
-    private Double price;
+    private Money price;
 }
 
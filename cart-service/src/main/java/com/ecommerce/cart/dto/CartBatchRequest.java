@@ -0,0 +1,21 @@
+package com.ecommerce.cart.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartBatchRequest {
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    @NotEmpty(message = "At least one operation is required")
+    private List<@Valid @NotNull CartOperation> operations;
+}
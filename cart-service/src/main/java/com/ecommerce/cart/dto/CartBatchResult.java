@@ -0,0 +1,39 @@
+package com.ecommerce.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartBatchResult {
+
+    public enum Status {
+        APPLIED, FAILED
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class OperationResult {
+        private int index;
+        private CartOperation.Type type;
+        private Long productId;
+        private Status status;
+        private String message;
+
+        public static OperationResult applied(int index, CartOperation operation) {
+            return new OperationResult(index, operation.getType(), operation.getProductId(), Status.APPLIED, null);
+        }
+
+        public static OperationResult failed(int index, CartOperation operation, String message) {
+            return new OperationResult(index, operation.getType(), operation.getProductId(), Status.FAILED, message);
+        }
+    }
+
+    private CartDto cart;
+    private List<OperationResult> results;
+}
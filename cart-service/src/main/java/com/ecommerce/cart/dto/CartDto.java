@@ -1,5 +1,6 @@
 package com.ecommerce.cart.dto;
 
+import com.ecommerce.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,6 +14,6 @@ public class CartDto {
     private Long id;
     private Long userId;
     private List<CartItemDto> items;
-    private Double totalAmount;
+    private Money totalAmount;
 }
 
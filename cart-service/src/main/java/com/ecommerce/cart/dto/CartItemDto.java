@@ -1,5 +1,6 @@
 package com.ecommerce.cart.dto;
 
+import com.ecommerce.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,6 @@ public class CartItemDto {
     private Long productId;
     private String productName;
     private Integer quantity;
-    private Double price;
+    private Money price;
 }
 
@@ -0,0 +1,52 @@
+package com.ecommerce.cart.dto;
+
+import com.ecommerce.money.Money;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartOperation {
+
+    public enum Type {
+        ADD, UPDATE, REMOVE
+    }
+
+    @NotNull(message = "Operation type is required")
+    private Type type;
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    private String productName;
+
+    private Integer quantity;
+
+    private Money price;
+
+    /**
+     * Checks the fields the operation type needs; returns the problem or null if it can be applied.
+     */
+    public String validationError() {
+        switch (type) {
+            case ADD:
+                if (productName == null || productName.isBlank()) {
+                    return "Product name is required";
+                }
+                if (quantity == null || quantity < 1) {
+                    return "Quantity must be at least 1";
+                }
+                if (price == null || !price.isPositive()) {
+                    return "Price must be positive";
+                }
+                return null;
+            case UPDATE:
+                return quantity == null ? "Quantity is required" : null;
+            default:
+                return null;
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.ecommerce.cart.entity;
 
+import com.ecommerce.money.Money;
+import com.ecommerce.money.MoneyConverter;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_cart_user_id", columnNames = "userId"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -18,34 +28,180 @@ public class Cart {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long version;
+
     private Long userId;
 
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> items = new ArrayList<>();
 
-    private Double totalAmount;
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "total_amount_minor")
+    private Money totalAmount;
+
+    // Summary counters kept in step with the items so summaries never need to load them
+    private Integer itemCount;
+
+    private Integer totalQuantity;
 
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
 
+    // Redis cart version last written by the write-behind flush; null for carts managed in JPA mode
+    private Long syncedVersion;
+
+    // Position of each product's line in items, built from the items on first use after loading
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Map<Long, Integer> lineIndex;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        resetIndex();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        resetIndex();
+    }
+
+    public void setItems(List<CartItem> items) {
+        this.items = items;
+        resetIndex();
+    }
+
+    public CartItem findItem(Long productId) {
+        Integer position = lineIndex().get(productId);
+        return position != null ? items.get(position) : null;
+    }
+
+    /**
+     * Adds quantity to the product's line, creating the line at the given price if there is none;
+     * an existing line keeps the price it was added at.
+     */
+    public CartItem addItem(Long productId, String productName, int quantity, Money price) {
+        CartItem item = findItem(productId);
+        if (item == null) {
+            item = new CartItem();
+            item.setProductId(productId);
+            item.setProductName(productName);
+            item.setQuantity(0);
+            item.setPrice(price);
+            item.setCart(this);
+            lineIndex.put(productId, items.size());
+            items.add(item);
+            itemCount++;
+        }
+        changeQuantity(item, item.getQuantity() + quantity);
+        return item;
+    }
+
+    /**
+     * Sets the quantity of the product's line, removing it at zero or less.
+     * Returns false if the cart has no line for the product.
+     */
+    public boolean updateItemQuantity(Long productId, int quantity) {
+        CartItem item = findItem(productId);
+        if (item == null) {
+            return false;
+        }
+        if (quantity <= 0) {
+            removeItem(productId);
+        } else {
+            changeQuantity(item, quantity);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the product's line by moving the last line into its slot, so no other line is
+     * shifted or scanned; line order is not kept across removals.
+     */
+    public boolean removeItem(Long productId) {
+        Integer position = lineIndex().remove(productId);
+        if (position == null) {
+            return false;
+        }
+        changeQuantity(items.get(position), 0);
+        CartItem last = items.remove(items.size() - 1);
+        if (position < items.size()) {
+            items.set(position, last);
+            lineIndex.put(last.getProductId(), position);
+        }
+        itemCount--;
+        return true;
+    }
+
+    public void clearItems() {
+        items.clear();
+        lineIndex = new HashMap<>();
+        itemCount = 0;
+        totalQuantity = 0;
+        totalAmount = Money.ZERO;
+    }
+
+    /**
+     * Detached copy with its own lines, so a cached cart can be handed out without sharing
+     * the instance; the lines point back at the copy.
+     */
+    public Cart copy() {
+        Cart copy = new Cart(id, version, userId, null, totalAmount, itemCount, totalQuantity,
+                createdAt, updatedAt, syncedVersion, null);
+        if (items != null) {
+            List<CartItem> lines = new ArrayList<>(items.size());
+            for (CartItem item : items) {
+                lines.add(new CartItem(item.getId(), item.getProductId(), item.getProductName(), item.getQuantity(),
+                        item.getPrice(), copy));
+            }
+            copy.items = lines;
+        }
+        return copy;
     }
 
+    /**
+     * Recomputes the total amount and the summary counters from the items.
+     */
     public void calculateTotalAmount() {
-        this.totalAmount = items.stream()
-                .mapToDouble(item -> item.getPrice() * item.getQuantity())
-                .sum();
+        resetIndex();
+        lineIndex();
     }
-}
 
+    // Merging a cart replaces new lines with managed copies, so the index is rebuilt after each flush
+    private void resetIndex() {
+        lineIndex = null;
+    }
 
+    private void changeQuantity(CartItem item, int quantity) {
+        int delta = quantity - item.getQuantity();
+        item.setQuantity(quantity);
+        totalQuantity += delta;
+        totalAmount = totalAmount.plus(item.getPrice().times(delta));
+    }
 
+    private Map<Long, Integer> lineIndex() {
+        if (lineIndex == null) {
+            Map<Long, Integer> index = new HashMap<>(Math.max(16, items.size() * 2));
+            long total = 0;
+            int quantity = 0;
+            for (int i = 0; i < items.size(); i++) {
+                CartItem item = items.get(i);
+                index.put(item.getProductId(), i);
+                total = Math.addExact(total, Math.multiplyExact(item.getPrice().minorUnits(), (long) item.getQuantity()));
+                quantity += item.getQuantity();
+            }
+            lineIndex = index;
+            itemCount = items.size();
+            totalQuantity = quantity;
+            totalAmount = Money.ofMinor(total);
+        }
+        return lineIndex;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ecommerce.cart.entity;
 
+import com.ecommerce.money.Money;
+import com.ecommerce.money.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,7 +22,9 @@ public class CartItem {
 
     private Integer quantity;
 
-    private Double price;
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "price_minor")
+    private Money price;
 
     @ManyToOne
     @JoinColumn(name = "cart_id")
@@ -0,0 +1,7 @@
+package com.ecommerce.cart.exception;
+
+public class CartConflictException extends RuntimeException {
+    public CartConflictException(String message) {
+        super(message);
+    }
+}
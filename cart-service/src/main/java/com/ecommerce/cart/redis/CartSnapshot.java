@@ -0,0 +1,109 @@
+package com.ecommerce.cart.redis;
+
+import com.ecommerce.cart.entity.Cart;
+import com.ecommerce.cart.entity.CartItem;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decoded view of a cart hash. Prices and the running total are held in cents (the minor units of
+ * {@link com.ecommerce.money.Money}) so the totals maintained with HINCRBY stay exact.
+ */
+public record CartSnapshot(Long userId, Long cartId, long version, List<Line> lines, long totalQuantity, long totalCents) {
+
+    public record Line(Long productId, String productName, int quantity, long priceCents) {
+    }
+
+    static final String VERSION = "_v";
+    static final String CART_ID = "_id";
+    static final String LINES = "_lines";
+    static final String QUANTITY = "_qty";
+    static final String TOTAL = "_total";
+    static final String QUANTITY_PREFIX = "q:";
+    static final String PRICE_PREFIX = "p:";
+    static final String NAME_PREFIX = "n:";
+
+    public static CartSnapshot empty(Long userId) {
+        return new CartSnapshot(userId, null, 0, List.of(), 0, 0);
+    }
+
+    public static CartSnapshot of(Cart cart) {
+        List<Line> lines = new ArrayList<>();
+        long quantity = 0;
+        long total = 0;
+        for (CartItem item : cart.getItems()) {
+            long price = item.getPrice().minorUnits();
+            lines.add(new Line(item.getProductId(), item.getProductName(), item.getQuantity(), price));
+            quantity += item.getQuantity();
+            total += price * item.getQuantity();
+        }
+        return new CartSnapshot(cart.getUserId(), cart.getId(), cart.getSyncedVersion() != null ? cart.getSyncedVersion() : 0,
+                lines, quantity, total);
+    }
+
+    /**
+     * Decodes the flat field/value list returned by HGETALL; returns null if the hash holds no cart.
+     */
+    static CartSnapshot decode(Long userId, List<?> flat) {
+        if (flat == null || flat.isEmpty()) {
+            return null;
+        }
+        Map<String, String> fields = new HashMap<>(flat.size());
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            fields.put(String.valueOf(flat.get(i)), String.valueOf(flat.get(i + 1)));
+        }
+        return decode(userId, fields);
+    }
+
+    static CartSnapshot decode(Long userId, Map<String, String> fields) {
+        String version = fields.get(VERSION);
+        if (version == null) {
+            return null;
+        }
+        List<Line> lines = new ArrayList<>();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (field.getKey().startsWith(QUANTITY_PREFIX)) {
+                String productId = field.getKey().substring(QUANTITY_PREFIX.length());
+                lines.add(new Line(Long.valueOf(productId), fields.get(NAME_PREFIX + productId),
+                        Integer.parseInt(field.getValue()), Long.parseLong(fields.get(PRICE_PREFIX + productId))));
+            }
+        }
+        // Hash fields carry no order; keep responses stable
+        lines.sort(Comparator.comparing(Line::productId));
+        String cartId = fields.get(CART_ID);
+        return new CartSnapshot(userId, cartId != null ? Long.valueOf(cartId) : null, Long.parseLong(version), lines,
+                Long.parseLong(fields.getOrDefault(QUANTITY, "0")), Long.parseLong(fields.getOrDefault(TOTAL, "0")));
+    }
+
+    /**
+     * Field/value pairs that recreate this snapshot in a hash.
+     */
+    List<String> encode() {
+        List<String> pairs = new ArrayList<>(8 + lines.size() * 6);
+        pairs.add(VERSION);
+        pairs.add(String.valueOf(version));
+        pairs.add(LINES);
+        pairs.add(String.valueOf(lines.size()));
+        pairs.add(QUANTITY);
+        pairs.add(String.valueOf(totalQuantity));
+        pairs.add(TOTAL);
+        pairs.add(String.valueOf(totalCents));
+        if (cartId != null) {
+            pairs.add(CART_ID);
+            pairs.add(String.valueOf(cartId));
+        }
+        for (Line line : lines) {
+            pairs.add(QUANTITY_PREFIX + line.productId());
+            pairs.add(String.valueOf(line.quantity()));
+            pairs.add(PRICE_PREFIX + line.productId());
+            pairs.add(String.valueOf(line.priceCents()));
+            pairs.add(NAME_PREFIX + line.productId());
+            pairs.add(line.productName() != null ? line.productName() : "");
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.cart.redis;
+
+import com.ecommerce.cart.entity.Cart;
+import com.ecommerce.cart.entity.CartItem;
+import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Copies dirty Redis carts to MySQL in batches. Each batch pops user ids from the dirty set,
+ * reads their hashes in one pipeline and upserts the carts in one transaction. A cart changed
+ * again meanwhile is re-marked dirty by its script and picked up by a later batch; a failed
+ * batch is put back into the dirty set.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.storage.mode", havingValue = "redis")
+public class CartWriteBehind {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private RedisCartStore cartStore;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cart.storage.write-behind.batch-size:200}")
+    private int batchSize = 200;
+
+    @Scheduled(fixedDelayString = "${cart.storage.write-behind.interval-ms:1000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // Dirty carts stay in Redis; the next run retries them
+            logger.warn("Cart write-behind flush failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Flushes until the dirty set is drained and returns the number of carts written.
+     */
+    public int flush() {
+        int written = 0;
+        while (true) {
+            List<Long> userIds = cartStore.popDirty(batchSize);
+            if (userIds.isEmpty()) {
+                return written;
+            }
+            try {
+                written += flushBatch(userIds);
+            } catch (RuntimeException e) {
+                cartStore.markDirty(userIds);
+                throw e;
+            }
+            if (userIds.size() < batchSize) {
+                return written;
+            }
+        }
+    }
+
+    private int flushBatch(List<Long> userIds) {
+        List<CartSnapshot> snapshots = new ArrayList<>(userIds.size());
+        for (CartSnapshot snapshot : cartStore.getAll(userIds)) {
+            if (snapshot != null) {
+                snapshots.add(snapshot);
+            }
+        }
+        if (snapshots.size() < userIds.size()) {
+            logger.warn("{} dirty carts expired from Redis before they were flushed", userIds.size() - snapshots.size());
+        }
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+
+        List<Cart> saved = new TransactionTemplate(transactionManager).execute(status -> {
+            Map<Long, Cart> carts = cartRepository.findForUpdateByUserIdIn(snapshots.stream().map(CartSnapshot::userId).toList())
+                    .stream().collect(Collectors.toMap(Cart::getUserId, Function.identity()));
+            List<Cart> changed = new ArrayList<>(snapshots.size());
+            for (CartSnapshot snapshot : snapshots) {
+                Cart cart = carts.get(snapshot.userId());
+                if (cart == null) {
+                    cart = new Cart();
+                    cart.setUserId(snapshot.userId());
+                } else if (cart.getSyncedVersion() != null && cart.getSyncedVersion() >= snapshot.version()) {
+                    // A concurrent flush on another node already wrote this or a newer version
+                    continue;
+                }
+                apply(snapshot, cart);
+                changed.add(cart);
+            }
+            return cartRepository.saveAll(changed);
+        });
+
+        for (Cart cart : saved) {
+            cartStore.link(cart.getUserId(), cart.getId());
+        }
+        return saved.size();
+    }
+
+    static void apply(CartSnapshot snapshot, Cart cart) {
+        Map<Long, CartSnapshot.Line> lines = new HashMap<>();
+        for (CartSnapshot.Line line : snapshot.lines()) {
+            lines.put(line.productId(), line);
+        }
+        cart.getItems().removeIf(item -> !lines.containsKey(item.getProductId()));
+        for (CartItem item : cart.getItems()) {
+            CartSnapshot.Line line = lines.remove(item.getProductId());
+            item.setQuantity(line.quantity());
+            item.setPrice(Money.ofMinor(line.priceCents()));
+            item.setProductName(line.productName());
+        }
+        for (CartSnapshot.Line line : lines.values()) {
+            CartItem item = new CartItem();
+            item.setProductId(line.productId());
+            item.setProductName(line.productName());
+            item.setQuantity(line.quantity());
+            item.setPrice(Money.ofMinor(line.priceCents()));
+            item.setCart(cart);
+            cart.getItems().add(item);
+        }
+        cart.setTotalAmount(Money.ofMinor(snapshot.totalCents()));
+        cart.setItemCount(snapshot.lines().size());
+        cart.setTotalQuantity((int) snapshot.totalQuantity());
+        cart.setSyncedVersion(snapshot.version());
+    }
+}
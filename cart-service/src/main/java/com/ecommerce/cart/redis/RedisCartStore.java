@@ -0,0 +1,242 @@
+package com.ecommerce.cart.redis;
+
+import com.ecommerce.cart.dto.CartOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Live carts kept as one Redis hash per user. Every mutation is a single Lua script that
+ * updates the line, the running totals and the version, marks the cart dirty for the
+ * write-behind flush and returns the whole hash, so each call is one round trip.
+ * <p>
+ * Hash layout: {@code _v} version, {@code _id} database id once flushed, {@code _lines},
+ * {@code _qty} and {@code _total} (cents) running totals, and per product {@code q:<id>},
+ * {@code p:<id>} (cents) and {@code n:<id>}. A hash without {@code _v} is not loaded yet.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.storage.mode", havingValue = "redis")
+public class RedisCartStore {
+
+    static final String KEY_PREFIX = "cart:live:";
+    static final String DIRTY_KEY = "cart:live:dirty";
+
+    private static final String NOT_LOADED = "NOT_LOADED";
+    private static final String NO_LINE = "NO_LINE";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADD = script("redis/cart-add.lua", List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SET = script("redis/cart-set.lua", List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLEAR = script("redis/cart-clear.lua", List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> BATCH = script("redis/cart-batch.lua", List.class);
+    private static final RedisScript<Long> HYDRATE = script("redis/cart-hydrate.lua", Long.class);
+    private static final RedisScript<Long> LINK = script("redis/cart-link.lua", Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${cart.storage.redis.ttl:7d}")
+    private Duration ttl = Duration.ofDays(7);
+
+    public Optional<CartSnapshot> get(Long userId) {
+        Map<String, String> fields = redisTemplate.<String, String>opsForHash().entries(key(userId));
+        return Optional.ofNullable(CartSnapshot.decode(userId, fields));
+    }
+
+    /**
+     * Per-operation outcome ({@code true} if applied) and the cart after the batch.
+     */
+    public record BatchOutcome(List<Boolean> applied, CartSnapshot snapshot) {
+    }
+
+    public record Totals(int lines, long quantity, long totalCents) {
+    }
+
+    /**
+     * Running totals only, without reading the lines.
+     */
+    public Optional<Totals> totals(Long userId) {
+        List<String> values = redisTemplate.<String, String>opsForHash().multiGet(key(userId),
+                List.of(CartSnapshot.VERSION, CartSnapshot.LINES, CartSnapshot.QUANTITY, CartSnapshot.TOTAL));
+        if (values.get(0) == null) {
+            return Optional.empty();
+        }
+        return Optional.of(toTotals(values));
+    }
+
+    private static Totals toTotals(List<String> values) {
+        return new Totals(Integer.parseInt(values.get(1)), Long.parseLong(values.get(2)), Long.parseLong(values.get(3)));
+    }
+
+    /**
+     * Running totals of several carts in one pipelined round trip; carts missing from Redis are null.
+     */
+    public List<Totals> totalsAll(List<Long> userIds) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection strings = (StringRedisConnection) connection;
+            for (Long userId : userIds) {
+                strings.hMGet(key(userId), CartSnapshot.VERSION, CartSnapshot.LINES, CartSnapshot.QUANTITY, CartSnapshot.TOTAL);
+            }
+            return null;
+        });
+        List<Totals> totals = new ArrayList<>(userIds.size());
+        for (Object result : results) {
+            @SuppressWarnings("unchecked")
+            List<String> values = (List<String>) result;
+            totals.add(values != null && values.get(0) != null ? toTotals(values) : null);
+        }
+        return totals;
+    }
+
+    /**
+     * Returns the updated cart, or null if the cart is not loaded into Redis yet.
+     */
+    public CartSnapshot add(Long userId, Long productId, int quantity, long priceCents, String productName) {
+        return mutate(ADD, userId, String.valueOf(productId), String.valueOf(quantity), String.valueOf(priceCents), productName);
+    }
+
+    /**
+     * Sets a line quantity, removing the line at zero or less. With {@code requireLine} a missing
+     * line is an error, otherwise it leaves the cart unchanged. Returns null if the cart is not loaded.
+     */
+    public CartSnapshot setQuantity(Long userId, Long productId, int quantity, boolean requireLine) {
+        return mutate(SET, userId, String.valueOf(productId), String.valueOf(quantity), requireLine ? "1" : "0");
+    }
+
+    public CartSnapshot clear(Long userId) {
+        return mutate(CLEAR, userId);
+    }
+
+    /**
+     * Applies the operations in one script. Updates of missing lines are reported as not applied,
+     * everything else is applied. Returns null if the cart is not loaded.
+     */
+    public BatchOutcome applyBatch(Long userId, List<CartOperation> operations) {
+        List<String> args = new ArrayList<>(3 + operations.size() * 5);
+        args.add(String.valueOf(userId));
+        args.add(String.valueOf(ttl.toSeconds()));
+        args.add(String.valueOf(operations.size()));
+        for (CartOperation operation : operations) {
+            args.add(operation.getType().name().substring(0, 1));
+            args.add(String.valueOf(operation.getProductId()));
+            args.add(String.valueOf(operation.getQuantity() != null ? operation.getQuantity() : 0));
+            args.add(String.valueOf(operation.getPrice() != null ? operation.getPrice().minorUnits() : 0));
+            args.add(operation.getProductName() != null ? operation.getProductName() : "");
+        }
+        List<?> result = redisTemplate.execute(BATCH, List.of(key(userId), DIRTY_KEY), args.toArray());
+        if (result != null && result.size() == 1 && NOT_LOADED.equals(result.get(0))) {
+            return null;
+        }
+        if (result == null || result.size() < operations.size()) {
+            throw new IllegalStateException("Unexpected reply from cart script for user " + userId);
+        }
+        List<Boolean> applied = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            applied.add(!NO_LINE.equals(result.get(i)));
+        }
+        CartSnapshot snapshot = CartSnapshot.decode(userId, result.subList(operations.size(), result.size()));
+        if (snapshot == null) {
+            throw new IllegalStateException("Unexpected reply from cart script for user " + userId);
+        }
+        return new BatchOutcome(applied, snapshot);
+    }
+
+    /**
+     * Loads a cart unless it is already present; concurrent loaders cannot overwrite live changes.
+     */
+    public boolean hydrate(CartSnapshot snapshot) {
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(ttl.toSeconds()));
+        args.addAll(snapshot.encode());
+        Long loaded = redisTemplate.execute(HYDRATE, List.of(key(snapshot.userId())), args.toArray());
+        return loaded != null && loaded == 1;
+    }
+
+    public void link(Long userId, Long cartId) {
+        redisTemplate.execute(LINK, List.of(key(userId)), String.valueOf(cartId));
+    }
+
+    public List<Long> popDirty(int count) {
+        List<String> members = redisTemplate.opsForSet().pop(DIRTY_KEY, count);
+        if (members == null) {
+            return List.of();
+        }
+        return members.stream().map(Long::valueOf).toList();
+    }
+
+    public void markDirty(Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            redisTemplate.opsForSet().add(DIRTY_KEY, userIds.stream().map(String::valueOf).toArray(String[]::new));
+        }
+    }
+
+    public long dirtyCount() {
+        Long size = redisTemplate.opsForSet().size(DIRTY_KEY);
+        return size != null ? size : 0;
+    }
+
+    /**
+     * Reads several carts in one pipelined round trip; carts missing from Redis are null.
+     */
+    public List<CartSnapshot> getAll(List<Long> userIds) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection strings = (StringRedisConnection) connection;
+            for (Long userId : userIds) {
+                strings.hGetAll(key(userId));
+            }
+            return null;
+        });
+        List<CartSnapshot> snapshots = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> fields = (Map<String, String>) results.get(i);
+            snapshots.add(fields != null ? CartSnapshot.decode(userIds.get(i), fields) : null);
+        }
+        return snapshots;
+    }
+
+    private CartSnapshot mutate(@SuppressWarnings("rawtypes") RedisScript<List> script, Long userId, String... extraArgs) {
+        Object[] args = new Object[2 + extraArgs.length];
+        args[0] = String.valueOf(userId);
+        args[1] = String.valueOf(ttl.toSeconds());
+        System.arraycopy(extraArgs, 0, args, 2, extraArgs.length);
+        List<?> result = redisTemplate.execute(script, List.of(key(userId), DIRTY_KEY), args);
+        if (result != null && result.size() == 1) {
+            if (NOT_LOADED.equals(result.get(0))) {
+                return null;
+            }
+            if (NO_LINE.equals(result.get(0))) {
+                throw new RuntimeException("Item not found in cart");
+            }
+        }
+        CartSnapshot snapshot = CartSnapshot.decode(userId, result);
+        if (snapshot == null) {
+            throw new IllegalStateException("Unexpected reply from cart script for user " + userId);
+        }
+        return snapshot;
+    }
+
+    static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    private static <T> RedisScript<T> script(String path, Class<T> resultType) {
+        return RedisScript.of(new ClassPathResource(path), resultType);
+    }
+}
@@ -1,12 +1,32 @@
 package com.ecommerce.cart.repository;
 
 import com.ecommerce.cart.entity.Cart;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
-}
 
+    @EntityGraph(attributePaths = "items")
+    Optional<Cart> findWithItemsByUserId(Long userId);
+
+    // Bumps the cart version on commit even if only its items changed
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    Optional<Cart> findVersionedByUserId(Long userId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = "items")
+    List<Cart> findForUpdateByUserIdIn(Collection<Long> userIds);
+
+    @Query("select new com.ecommerce.cart.repository.CartSummaryRow(c.userId, c.itemCount, c.totalQuantity, c.totalAmount) " +
+           "from Cart c where c.userId in :userIds")
+    List<CartSummaryRow> findSummariesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
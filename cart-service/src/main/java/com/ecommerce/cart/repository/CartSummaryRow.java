@@ -0,0 +1,9 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.money.Money;
+
+/**
+ * Summary columns of a cart row; the counters are null for carts not updated since they were added.
+ */
+public record CartSummaryRow(Long userId, Integer itemCount, Integer totalQuantity, Money totalAmount) {
+}
@@ -1,177 +1,235 @@
 package com.ecommerce.cart.service;
 
 import com.ecommerce.cart.dto.AddToCartRequest;
+import com.ecommerce.cart.dto.CartBatchRequest;
+import com.ecommerce.cart.dto.CartBatchResult;
 import com.ecommerce.cart.dto.CartDto;
 import com.ecommerce.cart.dto.CartItemDto;
+import com.ecommerce.cart.dto.CartOperation;
 import com.ecommerce.cart.entity.Cart;
 import com.ecommerce.cart.entity.CartItem;
+import com.ecommerce.cart.exception.CartConflictException;
 import com.ecommerce.cart.repository.CartRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
+@ConditionalOnProperty(name = "cart.storage.mode", havingValue = "jpa", matchIfMissing = true)
 public class CartServiceImpl implements ICartService {
 
+    private static final int LOCK_STRIPES = 256;
+
     @Autowired
     private CartRepository cartRepository;
 
-    @Autowired(required = false)
-    private RedisTemplate<String, Object> redisTemplate;
+    @Autowired
+    private TransactionOperations transactionTemplate;
+
+    @Value("${cart.concurrency.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    // Serialises mutations of one user's cart on this node so they do not burn optimistic retries
+    private final ReentrantLock[] userLocks = new ReentrantLock[LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            userLocks[i] = new ReentrantLock();
+        }
+    }
 
     @Override
     @Cacheable(value = "cart", key = "#userId")
     public CartDto getCartByUserId(Long userId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setUserId(userId);
-                    newCart.setTotalAmount(0.0);
-                    return cartRepository.save(newCart);
-                });
-        return convertToDto(cart);
+        return mutate(userId, () -> {
+            Cart cart = cartRepository.findByUserId(userId)
+                    .orElseGet(() -> {
+                        Cart newCart = new Cart();
+                        newCart.setUserId(userId);
+                        newCart.calculateTotalAmount();
+                        return cartRepository.save(newCart);
+                    });
+            return convertToDto(cart);
+        });
     }
 
     @Override
-    @Transactional
     @CacheEvict(value = "cart", key = "#request.userId")
     public CartDto addToCart(AddToCartRequest request) {
-        Cart cart = cartRepository.findByUserId(request.getUserId())
+        return mutate(request.getUserId(), () -> doAddToCart(request));
+    }
+
+    private CartDto doAddToCart(AddToCartRequest request) {
+        Cart cart = cartRepository.findVersionedByUserId(request.getUserId())
                 .orElseGet(() -> {
                     Cart newCart = new Cart();
                     newCart.setUserId(request.getUserId());
                     return newCart;
                 });
 
-        // Check if item already exists
-        CartItem existingItem = cart.getItems().stream()
-                .filter(item -> item.getProductId().equals(request.getProductId()))
-                .findFirst()
-                .orElse(null);
-
-        if (existingItem != null) {
-            existingItem.setQuantity(existingItem.getQuantity() + request.getQuantity());
-        } else {
-            CartItem newItem = new CartItem();
-            newItem.setProductId(request.getProductId());
-            newItem.setProductName(request.getProductName());
-            newItem.setQuantity(request.getQuantity());
-            newItem.setPrice(request.getPrice());
-            newItem.setCart(cart);
-            cart.getItems().add(newItem);
-        }
-
-        cart.calculateTotalAmount();
+        // Merges into an existing line; totals are adjusted by the added amount only
+        cart.addItem(request.getProductId(), request.getProductName(), request.getQuantity(), request.getPrice());
         Cart savedCart = cartRepository.save(cart);
         return convertToDto(savedCart);
     }
 
     @Override
-    @Transactional
     @CacheEvict(value = "cart", key = "#userId")
     public CartDto updateCartItem(Long userId, Long productId, Integer quantity) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Cart not found"));
+        return mutate(userId, () -> doUpdateCartItem(userId, productId, quantity));
+    }
 
-        CartItem item = cart.getItems().stream()
-                .filter(i -> i.getProductId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Item not found in cart"));
+    private CartDto doUpdateCartItem(Long userId, Long productId, Integer quantity) {
+        Cart cart = cartRepository.findVersionedByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Cart not found"));
 
-        if (quantity <= 0) {
-            cart.getItems().remove(item);
-        } else {
-            item.setQuantity(quantity);
+        if (!cart.updateItemQuantity(productId, quantity)) {
+            throw new RuntimeException("Item not found in cart");
         }
 
-        cart.calculateTotalAmount();
         Cart savedCart = cartRepository.save(cart);
         return convertToDto(savedCart);
     }
 
     @Override
-    @Transactional
     @CacheEvict(value = "cart", key = "#userId")
     public CartDto removeFromCart(Long userId, Long productId) {
-        Cart cart = cartRepository.findByUserId(userId)
+        return mutate(userId, () -> doRemoveFromCart(userId, productId));
+    }
+
+    private CartDto doRemoveFromCart(Long userId, Long productId) {
+        Cart cart = cartRepository.findVersionedByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found"));
 
-        cart.getItems().removeIf(item -> item.getProductId().equals(productId));
-        cart.calculateTotalAmount();
+        cart.removeItem(productId);
         Cart savedCart = cartRepository.save(cart);
         return convertToDto(savedCart);
     }
 
     @Override
-    @Transactional
     @CacheEvict(value = "cart", key = "#userId")
     public void clearCart(Long userId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Cart not found"));
+        mutate(userId, () -> {
+            Cart cart = cartRepository.findVersionedByUserId(userId)
+                    .orElseThrow(() -> new RuntimeException("Cart not found"));
 
-        cart.getItems().clear();
-        cart.setTotalAmount(0.0);
-        cartRepository.save(cart);
+            cart.clearItems();
+            cartRepository.save(cart);
+            return null;
+        });
     }
 
     @Override
-    public Map<String, Object> getCartSummary(Long userId) {
-        // Use RedisTemplate for direct Redis operations
-        String summaryKey = "cart:summary:" + userId;
+    @CacheEvict(value = "cart", key = "#request.userId")
+    public CartBatchResult applyBatch(CartBatchRequest request) {
+        return mutate(request.getUserId(), () -> doApplyBatch(request));
+    }
 
-        // Try to get from Redis first (if available)
-        Map<String, Object> cachedSummary = null;
-        try {
-            if (redisTemplate != null) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> cached = (Map<String, Object>) redisTemplate.opsForValue().get(summaryKey);
-                cachedSummary = cached;
+    /**
+     * Applies every valid operation to one loaded cart and saves once.
+     * Invalid operations are reported and skipped without failing the rest;
+     * a batch where none applies leaves the cart unsaved, and creates none.
+     */
+    private CartBatchResult doApplyBatch(CartBatchRequest request) {
+        Cart cart = cartRepository.findVersionedByUserId(request.getUserId())
+                .orElseGet(() -> {
+                    Cart newCart = new Cart();
+                    newCart.setUserId(request.getUserId());
+                    return newCart;
+                });
+
+        List<CartBatchResult.OperationResult> results = new ArrayList<>(request.getOperations().size());
+        boolean applied = false;
+        for (int i = 0; i < request.getOperations().size(); i++) {
+            CartOperation operation = request.getOperations().get(i);
+            String error = operation.validationError();
+            if (error == null) {
+                error = applyOperation(cart, operation);
             }
-        } catch (Exception e) {
-            // Redis not available, continue with database
+            applied |= error == null;
+            results.add(error == null
+                    ? CartBatchResult.OperationResult.applied(i, operation)
+                    : CartBatchResult.OperationResult.failed(i, operation, error));
         }
 
-        if (cachedSummary != null) {
-            return cachedSummary;
+        if (!applied) {
+            // A new cart has no totals until its lines are indexed
+            cart.calculateTotalAmount();
+            return new CartBatchResult(convertToDto(cart), results);
         }
+        Cart savedCart = cartRepository.save(cart);
+        return new CartBatchResult(convertToDto(savedCart), results);
+    }
 
-        // Calculate summary from database
-        Cart cart = cartRepository.findByUserId(userId).orElse(null);
-        Map<String, Object> summary = new HashMap<>();
-
-        if (cart != null) {
-            summary.put("userId", userId);
-            summary.put("totalItems", cart.getItems().size());
-            summary.put("totalQuantity", cart.getItems().stream().mapToInt(CartItem::getQuantity).sum());
-            summary.put("totalAmount", cart.getTotalAmount());
-            summary.put("lastUpdated", System.currentTimeMillis());
-        } else {
-            summary.put("userId", userId);
-            summary.put("totalItems", 0);
-            summary.put("totalQuantity", 0);
-            summary.put("totalAmount", 0.0);
-            summary.put("lastUpdated", System.currentTimeMillis());
+    private static String applyOperation(Cart cart, CartOperation operation) {
+        switch (operation.getType()) {
+            case ADD:
+                cart.addItem(operation.getProductId(), operation.getProductName(), operation.getQuantity(), operation.getPrice());
+                return null;
+            case UPDATE:
+                return cart.updateItemQuantity(operation.getProductId(), operation.getQuantity()) ? null : "Item not found in cart";
+            default:
+                cart.removeItem(operation.getProductId());
+                return null;
         }
+    }
 
-        // Store in Redis with 5 minutes TTL using RedisTemplate (if available)
+    @Override
+    public Map<String, Object> getCartSummary(Long userId) {
+        return getCartSummaries(List.of(userId)).get(0);
+    }
+
+    @Override
+    public List<Map<String, Object>> getCartSummaries(List<Long> userIds) {
+        // Counters are written with every cart change, so this is one indexed read without items
+        return CartSummaries.inRequestOrder(userIds, CartSummaries.fromDatabase(cartRepository, userIds));
+    }
+
+    /**
+     * Runs a cart change in its own transaction under the user's lock stripe. Conflicts with
+     * other nodes (stale version, or a concurrent first insert hitting the unique user id) are
+     * retried with a fresh read, with jittered backoff, up to {@code cart.concurrency.max-attempts}.
+     */
+    private <T> T mutate(Long userId, Supplier<T> change) {
+        ReentrantLock lock = userLocks[Math.floorMod(Long.hashCode(userId), LOCK_STRIPES)];
+        lock.lock();
         try {
-            if (redisTemplate != null) {
-                redisTemplate.opsForValue().set(summaryKey, summary, 5, TimeUnit.MINUTES);
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return transactionTemplate.execute(status -> change.get());
+                } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    if (attempt >= maxAttempts) {
+                        throw new CartConflictException("Cart of user " + userId + " was modified concurrently, please retry");
+                    }
+                    backoff(attempt);
+                }
             }
-        } catch (Exception e) {
-            // Redis not available, ignore
+        } finally {
+            lock.unlock();
         }
+    }
 
-        return summary;
+    private static void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 2L << Math.min(attempt, 6)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CartConflictException("Interrupted while retrying a cart update");
+        }
     }
 
     private CartDto convertToDto(Cart cart) {
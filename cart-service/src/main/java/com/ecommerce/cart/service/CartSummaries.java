@@ -0,0 +1,70 @@
+package com.ecommerce.cart.service;
+
+import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.cart.repository.CartSummaryRow;
+import com.ecommerce.money.Money;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the summary maps returned by both cart storage modes.
+ */
+final class CartSummaries {
+
+    private CartSummaries() {
+    }
+
+    static Map<String, Object> of(Long userId, int totalItems, int totalQuantity, Money totalAmount) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("userId", userId);
+        summary.put("totalItems", totalItems);
+        summary.put("totalQuantity", totalQuantity);
+        summary.put("totalAmount", totalAmount);
+        summary.put("lastUpdated", System.currentTimeMillis());
+        return summary;
+    }
+
+    static Map<String, Object> empty(Long userId) {
+        return of(userId, 0, 0, Money.ZERO);
+    }
+
+    /**
+     * Reads the summary columns of the given carts in one query; carts without counters yet
+     * are summed from their items once. Users without a cart are left out.
+     */
+    static Map<Long, Map<String, Object>> fromDatabase(CartRepository cartRepository, Collection<Long> userIds) {
+        Map<Long, Map<String, Object>> summaries = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return summaries;
+        }
+        List<Long> legacy = new ArrayList<>();
+        for (CartSummaryRow row : cartRepository.findSummariesByUserIdIn(userIds)) {
+            if (row.itemCount() == null || row.totalQuantity() == null) {
+                legacy.add(row.userId());
+            } else {
+                summaries.put(row.userId(), of(row.userId(), row.itemCount(), row.totalQuantity(),
+                        row.totalAmount() != null ? row.totalAmount() : Money.ZERO));
+            }
+        }
+        for (Long userId : legacy) {
+            cartRepository.findWithItemsByUserId(userId).ifPresent(cart -> {
+                cart.calculateTotalAmount();
+                summaries.put(userId, of(userId, cart.getItemCount(), cart.getTotalQuantity(), cart.getTotalAmount()));
+            });
+        }
+        return summaries;
+    }
+
+    static List<Map<String, Object>> inRequestOrder(List<Long> userIds, Map<Long, Map<String, Object>> summaries) {
+        List<Map<String, Object>> ordered = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            Map<String, Object> summary = summaries.get(userId);
+            ordered.add(summary != null ? summary : empty(userId));
+        }
+        return ordered;
+    }
+}
@@ -1,8 +1,11 @@
 package com.ecommerce.cart.service;
 
 import com.ecommerce.cart.dto.AddToCartRequest;
+import com.ecommerce.cart.dto.CartBatchRequest;
+import com.ecommerce.cart.dto.CartBatchResult;
 import com.ecommerce.cart.dto.CartDto;
 
+import java.util.List;
 import java.util.Map;
 
 public interface ICartService {
@@ -11,6 +14,8 @@ public interface ICartService {
     CartDto updateCartItem(Long userId, Long productId, Integer quantity);
     CartDto removeFromCart(Long userId, Long productId);
     void clearCart(Long userId);
+    CartBatchResult applyBatch(CartBatchRequest request);
     Map<String, Object> getCartSummary(Long userId);
+    List<Map<String, Object>> getCartSummaries(List<Long> userIds);
 }
 
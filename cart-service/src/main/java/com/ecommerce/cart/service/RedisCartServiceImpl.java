@@ -0,0 +1,180 @@
+package com.ecommerce.cart.service;
+
+import com.ecommerce.cart.dto.AddToCartRequest;
+import com.ecommerce.cart.dto.CartBatchRequest;
+import com.ecommerce.cart.dto.CartBatchResult;
+import com.ecommerce.cart.dto.CartDto;
+import com.ecommerce.cart.dto.CartItemDto;
+import com.ecommerce.cart.dto.CartOperation;
+import com.ecommerce.cart.redis.CartSnapshot;
+import com.ecommerce.cart.redis.RedisCartStore;
+import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.money.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cart service for {@code cart.storage.mode=redis}: the live cart is a Redis hash mutated
+ * atomically by {@link RedisCartStore} and copied to MySQL by the write-behind flush.
+ * Carts not in Redis yet are loaded from MySQL on first access.
+ */
+@Service
+@ConditionalOnProperty(name = "cart.storage.mode", havingValue = "redis")
+public class RedisCartServiceImpl implements ICartService {
+
+    @Autowired
+    private RedisCartStore cartStore;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Override
+    public CartDto getCartByUserId(Long userId) {
+        CartSnapshot snapshot = cartStore.get(userId).orElse(null);
+        if (snapshot == null) {
+            load(userId, true);
+            snapshot = cartStore.get(userId).orElseThrow(() -> new IllegalStateException("Cart could not be loaded"));
+        }
+        return convertToDto(snapshot);
+    }
+
+    @Override
+    public CartDto addToCart(AddToCartRequest request) {
+        return convertToDto(mutate(request.getUserId(), true, () -> cartStore.add(request.getUserId(), request.getProductId(),
+                request.getQuantity(), request.getPrice().minorUnits(), request.getProductName())));
+    }
+
+    @Override
+    public CartDto updateCartItem(Long userId, Long productId, Integer quantity) {
+        return convertToDto(mutate(userId, false, () -> cartStore.setQuantity(userId, productId, quantity, true)));
+    }
+
+    @Override
+    public CartDto removeFromCart(Long userId, Long productId) {
+        return convertToDto(mutate(userId, false, () -> cartStore.setQuantity(userId, productId, 0, false)));
+    }
+
+    @Override
+    public void clearCart(Long userId) {
+        mutate(userId, false, () -> cartStore.clear(userId));
+    }
+
+    @Override
+    public CartBatchResult applyBatch(CartBatchRequest request) {
+        Long userId = request.getUserId();
+        List<CartOperation> operations = request.getOperations();
+        CartBatchResult.OperationResult[] results = new CartBatchResult.OperationResult[operations.size()];
+        List<CartOperation> valid = new ArrayList<>(operations.size());
+        List<Integer> validIndexes = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            String error = operations.get(i).validationError();
+            if (error != null) {
+                results[i] = CartBatchResult.OperationResult.failed(i, operations.get(i), error);
+            } else {
+                valid.add(operations.get(i));
+                validIndexes.add(i);
+            }
+        }
+        if (valid.isEmpty()) {
+            return new CartBatchResult(getCartByUserId(userId), List.of(results));
+        }
+
+        RedisCartStore.BatchOutcome outcome = mutate(userId, true, () -> cartStore.applyBatch(userId, valid));
+        for (int j = 0; j < valid.size(); j++) {
+            int i = validIndexes.get(j);
+            results[i] = outcome.applied().get(j)
+                    ? CartBatchResult.OperationResult.applied(i, valid.get(j))
+                    : CartBatchResult.OperationResult.failed(i, valid.get(j), "Item not found in cart");
+        }
+        return new CartBatchResult(convertToDto(outcome.snapshot()), List.of(results));
+    }
+
+    @Override
+    public Map<String, Object> getCartSummary(Long userId) {
+        return getCartSummaries(List.of(userId)).get(0);
+    }
+
+    @Override
+    public List<Map<String, Object>> getCartSummaries(List<Long> userIds) {
+        // Totals live in each hash next to the lines and change in the same script; carts not
+        // loaded into Redis are read from their MySQL counters rather than loaded
+        Map<Long, Map<String, Object>> summaries = new HashMap<>();
+        List<Long> notLoaded = new ArrayList<>();
+        List<RedisCartStore.Totals> totals = cartStore.totalsAll(userIds);
+        for (int i = 0; i < userIds.size(); i++) {
+            RedisCartStore.Totals cartTotals = totals.get(i);
+            if (cartTotals == null) {
+                notLoaded.add(userIds.get(i));
+            } else {
+                summaries.put(userIds.get(i), CartSummaries.of(userIds.get(i), cartTotals.lines(),
+                        (int) cartTotals.quantity(), Money.ofMinor(cartTotals.totalCents())));
+            }
+        }
+        summaries.putAll(CartSummaries.fromDatabase(cartRepository, notLoaded));
+        return CartSummaries.inRequestOrder(userIds, summaries);
+    }
+
+    /**
+     * Runs a store mutation, loading the cart into Redis first if the store reports it missing (null).
+     */
+    private <T> T mutate(Long userId, boolean createIfMissing, Supplier<T> mutation) {
+        T result = mutation.get();
+        if (result != null) {
+            return result;
+        }
+        if (!load(userId, createIfMissing)) {
+            throw new RuntimeException("Cart not found");
+        }
+        result = mutation.get();
+        if (result == null) {
+            throw new IllegalStateException("Cart could not be loaded");
+        }
+        return result;
+    }
+
+    /**
+     * Loads the MySQL copy of a cart into Redis, or an empty cart if there is none and
+     * {@code createIfMissing} is set. Returns false if there is nothing to load.
+     */
+    private boolean load(Long userId, boolean createIfMissing) {
+        CartSnapshot snapshot = cartRepository.findWithItemsByUserId(userId)
+                .map(CartSnapshot::of)
+                .orElse(createIfMissing ? CartSnapshot.empty(userId) : null);
+        if (snapshot == null) {
+            return false;
+        }
+        cartStore.hydrate(snapshot);
+        return true;
+    }
+
+    private CartDto convertToDto(CartSnapshot snapshot) {
+        CartDto dto = new CartDto();
+        dto.setId(snapshot.cartId());
+        dto.setUserId(snapshot.userId());
+        dto.setTotalAmount(Money.ofMinor(snapshot.totalCents()));
+
+        List<CartItemDto> itemDtos = snapshot.lines().stream()
+                .map(this::convertLineToDto)
+                .collect(Collectors.toList());
+        dto.setItems(itemDtos);
+
+        return dto;
+    }
+
+    private CartItemDto convertLineToDto(CartSnapshot.Line line) {
+        CartItemDto dto = new CartItemDto();
+        dto.setProductId(line.productId());
+        dto.setProductName(line.productName());
+        dto.setQuantity(line.quantity());
+        dto.setPrice(Money.ofMinor(line.priceCents()));
+        return dto;
+    }
+}
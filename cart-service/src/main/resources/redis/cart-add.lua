@@ -0,0 +1,23 @@
+-- Adds quantity to a cart line, creating the line on first add.
+-- KEYS[1] cart hash, KEYS[2] dirty set
+-- ARGV: userId, ttlSeconds, productId, quantity, priceCents, productName
+if redis.call('HEXISTS', KEYS[1], '_v') == 0 then
+    return {'NOT_LOADED'}
+end
+local qtyField = 'q:' .. ARGV[3]
+local priceField = 'p:' .. ARGV[3]
+local quantity = tonumber(ARGV[4])
+local price = redis.call('HGET', KEYS[1], priceField)
+if not price then
+    -- Existing lines keep the price they were added at, matching the JPA mode
+    price = ARGV[5]
+    redis.call('HSET', KEYS[1], priceField, price, 'n:' .. ARGV[3], ARGV[6])
+    redis.call('HINCRBY', KEYS[1], '_lines', 1)
+end
+redis.call('HINCRBY', KEYS[1], qtyField, quantity)
+redis.call('HINCRBY', KEYS[1], '_qty', quantity)
+redis.call('HINCRBY', KEYS[1], '_total', quantity * tonumber(price))
+redis.call('HINCRBY', KEYS[1], '_v', 1)
+redis.call('SADD', KEYS[2], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+return redis.call('HGETALL', KEYS[1])
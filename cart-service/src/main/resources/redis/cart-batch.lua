@@ -0,0 +1,56 @@
+-- Applies a list of add/update/remove operations to one cart in a single step.
+-- KEYS[1] cart hash, KEYS[2] dirty set
+-- ARGV: userId, ttlSeconds, operationCount, then per operation:
+--       type (A add, U update, R remove), productId, quantity, priceCents, productName
+-- Returns one status per operation (OK or NO_LINE) followed by the HGETALL pairs of the cart.
+if redis.call('HEXISTS', KEYS[1], '_v') == 0 then
+    return {'NOT_LOADED'}
+end
+local reply = {}
+local count = tonumber(ARGV[3])
+for i = 0, count - 1 do
+    local base = 4 + i * 5
+    local op = ARGV[base]
+    local qtyField = 'q:' .. ARGV[base + 1]
+    local priceField = 'p:' .. ARGV[base + 1]
+    local quantity = tonumber(ARGV[base + 2])
+    local current = redis.call('HGET', KEYS[1], qtyField)
+    if op == 'A' then
+        local price = redis.call('HGET', KEYS[1], priceField)
+        if not price then
+            price = ARGV[base + 3]
+            redis.call('HSET', KEYS[1], priceField, price, 'n:' .. ARGV[base + 1], ARGV[base + 4])
+            redis.call('HINCRBY', KEYS[1], '_lines', 1)
+        end
+        redis.call('HINCRBY', KEYS[1], qtyField, quantity)
+        redis.call('HINCRBY', KEYS[1], '_qty', quantity)
+        redis.call('HINCRBY', KEYS[1], '_total', quantity * tonumber(price))
+        reply[#reply + 1] = 'OK'
+    elseif not current then
+        -- Removing an absent line is a no-op, updating one is an error
+        reply[#reply + 1] = op == 'U' and 'NO_LINE' or 'OK'
+    else
+        current = tonumber(current)
+        if op == 'R' or quantity <= 0 then
+            quantity = 0
+        end
+        local price = tonumber(redis.call('HGET', KEYS[1], priceField))
+        if quantity == 0 then
+            redis.call('HDEL', KEYS[1], qtyField, priceField, 'n:' .. ARGV[base + 1])
+            redis.call('HINCRBY', KEYS[1], '_lines', -1)
+        else
+            redis.call('HSET', KEYS[1], qtyField, quantity)
+        end
+        redis.call('HINCRBY', KEYS[1], '_qty', quantity - current)
+        redis.call('HINCRBY', KEYS[1], '_total', (quantity - current) * price)
+        reply[#reply + 1] = 'OK'
+    end
+end
+redis.call('HINCRBY', KEYS[1], '_v', 1)
+redis.call('SADD', KEYS[2], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+local fields = redis.call('HGETALL', KEYS[1])
+for i = 1, #fields do
+    reply[#reply + 1] = fields[i]
+end
+return reply
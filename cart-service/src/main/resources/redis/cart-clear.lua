@@ -0,0 +1,16 @@
+-- Empties a cart while keeping its version and database id.
+-- KEYS[1] cart hash, KEYS[2] dirty set
+-- ARGV: userId, ttlSeconds
+local version = redis.call('HGET', KEYS[1], '_v')
+if not version then
+    return {'NOT_LOADED'}
+end
+local id = redis.call('HGET', KEYS[1], '_id')
+redis.call('DEL', KEYS[1])
+redis.call('HSET', KEYS[1], '_v', tonumber(version) + 1, '_lines', 0, '_qty', 0, '_total', 0)
+if id then
+    redis.call('HSET', KEYS[1], '_id', id)
+end
+redis.call('SADD', KEYS[2], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+return redis.call('HGETALL', KEYS[1])
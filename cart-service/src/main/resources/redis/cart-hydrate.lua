@@ -0,0 +1,10 @@
+-- Loads a cart from the database copy unless another caller already has.
+-- KEYS[1] cart hash
+-- ARGV: ttlSeconds, then field/value pairs
+if redis.call('HEXISTS', KEYS[1], '_v') == 1 then
+    return 0
+end
+redis.call('DEL', KEYS[1])
+redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+return 1
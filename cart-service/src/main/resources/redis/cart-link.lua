@@ -0,0 +1,8 @@
+-- Records the database id of a cart after its first write-behind flush.
+-- KEYS[1] cart hash
+-- ARGV: cartId
+if redis.call('HEXISTS', KEYS[1], '_v') == 0 then
+    return 0
+end
+redis.call('HSETNX', KEYS[1], '_id', ARGV[1])
+return 1
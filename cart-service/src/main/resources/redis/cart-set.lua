@@ -0,0 +1,30 @@
+-- Sets the quantity of a cart line; zero or less removes it.
+-- KEYS[1] cart hash, KEYS[2] dirty set
+-- ARGV: userId, ttlSeconds, productId, quantity, requireLine (1 fails on a missing line, 0 ignores it)
+if redis.call('HEXISTS', KEYS[1], '_v') == 0 then
+    return {'NOT_LOADED'}
+end
+local qtyField = 'q:' .. ARGV[3]
+local current = redis.call('HGET', KEYS[1], qtyField)
+if not current then
+    if ARGV[5] == '1' then
+        return {'NO_LINE'}
+    end
+    return redis.call('HGETALL', KEYS[1])
+end
+current = tonumber(current)
+local quantity = tonumber(ARGV[4])
+local price = tonumber(redis.call('HGET', KEYS[1], 'p:' .. ARGV[3]))
+if quantity <= 0 then
+    redis.call('HDEL', KEYS[1], qtyField, 'p:' .. ARGV[3], 'n:' .. ARGV[3])
+    redis.call('HINCRBY', KEYS[1], '_lines', -1)
+    quantity = 0
+else
+    redis.call('HSET', KEYS[1], qtyField, quantity)
+end
+redis.call('HINCRBY', KEYS[1], '_qty', quantity - current)
+redis.call('HINCRBY', KEYS[1], '_total', (quantity - current) * price)
+redis.call('HINCRBY', KEYS[1], '_v', 1)
+redis.call('SADD', KEYS[2], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+return redis.call('HGETALL', KEYS[1])
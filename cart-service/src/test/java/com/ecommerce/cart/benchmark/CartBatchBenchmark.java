@@ -0,0 +1,81 @@
+package com.ecommerce.cart.benchmark;
+
+import com.ecommerce.cart.dto.AddToCartRequest;
+import com.ecommerce.cart.dto.CartBatchRequest;
+import com.ecommerce.cart.dto.CartBatchResult;
+import com.ecommerce.cart.dto.CartOperation;
+import com.ecommerce.cart.service.ICartService;
+import com.ecommerce.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Restoring a saved list of {@code benchmark.cart.restore.items} lines with one batch call
+ * versus one add call per line.
+ * Run with: mvn test -Pbenchmark -Dtest=CartBatchBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration,org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+class CartBatchBenchmark {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.cart.restore.items", 50);
+    private static final int RESTORES = Integer.getInteger("benchmark.cart.restores", 200);
+
+    @Autowired
+    private ICartService cartService;
+
+    @Test
+    void compareBatchAndPerLineRestore() {
+        List<CartOperation> operations = new ArrayList<>(ITEMS);
+        for (int i = 1; i <= ITEMS; i++) {
+            operations.add(new CartOperation(CartOperation.Type.ADD, (long) i, "Product " + i, 1 + i % 3, Money.ofMinor(100L + 100L * i)));
+        }
+
+        // Warm up both paths
+        restorePerLine(operations, 1_000_000L, RESTORES / 10);
+        restoreBatch(operations, 2_000_000L, RESTORES / 10);
+
+        long t0 = System.nanoTime();
+        restorePerLine(operations, 0L, RESTORES);
+        long perLineNanos = System.nanoTime() - t0;
+
+        long t1 = System.nanoTime();
+        restoreBatch(operations, 10_000_000L, RESTORES);
+        long batchNanos = System.nanoTime() - t1;
+
+        System.out.printf("%-28s %,10.2f ms/restore (%d lines, %d restores)%n", "one call per line",
+                perLineNanos / 1e6 / RESTORES, ITEMS, RESTORES);
+        System.out.printf("%-28s %,10.2f ms/restore (%d lines, %d restores)%n", "batch call",
+                batchNanos / 1e6 / RESTORES, ITEMS, RESTORES);
+    }
+
+    private void restorePerLine(List<CartOperation> operations, long firstUserId, int restores) {
+        for (int r = 0; r < restores; r++) {
+            long userId = firstUserId + r;
+            for (CartOperation operation : operations) {
+                cartService.addToCart(new AddToCartRequest(userId, operation.getProductId(), operation.getProductName(),
+                        operation.getQuantity(), operation.getPrice()));
+            }
+        }
+    }
+
+    private void restoreBatch(List<CartOperation> operations, long firstUserId, int restores) {
+        for (int r = 0; r < restores; r++) {
+            CartBatchResult result = cartService.applyBatch(new CartBatchRequest(firstUserId + r, operations));
+            assertEquals(ITEMS, result.getCart().getItems().size());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.cart.benchmark;
+
+import com.ecommerce.cart.entity.Cart;
+import com.ecommerce.cart.entity.CartItem;
+import com.ecommerce.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one cart click (add to an existing line, set a quantity, remove a line and add it back)
+ * on carts of 10, 100 and 1000 lines: the indexed line map with running total versus the former
+ * scan-and-resum.
+ * Run with: mvn test -Pbenchmark -Dtest=CartLineBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartLineBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int lines;
+
+    private Cart cart;
+    private long productId;
+    private int quantity;
+
+    @Setup(Level.Trial)
+    public void createCart() {
+        cart = new Cart();
+        for (long id = 1; id <= lines; id++) {
+            CartItem item = new CartItem();
+            item.setProductId(id);
+            item.setProductName("Product " + id);
+            item.setQuantity(1);
+            item.setPrice(Money.ofMinor(100 * (1 + id % 100)));
+            item.setCart(cart);
+            cart.getItems().add(item);
+        }
+        cart.calculateTotalAmount();
+    }
+
+    @Setup(Level.Invocation)
+    public void nextClick() {
+        productId = 1 + (productId * 31 + 7) % lines;
+        quantity = quantity % 5 + 1;
+    }
+
+    @Benchmark
+    public Money indexedAdd() {
+        cart.addItem(productId, "Product " + productId, 1, Money.ofMinor(100));
+        return cart.getTotalAmount();
+    }
+
+    @Benchmark
+    public Money indexedUpdate() {
+        cart.updateItemQuantity(productId, quantity);
+        return cart.getTotalAmount();
+    }
+
+    @Benchmark
+    public Money indexedRemoveAndReAdd() {
+        cart.removeItem(productId);
+        cart.addItem(productId, "Product " + productId, quantity, Money.ofMinor(100));
+        return cart.getTotalAmount();
+    }
+
+    @Benchmark
+    public Money scanAdd() {
+        CartItem existing = cart.getItems().stream()
+                .filter(item -> item.getProductId().equals(productId))
+                .findFirst()
+                .orElse(null);
+        existing.setQuantity(existing.getQuantity() + 1);
+        return resum();
+    }
+
+    @Benchmark
+    public Money scanUpdate() {
+        CartItem existing = cart.getItems().stream()
+                .filter(item -> item.getProductId().equals(productId))
+                .findFirst()
+                .orElseThrow();
+        existing.setQuantity(quantity);
+        return resum();
+    }
+
+    @Benchmark
+    public Money scanRemoveAndReAdd() {
+        cart.getItems().removeIf(item -> item.getProductId().equals(productId));
+        CartItem item = new CartItem();
+        item.setProductId(productId);
+        item.setProductName("Product " + productId);
+        item.setQuantity(quantity);
+        item.setPrice(Money.ofMinor(100));
+        item.setCart(cart);
+        cart.getItems().add(item);
+        return resum();
+    }
+
+    private Money resum() {
+        Money total = Money.ofMinor(cart.getItems().stream()
+                .mapToLong(item -> item.getPrice().minorUnits() * item.getQuantity())
+                .sum());
+        cart.setTotalAmount(total);
+        return total;
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(CartLineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.cart.benchmark;
+
+import com.ecommerce.cart.dto.AddToCartRequest;
+import com.ecommerce.cart.redis.CartWriteBehind;
+import com.ecommerce.cart.redis.RedisCartStore;
+import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.cart.service.CartServiceImpl;
+import com.ecommerce.cart.service.ICartService;
+import com.ecommerce.cart.support.EmbeddedRedis;
+import com.ecommerce.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cart mutation throughput of the JPA mode versus the Redis hash mode with write-behind.
+ * Uses the in-process Redis stand-in unless {@code benchmark.redis.host} points at a real server.
+ * Run with: mvn test -Pbenchmark -Dtest=CartStorageBenchmark -Dbenchmark.redis.host=localhost
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.autoconfigure.exclude=",
+    "cart.storage.mode=redis",
+    "cart.storage.write-behind.interval-ms=3600000"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+class CartStorageBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.cart.users", 200);
+    private static final int OPS_PER_USER = Integer.getInteger("benchmark.cart.ops", 50);
+    private static final int THREADS = Integer.getInteger("benchmark.cart.threads", 16);
+    private static final int PRODUCTS = 20;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        String host = System.getProperty("benchmark.redis.host");
+        if (host != null) {
+            registry.add("spring.data.redis.host", () -> host);
+            registry.add("spring.data.redis.port", () -> Integer.getInteger("benchmark.redis.port", 6379));
+        } else {
+            EmbeddedRedis.registerProperties(registry);
+        }
+    }
+
+    @Autowired
+    private ICartService redisCartService;
+
+    @Autowired
+    private RedisCartStore cartStore;
+
+    @Autowired
+    private CartWriteBehind writeBehind;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Test
+    void compareJpaAndRedisModes() throws Exception {
+        // The JPA implementation is switched off by the mode property; create it with its proxies here
+        ICartService jpaCartService = (ICartService) beanFactory.createBean(CartServiceImpl.class);
+
+        run(jpaCartService, 1_000_000L);
+        run(redisCartService, 2_000_000L);
+        writeBehind.flush();
+
+        long jpaNanos = run(jpaCartService, 0L);
+        long redisNanos = run(redisCartService, 10_000_000L);
+        long t0 = System.nanoTime();
+        int flushed = writeBehind.flush();
+        long flushNanos = System.nanoTime() - t0;
+
+        assertEquals(USERS, flushed);
+        assertEquals(0, cartStore.dirtyCount());
+        assertEquals(cartStore.get(10_000_000L).orElseThrow().totalCents(),
+                cartRepository.findByUserId(10_000_000L).orElseThrow().getTotalAmount().minorUnits());
+
+        long operations = (long) USERS * OPS_PER_USER;
+        System.out.printf("%-28s %,10.0f ops/s (%d users x %d ops, %d threads)%n", "jpa mode",
+                operations / (jpaNanos / 1e9), USERS, OPS_PER_USER, THREADS);
+        System.out.printf("%-28s %,10.0f ops/s (%d users x %d ops, %d threads)%n", "redis mode",
+                operations / (redisNanos / 1e9), USERS, OPS_PER_USER, THREADS);
+        System.out.printf("%-28s %,10.0f carts/s (%d carts)%n", "redis write-behind flush",
+                flushed / (flushNanos / 1e9), flushed);
+    }
+
+    /**
+     * Every user adds items from a small product range and updates a line on every fifth operation;
+     * users are spread over the worker threads.
+     */
+    private long run(ICartService cartService, long firstUserId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long t0 = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(USERS);
+            for (int u = 0; u < USERS; u++) {
+                long userId = firstUserId + u;
+                futures.add(executor.submit(() -> {
+                    for (int op = 0; op < OPS_PER_USER; op++) {
+                        long productId = 1 + (op * 7L) % PRODUCTS;
+                        if (op % 5 == 4) {
+                            cartService.updateCartItem(userId, 1L, 1 + op % 3);
+                        } else {
+                            cartService.addToCart(new AddToCartRequest(userId, productId, "Product " + productId, 1, Money.ofMinor(999L + 100L * productId)));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - t0;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
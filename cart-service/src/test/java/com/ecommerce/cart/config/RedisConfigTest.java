@@ -1,15 +1,21 @@
 package com.ecommerce.cart.config;
 
+import com.ecommerce.cache.TwoTierCache;
+import com.ecommerce.cache.TwoTierCacheManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 @ExtendWith(MockitoExtension.class)
 class RedisConfigTest {
@@ -36,7 +42,7 @@ class RedisConfigTest {
     @Test
     void testCacheManagerCreation() {
         // Test: CacheManager is created with proper configuration
-        CacheManager cacheManager = redisConfig.cacheManager(connectionFactory);
+        CacheManager cacheManager = redisConfig.redisCacheManager(connectionFactory);
 
         assertNotNull(cacheManager);
         assertEquals("org.springframework.data.redis.cache.RedisCacheManager",
@@ -60,5 +66,18 @@ class RedisConfigTest {
         assertEquals("org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer",
                      redisTemplate.getValueSerializer().getClass().getName());
     }
-}
 
+    @Test
+    void testTwoTierCacheManagerWrapsRedisCaches() {
+        // Test: Primary cache manager fronts each Redis cache with a local tier
+        RedisCacheManager redisCacheManager = redisConfig.redisCacheManager(connectionFactory);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+
+        TwoTierCacheManager cacheManager = redisConfig.cacheManager(redisCacheManager, connectionFactory, meterRegistry);
+
+        assertNotNull(cacheManager);
+        assertTrue(cacheManager.getCache("product") instanceof TwoTierCache);
+        assertSame(cacheManager.getCache("product"), cacheManager.getCache("product"));
+    }
+}
@@ -1,9 +1,13 @@
 package com.ecommerce.cart.controller;
 
 import com.ecommerce.cart.dto.AddToCartRequest;
+import com.ecommerce.cart.dto.CartBatchRequest;
+import com.ecommerce.cart.dto.CartBatchResult;
 import com.ecommerce.cart.dto.CartDto;
 import com.ecommerce.cart.dto.CartItemDto;
+import com.ecommerce.cart.dto.CartOperation;
 import com.ecommerce.cart.service.ICartService;
+import com.ecommerce.money.Money;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,7 +47,7 @@ class CartControllerTest {
         testCart = new CartDto();
         testCart.setId(1L);
         testCart.setUserId(1L);
-        testCart.setTotalAmount(100.0);
+        testCart.setTotalAmount(Money.of("100.00"));
         testCart.setItems(new ArrayList<>());
 
         CartItemDto item = new CartItemDto();
@@ -51,7 +55,7 @@ class CartControllerTest {
         item.setProductId(1L);
         item.setProductName("Test Product");
         item.setQuantity(2);
-        item.setPrice(50.0);
+        item.setPrice(Money.of("50.00"));
         testCart.getItems().add(item);
     }
 
@@ -72,7 +76,7 @@ class CartControllerTest {
         request.setProductId(2L);
         request.setProductName("Product 2");
         request.setQuantity(3);
-        request.setPrice(30.0);
+        request.setPrice(Money.of("30.00"));
 
         when(cartService.addToCart(any(AddToCartRequest.class))).thenReturn(testCart);
 
@@ -130,5 +134,39 @@ class CartControllerTest {
                 .andExpect(jsonPath("$.itemCount").value(1))
                 .andExpect(jsonPath("$.totalAmount").value(100.0));
     }
-}
 
+    @Test
+    void testGetCartSummaries() throws Exception {
+        // Test: Batch summaries for a list of user ids
+        Map<String, Object> first = new HashMap<>();
+        first.put("userId", 1L);
+        first.put("totalItems", 2);
+        Map<String, Object> second = new HashMap<>();
+        second.put("userId", 2L);
+        second.put("totalItems", 0);
+
+        when(cartService.getCartSummaries(List.of(1L, 2L))).thenReturn(List.of(first, second));
+
+        mockMvc.perform(get("/cart/summaries").param("userIds", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].userId").value(1))
+                .andExpect(jsonPath("$[0].totalItems").value(2))
+                .andExpect(jsonPath("$[1].userId").value(2));
+    }
+
+    @Test
+    void testApplyBatch() throws Exception {
+        // Test: Batch endpoint returns the final cart and per-operation results
+        CartOperation operation = new CartOperation(CartOperation.Type.ADD, 2L, "Product 2", 1, Money.of("30.00"));
+        CartBatchResult result = new CartBatchResult(testCart, List.of(CartBatchResult.OperationResult.applied(0, operation)));
+        when(cartService.applyBatch(any(CartBatchRequest.class))).thenReturn(result);
+
+        mockMvc.perform(post("/cart/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CartBatchRequest(1L, List.of(operation)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cart.userId").value(1))
+                .andExpect(jsonPath("$.results[0].index").value(0))
+                .andExpect(jsonPath("$.results[0].status").value("APPLIED"));
+    }
+}
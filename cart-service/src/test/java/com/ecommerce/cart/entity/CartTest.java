@@ -0,0 +1,115 @@
+package com.ecommerce.cart.entity;
+
+import com.ecommerce.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartTest {
+
+    @Test
+    void testLineOperationsMaintainTotals() {
+        // Test: Add, update and remove keep the counters and total in step with the lines
+        Cart cart = new Cart();
+        cart.addItem(1L, "Product 1", 2, Money.of("10.00"));
+        cart.addItem(2L, "Product 2", 1, Money.of("5.00"));
+        cart.addItem(1L, "Product 1", 1, Money.of("99.00"));
+
+        assertEquals(2, cart.getItems().size());
+        assertEquals(3, cart.findItem(1L).getQuantity());
+        // Existing line keeps its original price
+        assertEquals(Money.of("35.00"), cart.getTotalAmount());
+        assertEquals(2, cart.getItemCount());
+        assertEquals(4, cart.getTotalQuantity());
+
+        assertTrue(cart.updateItemQuantity(2L, 4));
+        assertEquals(Money.of("50.00"), cart.getTotalAmount());
+        assertFalse(cart.updateItemQuantity(3L, 1));
+
+        assertTrue(cart.updateItemQuantity(1L, 0));
+        assertNull(cart.findItem(1L));
+        assertEquals(1, cart.getItems().size());
+        assertEquals(Money.of("20.00"), cart.getTotalAmount());
+        assertFalse(cart.removeItem(1L));
+
+        cart.clearItems();
+        assertEquals(Money.of("0.00"), cart.getTotalAmount());
+        assertEquals(0, cart.getItemCount());
+        assertEquals(0, cart.getTotalQuantity());
+    }
+
+    @Test
+    void testTotalIsExact() {
+        // Test: Decimal prices add up without binary floating point drift
+        Cart cart = new Cart();
+        for (long productId = 1; productId <= 10; productId++) {
+            cart.addItem(productId, "Product " + productId, 1, Money.of("0.10"));
+        }
+        cart.addItem(11L, "Product 11", 3, Money.of("19.99"));
+        cart.removeItem(11L);
+
+        assertEquals(Money.of("1.00"), cart.getTotalAmount());
+    }
+
+    @Test
+    void testRemovingAMiddleLineKeepsTheOthersFindable() {
+        // Test: The last line takes the removed line's slot and is still found through the index
+        Cart cart = new Cart();
+        for (long productId = 1; productId <= 4; productId++) {
+            cart.addItem(productId, "Product " + productId, 1, Money.of("1.00"));
+        }
+
+        assertTrue(cart.removeItem(2L));
+        assertTrue(cart.removeItem(4L));
+
+        assertEquals(List.of(1L, 3L), cart.getItems().stream().map(CartItem::getProductId).toList());
+        assertNull(cart.findItem(2L));
+        assertTrue(cart.updateItemQuantity(3L, 5));
+        assertEquals(5, cart.findItem(3L).getQuantity());
+        assertEquals(Money.of("6.00"), cart.getTotalAmount());
+        assertEquals(2, cart.getItemCount());
+    }
+
+    @Test
+    void testIndexFollowsReplacedItems() {
+        // Test: Lines set directly are picked up by the index and totals
+        Cart cart = new Cart();
+        cart.addItem(1L, "Product 1", 1, Money.of("10.00"));
+
+        CartItem item = new CartItem();
+        item.setProductId(5L);
+        item.setProductName("Product 5");
+        item.setQuantity(2);
+        item.setPrice(Money.of("2.50"));
+        ArrayList<CartItem> items = new ArrayList<>();
+        items.add(item);
+        cart.setItems(items);
+
+        assertNull(cart.findItem(1L));
+        assertSame(item, cart.findItem(5L));
+        cart.addItem(5L, "Product 5", 1, Money.of("2.50"));
+        assertEquals(Money.of("7.50"), cart.getTotalAmount());
+    }
+
+    @Test
+    void testCopyHasItsOwnLines() {
+        // Test: A copy's lines and totals change independently of the original
+        Cart cart = new Cart();
+        cart.setUserId(7L);
+        cart.addItem(1L, "Product 1", 2, Money.of("10.00"));
+
+        Cart copy = cart.copy();
+        copy.findItem(1L).setQuantity(5);
+        copy.addItem(2L, "Product 2", 1, Money.of("5.00"));
+
+        assertEquals(1, cart.getItems().size());
+        assertEquals(2, cart.findItem(1L).getQuantity());
+        assertEquals(Money.of("20.00"), cart.getTotalAmount());
+        assertEquals(7L, copy.getUserId());
+        assertEquals(2, copy.getItems().size());
+        assertSame(copy, copy.findItem(1L).getCart());
+    }
+}
@@ -32,6 +32,17 @@ class GlobalExceptionHandlerTest {
         assertNotNull(response.getBody().get("timestamp"));
     }
 
+    @Test
+    void testHandleCartConflict() {
+        // Test: CartConflictException returns 409 CONFLICT
+        ResponseEntity<Map<String, Object>> response = globalExceptionHandler.handleCartConflict(
+                new CartConflictException("Cart of user 1 was modified concurrently, please retry"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(409, response.getBody().get("status"));
+        assertEquals("Conflict", response.getBody().get("error"));
+    }
+
     @Test
     void testHandleGenericException() {
         // Test: Generic Exception returns 500 INTERNAL_SERVER_ERROR
@@ -0,0 +1,114 @@
+package com.ecommerce.cart.integration;
+
+import com.ecommerce.cart.dto.AddToCartRequest;
+import com.ecommerce.cart.entity.Cart;
+import com.ecommerce.cart.entity.CartItem;
+import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.cart.service.CartServiceImpl;
+import com.ecommerce.cart.service.ICartService;
+import com.ecommerce.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration,org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration",
+    // Two simulated nodes keep colliding on the same row
+    "cart.concurrency.max-attempts=20"
+})
+@ActiveProfiles("test")
+class CartConcurrencyIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int ADDS_PER_THREAD = 25;
+    private static final int PRODUCTS = 4;
+
+    @Autowired
+    private ICartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @BeforeEach
+    void setUp() {
+        cartRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentAddsToOneCartAreNotLost() throws Exception {
+        // Test: Many threads adding to the same new cart end with one cart, one line per product and exact quantities
+        hammer(1L, List.of(cartService));
+    }
+
+    @Test
+    void testConcurrentAddsFromTwoNodesAreNotLost() throws Exception {
+        // Test: Instances with separate local locks, like two nodes, are reconciled by the version check
+        ICartService otherNode = (ICartService) beanFactory.createBean(CartServiceImpl.class);
+        hammer(3L, List.of(cartService, otherNode));
+    }
+
+    private void hammer(Long userId, List<ICartService> nodes) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                ICartService node = nodes.get(t % nodes.size());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                        long productId = 1 + (thread + i) % PRODUCTS;
+                        node.addToCart(new AddToCartRequest(userId, productId, "Product " + productId, 1, Money.of("10.00")));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, cartRepository.findAll().stream().filter(c -> c.getUserId().equals(userId)).count());
+        Cart cart = cartRepository.findWithItemsByUserId(userId).orElseThrow();
+        Map<Long, Integer> quantities = cart.getItems().stream()
+                .collect(Collectors.toMap(CartItem::getProductId, CartItem::getQuantity));
+        assertEquals(PRODUCTS, quantities.size());
+        int expectedPerProduct = THREADS * ADDS_PER_THREAD / PRODUCTS;
+        quantities.values().forEach(quantity -> assertEquals(expectedPerProduct, quantity));
+        assertEquals(Money.of("10.00").times(THREADS * ADDS_PER_THREAD), cart.getTotalAmount());
+    }
+
+    @Test
+    void testUserIdIsUnique() {
+        // Test: The database rejects a second cart row for the same user
+        Cart first = new Cart();
+        first.setUserId(2L);
+        cartRepository.saveAndFlush(first);
+
+        Cart second = new Cart();
+        second.setUserId(2L);
+        assertThrows(DataIntegrityViolationException.class, () -> cartRepository.saveAndFlush(second));
+    }
+}
@@ -4,6 +4,7 @@ import com.ecommerce.cart.dto.AddToCartRequest;
 import com.ecommerce.cart.dto.CartDto;
 import com.ecommerce.cart.entity.Cart;
 import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.money.Money;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
@@ -54,7 +59,7 @@ class CartServiceIntegrationTest {
         request1.setProductId(101L);
         request1.setProductName("Product 1");
         request1.setQuantity(2);
-        request1.setPrice(50.0);
+        request1.setPrice(Money.of("50.00"));
 
         mockMvc.perform(post("/cart/add")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -71,7 +76,7 @@ class CartServiceIntegrationTest {
         request2.setProductId(102L);
         request2.setProductName("Product 2");
         request2.setQuantity(1);
-        request2.setPrice(75.0);
+        request2.setPrice(Money.of("75.00"));
 
         mockMvc.perform(post("/cart/add")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -123,7 +128,7 @@ class CartServiceIntegrationTest {
         request.setProductId(201L);
         request.setProductName("Test Product");
         request.setQuantity(3);
-        request.setPrice(100.0);
+        request.setPrice(Money.of("100.00"));
 
         mockMvc.perform(post("/cart/add")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -137,6 +142,75 @@ class CartServiceIntegrationTest {
                 .andExpect(jsonPath("$.totalAmount").value(300.0));
     }
 
+    @Test
+    void testSummaryFollowsEveryChange() throws Exception {
+        // Test: Summaries reflect each mutation immediately and can be fetched in a batch
+        Long userId = 4L;
+        AddToCartRequest request = new AddToCartRequest(userId, 401L, "Product", 2, Money.of("25.00"));
+
+        mockMvc.perform(post("/cart/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/cart/summary/" + userId))
+                .andExpect(jsonPath("$.totalQuantity").value(2))
+                .andExpect(jsonPath("$.totalAmount").value(50.0));
+
+        mockMvc.perform(put("/cart/update")
+                .param("userId", userId.toString())
+                .param("productId", "401")
+                .param("quantity", "4"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/cart/clear/5"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/cart/summaries").param("userIds", userId + ",5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].totalItems").value(1))
+                .andExpect(jsonPath("$[0].totalQuantity").value(4))
+                .andExpect(jsonPath("$[0].totalAmount").value(100.0))
+                .andExpect(jsonPath("$[1].userId").value(5))
+                .andExpect(jsonPath("$[1].totalItems").value(0));
+
+        mockMvc.perform(delete("/cart/clear/" + userId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/cart/summary/" + userId))
+                .andExpect(jsonPath("$.totalItems").value(0))
+                .andExpect(jsonPath("$.totalAmount").value(0.0));
+    }
+
+    @Test
+    void testBatchOperations() throws Exception {
+        // Test: A batch restores several lines at once and reports failed operations
+        Map<String, Object> batch = Map.of("userId", 6, "operations", List.of(
+                Map.of("type", "ADD", "productId", 601, "productName", "Product A", "quantity", 2, "price", 10.0),
+                Map.of("type", "ADD", "productId", 602, "productName", "Product B", "quantity", 1, "price", 5.0),
+                Map.of("type", "UPDATE", "productId", 603, "quantity", 1),
+                Map.of("type", "UPDATE", "productId", 601, "quantity", 3)));
+
+        mockMvc.perform(post("/cart/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cart.items", hasSize(2)))
+                .andExpect(jsonPath("$.cart.totalAmount").value(35.0))
+                .andExpect(jsonPath("$.results[2].status").value("FAILED"))
+                .andExpect(jsonPath("$.results[3].status").value("APPLIED"));
+
+        mockMvc.perform(get("/cart/summary/6"))
+                .andExpect(jsonPath("$.totalQuantity").value(4));
+
+        List<Map<String, Object>> tooMany = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            tooMany.add(Map.of("type", "REMOVE", "productId", i));
+        }
+        mockMvc.perform(post("/cart/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("userId", 6, "operations", tooMany))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testAddSameProductTwice() throws Exception {
         // Test: Adding same product twice updates quantity
@@ -147,7 +221,7 @@ class CartServiceIntegrationTest {
         request.setProductId(301L);
         request.setProductName("Product");
         request.setQuantity(2);
-        request.setPrice(50.0);
+        request.setPrice(Money.of("50.00"));
 
         // Add first time
         mockMvc.perform(post("/cart/add")
@@ -0,0 +1,208 @@
+package com.ecommerce.cart.integration;
+
+import com.ecommerce.cart.dto.AddToCartRequest;
+import com.ecommerce.cart.dto.CartBatchRequest;
+import com.ecommerce.cart.dto.CartBatchResult;
+import com.ecommerce.cart.dto.CartOperation;
+import com.ecommerce.cart.entity.Cart;
+import com.ecommerce.cart.entity.CartItem;
+import com.ecommerce.cart.redis.CartWriteBehind;
+import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.cart.service.ICartService;
+import com.ecommerce.cart.service.RedisCartServiceImpl;
+import com.ecommerce.cart.support.EmbeddedRedis;
+import com.ecommerce.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+    "spring.autoconfigure.exclude=",
+    "cart.storage.mode=redis",
+    // Flushed explicitly by the tests
+    "cart.storage.write-behind.interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext
+class RedisCartIntegrationTest {
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        EmbeddedRedis.registerProperties(registry);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ICartService cartService;
+
+    @Autowired
+    private CartWriteBehind writeBehind;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        cartRepository.deleteAll();
+    }
+
+    @Test
+    void testRedisModeIsActive() {
+        assertInstanceOf(RedisCartServiceImpl.class, cartService);
+    }
+
+    @Test
+    void testCartFlowAndWriteBehind() throws Exception {
+        // Test: Mutations are served from Redis and reach MySQL on the next flush
+        Long userId = 1L;
+        add(userId, 101L, 2, 50.0).andExpect(jsonPath("$.totalAmount").value(100.0));
+        add(userId, 102L, 1, 75.0)
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.totalAmount").value(175.0));
+        assertTrue(cartRepository.findByUserId(userId).isEmpty());
+
+        mockMvc.perform(put("/cart/update")
+                .param("userId", userId.toString())
+                .param("productId", "101")
+                .param("quantity", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalAmount").value(325.0));
+
+        mockMvc.perform(get("/cart/summary/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems").value(2))
+                .andExpect(jsonPath("$.totalQuantity").value(6))
+                .andExpect(jsonPath("$.totalAmount").value(325.0));
+
+        // A cart only in MySQL is summarised from its counters without loading it
+        Cart stored = new Cart();
+        stored.setUserId(9L);
+        stored.calculateTotalAmount();
+        cartRepository.save(stored);
+        mockMvc.perform(get("/cart/summaries").param("userIds", userId + ",9"))
+                .andExpect(jsonPath("$[0].totalQuantity").value(6))
+                .andExpect(jsonPath("$[1].userId").value(9))
+                .andExpect(jsonPath("$[1].totalItems").value(0));
+        assertTrue(redisTemplate.opsForHash().entries("cart:live:9").isEmpty());
+
+        assertEquals(1, writeBehind.flush());
+        Cart persisted = cartRepository.findWithItemsByUserId(userId).orElseThrow();
+        assertEquals(Money.of("325.00"), persisted.getTotalAmount());
+        assertEquals(2, persisted.getItems().size());
+        assertEquals(2, persisted.getItemCount());
+        assertEquals(6, persisted.getTotalQuantity());
+
+        // The database id is linked back into the live cart
+        mockMvc.perform(get("/cart/user/" + userId))
+                .andExpect(jsonPath("$.id").value(persisted.getId()));
+
+        mockMvc.perform(delete("/cart/remove")
+                .param("userId", userId.toString())
+                .param("productId", "102"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.totalAmount").value(250.0));
+
+        assertEquals(1, writeBehind.flush());
+        persisted = cartRepository.findWithItemsByUserId(userId).orElseThrow();
+        assertEquals(1, persisted.getItems().size());
+        assertEquals(Money.of("250.00"), persisted.getTotalAmount());
+        assertEquals(0, writeBehind.flush());
+    }
+
+    @Test
+    void testCartIsLoadedFromDatabase() throws Exception {
+        // Test: A cart that exists only in MySQL is loaded into Redis on first use
+        Cart cart = new Cart();
+        cart.setUserId(2L);
+        cart.setItems(new ArrayList<>());
+        CartItem item = new CartItem();
+        item.setProductId(201L);
+        item.setProductName("Stored Product");
+        item.setQuantity(3);
+        item.setPrice(Money.of("10.00"));
+        item.setCart(cart);
+        cart.getItems().add(item);
+        cart.calculateTotalAmount();
+        cartRepository.save(cart);
+
+        add(2L, 201L, 1, 10.0)
+                .andExpect(jsonPath("$.items[0].quantity").value(4))
+                .andExpect(jsonPath("$.totalAmount").value(40.0));
+
+        writeBehind.flush();
+        assertEquals(4, cartRepository.findWithItemsByUserId(2L).orElseThrow().getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void testBatchOperations() {
+        // Test: A batch is applied by one script and written behind like single changes
+        CartBatchResult result = cartService.applyBatch(new CartBatchRequest(4L, List.of(
+                new CartOperation(CartOperation.Type.ADD, 401L, "Product A", 2, Money.of("10.00")),
+                new CartOperation(CartOperation.Type.ADD, 402L, "Product B", 1, Money.of("5.00")),
+                new CartOperation(CartOperation.Type.UPDATE, 403L, null, 1, null),
+                new CartOperation(CartOperation.Type.ADD, 404L, "", 1, Money.of("5.00")),
+                new CartOperation(CartOperation.Type.UPDATE, 401L, null, 3, null),
+                new CartOperation(CartOperation.Type.REMOVE, 402L, null, null, null))));
+
+        assertEquals(1, result.getCart().getItems().size());
+        assertEquals(Money.of("30.00"), result.getCart().getTotalAmount());
+        assertEquals(List.of(CartBatchResult.Status.APPLIED, CartBatchResult.Status.APPLIED, CartBatchResult.Status.FAILED,
+                        CartBatchResult.Status.FAILED, CartBatchResult.Status.APPLIED, CartBatchResult.Status.APPLIED),
+                result.getResults().stream().map(CartBatchResult.OperationResult::getStatus).toList());
+
+        assertEquals(1, writeBehind.flush());
+        assertEquals(Money.of("30.00"), cartRepository.findByUserId(4L).orElseThrow().getTotalAmount());
+    }
+
+    @Test
+    void testMissingCartAndItem() {
+        // Test: Updating an unknown cart or line fails like the JPA mode
+        RuntimeException missingCart = assertThrows(RuntimeException.class, () -> cartService.clearCart(3L));
+        assertEquals("Cart not found", missingCart.getMessage());
+
+        cartService.getCartByUserId(3L);
+        RuntimeException missingItem = assertThrows(RuntimeException.class, () -> cartService.updateCartItem(3L, 1L, 2));
+        assertEquals("Item not found in cart", missingItem.getMessage());
+    }
+
+    private org.springframework.test.web.servlet.ResultActions add(Long userId, Long productId, int quantity, double price) throws Exception {
+        AddToCartRequest request = new AddToCartRequest(userId, productId, "Product " + productId, quantity, Money.of(BigDecimal.valueOf(price)));
+        return mockMvc.perform(post("/cart/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+}
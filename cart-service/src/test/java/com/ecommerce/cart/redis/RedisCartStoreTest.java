@@ -0,0 +1,149 @@
+package com.ecommerce.cart.redis;
+
+import com.ecommerce.cart.support.EmbeddedRedis;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisCartStoreTest {
+
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisCartStore cartStore;
+
+    @BeforeAll
+    static void startRedis() {
+        redisTemplate = EmbeddedRedis.newTemplate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        cartStore = new RedisCartStore();
+        ReflectionTestUtils.setField(cartStore, "redisTemplate", redisTemplate);
+    }
+
+    @Test
+    void testMutationsRequireLoadedCart() {
+        // Test: Scripts refuse to create a partial cart before it is loaded
+        assertNull(cartStore.add(1L, 10L, 1, 500, "Product"));
+        assertNull(cartStore.setQuantity(1L, 10L, 1, true));
+        assertNull(cartStore.clear(1L));
+        assertEquals(0, cartStore.dirtyCount());
+    }
+
+    @Test
+    void testAddMaintainsTotals() {
+        // Test: Adding lines keeps line count, quantity and cent total in step
+        cartStore.hydrate(CartSnapshot.empty(1L));
+
+        cartStore.add(1L, 10L, 2, 1999, "Product A");
+        CartSnapshot snapshot = cartStore.add(1L, 11L, 1, 500, "Product B");
+        snapshot = cartStore.add(1L, 10L, 3, 2500, "Product A");
+
+        assertEquals(2, snapshot.lines().size());
+        assertEquals(6, snapshot.totalQuantity());
+        // Existing line keeps its original price
+        assertEquals(5 * 1999 + 500, snapshot.totalCents());
+        assertEquals(3, snapshot.version());
+        assertEquals(new CartSnapshot.Line(10L, "Product A", 5, 1999), snapshot.lines().get(0));
+
+        RedisCartStore.Totals totals = cartStore.totals(1L).orElseThrow();
+        assertEquals(new RedisCartStore.Totals(2, 6, 5 * 1999 + 500), totals);
+        assertEquals(List.of(1L), cartStore.popDirty(10));
+    }
+
+    @Test
+    void testSetQuantityAndRemove() {
+        // Test: Setting quantities adjusts totals by the delta and zero removes the line
+        cartStore.hydrate(CartSnapshot.empty(1L));
+        cartStore.add(1L, 10L, 2, 1000, "Product A");
+        cartStore.add(1L, 11L, 1, 250, "Product B");
+
+        CartSnapshot snapshot = cartStore.setQuantity(1L, 10L, 5, true);
+        assertEquals(5 * 1000 + 250, snapshot.totalCents());
+
+        snapshot = cartStore.setQuantity(1L, 11L, 0, true);
+        assertEquals(1, snapshot.lines().size());
+        assertEquals(5, snapshot.totalQuantity());
+        assertEquals(5000, snapshot.totalCents());
+
+        assertThrows(RuntimeException.class, () -> cartStore.setQuantity(1L, 99L, 1, true));
+        CartSnapshot unchanged = cartStore.setQuantity(1L, 99L, 0, false);
+        assertEquals(snapshot.version(), unchanged.version());
+    }
+
+    @Test
+    void testClearKeepsIdAndVersion() {
+        // Test: Clearing empties the lines but keeps the database id and advances the version
+        cartStore.hydrate(new CartSnapshot(1L, 42L, 7, List.of(new CartSnapshot.Line(10L, "Product A", 1, 100)), 1, 100));
+
+        CartSnapshot snapshot = cartStore.clear(1L);
+
+        assertEquals(42L, snapshot.cartId());
+        assertEquals(8, snapshot.version());
+        assertTrue(snapshot.lines().isEmpty());
+        assertEquals(0, snapshot.totalCents());
+    }
+
+    @Test
+    void testHydrateDoesNotOverwriteLiveCart() {
+        // Test: A second loader cannot replace a cart that already has live changes
+        assertTrue(cartStore.hydrate(CartSnapshot.empty(1L)));
+        cartStore.add(1L, 10L, 1, 100, "Product A");
+
+        assertFalse(cartStore.hydrate(CartSnapshot.empty(1L)));
+        assertEquals(1, cartStore.get(1L).orElseThrow().lines().size());
+    }
+
+    @Test
+    void testConcurrentAddsAreAtomic() throws Exception {
+        // Test: Parallel increments on the same line are not lost
+        cartStore.hydrate(CartSnapshot.empty(1L));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CartSnapshot>> futures = new java.util.ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> cartStore.add(1L, 10L, 1, 100, "Product A")));
+            }
+            for (Future<CartSnapshot> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        CartSnapshot snapshot = cartStore.get(1L).orElseThrow();
+        assertEquals(200, snapshot.lines().get(0).quantity());
+        assertEquals(200 * 100, snapshot.totalCents());
+        assertEquals(200, snapshot.version());
+    }
+
+    @Test
+    void testGetAllReadsSeveralCarts() {
+        // Test: Pipelined read returns null for carts that are not in Redis
+        cartStore.hydrate(CartSnapshot.empty(1L));
+        cartStore.add(1L, 10L, 1, 100, "Product A");
+
+        List<CartSnapshot> snapshots = cartStore.getAll(List.of(1L, 2L));
+
+        assertEquals(1, snapshots.get(0).lines().size());
+        assertNull(snapshots.get(1));
+
+        List<RedisCartStore.Totals> totals = cartStore.totalsAll(List.of(2L, 1L));
+        assertNull(totals.get(0));
+        assertEquals(new RedisCartStore.Totals(1, 1, 100), totals.get(1));
+    }
+}
@@ -1,21 +1,28 @@
 package com.ecommerce.cart.service;
 
 import com.ecommerce.cart.dto.AddToCartRequest;
+import com.ecommerce.cart.dto.CartBatchRequest;
+import com.ecommerce.cart.dto.CartBatchResult;
 import com.ecommerce.cart.dto.CartDto;
+import com.ecommerce.cart.dto.CartOperation;
 import com.ecommerce.cart.entity.Cart;
 import com.ecommerce.cart.entity.CartItem;
 import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.cart.repository.CartSummaryRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+import com.ecommerce.cart.exception.CartConflictException;
+import com.ecommerce.money.Money;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -27,12 +34,6 @@ class CartServiceImplTest {
     @Mock
     private CartRepository cartRepository;
 
-    @Mock
-    private RedisTemplate<String, Object> redisTemplate;
-
-    @Mock
-    private ValueOperations<String, Object> valueOperations;
-
     @InjectMocks
     private CartServiceImpl cartService;
 
@@ -44,7 +45,7 @@ class CartServiceImplTest {
         testCart = new Cart();
         testCart.setId(1L);
         testCart.setUserId(1L);
-        testCart.setTotalAmount(100.0);
+        testCart.setTotalAmount(Money.of("100.00"));
         testCart.setItems(new ArrayList<>());
 
         testItem = new CartItem();
@@ -52,10 +53,12 @@ class CartServiceImplTest {
         testItem.setProductId(1L);
         testItem.setProductName("Test Product");
         testItem.setQuantity(2);
-        testItem.setPrice(50.0);
+        testItem.setPrice(Money.of("50.00"));
         testItem.setCart(testCart);
 
         testCart.getItems().add(testItem);
+
+        ReflectionTestUtils.setField(cartService, "transactionTemplate", TransactionOperations.withoutTransaction());
     }
 
     @Test
@@ -65,7 +68,7 @@ class CartServiceImplTest {
 
         CartDto result = cartService.getCartByUserId(1L);
         assertEquals(1L, result.getUserId());
-        assertEquals(100.0, result.getTotalAmount());
+        assertEquals(Money.of("100.00"), result.getTotalAmount());
         assertEquals(1, result.getItems().size());
 
         // Test create new cart
@@ -74,7 +77,7 @@ class CartServiceImplTest {
 
         CartDto newCart = cartService.getCartByUserId(2L);
         assertEquals(2L, newCart.getUserId());
-        assertEquals(0.0, newCart.getTotalAmount());
+        assertEquals(Money.of("0.00"), newCart.getTotalAmount());
 
         // Test add new item to cart
         AddToCartRequest request = new AddToCartRequest();
@@ -82,9 +85,9 @@ class CartServiceImplTest {
         request.setProductId(2L);
         request.setProductName("Product 2");
         request.setQuantity(3);
-        request.setPrice(30.0);
+        request.setPrice(Money.of("30.00"));
 
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.findVersionedByUserId(1L)).thenReturn(Optional.of(testCart));
         when(cartRepository.save(any(Cart.class))).thenAnswer(i -> i.getArgument(0));
 
         CartDto addedCart = cartService.addToCart(request);
@@ -93,7 +96,7 @@ class CartServiceImplTest {
         // Test update existing item quantity
         request.setProductId(1L);
         request.setQuantity(5);
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.findVersionedByUserId(1L)).thenReturn(Optional.of(testCart));
 
         CartDto updatedCart = cartService.addToCart(request);
         assertNotNull(updatedCart);
@@ -102,7 +105,7 @@ class CartServiceImplTest {
     @Test
     void testUpdateAndRemoveCartItems() {
         // Test: Update item quantity, remove item with quantity 0, item not found
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.findVersionedByUserId(1L)).thenReturn(Optional.of(testCart));
         when(cartRepository.save(any(Cart.class))).thenAnswer(i -> i.getArgument(0));
 
         CartDto result = cartService.updateCartItem(1L, 1L, 5);
@@ -117,7 +120,7 @@ class CartServiceImplTest {
             cartService.updateCartItem(1L, 999L, 1));
 
         // Test cart not found
-        when(cartRepository.findByUserId(999L)).thenReturn(Optional.empty());
+        when(cartRepository.findVersionedByUserId(999L)).thenReturn(Optional.empty());
         assertThrows(RuntimeException.class, () ->
             cartService.updateCartItem(999L, 1L, 1));
     }
@@ -125,57 +128,146 @@ class CartServiceImplTest {
     @Test
     void testRemoveFromCartAndClear() {
         // Test: Remove item from cart, clear cart, cart not found
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.findVersionedByUserId(1L)).thenReturn(Optional.of(testCart));
         when(cartRepository.save(any(Cart.class))).thenAnswer(i -> i.getArgument(0));
 
         CartDto result = cartService.removeFromCart(1L, 1L);
         assertNotNull(result);
 
         // Test clear cart
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.findVersionedByUserId(1L)).thenReturn(Optional.of(testCart));
         cartService.clearCart(1L);
         verify(cartRepository, atLeastOnce()).save(any(Cart.class));
 
         // Test cart not found
-        when(cartRepository.findByUserId(999L)).thenReturn(Optional.empty());
+        when(cartRepository.findVersionedByUserId(999L)).thenReturn(Optional.empty());
         assertThrows(RuntimeException.class, () -> cartService.clearCart(999L));
     }
 
     @Test
     void testGetCartSummary() {
-        // Test: Get summary from cache, calculate and cache summary, empty cart summary
-        @SuppressWarnings("unchecked")
-        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-
-        Map<String, Object> cachedSummary = new HashMap<>();
-        cachedSummary.put("userId", 1L);
-        cachedSummary.put("totalItems", 1);
-        cachedSummary.put("totalQuantity", 2);
-        cachedSummary.put("totalAmount", 100.0);
-
-        when(valueOperations.get("cart:summary:1")).thenReturn(cachedSummary);
+        // Test: Summaries come from the cart counters, legacy rows are summed once, missing carts are empty
+        when(cartRepository.findSummariesByUserIdIn(List.of(1L))).thenReturn(List.of(new CartSummaryRow(1L, 1, 2, Money.of("100.00"))));
 
         Map<String, Object> result = cartService.getCartSummary(1L);
         assertEquals(1L, result.get("userId"));
         assertEquals(1, result.get("totalItems"));
+        assertEquals(2, result.get("totalQuantity"));
+        assertEquals(Money.of("100.00"), result.get("totalAmount"));
+        verify(cartRepository, never()).findWithItemsByUserId(anyLong());
 
-        // Test calculate new summary
-        when(valueOperations.get("cart:summary:2")).thenReturn(null);
-        when(cartRepository.findByUserId(2L)).thenReturn(Optional.of(testCart));
+        // Test legacy row without counters
+        when(cartRepository.findSummariesByUserIdIn(List.of(2L))).thenReturn(List.of(new CartSummaryRow(2L, null, null, Money.of("100.00"))));
+        when(cartRepository.findWithItemsByUserId(2L)).thenReturn(Optional.of(testCart));
 
         result = cartService.getCartSummary(2L);
-        assertNotNull(result);
-        verify(valueOperations).set(eq("cart:summary:2"), any(), eq(5L), eq(TimeUnit.MINUTES));
+        assertEquals(1, result.get("totalItems"));
+        assertEquals(2, result.get("totalQuantity"));
 
         // Test empty cart summary
-        when(valueOperations.get("cart:summary:3")).thenReturn(null);
-        when(cartRepository.findByUserId(3L)).thenReturn(Optional.empty());
+        when(cartRepository.findSummariesByUserIdIn(List.of(3L))).thenReturn(List.of());
 
         result = cartService.getCartSummary(3L);
         assertEquals(0, result.get("totalItems"));
         assertEquals(0, result.get("totalQuantity"));
-        assertEquals(0.0, result.get("totalAmount"));
+        assertEquals(Money.of("0.00"), result.get("totalAmount"));
     }
-}
 
+    @Test
+    void testGetCartSummaries() {
+        // Test: A batch is answered with one query, in request order
+        when(cartRepository.findSummariesByUserIdIn(List.of(5L, 4L))).thenReturn(List.of(
+                new CartSummaryRow(4L, 2, 3, Money.of("30.00")), new CartSummaryRow(5L, 1, 1, Money.of("10.00"))));
+
+        List<Map<String, Object>> result = cartService.getCartSummaries(List.of(5L, 4L));
+
+        assertEquals(5L, result.get(0).get("userId"));
+        assertEquals(Money.of("10.00"), result.get(0).get("totalAmount"));
+        assertEquals(4L, result.get(1).get("userId"));
+        assertEquals(3, result.get(1).get("totalQuantity"));
+        verify(cartRepository, times(1)).findSummariesByUserIdIn(any());
+    }
+
+    @Test
+    void testMutationsMaintainCounters() {
+        // Test: Adding a line updates the summary counters in the same change
+        when(cartRepository.findVersionedByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.save(any(Cart.class))).thenAnswer(i -> i.getArgument(0));
+
+        cartService.addToCart(new AddToCartRequest(1L, 2L, "Product 2", 3, Money.of("10.00")));
+
+        assertEquals(2, testCart.getItemCount());
+        assertEquals(5, testCart.getTotalQuantity());
+        assertEquals(Money.of("130.00"), testCart.getTotalAmount());
+    }
+
+    @Test
+    void testConflictsAreRetried() {
+        // Test: A stale version or a concurrent first insert is retried with a fresh read
+        AddToCartRequest request = new AddToCartRequest(1L, 2L, "Product 2", 1, Money.of("30.00"));
+        when(cartRepository.findVersionedByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.save(any(Cart.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Cart.class, 1L))
+                .thenThrow(new DataIntegrityViolationException("uk_cart_user_id"))
+                .thenAnswer(i -> i.getArgument(0));
+
+        CartDto result = cartService.addToCart(request);
+
+        assertNotNull(result);
+        verify(cartRepository, times(3)).findVersionedByUserId(1L);
+    }
+
+    @Test
+    void testRetriesAreBounded() {
+        // Test: Persistent conflicts surface as CartConflictException after the attempt limit
+        ReflectionTestUtils.setField(cartService, "maxAttempts", 3);
+        when(cartRepository.findVersionedByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.save(any(Cart.class))).thenThrow(new ObjectOptimisticLockingFailureException(Cart.class, 1L));
+
+        assertThrows(CartConflictException.class, () -> cartService.updateCartItem(1L, 1L, 4));
+        verify(cartRepository, times(3)).save(any(Cart.class));
+    }
+
+    @Test
+    void testApplyBatch() {
+        // Test: Valid operations are applied with a single save, invalid ones are reported per index
+        when(cartRepository.findVersionedByUserId(1L)).thenReturn(Optional.of(testCart));
+        when(cartRepository.save(any(Cart.class))).thenAnswer(i -> i.getArgument(0));
+
+        CartBatchRequest request = new CartBatchRequest(1L, List.of(
+                new CartOperation(CartOperation.Type.ADD, 2L, "Product 2", 2, Money.of("10.00")),
+                new CartOperation(CartOperation.Type.ADD, 2L, "Product 2", 1, Money.of("10.00")),
+                new CartOperation(CartOperation.Type.UPDATE, 1L, null, 4, null),
+                new CartOperation(CartOperation.Type.UPDATE, 99L, null, 1, null),
+                new CartOperation(CartOperation.Type.ADD, 3L, "Product 3", 1, null),
+                new CartOperation(CartOperation.Type.REMOVE, 98L, null, null, null)));
+
+        CartBatchResult result = cartService.applyBatch(request);
+
+        assertEquals(2, result.getCart().getItems().size());
+        assertEquals(Money.of("230.00"), result.getCart().getTotalAmount());
+        List<CartBatchResult.Status> statuses = result.getResults().stream().map(CartBatchResult.OperationResult::getStatus).toList();
+        assertEquals(List.of(CartBatchResult.Status.APPLIED, CartBatchResult.Status.APPLIED, CartBatchResult.Status.APPLIED,
+                CartBatchResult.Status.FAILED, CartBatchResult.Status.FAILED, CartBatchResult.Status.APPLIED), statuses);
+        assertEquals("Item not found in cart", result.getResults().get(3).getMessage());
+        assertEquals("Price must be positive", result.getResults().get(4).getMessage());
+        verify(cartRepository, times(1)).save(any(Cart.class));
+    }
+
+    @Test
+    void testApplyBatchWithNoValidOperationCreatesNoCart() {
+        // Test: An all-invalid batch for a user without a cart saves nothing and reports an empty cart with zero totals
+        when(cartRepository.findVersionedByUserId(2L)).thenReturn(Optional.empty());
+
+        CartBatchRequest request = new CartBatchRequest(2L, List.of(
+                new CartOperation(CartOperation.Type.UPDATE, 1L, null, 1, null),
+                new CartOperation(CartOperation.Type.ADD, 3L, "Product 3", 1, null)));
+
+        CartBatchResult result = cartService.applyBatch(request);
+
+        assertTrue(result.getResults().stream().allMatch(r -> r.getStatus() == CartBatchResult.Status.FAILED));
+        assertTrue(result.getCart().getItems().isEmpty());
+        assertEquals(Money.of("0.00"), result.getCart().getTotalAmount());
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.catalog.config;
+
+import com.ecommerce.cache.CacheValueCopier;
+import com.ecommerce.cache.TwoTierCache;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link TwoTierCache} with multi-key reads and writes. Keys are looked up in the local tier
+ * first; the rest go to Redis as one {@code MGET} and writes as one pipeline when a
+ * {@link RedisCacheBatch} is supplied, falling back to per-key calls otherwise.
+ */
+public class BatchingTwoTierCache extends TwoTierCache implements MultiGetCache {
+
+    private final RedisCacheBatch remoteBatch;
+
+    public BatchingTwoTierCache(String name, Cache remote, long localMaxSize, Duration localTtl,
+                                BiConsumer<String, String> invalidationPublisher, CacheValueCopier copier, RedisCacheBatch remoteBatch) {
+        super(name, remote, localMaxSize, localTtl, invalidationPublisher, copier);
+        this.remoteBatch = remoteBatch;
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> found = new LinkedHashMap<>();
+        List<Object> remoteKeys = new ArrayList<>();
+        for (Object key : keys) {
+            Object value = getLocal(localKey(key));
+            if (value != null) {
+                recordLocalHit();
+                found.put(key, value);
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+
+        List<Object> values;
+        if (remoteBatch != null) {
+            values = remoteBatch.multiGet(getName(), remoteKeys.stream().map(TwoTierCache::localKey).toList());
+        } else {
+            values = new ArrayList<>(remoteKeys.size());
+            for (Object key : remoteKeys) {
+                ValueWrapper wrapper = getRemote().get(key);
+                values.add(wrapper != null ? wrapper.get() : null);
+            }
+        }
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            Object value = values.get(i);
+            if (value != null) {
+                recordRemoteHit();
+                putLocal(localKey(remoteKeys.get(i)), value);
+                found.put(remoteKeys.get(i), value);
+            } else {
+                recordMiss();
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        Map<String, Object> present = new LinkedHashMap<>();
+        entries.forEach((key, value) -> {
+            if (value != null) {
+                present.put(localKey(key), value);
+            }
+        });
+        if (remoteBatch != null) {
+            remoteBatch.putAll(getName(), present);
+        } else {
+            entries.forEach((key, value) -> {
+                if (value != null) {
+                    getRemote().put(key, value);
+                }
+            });
+        }
+        present.forEach(this::putLocal);
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.catalog.config;
+
+import com.ecommerce.cache.CacheValueCopier;
+import com.ecommerce.cache.TwoTierCache;
+import com.ecommerce.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link TwoTierCacheManager} whose caches are {@link BatchingTwoTierCache}s, so the catalog's
+ * multi-id lookups can read and write many keys per Redis round trip.
+ */
+public class BatchingTwoTierCacheManager extends TwoTierCacheManager {
+
+    private final RedisCacheBatch remoteBatch;
+
+    public BatchingTwoTierCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate, String invalidationChannel,
+                                       long localMaxSize, Duration localTtl, CacheValueCopier copier, MeterRegistry meterRegistry,
+                                       RedisCacheBatch remoteBatch) {
+        super(remoteCacheManager, redisTemplate, invalidationChannel, localMaxSize, localTtl, copier, meterRegistry);
+        this.remoteBatch = remoteBatch;
+    }
+
+    @Override
+    protected TwoTierCache createCache(String name, Cache remote, long localMaxSize, Duration localTtl,
+                                       BiConsumer<String, String> invalidationPublisher, CacheValueCopier copier) {
+        return new BatchingTwoTierCache(name, remote, localMaxSize, localTtl, invalidationPublisher, copier, remoteBatch);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.catalog.config;
+
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A {@link Cache} that reads and writes many keys per round trip instead of one call per key.
+ */
+public interface MultiGetCache extends Cache {
+
+    /**
+     * Returns the cached value of every key that is present, keyed by the caller's key objects.
+     * Absent keys are left out of the map.
+     */
+    Map<Object, Object> getAll(Collection<?> keys);
+
+    /**
+     * Stores all entries; null values are skipped.
+     */
+    void putAll(Map<?, ?> entries);
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.catalog.config;
+
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-key access to the entries of a {@code RedisCache}: one {@code MGET} for reads and one
+ * pipelined batch of {@code SET ... PX} for writes. Keys, values and TTLs are encoded with the
+ * same {@link RedisCacheConfiguration} as the cache itself, so entries are interchangeable with
+ * those written by {@code @Cacheable}.
+ */
+public class RedisCacheBatch {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisCacheConfiguration cacheConfiguration;
+
+    public RedisCacheBatch(RedisConnectionFactory connectionFactory, RedisCacheConfiguration cacheConfiguration) {
+        this.connectionFactory = connectionFactory;
+        this.cacheConfiguration = cacheConfiguration;
+    }
+
+    /**
+     * Returns the values of the given keys in key order, with null for each key that is not cached.
+     */
+    public List<Object> multiGet(String cacheName, List<String> keys) {
+        byte[][] rawKeys = new byte[keys.size()][];
+        for (int i = 0; i < keys.size(); i++) {
+            rawKeys[i] = rawKey(cacheName, keys.get(i));
+        }
+        List<byte[]> rawValues;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            rawValues = connection.stringCommands().mGet(rawKeys);
+        }
+        List<Object> values = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] raw = rawValues != null && i < rawValues.size() ? rawValues.get(i) : null;
+            values.add(raw != null ? cacheConfiguration.getValueSerializationPair().read(ByteBuffer.wrap(raw)) : null);
+        }
+        return values;
+    }
+
+    public void putAll(String cacheName, Map<String, Object> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                    Object value = entry.getValue();
+                    if (value == null) {
+                        continue;
+                    }
+                    Duration ttl = cacheConfiguration.getTtlFunction().getTimeToLive(entry.getKey(), value);
+                    connection.stringCommands().set(rawKey(cacheName, entry.getKey()),
+                            ByteUtils.getBytes(cacheConfiguration.getValueSerializationPair().write(value)),
+                            ttl != null && !ttl.isZero() && !ttl.isNegative() ? Expiration.from(ttl) : Expiration.persistent(),
+                            SetOption.upsert());
+                }
+            } finally {
+                connection.closePipeline();
+            }
+        }
+    }
+
+    private byte[] rawKey(String cacheName, String key) {
+        String prefixed = cacheConfiguration.usePrefix() ? cacheConfiguration.getKeyPrefixFor(cacheName) + key : key;
+        return ByteUtils.getBytes(cacheConfiguration.getKeySerializationPair().write(prefixed));
+    }
+}
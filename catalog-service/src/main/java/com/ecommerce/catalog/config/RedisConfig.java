@@ -1,13 +1,25 @@
 package com.ecommerce.catalog.config;
 
+import com.ecommerce.cache.CacheValueCopier;
+import com.ecommerce.cache.TwoTierCacheManager;
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.search.ProductSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -19,18 +31,59 @@ import java.time.Duration;
 @ConditionalOnClass(RedisConnectionFactory.class)
 public class RedisConfig {
 
+    @Value("${cache.local.max-size:10000}")
+    private long localMaxSize = 10000;
+
+    @Value("${cache.local.ttl:60s}")
+    private Duration localTtl = Duration.ofSeconds(60);
+
+    @Value("${cache.invalidation.channel:catalog:cache:invalidation}")
+    private String invalidationChannel = "catalog:cache:invalidation";
+
     @Bean
     @ConditionalOnBean(RedisConnectionFactory.class)
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+        return RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(cacheConfiguration())
+                .build();
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    public TwoTierCacheManager cacheManager(RedisCacheManager redisCacheManager, RedisConnectionFactory connectionFactory,
+                                            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BatchingTwoTierCacheManager(redisCacheManager, new StringRedisTemplate(connectionFactory), invalidationChannel,
+                localMaxSize, localTtl, cacheValueCopier(), meterRegistry.getIfAvailable(),
+                new RedisCacheBatch(connectionFactory, cacheConfiguration()));
+    }
+
+    /**
+     * Copies of the entities the catalog caches, handed out on every local-tier hit.
+     */
+    static CacheValueCopier cacheValueCopier() {
+        return new CacheValueCopier()
+                .register(Product.class, Product::copy)
+                .register(Category.class, Category::copy);
+    }
+
+    @Bean
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoTierCacheManager cacheManager,
+                                                                            ProductSearchIndex productSearchIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+        container.addMessageListener(productSearchIndex, new ChannelTopic(productSearchIndex.getUpdateChannel()));
+        return container;
+    }
+
+    private RedisCacheConfiguration cacheConfiguration() {
+        return RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
                 .disableCachingNullValues();
-
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .build();
     }
 }
-
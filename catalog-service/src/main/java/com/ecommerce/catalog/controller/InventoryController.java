@@ -0,0 +1,78 @@
+package com.ecommerce.catalog.controller;
+
+import com.ecommerce.catalog.dto.ReservationDto;
+import com.ecommerce.catalog.dto.ReservationRequest;
+import com.ecommerce.catalog.dto.RestockRequest;
+import com.ecommerce.catalog.entity.StockReservation;
+import com.ecommerce.catalog.entity.StockReservationLine;
+import com.ecommerce.catalog.service.IInventoryService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/inventory")
+public class InventoryController {
+
+    @Autowired
+    private IInventoryService inventoryService;
+
+    @GetMapping("/{productId}")
+    public Map<String, Object> getAvailable(@PathVariable Long productId) {
+        Map<String, Object> availability = new LinkedHashMap<>();
+        availability.put("productId", productId);
+        availability.put("available", inventoryService.getAvailable(productId));
+        return availability;
+    }
+
+    @PostMapping("/{productId}/restock")
+    public Map<String, Object> restock(@PathVariable Long productId, @Valid @RequestBody RestockRequest request) {
+        Map<String, Object> availability = new LinkedHashMap<>();
+        availability.put("productId", productId);
+        availability.put("available", inventoryService.restock(productId, request.getQuantity()));
+        return availability;
+    }
+
+    @PostMapping("/reservations")
+    public ReservationDto reserve(@Valid @RequestBody ReservationRequest request) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (ReservationRequest.Item item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Math::addExact);
+        }
+        Duration ttl = request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : null;
+        return convertToDto(inventoryService.reserve(request.getOrderRef(), quantities, ttl));
+    }
+
+    @GetMapping("/reservations/{orderRef}")
+    public ReservationDto getReservation(@PathVariable String orderRef) {
+        return convertToDto(inventoryService.getReservation(orderRef));
+    }
+
+    @PostMapping("/reservations/{orderRef}/commit")
+    public ReservationDto commit(@PathVariable String orderRef) {
+        return convertToDto(inventoryService.commit(orderRef));
+    }
+
+    @PostMapping("/reservations/{orderRef}/release")
+    public ReservationDto release(@PathVariable String orderRef) {
+        return convertToDto(inventoryService.release(orderRef));
+    }
+
+    private ReservationDto convertToDto(StockReservation reservation) {
+        ReservationDto dto = new ReservationDto();
+        dto.setOrderRef(reservation.getOrderRef());
+        dto.setStatus(reservation.getStatus().toString());
+        dto.setExpiresAt(reservation.getExpiresAt());
+        // Lines are per shard; callers only care about the quantity per product
+        Map<Long, Integer> perProduct = new LinkedHashMap<>();
+        for (StockReservationLine line : reservation.getLines()) {
+            perProduct.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        perProduct.forEach((productId, quantity) -> dto.getItems().add(new ReservationRequest.Item(productId, quantity)));
+        return dto;
+    }
+}
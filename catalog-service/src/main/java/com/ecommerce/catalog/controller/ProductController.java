@@ -1,25 +1,57 @@
 package com.ecommerce.catalog.controller;
 
+import com.ecommerce.catalog.dto.BulkIngestResult;
 import com.ecommerce.catalog.dto.CategoryDto;
+import com.ecommerce.catalog.dto.ProductBatchDto;
 import com.ecommerce.catalog.dto.ProductDto;
 import com.ecommerce.catalog.entity.Category;
 import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.ingest.CsvProductRowReader;
+import com.ecommerce.catalog.ingest.JsonProductRowReader;
+import com.ecommerce.catalog.ingest.ProductRowReader;
+import com.ecommerce.catalog.service.IProductIngestService;
 import com.ecommerce.catalog.service.IProductService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/products")
 public class ProductController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
     @Autowired
     private IProductService productService;
 
+    @Autowired
+    private IProductIngestService productIngestService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     public List<ProductDto> getAllProducts() {
         return productService.getAllProducts().stream()
@@ -27,6 +59,72 @@ public class ProductController {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Looks up many products in one round trip. Products come back in request order (duplicates
+     * collapsed); ids with no product are listed in missingIds instead of failing the call.
+     */
+    @GetMapping("/batch")
+    public ProductBatchDto getProductsByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > ProductBatchDto.MAX_IDS) {
+            throw new IllegalArgumentException("At most " + ProductBatchDto.MAX_IDS + " ids per batch");
+        }
+        ProductBatchDto batch = new ProductBatchDto();
+        Set<Long> found = new HashSet<>();
+        for (Product product : productService.getProductsByIds(ids)) {
+            batch.getProducts().add(convertToDto(product));
+            found.add(product.getId());
+        }
+        ids.stream().filter(id -> id != null && !found.contains(id)).distinct().forEach(batch.getMissingIds()::add);
+        return batch;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"json".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            try (JsonGenerator generator = objectMapper.createGenerator(target)) {
+                generator.setRootValueSeparator(null);
+                if (!ndjson) {
+                    generator.writeStartArray();
+                }
+                long[] written = {0};
+                productService.exportProducts(since, product -> {
+                    try {
+                        generator.writeObject(convertToDto(product));
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                        if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/{id}")
     public ProductDto getProductById(@PathVariable Long id) {
         if (id <= 0) {
@@ -43,6 +141,16 @@ public class ProductController {
         return convertToDto(savedProduct);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public BulkIngestResult bulkIngest(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                       InputStream body) throws IOException {
+        try (ProductRowReader reader = TEXT_CSV.includes(contentType)
+                ? new CsvProductRowReader(body, contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8)
+                : new JsonProductRowReader(body, objectMapper)) {
+            return productIngestService.ingest(reader);
+        }
+    }
+
     @PutMapping("/{id}")
     public ProductDto updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDto productDto) {
         Product product = convertToEntity(productDto);
@@ -62,6 +170,12 @@ public class ProductController {
         dto.setName(product.getName());
         dto.setDescription(product.getDescription());
         dto.setPrice(product.getPrice());
+        dto.setStockQuantity(product.getStockQuantity());
+        dto.setInStock(product.getInStock());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setBrand(product.getBrand());
+        dto.setRating(product.getRating());
+        dto.setUpdatedAt(product.getUpdatedAt());
         if (product.getCategory() != null) {
             CategoryDto categoryDto = new CategoryDto();
             categoryDto.setId(product.getCategory().getId());
@@ -2,7 +2,11 @@ package com.ecommerce.catalog.controller;
 
 import com.ecommerce.catalog.dto.ProductDto;
 import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.search.FacetedPage;
+import com.ecommerce.catalog.search.KeysetPage;
+import com.ecommerce.catalog.search.SearchFacets;
 import com.ecommerce.catalog.service.IProductService;
+import com.ecommerce.money.Money;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -26,18 +30,38 @@ public class SearchController {
     @GetMapping("/products")
     public ResponseEntity<Map<String, Object>> searchProducts(
             @RequestParam(required = false) String name,
-            @RequestParam(required = false) Double minPrice,
-            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Money minPrice,
+            @RequestParam(required = false) Money maxPrice,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "offset") String paging,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String count,
+            @RequestParam(defaultValue = "false") boolean facets) {
+
+        if (cursor != null || "cursor".equalsIgnoreCase(paging)) {
+            Map<String, Object> response = searchProductsByCursor(name, minPrice, maxPrice, categoryId, size, sortBy, sortDirection, cursor, count);
+            if (facets) {
+                response.put("facets", productService.getSearchFacets(name, minPrice, maxPrice, categoryId));
+            }
+            return ResponseEntity.ok(response);
+        }
 
         Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
-        Page<Product> productPage = productService.searchProducts(name, minPrice, maxPrice, categoryId, pageable);
+        Page<Product> productPage;
+        SearchFacets searchFacets = null;
+        if (facets) {
+            FacetedPage<Product> facetedPage = productService.searchProductsWithFacets(name, minPrice, maxPrice, categoryId, pageable);
+            productPage = facetedPage.page();
+            searchFacets = facetedPage.facets();
+        } else {
+            productPage = productService.searchProducts(name, minPrice, maxPrice, categoryId, pageable);
+        }
 
         List<ProductDto> products = productPage.getContent().stream()
                 .map(this::convertToDto)
@@ -48,10 +72,36 @@ public class SearchController {
         response.put("currentPage", productPage.getNumber());
         response.put("totalItems", productPage.getTotalElements());
         response.put("totalPages", productPage.getTotalPages());
+        if (facets) {
+            response.put("facets", searchFacets);
+        }
 
         return ResponseEntity.ok(response);
     }
 
+    private Map<String, Object> searchProductsByCursor(String name, Money minPrice, Money maxPrice, Long categoryId, int size,
+                                                       String sortBy, String sortDirection, String cursor, String count) {
+        KeysetPage keysetPage = productService.searchProductsAfter(name, minPrice, maxPrice, categoryId, sortBy, sortDirection, cursor, size);
+
+        List<ProductDto> products = keysetPage.content().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("products", products);
+        response.put("size", size);
+        response.put("hasNext", keysetPage.hasNext());
+        response.put("nextCursor", keysetPage.nextCursor());
+
+        // Counting is opt-in in cursor mode: "exact" runs count(*), "estimate" answers from the search index
+        if ("exact".equalsIgnoreCase(count) || "estimate".equalsIgnoreCase(count)) {
+            boolean estimate = "estimate".equalsIgnoreCase(count);
+            response.put("totalItems", productService.countProducts(name, minPrice, maxPrice, categoryId, estimate));
+            response.put("totalItemsEstimated", estimate);
+        }
+        return response;
+    }
+
     @GetMapping("/products/by-category/{categoryId}")
     public ResponseEntity<List<ProductDto>> searchByCategory(@PathVariable Long categoryId) {
         List<Product> products = productService.getProductsByCategory(categoryId);
@@ -63,8 +113,8 @@ public class SearchController {
 
     @GetMapping("/products/by-price-range")
     public ResponseEntity<List<ProductDto>> searchByPriceRange(
-            @RequestParam Double minPrice,
-            @RequestParam Double maxPrice) {
+            @RequestParam Money minPrice,
+            @RequestParam Money maxPrice) {
         List<Product> products = productService.getProductsByPriceRange(minPrice, maxPrice);
         List<ProductDto> productDtos = products.stream()
                 .map(this::convertToDto)
@@ -0,0 +1,38 @@
+package com.ecommerce.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BulkIngestResult {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int received;
+    private int created;
+    private int failed;
+    private boolean errorsTruncated;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addError(int row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private int row;
+        private String message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchDto {
+
+    public static final int MAX_IDS = 500;
+
+    private List<ProductDto> products = new ArrayList<>();
+    private List<Long> missingIds = new ArrayList<>();
+}
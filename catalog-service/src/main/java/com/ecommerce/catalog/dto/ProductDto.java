@@ -1,10 +1,13 @@
 package com.ecommerce.catalog.dto;
 
+import com.ecommerce.money.Money;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -20,7 +23,7 @@ public class ProductDto {
 
     @NotNull(message = "Price is required")
     @Positive(message = "Price must be positive")
-    private Double price;
+    private Money price;
 
     private CategoryDto category;
 
@@ -34,4 +37,6 @@ public class ProductDto {
     @Min(value = 0, message = "Rating cannot be negative")
     @Max(value = 5, message = "Rating cannot exceed 5")
     private Double rating;
+
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.ecommerce.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationDto {
+    private String orderRef;
+    private String status;
+    private LocalDateTime expiresAt;
+    private List<ReservationRequest.Item> items = new ArrayList<>();
+}
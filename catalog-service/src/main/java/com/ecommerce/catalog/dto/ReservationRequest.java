@@ -0,0 +1,38 @@
+package com.ecommerce.catalog.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationRequest {
+
+    @NotBlank(message = "Order reference is required")
+    @Size(max = 100, message = "Order reference cannot exceed 100 characters")
+    private String orderRef;
+
+    @NotEmpty(message = "At least one item is required")
+    @Valid
+    private List<Item> items;
+
+    @Positive(message = "TTL must be positive")
+    private Long ttlSeconds;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+
+        @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.catalog.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RestockRequest {
+
+    // Units to add to the available stock; negative to write units off
+    @NotNull(message = "Quantity is required")
+    private Integer quantity;
+}
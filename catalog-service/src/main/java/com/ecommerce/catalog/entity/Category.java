@@ -19,4 +19,11 @@ public class Category {
     @NotBlank(message = "Category name is required")
     @Size(min = 2, max = 100, message = "Category name must be between 2 and 100 characters")
     private String name;
-}
\ No newline at end of file
+
+    /**
+     * Detached copy, so a cached category can be handed out without sharing the instance.
+     */
+    public Category copy() {
+        return new Category(id, name);
+    }
+}
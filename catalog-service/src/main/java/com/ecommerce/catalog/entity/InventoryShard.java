@@ -0,0 +1,38 @@
+package com.ecommerce.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One slice of a product's sellable stock. Each product's units are spread over several shard
+ * rows so concurrent reservations decrement different rows instead of queueing on one.
+ */
+@Entity
+@Table(name = "inventory_shard")
+@IdClass(InventoryShard.Key.class)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryShard {
+
+    @Id
+    private Long productId;
+
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Integer available;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long productId;
+        private Integer shard;
+    }
+}
@@ -1,18 +1,30 @@
 package com.ecommerce.catalog.entity;
 
+import com.ecommerce.money.Money;
+import com.ecommerce.money.MoneyConverter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_price_minor_id", columnList = "price_minor, id"),
+        @Index(name = "idx_product_name_id", columnList = "name, id"),
+        @Index(name = "idx_product_updated_at_id", columnList = "updatedAt, id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Product {
+    // Table-backed pooled ids (one round trip per 50 rows) keep Hibernate insert batching enabled; IDENTITY disables it
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_id")
+    @TableGenerator(name = "product_id", table = "id_generator", pkColumnName = "entity",
+            valueColumnName = "next_val", pkColumnValue = "product", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Product name is required")
@@ -24,7 +36,9 @@ public class Product {
 
     @NotNull(message = "Price is required")
     @Positive(message = "Price must be positive")
-    private Double price;
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "price_minor")
+    private Money price;
 
     @Min(value = 0, message = "Stock quantity cannot be negative")
     private Integer stockQuantity;
@@ -41,8 +55,24 @@ public class Product {
     @JoinColumn(name = "category_id")
     private Category category;
 
+    private LocalDateTime updatedAt;
+
     @PrePersist
     @PreUpdate
+    protected void onSave() {
+        updateStockStatus();
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Detached copy, so a cached product can be handed out without sharing the instance;
+     * the category is copied as well, the immutable fields are shared.
+     */
+    public Product copy() {
+        return new Product(id, name, description, price, stockQuantity, inStock, imageUrl, brand, rating,
+                category != null ? category.copy() : null, updatedAt);
+    }
+
     protected void updateStockStatus() {
         this.inStock = this.stockQuantity != null && this.stockQuantity > 0;
     }
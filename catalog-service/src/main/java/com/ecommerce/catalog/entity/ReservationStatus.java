@@ -0,0 +1,8 @@
+package com.ecommerce.catalog.entity;
+
+public enum ReservationStatus {
+    RESERVED,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Units held for one order. RESERVED units are out of the shards but not yet sold; COMMITTED
+ * makes the sale final, RELEASED and EXPIRED put the units back.
+ */
+@Entity
+@Table(name = "stock_reservation", indexes = {
+        @Index(name = "idx_stock_reservation_status_expires", columnList = "status, expiresAt")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String orderRef;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime createdAt;
+
+    @OneToMany(mappedBy = "reservation", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    private List<StockReservationLine> lines = new ArrayList<>();
+
+    public void addLine(Long productId, int shard, int quantity) {
+        lines.add(new StockReservationLine(null, this, productId, shard, quantity));
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
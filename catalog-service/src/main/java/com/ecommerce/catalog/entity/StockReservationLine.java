@@ -0,0 +1,38 @@
+package com.ecommerce.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Units of one product taken from one shard; releasing the reservation returns them to that shard.
+ */
+@Entity
+@Table(name = "stock_reservation_line")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservationLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "reservation_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private StockReservation reservation;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Integer quantity;
+}
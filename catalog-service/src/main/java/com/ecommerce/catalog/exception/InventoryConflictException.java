@@ -0,0 +1,7 @@
+package com.ecommerce.catalog.exception;
+
+public class InventoryConflictException extends RuntimeException {
+    public InventoryConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.catalog.ingest;
+
+import com.ecommerce.catalog.dto.CategoryDto;
+import com.ecommerce.catalog.dto.ProductDto;
+import com.ecommerce.money.Money;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reads RFC 4180 style CSV with a header row. Recognised columns are name, description,
+ * price, stockQuantity, imageUrl, brand, rating and categoryId (case-insensitive); others are ignored.
+ */
+public class CsvProductRowReader implements ProductRowReader {
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int row;
+
+    public CsvProductRowReader(InputStream in, Charset charset) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, charset), 64 * 1024);
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV payload is missing a header row");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new IllegalArgumentException("CSV header must contain at least name and price columns");
+        }
+    }
+
+    @Override
+    public IngestRow next() throws IOException {
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        row++;
+        try {
+            ProductDto dto = new ProductDto();
+            dto.setName(text(record, "name"));
+            dto.setDescription(text(record, "description"));
+            dto.setPrice(number(record, "price", Money::of));
+            dto.setStockQuantity(number(record, "stockquantity", Integer::valueOf));
+            dto.setImageUrl(text(record, "imageurl"));
+            dto.setBrand(text(record, "brand"));
+            dto.setRating(number(record, "rating", Double::valueOf));
+            Long categoryId = number(record, "categoryid", Long::valueOf);
+            if (categoryId != null) {
+                CategoryDto category = new CategoryDto();
+                category.setId(categoryId);
+                dto.setCategory(category);
+            }
+            return IngestRow.parsed(row, dto);
+        } catch (NumberFormatException e) {
+            return IngestRow.failed(row, "Malformed row: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String text(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private <T> T number(List<String> record, String column, Function<String, T> parser) {
+        String value = text(record, column);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (IllegalArgumentException e) {
+            // Also covers amounts finer than the currency's minor unit
+            throw new NumberFormatException("invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!read) {
+            return null;
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field after row " + row);
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
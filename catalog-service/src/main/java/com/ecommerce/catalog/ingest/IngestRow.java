@@ -0,0 +1,18 @@
+package com.ecommerce.catalog.ingest;
+
+import com.ecommerce.catalog.dto.ProductDto;
+
+/**
+ * One parsed row of a bulk payload. {@code error} is set when the row could not be
+ * turned into a {@link ProductDto}, in which case {@code product} is null.
+ */
+public record IngestRow(int row, ProductDto product, String error) {
+
+    public static IngestRow parsed(int row, ProductDto product) {
+        return new IngestRow(row, product, null);
+    }
+
+    public static IngestRow failed(int row, String error) {
+        return new IngestRow(row, null, error);
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.catalog.ingest;
+
+import com.ecommerce.catalog.dto.ProductDto;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a top-level JSON array of products element by element with a streaming parser.
+ * Elements with wrong value types are reported as row errors; broken JSON syntax ends the read.
+ */
+public class JsonProductRowReader implements ProductRowReader {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private int row;
+
+    public JsonProductRowReader(InputStream in, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(in);
+        if (nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Expected a JSON array of products");
+        }
+    }
+
+    @Override
+    public IngestRow next() throws IOException {
+        JsonToken token = nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        row++;
+        JsonNode node;
+        try {
+            node = parser.readValueAsTree();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON at row " + row + ": " + e.getOriginalMessage());
+        }
+        try {
+            return IngestRow.parsed(row, objectMapper.treeToValue(node, ProductDto.class));
+        } catch (JsonProcessingException e) {
+            return IngestRow.failed(row, "Malformed row: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private JsonToken nextToken() throws IOException {
+        try {
+            return parser.nextToken();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON after row " + row + ": " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.catalog.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull-style reader over a bulk product payload, so rows are parsed one at a time
+ * instead of materialising the whole request body.
+ */
+public interface ProductRowReader extends Closeable {
+
+    /**
+     * Returns the next row, or null once the payload is exhausted.
+     *
+     * @throws IllegalArgumentException if the payload is malformed beyond the current row
+     */
+    IngestRow next() throws IOException;
+}
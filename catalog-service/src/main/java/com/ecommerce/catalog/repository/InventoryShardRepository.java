@@ -0,0 +1,56 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.entity.InventoryShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface InventoryShardRepository extends JpaRepository<InventoryShard, InventoryShard.Key> {
+
+    /**
+     * Takes units from one shard only if it still holds enough; returns 1 when taken, 0 otherwise.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventoryShard s SET s.available = s.available - :quantity " +
+           "WHERE s.productId = :productId AND s.shard = :shard AND s.available >= :quantity")
+    int tryTake(@Param("productId") Long productId, @Param("shard") int shard, @Param("quantity") int quantity);
+
+    /**
+     * Plain insert rather than save(): with an assigned id save() merges, and a merge racing
+     * another first reservation would overwrite the shard it created instead of failing.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO inventory_shard (product_id, shard, available) VALUES (:productId, :shard, :available)",
+           nativeQuery = true)
+    int insertShard(@Param("productId") Long productId, @Param("shard") int shard, @Param("available") int available);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventoryShard s SET s.available = s.available + :quantity " +
+           "WHERE s.productId = :productId AND s.shard = :shard")
+    int giveBack(@Param("productId") Long productId, @Param("shard") int shard, @Param("quantity") int quantity);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InventoryShard s WHERE s.productId = :productId ORDER BY s.shard")
+    List<InventoryShard> lockByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT COALESCE(SUM(s.available), 0) FROM InventoryShard s WHERE s.productId = :productId")
+    long sumAvailable(@Param("productId") Long productId);
+
+    boolean existsByProductId(Long productId);
+
+    /**
+     * Shard totals of the products whose row no longer shows them. Read from the shards themselves,
+     * so a change made on any node, or before a restart, is still found by the next sync.
+     */
+    @Query("SELECT new com.ecommerce.catalog.repository.StockTotal(s.productId, SUM(s.available)) " +
+           "FROM InventoryShard s, Product p WHERE p.id = s.productId " +
+           "GROUP BY s.productId, p.stockQuantity " +
+           "HAVING p.stockQuantity IS NULL OR SUM(s.available) <> p.stockQuantity ORDER BY s.productId")
+    List<StockTotal> findOutOfSync(Pageable pageable);
+}
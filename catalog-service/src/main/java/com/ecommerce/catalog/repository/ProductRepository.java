@@ -1,18 +1,48 @@
 package com.ecommerce.catalog.repository;
 
 import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.money.Money;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     Page<Product> findByNameContaining(String name, Pageable pageable);
     Page<Product> findByCategory_Id(Long categoryId, Pageable pageable);
-    Page<Product> findByPriceBetween(Double minPrice, Double maxPrice, Pageable pageable);
-    Page<Product> findByNameContainingAndCategory_IdAndPriceBetween(String name, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable);
+    Page<Product> findByPriceBetween(Money minPrice, Money maxPrice, Pageable pageable);
+    Page<Product> findByNameContainingAndCategory_IdAndPriceBetween(String name, Long categoryId, Money minPrice, Money maxPrice, Pageable pageable);
     List<Product> findByCategory_Id(Long categoryId);
-    List<Product> findByPriceBetween(Double minPrice, Double maxPrice);
-}
+    List<Product> findByPriceBetween(Money minPrice, Money maxPrice);
+    @EntityGraph(attributePaths = "category")
+    Slice<Product> findByIdGreaterThan(Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category ORDER BY p.id")
+    Stream<Product> streamAll();
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.updatedAt >= :since ORDER BY p.id")
+    Stream<Product> streamUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = :stock, p.inStock = :inStock, p.updatedAt = :now WHERE p.id = :id")
+    int updateStock(@Param("id") Long id, @Param("stock") int stock, @Param("inStock") boolean inStock, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.search.SearchCursor;
+import com.ecommerce.money.Money;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+    Page<ProductRow> findRows(String name, Long categoryId, Money minPrice, Money maxPrice, Pageable pageable);
+    List<ProductRow> findRowsByIds(Collection<Long> ids);
+    List<ProductRow> findNextPage(String name, Long categoryId, Money minPrice, Money maxPrice,
+                               String sortBy, boolean ascending, SearchCursor after, int limit);
+    long countMatching(String name, Long categoryId, Money minPrice, Money maxPrice);
+}
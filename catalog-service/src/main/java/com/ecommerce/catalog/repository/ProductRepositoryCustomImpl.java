@@ -0,0 +1,133 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.search.SearchCursor;
+import com.ecommerce.money.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductRow> findRows(String name, Long categoryId, Money minPrice, Money maxPrice, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductRow> query = cb.createQuery(ProductRow.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(row(cb, product)).where(filters(cb, product, name, categoryId, minPrice, maxPrice).toArray(new Predicate[0]));
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            Path<?> property = product.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(property) : cb.desc(property));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<ProductRow> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        // The count query only runs when the page is full, i.e. when the total is not implied by the page itself
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable,
+                () -> countMatching(name, categoryId, minPrice, maxPrice));
+    }
+
+    @Override
+    public List<ProductRow> findRowsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductRow> query = cb.createQuery(ProductRow.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(row(cb, product)).where(product.get("id").in(ids));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<ProductRow> findNextPage(String name, Long categoryId, Money minPrice, Money maxPrice,
+                                         String sortBy, boolean ascending, SearchCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductRow> query = cb.createQuery(ProductRow.class);
+        Root<Product> product = query.from(Product.class);
+
+        List<Predicate> predicates = filters(cb, product, name, categoryId, minPrice, maxPrice);
+        Path<Comparable<Object>> sortKey = product.get(sortBy);
+        Path<Long> id = product.get("id");
+        if (after != null) {
+            // Seek past (lastValue, lastId): rows strictly after the last one in (sortKey, id) order
+            @SuppressWarnings("unchecked")
+            Comparable<Object> lastValue = (Comparable<Object>) after.lastValue();
+            if ("id".equals(sortBy)) {
+                predicates.add(ascending ? cb.greaterThan(id, after.lastId()) : cb.lessThan(id, after.lastId()));
+            } else if (ascending) {
+                predicates.add(cb.or(cb.greaterThan(sortKey, lastValue),
+                        cb.and(cb.equal(sortKey, lastValue), cb.greaterThan(id, after.lastId()))));
+            } else {
+                predicates.add(cb.or(cb.lessThan(sortKey, lastValue),
+                        cb.and(cb.equal(sortKey, lastValue), cb.lessThan(id, after.lastId()))));
+            }
+        }
+
+        query.select(row(cb, product)).where(predicates.toArray(new Predicate[0]));
+        if ("id".equals(sortBy)) {
+            query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            query.orderBy(ascending ? cb.asc(sortKey) : cb.desc(sortKey), ascending ? cb.asc(id) : cb.desc(id));
+        }
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public long countMatching(String name, Long categoryId, Money minPrice, Money maxPrice) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(cb.count(product)).where(filters(cb, product, name, categoryId, minPrice, maxPrice).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private CompoundSelection<ProductRow> row(CriteriaBuilder cb, Root<Product> product) {
+        // category.id resolves to the foreign key column, so no join to category is emitted
+        return cb.construct(ProductRow.class,
+                product.get("id"), product.get("name"), product.get("description"), product.get("price"),
+                product.get("stockQuantity"), product.get("inStock"), product.get("imageUrl"), product.get("brand"),
+                product.get("rating"), product.get("category").get("id"), product.get("updatedAt"));
+    }
+
+    private List<Predicate> filters(CriteriaBuilder cb, Root<Product> product, String name, Long categoryId,
+                                    Money minPrice, Money maxPrice) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (name != null) {
+            predicates.add(cb.like(product.get("name"), "%" + name + "%"));
+        }
+        if (categoryId != null) {
+            predicates.add(cb.equal(product.get("category").get("id"), categoryId));
+        }
+        if (minPrice != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.get("price"), minPrice));
+        }
+        if (maxPrice != null) {
+            predicates.add(cb.lessThanOrEqualTo(product.get("price"), maxPrice));
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.money.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat read projection of a product: the category is carried as its id only, so list queries
+ * need neither a join nor per-row category selects. Names are filled in from the category dictionary.
+ */
+public record ProductRow(Long id, String name, String description, Money price, Integer stockQuantity, Boolean inStock,
+                         String imageUrl, String brand, Double rating, Long categoryId, LocalDateTime updatedAt) {
+
+    public Product toProduct(Category category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(price);
+        product.setStockQuantity(stockQuantity);
+        product.setInStock(inStock);
+        product.setImageUrl(imageUrl);
+        product.setBrand(brand);
+        product.setRating(rating);
+        product.setCategory(category);
+        product.setUpdatedAt(updatedAt);
+        return product;
+    }
+}
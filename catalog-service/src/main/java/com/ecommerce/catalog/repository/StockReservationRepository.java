@@ -0,0 +1,34 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.entity.ReservationStatus;
+import com.ecommerce.catalog.entity.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    Optional<StockReservation> findByOrderRef(String orderRef);
+
+    /**
+     * Moves a reservation between states only if it is still in {@code from}; the row update is
+     * the arbiter between racing commit, release and expiry, so units are returned at most once.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id, @Param("from") ReservationStatus from, @Param("to") ReservationStatus to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = com.ecommerce.catalog.entity.ReservationStatus.COMMITTED " +
+           "WHERE r.id = :id AND r.status = com.ecommerce.catalog.entity.ReservationStatus.RESERVED AND r.expiresAt > :now")
+    int commitIfLive(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = :status AND r.expiresAt <= :now ORDER BY r.expiresAt")
+    List<Long> findIdsExpiredBefore(@Param("status") ReservationStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+}
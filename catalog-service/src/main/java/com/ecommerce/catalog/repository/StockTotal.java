@@ -0,0 +1,7 @@
+package com.ecommerce.catalog.repository;
+
+/**
+ * Units available over all shards of one product, as read by the stock sync.
+ */
+public record StockTotal(Long productId, long available) {
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.catalog.search;
+
+import com.ecommerce.money.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable facet tallies. The index keeps one instance for the whole catalog, adjusted on every
+ * put/remove, and fills a fresh one while scanning the matches of a filtered search.
+ */
+final class FacetCounter {
+
+    static final double[] PRICE_BOUNDS = {10, 25, 50, 100, 250, 500, 1000};
+    // The same bounds in minor units, so bucketing a price is a long comparison
+    private static final long[] PRICE_BOUNDS_MINOR = Arrays.stream(PRICE_BOUNDS)
+            .mapToLong(bound -> Money.of(BigDecimal.valueOf(bound)).minorUnits())
+            .toArray();
+    static final int RATING_BANDS = 5;
+    static final int TOP_BRANDS = 20;
+
+    private final Map<Long, Long> categories = new HashMap<>();
+    private final Map<String, Long> brands = new HashMap<>();
+    private final long[] price = new long[PRICE_BOUNDS.length + 1];
+    private final long[] rating = new long[RATING_BANDS];
+
+    void add(IndexedProduct document) {
+        adjust(document, 1);
+    }
+
+    void remove(IndexedProduct document) {
+        adjust(document, -1);
+    }
+
+    private void adjust(IndexedProduct document, long delta) {
+        if (document.categoryId() != null) {
+            categories.merge(document.categoryId(), delta, FacetCounter::sumOrDrop);
+        }
+        if (document.brand() != null && !document.brand().isBlank()) {
+            brands.merge(document.brand(), delta, FacetCounter::sumOrDrop);
+        }
+        if (document.price() != null) {
+            price[priceBucket(document.price())] += delta;
+        }
+        if (document.rating() != null) {
+            rating[ratingBand(document.rating())] += delta;
+        }
+    }
+
+    SearchFacets toFacets() {
+        List<SearchFacets.CategoryFacet> categoryFacets = new ArrayList<>(categories.size());
+        categories.forEach((id, count) -> categoryFacets.add(new SearchFacets.CategoryFacet(id, null, count)));
+        categoryFacets.sort(Comparator.comparingLong(SearchFacets.CategoryFacet::count).reversed()
+                .thenComparing(SearchFacets.CategoryFacet::id));
+
+        List<SearchFacets.BrandFacet> brandFacets = brands.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_BRANDS)
+                .map(e -> new SearchFacets.BrandFacet(e.getKey(), e.getValue()))
+                .toList();
+
+        List<SearchFacets.RangeFacet> priceFacets = new ArrayList<>();
+        for (int i = 0; i < price.length; i++) {
+            if (price[i] > 0) {
+                priceFacets.add(new SearchFacets.RangeFacet(i == 0 ? null : PRICE_BOUNDS[i - 1],
+                        i == PRICE_BOUNDS.length ? null : PRICE_BOUNDS[i], price[i]));
+            }
+        }
+
+        List<SearchFacets.RangeFacet> ratingFacets = new ArrayList<>();
+        for (int i = rating.length - 1; i >= 0; i--) {
+            if (rating[i] > 0) {
+                ratingFacets.add(new SearchFacets.RangeFacet((double) i, (double) i + 1, rating[i]));
+            }
+        }
+        return new SearchFacets(categoryFacets, brandFacets, priceFacets, ratingFacets);
+    }
+
+    static int priceBucket(Money value) {
+        // Buckets are [bound(i-1), bound(i)); the first is open below, the last open above
+        int bucket = 0;
+        while (bucket < PRICE_BOUNDS_MINOR.length && value.minorUnits() >= PRICE_BOUNDS_MINOR[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    static int ratingBand(double value) {
+        // Bands are [n, n + 1) except the top one, which also takes a perfect 5
+        return (int) Math.max(0, Math.min(RATING_BANDS - 1, Math.floor(value)));
+    }
+
+    private static Long sumOrDrop(Long current, Long delta) {
+        long sum = current + delta;
+        return sum == 0 ? null : sum;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.catalog.search;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * A search page together with the facets of the whole result set; facets are null while
+ * the search index is not ready.
+ */
+public record FacetedPage<T>(Page<T> page, SearchFacets facets) {
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.catalog.search;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.money.Money;
+
+import java.util.Set;
+
+record IndexedProduct(Long id, String name, Long categoryId, Money price, String brand, Double rating, Set<String> tokens) {
+
+    static IndexedProduct from(Product product) {
+        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        return new IndexedProduct(
+                product.getId(),
+                product.getName(),
+                categoryId,
+                product.getPrice(),
+                product.getBrand(),
+                product.getRating(),
+                Set.copyOf(ProductSearchIndex.tokenize(product.getName())));
+    }
+}
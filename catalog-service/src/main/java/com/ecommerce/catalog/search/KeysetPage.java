@@ -0,0 +1,8 @@
+package com.ecommerce.catalog.search;
+
+import com.ecommerce.catalog.entity.Product;
+
+import java.util.List;
+
+public record KeysetPage(List<Product> content, String nextCursor, boolean hasNext) {
+}
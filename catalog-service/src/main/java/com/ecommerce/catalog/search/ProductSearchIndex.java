@@ -0,0 +1,458 @@
+package com.ecommerce.catalog.search;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory inverted index over product names, categories and prices.
+ * Name queries match every query token as a prefix of some name token, so "lap gam"
+ * finds "Gaming Laptop". The index is rebuilt from the database on startup and kept
+ * current by {@link #index(Product)} / {@link #remove(Long)}; until the first rebuild
+ * completes {@link #isReady()} is false and callers should fall back to the repository.
+ * Every node holds its own index, so local changes are announced on a Redis pub/sub
+ * channel; other nodes reload the announced products from the database and re-index
+ * them, and messages from this node are ignored. A lost message leaves a peer stale
+ * until its next rebuild, the same trade-off as the cache invalidation channel.
+ */
+@Component
+public class ProductSearchIndex implements MessageListener {
+
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "price", "rating", "brand");
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Absent when Redis is disabled, e.g. in tests; the index then stays node-local
+    @Autowired(required = false)
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${catalog.search.index.channel:catalog:search:index}")
+    private String updateChannel = "catalog:search:index";
+
+    @Value("${catalog.search.index.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup = true;
+
+    @Value("${catalog.search.index.rebuild-batch-size:1000}")
+    private int rebuildBatchSize = 1000;
+
+    private IndexData data = new IndexData();
+    private List<Map.Entry<Long, IndexedProduct>> pendingDuringRebuild;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData fresh = new IndexData();
+        try {
+            Long lastId = 0L;
+            Slice<Product> slice;
+            do {
+                slice = productRepository.findByIdGreaterThan(lastId, PageRequest.of(0, rebuildBatchSize, Sort.by("id")));
+                for (Product product : slice.getContent()) {
+                    fresh.put(IndexedProduct.from(product));
+                    lastId = product.getId();
+                }
+            } while (slice.hasNext());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, IndexedProduct> pending : pendingDuringRebuild) {
+                if (pending.getValue() != null) {
+                    fresh.put(pending.getValue());
+                } else {
+                    fresh.remove(pending.getKey());
+                }
+            }
+            pendingDuringRebuild = null;
+            data = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Rebuilt product search index with {} products in {} ms", fresh.documents.size(), System.currentTimeMillis() - start);
+    }
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        indexLocal(product);
+        publishUpdate(List.of(product.getId()));
+    }
+
+    /**
+     * Indexes a batch of saved products and announces them to other nodes in one message.
+     */
+    public void indexAll(Collection<Product> products) {
+        List<Long> ids = new ArrayList<>(products.size());
+        for (Product product : products) {
+            if (product != null && product.getId() != null) {
+                indexLocal(product);
+                ids.add(product.getId());
+            }
+        }
+        publishUpdate(ids);
+    }
+
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        removeLocal(id);
+        publishUpdate(List.of(id));
+    }
+
+    /**
+     * Applies a peer's announcement: each listed product is re-read from the database, so the
+     * index converges on the committed state whatever order announcements arrive in.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 2);
+        if (parts.length < 2 || nodeId.equals(parts[0]) || parts[1].isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String id : parts[1].split(",")) {
+            ids.add(Long.valueOf(id));
+        }
+        try {
+            refresh(ids);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply search index update for products {}: {}", ids, e.getMessage());
+        }
+    }
+
+    public String getUpdateChannel() {
+        return updateChannel;
+    }
+
+    private void refresh(List<Long> ids) {
+        Set<Long> missing = new HashSet<>(ids);
+        for (Product product : productRepository.findAllById(ids)) {
+            indexLocal(product);
+            missing.remove(product.getId());
+        }
+        missing.forEach(this::removeLocal);
+    }
+
+    private void indexLocal(Product product) {
+        IndexedProduct document = IndexedProduct.from(product);
+        lock.writeLock().lock();
+        try {
+            data.put(document);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(new AbstractMap.SimpleImmutableEntry<>(document.id(), document));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocal(Long id) {
+        lock.writeLock().lock();
+        try {
+            data.remove(id);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(new AbstractMap.SimpleImmutableEntry<>(id, null));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void publishUpdate(List<Long> ids) {
+        if (redisTemplate == null || ids.isEmpty()) {
+            return;
+        }
+        StringJoiner body = new StringJoiner(",", nodeId + "\n", "");
+        ids.forEach(id -> body.add(String.valueOf(id)));
+        try {
+            redisTemplate.convertAndSend(updateChannel, body.toString());
+        } catch (Exception e) {
+            // Peers catch up on their next rebuild if the broadcast is lost
+            logger.warn("Failed to publish search index update for products {}: {}", ids, e.getMessage());
+        }
+    }
+
+    public boolean supports(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Page<Long> search(String name, Long categoryId, Money minPrice, Money maxPrice, Pageable pageable) {
+        return search(name, categoryId, minPrice, maxPrice, pageable, null);
+    }
+
+    /**
+     * Searches and tallies facets over every match in the same pass over the candidates.
+     */
+    public FacetedPage<Long> searchWithFacets(String name, Long categoryId, Money minPrice, Money maxPrice, Pageable pageable) {
+        FacetCounter facets = new FacetCounter();
+        Page<Long> ids = search(name, categoryId, minPrice, maxPrice, pageable, facets);
+        return new FacetedPage<>(ids, facets.toFacets());
+    }
+
+    public SearchFacets facets(String name, Long categoryId, Money minPrice, Money maxPrice) {
+        if (name == null && categoryId == null && minPrice == null && maxPrice == null) {
+            // Whole-catalog facets are maintained incrementally, so no scan is needed
+            lock.readLock().lock();
+            try {
+                return data.totals.toFacets();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return searchWithFacets(name, categoryId, minPrice, maxPrice, PageRequest.of(0, 1)).facets();
+    }
+
+    private Page<Long> search(String name, Long categoryId, Money minPrice, Money maxPrice, Pageable pageable, FacetCounter facets) {
+        List<String> queryTokens = name != null ? tokenize(name) : List.of();
+        Comparator<IndexedProduct> comparator = comparator(pageable.getSort());
+        // Only the first offset + size matches in sort order are needed, so keep them in a bounded max-heap
+        int limit = pageable.isPaged() ? (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize()) : Integer.MAX_VALUE;
+        PriorityQueue<IndexedProduct> top = new PriorityQueue<>(comparator.reversed());
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(queryTokens, categoryId, minPrice, maxPrice)) {
+                IndexedProduct document = data.documents.get(id);
+                if (document == null || !matches(document, queryTokens, categoryId, minPrice, maxPrice)) {
+                    continue;
+                }
+                total++;
+                if (facets != null) {
+                    facets.add(document);
+                }
+                if (top.size() < limit) {
+                    top.add(document);
+                } else if (comparator.compare(document, top.peek()) < 0) {
+                    top.poll();
+                    top.add(document);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<IndexedProduct> ordered = new ArrayList<>(top);
+        ordered.sort(comparator);
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), ordered.size()) : 0;
+        List<Long> ids = new ArrayList<>(ordered.size() - from);
+        for (IndexedProduct document : ordered.subList(from, ordered.size())) {
+            ids.add(document.id());
+        }
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    public long count(String name, Long categoryId, Money minPrice, Money maxPrice) {
+        return search(name, categoryId, minPrice, maxPrice, PageRequest.of(0, 1)).getTotalElements();
+    }
+
+    private Collection<Long> candidates(List<String> queryTokens, Long categoryId, Money minPrice, Money maxPrice) {
+        if (!queryTokens.isEmpty()) {
+            String longest = queryTokens.stream().max(Comparator.comparingInt(String::length)).get();
+            Collection<Set<Long>> postings = data.postings.subMap(longest, true, longest + Character.MAX_VALUE, true).values();
+            if (postings.size() == 1) {
+                return postings.iterator().next();
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Set<Long> posting : postings) {
+                ids.addAll(posting);
+            }
+            return ids;
+        }
+        if (categoryId != null) {
+            return data.byCategory.getOrDefault(categoryId, Set.of());
+        }
+        if (minPrice != null || maxPrice != null) {
+            NavigableMap<Money, Set<Long>> range = data.byPrice;
+            if (minPrice != null) {
+                range = range.tailMap(minPrice, true);
+            }
+            if (maxPrice != null) {
+                range = range.headMap(maxPrice, true);
+            }
+            List<Long> ids = new ArrayList<>();
+            range.values().forEach(ids::addAll);
+            return ids;
+        }
+        return data.documents.keySet();
+    }
+
+    private boolean matches(IndexedProduct document, List<String> queryTokens, Long categoryId, Money minPrice, Money maxPrice) {
+        if (categoryId != null && !categoryId.equals(document.categoryId())) {
+            return false;
+        }
+        if (minPrice != null && (document.price() == null || document.price().compareTo(minPrice) < 0)) {
+            return false;
+        }
+        if (maxPrice != null && (document.price() == null || document.price().compareTo(maxPrice) > 0)) {
+            return false;
+        }
+        for (String queryToken : queryTokens) {
+            boolean found = false;
+            for (String token : document.tokens()) {
+                if (token.startsWith(queryToken)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Comparator<IndexedProduct> comparator(Sort sort) {
+        Comparator<IndexedProduct> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<IndexedProduct> next = switch (order.getProperty()) {
+                case "name" -> nullSafe(IndexedProduct::name, String.CASE_INSENSITIVE_ORDER, order);
+                case "brand" -> nullSafe(IndexedProduct::brand, String.CASE_INSENSITIVE_ORDER, order);
+                case "price" -> nullSafe(IndexedProduct::price, Comparator.naturalOrder(), order);
+                case "rating" -> nullSafe(IndexedProduct::rating, Comparator.naturalOrder(), order);
+                default -> nullSafe(IndexedProduct::id, Comparator.naturalOrder(), order);
+            };
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<IndexedProduct> byId = Comparator.comparing(IndexedProduct::id);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private static <T> Comparator<IndexedProduct> nullSafe(Function<IndexedProduct, T> key, Comparator<T> comparator, Sort.Order order) {
+        // Same null placement as MySQL: NULLs first ascending, last descending
+        Comparator<IndexedProduct> ascending = Comparator.comparing(key, Comparator.nullsFirst(comparator));
+        return order.isAscending() ? ascending : ascending.reversed();
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class IndexData {
+        private final Map<Long, IndexedProduct> documents = new HashMap<>();
+        private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+        private final Map<Long, Set<Long>> byCategory = new HashMap<>();
+        private final NavigableMap<Money, Set<Long>> byPrice = new TreeMap<>();
+        private final FacetCounter totals = new FacetCounter();
+
+        private void put(IndexedProduct document) {
+            remove(document.id());
+            documents.put(document.id(), document);
+            totals.add(document);
+            for (String token : document.tokens()) {
+                postings.computeIfAbsent(token, k -> new HashSet<>()).add(document.id());
+            }
+            if (document.categoryId() != null) {
+                byCategory.computeIfAbsent(document.categoryId(), k -> new HashSet<>()).add(document.id());
+            }
+            if (document.price() != null) {
+                byPrice.computeIfAbsent(document.price(), k -> new HashSet<>()).add(document.id());
+            }
+        }
+
+        private void remove(Long id) {
+            IndexedProduct previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            totals.remove(previous);
+            for (String token : previous.tokens()) {
+                removeFrom(postings, token, id);
+            }
+            if (previous.categoryId() != null) {
+                removeFrom(byCategory, previous.categoryId(), id);
+            }
+            if (previous.price() != null) {
+                removeFrom(byPrice, previous.price(), id);
+            }
+        }
+
+        private static <K> void removeFrom(Map<K, Set<Long>> map, K key, Long id) {
+            Set<Long> ids = map.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    map.remove(key);
+                }
+            }
+        }
+    }
+}
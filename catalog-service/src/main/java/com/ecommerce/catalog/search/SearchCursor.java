@@ -0,0 +1,55 @@
+package com.ecommerce.catalog.search;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.money.Money;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position after the last row of a keyset page: the sort key value and id of that row.
+ * Encoded as an opaque URL-safe token so clients only pass it back unchanged.
+ */
+public record SearchCursor(String sortBy, boolean ascending, Long lastId, Object lastValue) {
+
+    public static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "price");
+
+    private static final String VERSION = "v1";
+
+    public static SearchCursor after(Product product, String sortBy, boolean ascending) {
+        Object value = switch (sortBy) {
+            case "name" -> product.getName();
+            case "price" -> product.getPrice();
+            default -> product.getId();
+        };
+        return new SearchCursor(sortBy, ascending, product.getId(), value);
+    }
+
+    public String encode() {
+        // Prices are written as plain decimals, the same form cursors carried before amounts were Money
+        String value = lastValue instanceof Money money ? money.toBigDecimal().toPlainString() : String.valueOf(lastValue);
+        String raw = String.join(":", VERSION, sortBy, ascending ? "asc" : "desc", String.valueOf(lastId), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || !SORTABLE_PROPERTIES.contains(parts[1])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Long lastId = Long.valueOf(parts[3]);
+            Object value = switch (parts[1]) {
+                case "name" -> parts[4];
+                case "price" -> Money.of(parts[4]);
+                default -> lastId;
+            };
+            return new SearchCursor(parts[1], "asc".equals(parts[2]), lastId, value);
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
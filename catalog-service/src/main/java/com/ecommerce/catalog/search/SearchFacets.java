@@ -0,0 +1,28 @@
+package com.ecommerce.catalog.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts over the products matching a search: per category, per brand (most common first),
+ * per price bucket and per rating band. Empty buckets are omitted; a null range bound is open.
+ */
+public record SearchFacets(List<CategoryFacet> categories, List<BrandFacet> brands,
+                           List<RangeFacet> price, List<RangeFacet> rating) {
+
+    public record CategoryFacet(Long id, String name, long count) {
+    }
+
+    public record BrandFacet(String value, long count) {
+    }
+
+    public record RangeFacet(Double from, Double to, long count) {
+    }
+
+    public SearchFacets withCategoryNames(Map<Long, String> names) {
+        List<CategoryFacet> named = categories.stream()
+                .map(c -> new CategoryFacet(c.id(), names.get(c.id()), c.count()))
+                .toList();
+        return new SearchFacets(named, brands, price, rating);
+    }
+}
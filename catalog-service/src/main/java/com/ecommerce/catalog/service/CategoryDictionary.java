@@ -0,0 +1,67 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory id to category map used to attach categories to product projections.
+ * The whole (small) category table is loaded in one query and reloaded when it is older
+ * than the TTL, when a category write invalidates it, or when an unknown id is requested.
+ */
+@Component
+public class CategoryDictionary {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Value("${catalog.category-dictionary.ttl:60s}")
+    private Duration ttl = Duration.ofSeconds(60);
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Map<Long, Category> categories = Map.of();
+    private volatile long loadedAt;
+    private volatile long loadedGeneration = -1;
+
+    public Map<Long, Category> resolve(Collection<Long> ids) {
+        Map<Long, Category> snapshot = categories;
+        boolean complete = ids.stream().filter(Objects::nonNull).allMatch(snapshot::containsKey);
+        if (!complete || isExpired()) {
+            snapshot = reload(snapshot);
+        }
+        return snapshot;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    private boolean isExpired() {
+        return loadedGeneration != generation.get() || System.nanoTime() - loadedAt > ttl.toNanos();
+    }
+
+    private synchronized Map<Long, Category> reload(Map<Long, Category> stale) {
+        if (categories != stale && !isExpired()) {
+            // Another thread reloaded while this one waited
+            return categories;
+        }
+        // Read the generation first so an invalidation racing with this load forces another one
+        long current = generation.get();
+        Map<Long, Category> fresh = categoryRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(Category::getId, Function.identity()));
+        categories = fresh;
+        loadedAt = System.nanoTime();
+        loadedGeneration = current;
+        return fresh;
+    }
+}
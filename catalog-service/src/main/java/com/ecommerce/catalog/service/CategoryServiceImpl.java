@@ -15,6 +15,9 @@ public class CategoryServiceImpl implements ICategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
     @Override
     @Cacheable(value = "categories")
     public List<Category> getAllCategories() {
@@ -30,7 +33,9 @@ public class CategoryServiceImpl implements ICategoryService {
     @Override
     @CacheEvict(value = {"categories", "category"}, allEntries = true)
     public Category save(Category category) {
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        categoryDictionary.invalidate();
+        return saved;
     }
 
     @Override
@@ -38,7 +43,9 @@ public class CategoryServiceImpl implements ICategoryService {
     public Category updateCategory(Long id, Category category) {
         if (categoryRepository.existsById(id)) {
             category.setId(id);
-            return categoryRepository.save(category);
+            Category saved = categoryRepository.save(category);
+            categoryDictionary.invalidate();
+            return saved;
         }
         return null;
     }
@@ -47,6 +54,7 @@ public class CategoryServiceImpl implements ICategoryService {
     @CacheEvict(value = {"categories", "category"}, allEntries = true)
     public void deleteCategory(Long id) {
         categoryRepository.deleteById(id);
+        categoryDictionary.invalidate();
     }
 }
 
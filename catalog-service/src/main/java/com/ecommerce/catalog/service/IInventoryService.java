@@ -0,0 +1,17 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.entity.StockReservation;
+
+import java.time.Duration;
+import java.util.Map;
+
+public interface IInventoryService {
+    StockReservation reserve(String orderRef, Map<Long, Integer> quantities, Duration ttl);
+    StockReservation commit(String orderRef);
+    StockReservation release(String orderRef);
+    StockReservation getReservation(String orderRef);
+    long getAvailable(Long productId);
+    long restock(Long productId, int quantity);
+    int releaseExpired();
+    int syncProductStock();
+}
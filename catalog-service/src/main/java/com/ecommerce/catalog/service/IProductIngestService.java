@@ -0,0 +1,10 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.dto.BulkIngestResult;
+import com.ecommerce.catalog.ingest.ProductRowReader;
+
+import java.io.IOException;
+
+public interface IProductIngestService {
+    BulkIngestResult ingest(ProductRowReader reader) throws IOException;
+}
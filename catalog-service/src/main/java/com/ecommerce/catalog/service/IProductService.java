@@ -1,18 +1,30 @@
 package com.ecommerce.catalog.service;
 
 import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.search.FacetedPage;
+import com.ecommerce.catalog.search.KeysetPage;
+import com.ecommerce.catalog.search.SearchFacets;
+import com.ecommerce.money.Money;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IProductService {
     List<Product> getAllProducts();
     Product getProductById(Long id);
+    List<Product> getProductsByIds(List<Long> ids);
     Product save(Product product);
     Product replaceProduct(Long id, Product product);
     void deleteProduct(Long id);
-    Page<Product> searchProducts(String name, Double minPrice, Double maxPrice, Long categoryId, Pageable pageable);
+    Page<Product> searchProducts(String name, Money minPrice, Money maxPrice, Long categoryId, Pageable pageable);
+    FacetedPage<Product> searchProductsWithFacets(String name, Money minPrice, Money maxPrice, Long categoryId, Pageable pageable);
+    SearchFacets getSearchFacets(String name, Money minPrice, Money maxPrice, Long categoryId);
+    KeysetPage searchProductsAfter(String name, Money minPrice, Money maxPrice, Long categoryId, String sortBy, String sortDirection, String cursor, int size);
+    Long countProducts(String name, Money minPrice, Money maxPrice, Long categoryId, boolean estimate);
     List<Product> getProductsByCategory(Long categoryId);
-    List<Product> getProductsByPriceRange(Double minPrice, Double maxPrice);
+    List<Product> getProductsByPriceRange(Money minPrice, Money maxPrice);
+    long exportProducts(LocalDateTime since, Consumer<Product> consumer);
 }
\ No newline at end of file
@@ -0,0 +1,361 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.entity.InventoryShard;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.entity.ReservationStatus;
+import com.ecommerce.catalog.entity.StockReservation;
+import com.ecommerce.catalog.entity.StockReservationLine;
+import com.ecommerce.catalog.exception.InventoryConflictException;
+import com.ecommerce.catalog.repository.InventoryShardRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.repository.StockReservationRepository;
+import com.ecommerce.catalog.repository.StockTotal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Reserve/commit/release of product stock, with every decrement a conditional SQL update so no
+ * two reservations can take the same unit. Each product's stock is split over
+ * {@code inventory.shards} rows. A reservation first tries whole shards, starting at a random
+ * one, so parallel checkouts of one popular product mostly lock different rows. Only when no
+ * single shard holds enough does it lock all of the product's shards and gather from several.
+ * <p>
+ * Shards are created from {@code Product.stockQuantity} the first time a product is reserved or
+ * restocked; from then on they are the only place stock changes, and a restock adds to or takes
+ * from them. The product row itself is brought up to date with the shards in the background by
+ * {@link #syncProductStock()}, so the hot path never writes to it.
+ */
+@Service
+public class InventoryServiceImpl implements IInventoryService {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private InventoryShardRepository shardRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionOperations transactionTemplate;
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    @Value("${inventory.shards:8}")
+    private int shards = 8;
+
+    @Value("${inventory.reservation-ttl:15m}")
+    private Duration defaultTtl = Duration.ofMinutes(15);
+
+    @Value("${inventory.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${inventory.sweep-batch-size:500}")
+    private int sweepBatchSize = 500;
+
+    @Override
+    public StockReservation reserve(String orderRef, Map<Long, Integer> quantities, Duration ttl) {
+        if (orderRef == null || orderRef.isBlank()) {
+            throw new IllegalArgumentException("Order reference is required");
+        }
+        if (quantities == null || quantities.isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        // Ascending product order keeps shard locks in a consistent order across reservations
+        TreeMap<Long, Integer> sorted = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (productId == null || quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for product " + productId);
+            }
+            sorted.merge(productId, quantity, Math::addExact);
+        });
+        Duration holdFor = ttl != null && !ttl.isNegative() && !ttl.isZero() ? ttl : defaultTtl;
+
+        return inTransaction(orderRef, () -> doReserve(orderRef, sorted, holdFor));
+    }
+
+    @Override
+    public StockReservation commit(String orderRef) {
+        return inTransaction(orderRef, () -> {
+            StockReservation reservation = findReservation(orderRef);
+            if (reservation.getStatus() == ReservationStatus.COMMITTED) {
+                return reservation;
+            }
+            if (reservationRepository.commitIfLive(reservation.getId(), LocalDateTime.now()) == 0) {
+                ReservationStatus current = findReservation(orderRef).getStatus();
+                throw new InventoryConflictException("Reservation " + orderRef + " cannot be committed: it is "
+                        + (current == ReservationStatus.RESERVED ? "expired" : current.name().toLowerCase()));
+            }
+            reservation.setStatus(ReservationStatus.COMMITTED);
+            return reservation;
+        });
+    }
+
+    @Override
+    public StockReservation release(String orderRef) {
+        return inTransaction(orderRef, () -> {
+            StockReservation reservation = findReservation(orderRef);
+            if (reservation.getStatus() == ReservationStatus.COMMITTED) {
+                throw new InventoryConflictException("Reservation " + orderRef + " is already committed");
+            }
+            if (reservation.getStatus() == ReservationStatus.RESERVED) {
+                returnUnits(reservation, ReservationStatus.RELEASED);
+            }
+            return reservation;
+        });
+    }
+
+    @Override
+    public StockReservation getReservation(String orderRef) {
+        return findReservation(orderRef);
+    }
+
+    @Override
+    public long getAvailable(Long productId) {
+        if (shardRepository.existsByProductId(productId)) {
+            return shardRepository.sumAvailable(productId);
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
+        return product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+    }
+
+    /**
+     * Adds {@code quantity} units to the product's available stock, or writes units off when it is
+     * negative. Units held by reservations are not touched, so a restock never hands out stock that
+     * is already promised. Returns the available stock afterwards.
+     */
+    @Override
+    public long restock(Long productId, int quantity) {
+        return inTransaction("restock " + productId, () -> {
+            ensureShards(productId);
+            List<InventoryShard> locked = shardRepository.lockByProductId(productId);
+            long total = locked.stream().mapToLong(InventoryShard::getAvailable).sum();
+            if (total + quantity < 0) {
+                throw new InventoryConflictException("Cannot write off " + -quantity + " units of product "
+                        + productId + ": only " + total + " available");
+            }
+            if (total + quantity > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Restock would exceed the maximum stock of product " + productId);
+            }
+            if (quantity > 0) {
+                for (int i = 0; i < locked.size(); i++) {
+                    shardRepository.giveBack(productId, locked.get(i).getShard(), shareOf(quantity, i, locked.size()));
+                }
+            } else if (quantity < 0) {
+                gather(productId, locked, -quantity);
+            }
+            return total + quantity;
+        });
+    }
+
+    /**
+     * Returns the units of reservations whose TTL has passed, a batch at a time. Each one is
+     * flipped to EXPIRED by a conditional update first, so a commit racing the sweep wins or
+     * loses cleanly and units are never returned twice.
+     */
+    @Override
+    public int releaseExpired() {
+        List<Long> ids = reservationRepository.findIdsExpiredBefore(ReservationStatus.RESERVED, LocalDateTime.now(),
+                PageRequest.of(0, sweepBatchSize));
+        int expired = 0;
+        for (Long id : ids) {
+            StockReservation reservation = transactionTemplate.execute(status -> {
+                StockReservation candidate = reservationRepository.findById(id).orElse(null);
+                return candidate != null && returnUnits(candidate, ReservationStatus.EXPIRED) ? candidate : null;
+            });
+            if (reservation != null) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Copies shard totals onto the product rows that differ from them, a batch at a time. The
+     * products to update are found by comparing the shards with the rows, so nothing is lost
+     * when the node that changed the shards goes away before the sync.
+     */
+    @Override
+    public int syncProductStock() {
+        int synced = 0;
+        boolean more = true;
+        while (more) {
+            List<StockTotal> totals = shardRepository.findOutOfSync(PageRequest.of(0, sweepBatchSize));
+            int failed = 0;
+            for (StockTotal total : totals) {
+                try {
+                    int stock = (int) Math.min(Integer.MAX_VALUE, total.available());
+                    transactionTemplate.executeWithoutResult(status ->
+                            productRepository.updateStock(total.productId(), stock, stock > 0, LocalDateTime.now()));
+                    evictProduct(total.productId());
+                    synced++;
+                } catch (RuntimeException e) {
+                    failed++;
+                    logger.warn("Failed to sync stock of product {}: {}", total.productId(), e.getMessage());
+                }
+            }
+            // A failed row would come back first on the next page; leave it to the next run
+            more = totals.size() == sweepBatchSize && failed == 0;
+        }
+        return synced;
+    }
+
+    private StockReservation doReserve(String orderRef, TreeMap<Long, Integer> quantities, Duration ttl) {
+        StockReservation existing = reservationRepository.findByOrderRef(orderRef).orElse(null);
+        if (existing != null) {
+            // A retried request gets the original reservation back instead of holding stock twice
+            return existing;
+        }
+
+        StockReservation reservation = new StockReservation();
+        reservation.setOrderRef(orderRef);
+        reservation.setStatus(ReservationStatus.RESERVED);
+        reservation.setExpiresAt(LocalDateTime.now().plus(ttl));
+
+        List<Long> shortOf = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            ensureShards(entry.getKey());
+            if (!take(reservation, entry.getKey(), entry.getValue())) {
+                shortOf.add(entry.getKey());
+            }
+        }
+        if (!shortOf.isEmpty()) {
+            // Thrown inside the transaction, so units already taken for other items roll back too
+            throw new InventoryConflictException("Insufficient stock for products: " + shortOf);
+        }
+        return reservationRepository.save(reservation);
+    }
+
+    private boolean take(StockReservation reservation, Long productId, int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            int shard = (start + i) % shards;
+            if (shardRepository.tryTake(productId, shard, quantity) == 1) {
+                reservation.addLine(productId, shard, quantity);
+                return true;
+            }
+        }
+
+        // No single shard holds enough: lock them all, in shard order, and gather
+        List<InventoryShard> locked = shardRepository.lockByProductId(productId);
+        long total = locked.stream().mapToLong(InventoryShard::getAvailable).sum();
+        if (total < quantity) {
+            return false;
+        }
+        gather(productId, locked, quantity).forEach((shard, taken) -> reservation.addLine(productId, shard, taken));
+        return true;
+    }
+
+    /**
+     * Takes {@code quantity} units from shards the caller has locked and checked to hold enough,
+     * in shard order. Returns the units taken per shard.
+     */
+    private Map<Integer, Integer> gather(Long productId, List<InventoryShard> locked, int quantity) {
+        Map<Integer, Integer> taken = new LinkedHashMap<>();
+        int remaining = quantity;
+        for (InventoryShard shard : locked) {
+            int units = Math.min(shard.getAvailable(), remaining);
+            // Still a conditional update: a locking read is not guaranteed to see the latest value on every database
+            if (units > 0) {
+                if (shardRepository.tryTake(productId, shard.getShard(), units) == 0) {
+                    throw new PessimisticLockingFailureException("Shard " + shard.getShard() + " of product "
+                            + productId + " changed while gathering");
+                }
+                taken.put(shard.getShard(), units);
+                remaining -= units;
+            }
+        }
+        return taken;
+    }
+
+    private void ensureShards(Long productId) {
+        if (shardRepository.existsByProductId(productId)) {
+            return;
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
+        int stock = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+        // A concurrent first reservation inserting the same keys fails on the primary key and is retried
+        for (int i = 0; i < shards; i++) {
+            shardRepository.insertShard(productId, i, shareOf(stock, i, shards));
+        }
+    }
+
+    private boolean returnUnits(StockReservation reservation, ReservationStatus to) {
+        if (reservationRepository.transition(reservation.getId(), ReservationStatus.RESERVED, to) == 0) {
+            return false;
+        }
+        for (StockReservationLine line : reservation.getLines()) {
+            shardRepository.giveBack(line.getProductId(), line.getShard(), line.getQuantity());
+        }
+        reservation.setStatus(to);
+        return true;
+    }
+
+    private StockReservation findReservation(String orderRef) {
+        return reservationRepository.findByOrderRef(orderRef)
+                .orElseThrow(() -> new IllegalArgumentException("Reservation not found: " + orderRef));
+    }
+
+    /**
+     * Runs one unit of work in its own transaction. Lock timeouts, deadlocks between shard
+     * locks and duplicate first inserts are retried with jittered backoff, up to
+     * {@code inventory.max-attempts}.
+     */
+    private <T> T inTransaction(String subject, Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (PessimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= maxAttempts) {
+                    throw new InventoryConflictException("Inventory is busy for " + subject + ", please retry");
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private static void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 2L << Math.min(attempt, 6)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InventoryConflictException("Interrupted while retrying an inventory update");
+        }
+    }
+
+    private static int shareOf(int quantity, int shard, int shardCount) {
+        return quantity / shardCount + (shard < quantity % shardCount ? 1 : 0);
+    }
+
+    private void evictProduct(Long productId) {
+        Cache cache = cacheManager != null ? cacheManager.getCache("product") : null;
+        if (cache != null) {
+            cache.evict(productId);
+        }
+    }
+}
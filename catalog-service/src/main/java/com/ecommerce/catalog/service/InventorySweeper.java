@@ -0,0 +1,36 @@
+package com.ecommerce.catalog.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background upkeep for inventory: returns the units of expired reservations and copies shard
+ * totals back onto the product rows that were touched.
+ */
+@Component
+public class InventorySweeper {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private IInventoryService inventoryService;
+
+    @Scheduled(fixedDelayString = "${inventory.sweep-interval-ms:30000}")
+    public void releaseExpired() {
+        int expired;
+        do {
+            expired = inventoryService.releaseExpired();
+            if (expired > 0) {
+                logger.info("Released {} expired stock reservations", expired);
+            }
+        } while (expired > 0);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock-sync-interval-ms:5000}")
+    public void syncProductStock() {
+        inventoryService.syncProductStock();
+    }
+}
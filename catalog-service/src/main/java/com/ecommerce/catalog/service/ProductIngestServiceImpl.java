@@ -0,0 +1,189 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.dto.BulkIngestResult;
+import com.ecommerce.catalog.dto.ProductDto;
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.ingest.IngestRow;
+import com.ecommerce.catalog.ingest.ProductRowReader;
+import com.ecommerce.catalog.repository.CategoryRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.search.ProductSearchIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates products from a streamed payload in fixed-size batches: each batch is validated
+ * in parallel, written in one transaction (JDBC-batched thanks to the pooled id generator),
+ * added to the search index and followed by a single round of cache evictions.
+ */
+@Service
+public class ProductIngestServiceImpl implements IProductIngestService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    @Value("${catalog.ingest.batch-size:500}")
+    private int batchSize = 500;
+
+    @Override
+    public BulkIngestResult ingest(ProductRowReader reader) throws IOException {
+        BulkIngestResult result = new BulkIngestResult();
+        List<IngestRow> batch = new ArrayList<>(batchSize);
+        try {
+            IngestRow row;
+            while ((row = reader.next()) != null) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    writeBatch(batch, result);
+                    batch.clear();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // The payload cannot be read past this point; keep what was parsed and report where it stopped
+            writeBatch(batch, result);
+            batch.clear();
+            result.addError(result.getReceived() + 1, e.getMessage());
+        }
+        writeBatch(batch, result);
+        return result;
+    }
+
+    private void writeBatch(List<IngestRow> rows, BulkIngestResult result) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        result.setReceived(result.getReceived() + rows.size());
+        Map<Long, Category> categories = findCategories(rows);
+        List<String> errors = rows.parallelStream()
+                .map(row -> validate(row, categories))
+                .toList();
+
+        List<Product> products = new ArrayList<>(rows.size());
+        List<Integer> rowNumbers = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            if (errors.get(i) != null) {
+                result.addError(rows.get(i).row(), errors.get(i));
+            } else {
+                products.add(toEntity(rows.get(i).product(), categories));
+                rowNumbers.add(rows.get(i).row());
+            }
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+
+        List<Product> saved;
+        try {
+            saved = transactionTemplate.execute(status -> productRepository.saveAll(products));
+        } catch (RuntimeException e) {
+            rowNumbers.forEach(row -> result.addError(row, "Batch write failed: " + e.getMessage()));
+            return;
+        }
+        productSearchIndex.indexAll(saved);
+        result.setCreated(result.getCreated() + saved.size());
+        evictProductListCaches(saved);
+    }
+
+    private Map<Long, Category> findCategories(List<IngestRow> rows) {
+        Set<Long> ids = rows.stream()
+                .map(IngestRow::product)
+                .filter(Objects::nonNull)
+                .map(this::categoryIdOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return categoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+    }
+
+    private String validate(IngestRow row, Map<Long, Category> categories) {
+        if (row.error() != null) {
+            return row.error();
+        }
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(row.product());
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        Long categoryId = categoryIdOf(row.product());
+        if (categoryId != null && !categories.containsKey(categoryId)) {
+            return "category.id: Category " + categoryId + " not found";
+        }
+        return null;
+    }
+
+    private Product toEntity(ProductDto dto, Map<Long, Category> categories) {
+        // Ids in the payload are ignored: bulk ingest only creates products
+        Product product = new Product();
+        product.setName(dto.getName());
+        product.setDescription(dto.getDescription());
+        product.setPrice(dto.getPrice());
+        product.setStockQuantity(dto.getStockQuantity());
+        product.setImageUrl(dto.getImageUrl());
+        product.setBrand(dto.getBrand());
+        product.setRating(dto.getRating());
+        Long categoryId = categoryIdOf(dto);
+        product.setCategory(categoryId != null ? categories.get(categoryId) : null);
+        return product;
+    }
+
+    private Long categoryIdOf(ProductDto dto) {
+        return dto.getCategory() != null ? dto.getCategory().getId() : null;
+    }
+
+    private void evictProductListCaches(List<Product> saved) {
+        // New rows cannot be in the per-id cache, so only the list caches they join are stale
+        evict("products", "all");
+        saved.stream()
+                .map(Product::getCategory)
+                .filter(Objects::nonNull)
+                .map(Category::getId)
+                .distinct()
+                .forEach(categoryId -> evict("productsByCategory", categoryId));
+    }
+
+    private void evict(String cacheName, Object key) {
+        if (cacheManager == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
@@ -1,15 +1,39 @@
 package com.ecommerce.catalog.service;
 
+import com.ecommerce.catalog.config.MultiGetCache;
+import com.ecommerce.catalog.entity.Category;
 import com.ecommerce.catalog.entity.Product;
 import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.repository.ProductRow;
+import com.ecommerce.catalog.search.FacetedPage;
+import com.ecommerce.catalog.search.KeysetPage;
+import com.ecommerce.catalog.search.ProductSearchIndex;
+import com.ecommerce.catalog.search.SearchCursor;
+import com.ecommerce.catalog.search.SearchFacets;
+import com.ecommerce.money.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductServiceImpl implements IProductService {
@@ -17,60 +41,247 @@ public class ProductServiceImpl implements IProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
-    @Cacheable(value = "products")
+    @Cacheable(value = "products", key = "'all'", sync = true)
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return toProducts(productRepository.findRows(null, null, null, null, Pageable.unpaged()).getContent());
     }
 
     @Override
-    @Cacheable(value = "product", key = "#id")
+    @Cacheable(value = "product", key = "#id", sync = true)
     public Product getProductById(Long id) {
         return productRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Batch counterpart of {@link #getProductById}, sharing its "product" cache entries: hits are
+     * read with one multi-get, the misses are loaded with one query and written back in one batch.
+     */
+    @Override
+    public List<Product> getProductsByIds(List<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+        Cache cache = cacheManager != null ? cacheManager.getCache("product") : null;
+        if (!(cache instanceof MultiGetCache productCache)) {
+            return inIdOrder(distinct, toProducts(productRepository.findRowsByIds(distinct)));
+        }
+
+        List<Product> found = new ArrayList<>(distinct.size());
+        productCache.getAll(distinct).values().forEach(product -> found.add((Product) product));
+        if (found.size() < distinct.size()) {
+            Set<Long> hits = found.stream().map(Product::getId).collect(Collectors.toSet());
+            List<Long> misses = distinct.stream().filter(id -> !hits.contains(id)).toList();
+            List<Product> loaded = toProducts(productRepository.findRowsByIds(misses));
+            productCache.putAll(loaded.stream().collect(Collectors.toMap(Product::getId, Function.identity())));
+            found.addAll(loaded);
+        }
+        return inIdOrder(distinct, found);
+    }
+
     @Override
-    @CacheEvict(value = {"products", "product"}, allEntries = true)
     public Product save(Product product) {
-        return productRepository.save(product);
+        Product previous = product.getId() != null ? productRepository.findById(product.getId()).orElse(null) : null;
+        keepStock(previous, product);
+        Product saved = productRepository.save(product);
+        productSearchIndex.index(saved);
+        evictProductCaches(saved.getId(), categoryIdOf(previous), categoryIdOf(saved));
+        return saved;
     }
 
     @Override
-    @CacheEvict(value = {"products", "product"}, allEntries = true)
     public Product replaceProduct(Long id, Product product) {
+        Product previous = productRepository.findById(id).orElse(null);
         product.setId(id);
-        return productRepository.save(product);
+        keepStock(previous, product);
+        Product saved = productRepository.save(product);
+        productSearchIndex.index(saved);
+        evictProductCaches(id, categoryIdOf(previous), categoryIdOf(saved));
+        return saved;
     }
 
     @Override
-    @CacheEvict(value = {"products", "product"}, allEntries = true)
     public void deleteProduct(Long id) {
+        Long previousCategoryId = findCategoryId(id);
         productRepository.deleteById(id);
+        productSearchIndex.remove(id);
+        evictProductCaches(id, previousCategoryId, null);
     }
 
     @Override
-    public Page<Product> searchProducts(String name, Double minPrice, Double maxPrice, Long categoryId, Pageable pageable) {
-        if (name != null && categoryId != null && minPrice != null && maxPrice != null) {
-            return productRepository.findByNameContainingAndCategory_IdAndPriceBetween(name, categoryId, minPrice, maxPrice, pageable);
-        } else if (name != null) {
-            return productRepository.findByNameContaining(name, pageable);
-        } else if (categoryId != null) {
-            return productRepository.findByCategory_Id(categoryId, pageable);
-        } else if (minPrice != null && maxPrice != null) {
-            return productRepository.findByPriceBetween(minPrice, maxPrice, pageable);
-        } else {
-            return productRepository.findAll(pageable);
+    public Page<Product> searchProducts(String name, Money minPrice, Money maxPrice, Long categoryId, Pageable pageable) {
+        boolean filtered = name != null || categoryId != null || minPrice != null || maxPrice != null;
+        if (filtered && productSearchIndex.isReady() && productSearchIndex.supports(pageable.getSort())) {
+            return loadIndexedPage(productSearchIndex.search(name, categoryId, minPrice, maxPrice, pageable), pageable);
         }
+        Page<ProductRow> rows = productRepository.findRows(name, categoryId, minPrice, maxPrice, pageable);
+        return new PageImpl<>(toProducts(rows.getContent()), pageable, rows.getTotalElements());
     }
 
     @Override
-    @Cacheable(value = "productsByCategory", key = "#categoryId")
+    public FacetedPage<Product> searchProductsWithFacets(String name, Money minPrice, Money maxPrice, Long categoryId, Pageable pageable) {
+        if (!productSearchIndex.isReady()) {
+            return new FacetedPage<>(searchProducts(name, minPrice, maxPrice, categoryId, pageable), null);
+        }
+        boolean filtered = name != null || categoryId != null || minPrice != null || maxPrice != null;
+        if (filtered && productSearchIndex.supports(pageable.getSort())) {
+            // Page ids and facet counts come out of the same pass over the index
+            FacetedPage<Long> ids = productSearchIndex.searchWithFacets(name, categoryId, minPrice, maxPrice, pageable);
+            return new FacetedPage<>(loadIndexedPage(ids.page(), pageable), nameCategories(ids.facets()));
+        }
+        return new FacetedPage<>(searchProducts(name, minPrice, maxPrice, categoryId, pageable),
+                getSearchFacets(name, minPrice, maxPrice, categoryId));
+    }
+
+    @Override
+    public SearchFacets getSearchFacets(String name, Money minPrice, Money maxPrice, Long categoryId) {
+        if (!productSearchIndex.isReady()) {
+            return null;
+        }
+        return nameCategories(productSearchIndex.facets(name, categoryId, minPrice, maxPrice));
+    }
+
+    @Override
+    public KeysetPage searchProductsAfter(String name, Money minPrice, Money maxPrice, Long categoryId,
+                                          String sortBy, String sortDirection, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        if (!SearchCursor.SORTABLE_PROPERTIES.contains(sortBy)) {
+            throw new IllegalArgumentException("Cursor pagination supports sorting by " + SearchCursor.SORTABLE_PROPERTIES);
+        }
+        boolean ascending = !"desc".equalsIgnoreCase(sortDirection);
+        SearchCursor after = cursor != null ? SearchCursor.decode(cursor) : null;
+        if (after != null && (!after.sortBy().equals(sortBy) || after.ascending() != ascending)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Product> rows = toProducts(productRepository.findNextPage(name, categoryId, minPrice, maxPrice, sortBy, ascending, after, size + 1));
+        boolean hasNext = rows.size() > size;
+        List<Product> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? SearchCursor.after(content.get(content.size() - 1), sortBy, ascending).encode() : null;
+        return new KeysetPage(content, nextCursor, hasNext);
+    }
+
+    @Override
+    public Long countProducts(String name, Money minPrice, Money maxPrice, Long categoryId, boolean estimate) {
+        if (estimate) {
+            return productSearchIndex.isReady() ? productSearchIndex.count(name, categoryId, minPrice, maxPrice) : null;
+        }
+        return productRepository.countMatching(name, categoryId, minPrice, maxPrice);
+    }
+
+    private SearchFacets nameCategories(SearchFacets facets) {
+        Map<Long, Category> categories = categoryDictionary.resolve(
+                facets.categories().stream().map(SearchFacets.CategoryFacet::id).collect(Collectors.toSet()));
+        Map<Long, String> names = new HashMap<>();
+        categories.forEach((id, category) -> names.put(id, category.getName()));
+        return facets.withCategoryNames(names);
+    }
+
+    private Page<Product> loadIndexedPage(Page<Long> ids, Pageable pageable) {
+        List<Product> products = inIdOrder(ids.getContent(), toProducts(productRepository.findRowsByIds(ids.getContent())));
+        return new PageImpl<>(products, pageable, ids.getTotalElements());
+    }
+
+    private List<Product> inIdOrder(List<Long> ids, List<Product> loaded) {
+        Map<Long, Product> byId = loaded.stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    @Override
+    @Cacheable(value = "productsByCategory", key = "#categoryId", sync = true)
     public List<Product> getProductsByCategory(Long categoryId) {
-        return productRepository.findByCategory_Id(categoryId);
+        return toProducts(productRepository.findRows(null, categoryId, null, null, Pageable.unpaged()).getContent());
+    }
+
+    @Override
+    public List<Product> getProductsByPriceRange(Money minPrice, Money maxPrice) {
+        return toProducts(productRepository.findRows(null, null, minPrice, maxPrice, Pageable.unpaged()).getContent());
     }
 
     @Override
-    public List<Product> getProductsByPriceRange(Double minPrice, Double maxPrice) {
-        return productRepository.findByPriceBetween(minPrice, maxPrice);
+    @Transactional(readOnly = true)
+    public long exportProducts(LocalDateTime since, Consumer<Product> consumer) {
+        long count = 0;
+        try (Stream<Product> products = since != null
+                ? productRepository.streamUpdatedSince(since)
+                : productRepository.streamAll()) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                consumer.accept(product);
+                // Detach each row once written so the persistence context stays constant-size
+                entityManager.detach(product);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<Product> toProducts(List<ProductRow> rows) {
+        // One dictionary lookup per page instead of one category select per row
+        Map<Long, Category> categories = categoryDictionary.resolve(rows.stream().map(ProductRow::categoryId).collect(Collectors.toSet()));
+        List<Product> products = new ArrayList<>(rows.size());
+        for (ProductRow row : rows) {
+            products.add(row.toProduct(row.categoryId() != null ? categories.get(row.categoryId()) : null));
+        }
+        return products;
+    }
+
+    private Long findCategoryId(Long productId) {
+        return productRepository.findById(productId).map(this::categoryIdOf).orElse(null);
+    }
+
+    private static void keepStock(Product previous, Product product) {
+        // Stock of an existing product only changes through the inventory (reservations and
+        // POST /inventory/{id}/restock); a product write, possibly based on a stale read, must not reset it
+        if (previous != null) {
+            product.setStockQuantity(previous.getStockQuantity());
+        }
+    }
+
+    private Long categoryIdOf(Product product) {
+        return product != null && product.getCategory() != null ? product.getCategory().getId() : null;
+    }
+
+    private void evictProductCaches(Long productId, Long previousCategoryId, Long currentCategoryId) {
+        // Evict only what the write can have changed instead of wiping whole caches on every node
+        evict("product", productId);
+        evict("products", "all");
+        evict("productsByCategory", previousCategoryId);
+        if (!Objects.equals(previousCategoryId, currentCategoryId)) {
+            evict("productsByCategory", currentCategoryId);
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        if (cacheManager == null || key == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
     }
-}
\ No newline at end of file
+}
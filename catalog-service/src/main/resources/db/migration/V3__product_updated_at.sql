@@ -0,0 +1,2 @@
+ALTER TABLE product ADD COLUMN updated_at DATETIME(6);
+CREATE INDEX idx_product_updated_at_id ON product (updated_at, id);
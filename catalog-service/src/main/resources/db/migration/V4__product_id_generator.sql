@@ -0,0 +1,8 @@
+-- Product ids move from AUTO_INCREMENT to a pooled table generator; start past existing rows
+CREATE TABLE IF NOT EXISTS id_generator (
+    entity VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT
+);
+
+INSERT INTO id_generator (entity, next_val)
+SELECT 'product', COALESCE(MAX(id), 0) + 51 FROM product;
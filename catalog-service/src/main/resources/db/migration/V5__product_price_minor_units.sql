@@ -0,0 +1,15 @@
+-- Product prices move from DECIMAL to BIGINT minor units (paise) read through MoneyConverter.
+-- Run before starting the new version; the UPDATE only fills rows not yet converted, so run it
+-- again once the last old instance has stopped to pick up rows it wrote in between.
+ALTER TABLE product ADD COLUMN price_minor BIGINT;
+
+-- The new version writes only the minor unit column, so the old one must accept NULL
+ALTER TABLE product MODIFY COLUMN price DECIMAL(10,2) NULL;
+
+UPDATE product SET price_minor = ROUND(price * 100) WHERE price_minor IS NULL AND price IS NOT NULL;
+
+CREATE INDEX idx_product_price_minor_id ON product (price_minor, id);
+
+-- Once no old instance is left the DECIMAL column and its index can be dropped:
+-- DROP INDEX idx_product_price_id ON product;
+-- ALTER TABLE product DROP COLUMN price;
@@ -0,0 +1,31 @@
+-- Stock reservations. Each product's stock is split over inventory_shard rows, created from
+-- product.stock_quantity on the product's first reservation, so nothing needs backfilling here.
+-- From then on the shards are authoritative and product.stock_quantity trails them by the
+-- inventory.stock-sync-interval-ms.
+CREATE TABLE inventory_shard (
+    product_id BIGINT NOT NULL,
+    shard INT NOT NULL,
+    available INT NOT NULL,
+    PRIMARY KEY (product_id, shard)
+);
+
+CREATE TABLE stock_reservation (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_ref VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6),
+    CONSTRAINT uk_stock_reservation_order_ref UNIQUE (order_ref)
+);
+
+-- The expiry sweep reads RESERVED rows by expires_at
+CREATE INDEX idx_stock_reservation_status_expires ON stock_reservation (status, expires_at);
+
+CREATE TABLE stock_reservation_line (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    reservation_id BIGINT,
+    product_id BIGINT NOT NULL,
+    shard INT NOT NULL,
+    quantity INT NOT NULL,
+    CONSTRAINT fk_stock_reservation_line_reservation FOREIGN KEY (reservation_id) REFERENCES stock_reservation (id)
+);
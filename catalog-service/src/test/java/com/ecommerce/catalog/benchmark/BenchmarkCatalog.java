@@ -0,0 +1,75 @@
+package com.ecommerce.catalog.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds a synthetic catalog straight through JDBC and reports latency percentiles for the benchmarks.
+ */
+final class BenchmarkCatalog {
+
+    static final String[] NOUNS = {
+            "laptop", "phone", "tablet", "camera", "speaker", "monitor", "keyboard", "mouse", "charger", "headset",
+            "router", "printer", "watch", "drone", "projector", "microphone", "console", "controller", "scanner", "lens"
+    };
+    static final int CATEGORIES = 50;
+    static final int BRANDS = 2_000;
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ren", "tor", "vex", "zu", "qui", "bar", "sol", "nex", "dra"};
+
+    private BenchmarkCatalog() {
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate, int products) {
+        List<Object[]> categories = new ArrayList<>();
+        for (int c = 1; c <= CATEGORIES; c++) {
+            categories.add(new Object[]{(long) c, "Category " + c});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO category (id, name) VALUES (?, ?)", categories);
+
+        Random random = new Random(7);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 1; i <= products; i++) {
+            String brand = brand(random.nextInt(BRANDS));
+            String name = brand + " " + NOUNS[random.nextInt(NOUNS.length)] + " X" + i;
+            int stock = random.nextInt(100);
+            batch.add(new Object[]{(long) i, name, "Benchmark product " + i, 100L + random.nextInt(200_000),
+                    stock, stock > 0, brand, random.nextInt(50) / 10.0, 1L + random.nextInt(CATEGORIES)});
+            if (batch.size() == 10_000) {
+                insertProducts(jdbcTemplate, batch);
+            }
+        }
+        insertProducts(jdbcTemplate, batch);
+    }
+
+    static String brand(int n) {
+        StringBuilder brand = new StringBuilder();
+        do {
+            brand.append(SYLLABLES[n % SYLLABLES.length]);
+            n /= SYLLABLES.length;
+        } while (n > 0);
+        return brand.toString();
+    }
+
+    static void report(String label, long[] nanos) {
+        long[] sorted = Arrays.copyOf(nanos, nanos.length);
+        Arrays.sort(sorted);
+        System.out.printf("%-28s p50=%8.3f ms  p99=%8.3f ms  max=%8.3f ms%n", label,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static void insertProducts(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO product (id, name, description, price_minor, stock_quantity, in_stock, brand, rating, category_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
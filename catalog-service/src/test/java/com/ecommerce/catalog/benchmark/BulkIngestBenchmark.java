@@ -0,0 +1,89 @@
+package com.ecommerce.catalog.benchmark;
+
+import com.ecommerce.catalog.dto.BulkIngestResult;
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.ingest.CsvProductRowReader;
+import com.ecommerce.catalog.service.IProductIngestService;
+import com.ecommerce.catalog.service.IProductService;
+import com.ecommerce.money.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput of the batched CSV ingest path versus creating the same kind of rows one by one.
+ * Run with: mvn test -Pbenchmark -Dtest=BulkIngestBenchmark -Dbenchmark.ingest.rows=500000
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+class BulkIngestBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.ingest.rows", 100_000);
+    private static final int SINGLE_ROWS = Math.max(1, ROWS / 20);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IProductIngestService productIngestService;
+
+    @Autowired
+    private IProductService productService;
+
+    @Test
+    void compareBulkAndSingleRowIngest() throws Exception {
+        BenchmarkCatalog.seed(jdbcTemplate, 0);
+        Random random = new Random(11);
+
+        StringBuilder csv = new StringBuilder("name,description,price,stockQuantity,brand,rating,categoryId\n");
+        for (int i = 1; i <= ROWS; i++) {
+            String brand = BenchmarkCatalog.brand(random.nextInt(BenchmarkCatalog.BRANDS));
+            csv.append(brand).append(' ').append(BenchmarkCatalog.NOUNS[random.nextInt(BenchmarkCatalog.NOUNS.length)]).append(" B").append(i)
+                    .append(",\"Bulk product, row ").append(i).append('"')
+                    .append(',').append(1 + random.nextInt(200_000) / 100.0)
+                    .append(',').append(random.nextInt(100))
+                    .append(',').append(brand)
+                    .append(',').append(random.nextInt(50) / 10.0)
+                    .append(',').append(1 + random.nextInt(BenchmarkCatalog.CATEGORIES))
+                    .append('\n');
+        }
+        byte[] payload = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        long t0 = System.nanoTime();
+        BulkIngestResult result;
+        try (CsvProductRowReader reader = new CsvProductRowReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8)) {
+            result = productIngestService.ingest(reader);
+        }
+        long bulkNanos = System.nanoTime() - t0;
+        assertEquals(ROWS, result.getCreated());
+
+        Category category = new Category();
+        category.setId(1L);
+        long t1 = System.nanoTime();
+        for (int i = 1; i <= SINGLE_ROWS; i++) {
+            Product product = new Product();
+            product.setName("Single product " + i);
+            product.setPrice(Money.ofMinor(1000L + 100L * (i % 100)));
+            product.setStockQuantity(i % 10);
+            product.setCategory(category);
+            productService.save(product);
+        }
+        long singleNanos = System.nanoTime() - t1;
+
+        System.out.printf("%-28s %,10.0f rows/s (%d rows)%n", "bulk ingest (CSV)", ROWS / (bulkNanos / 1e9), ROWS);
+        System.out.printf("%-28s %,10.0f rows/s (%d rows)%n", "single-row save", SINGLE_ROWS / (singleNanos / 1e9), SINGLE_ROWS);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.catalog.benchmark;
+
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.search.ProductSearchIndex;
+import com.ecommerce.catalog.service.IProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares name search latency of the JPA LIKE path against the in-memory index.
+ * Run with: mvn test -Pbenchmark -Dbenchmark.products=1000000
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000_000);
+    private static final int QUERIES = Integer.getInteger("benchmark.queries", 200);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Test
+    void compareNameSearchLatency() {
+        BenchmarkCatalog.seed(jdbcTemplate, PRODUCTS);
+
+        long start = System.nanoTime();
+        productSearchIndex.rebuild();
+        System.out.printf("Index rebuild: %d products in %d ms%n", productSearchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+        assertEquals(PRODUCTS, productSearchIndex.size());
+
+        Random random = new Random(42);
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            // Mix of broad noun prefixes and selective brand-word queries
+            String word = i % 4 == 0
+                    ? BenchmarkCatalog.NOUNS[random.nextInt(BenchmarkCatalog.NOUNS.length)]
+                    : BenchmarkCatalog.brand(random.nextInt(BenchmarkCatalog.BRANDS));
+            queries.add(word.substring(0, Math.min(word.length(), 3 + random.nextInt(Math.max(1, word.length() - 2)))));
+        }
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("id"));
+
+        // Warm-up so the first JIT compilations do not dominate either side
+        for (String query : queries.subList(0, Math.min(20, queries.size()))) {
+            productRepository.findByNameContaining(query, pageable);
+            productService.searchProducts(query, null, null, null, pageable);
+        }
+
+        long[] jpa = new long[queries.size()];
+        long[] index = new long[queries.size()];
+        for (int i = 0; i < queries.size(); i++) {
+            long t0 = System.nanoTime();
+            productRepository.findByNameContaining(queries.get(i), pageable);
+            jpa[i] = System.nanoTime() - t0;
+
+            long t1 = System.nanoTime();
+            productService.searchProducts(queries.get(i), null, null, null, pageable);
+            index[i] = System.nanoTime() - t1;
+        }
+
+        BenchmarkCatalog.report("JPA findByNameContaining", jpa);
+        BenchmarkCatalog.report("ProductSearchIndex", index);
+    }
+}
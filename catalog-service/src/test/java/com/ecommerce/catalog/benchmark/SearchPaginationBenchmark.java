@@ -0,0 +1,73 @@
+package com.ecommerce.catalog.benchmark;
+
+import com.ecommerce.catalog.search.KeysetPage;
+import com.ecommerce.catalog.service.IProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency of fetching page 1000 of /search/products with offset paging versus a keyset cursor.
+ * Run with: mvn test -Pbenchmark -Dtest=SearchPaginationBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+class SearchPaginationBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000_000);
+    private static final int PAGE = 1000;
+    private static final int SIZE = 20;
+    private static final int RUNS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IProductService productService;
+
+    @Test
+    void comparePage1000Latency() {
+        BenchmarkCatalog.seed(jdbcTemplate, PRODUCTS);
+
+        for (String sortBy : new String[]{"id", "price"}) {
+            Pageable pageable = PageRequest.of(PAGE, SIZE, Sort.by(Sort.Direction.ASC, sortBy));
+
+            // Walk the cursor to the start of page 1000 once; clients get this token from the previous page
+            String cursor = null;
+            for (int page = 0; page < PAGE; page++) {
+                cursor = productService.searchProductsAfter(null, null, null, null, sortBy, "asc", cursor, SIZE).nextCursor();
+            }
+
+            Page<?> offsetPage = productService.searchProducts(null, null, null, null, pageable);
+            KeysetPage keysetPage = productService.searchProductsAfter(null, null, null, null, sortBy, "asc", cursor, SIZE);
+            assertEquals(offsetPage.getContent().size(), keysetPage.content().size());
+
+            long[] offset = new long[RUNS];
+            long[] keyset = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long t0 = System.nanoTime();
+                productService.searchProducts(null, null, null, null, pageable);
+                offset[i] = System.nanoTime() - t0;
+
+                long t1 = System.nanoTime();
+                productService.searchProductsAfter(null, null, null, null, sortBy, "asc", cursor, SIZE);
+                keyset[i] = System.nanoTime() - t1;
+            }
+
+            BenchmarkCatalog.report("offset page " + PAGE + " by " + sortBy, offset);
+            BenchmarkCatalog.report("cursor page " + PAGE + " by " + sortBy, keyset);
+        }
+    }
+}
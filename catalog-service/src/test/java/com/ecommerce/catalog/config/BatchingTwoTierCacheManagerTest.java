@@ -0,0 +1,123 @@
+package com.ecommerce.catalog.config;
+
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchingTwoTierCacheManagerTest {
+
+    private static final String CHANNEL = "test:cache:invalidation";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private BatchingTwoTierCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager();
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new BatchingTwoTierCacheManager(remoteCacheManager, redisTemplate, CHANNEL, 100, Duration.ofMinutes(1),
+                RedisConfig.cacheValueCopier(), meterRegistry, null);
+    }
+
+    @Test
+    void testModifyingAReturnedEntityLeavesTheCachedValueIntact() {
+        // Test: Every local hit and every coalesced load returns its own copy, so a caller's edits never reach other callers
+        Cache cache = cacheManager.getCache("product");
+        Product product = new Product();
+        product.setId(1L);
+        product.setName("Laptop");
+        product.setPrice(Money.of("999.00"));
+        product.setCategory(new Category(3L, "Electronics"));
+        cache.put(1L, product);
+
+        product.setName("Changed by the writer");
+        Product first = cache.get(1L, Product.class);
+        first.setName("Changed by a reader");
+        first.setPrice(Money.of("1.00"));
+        first.getCategory().setName("Changed category");
+
+        Product second = cache.get(1L, Product.class);
+        assertNotSame(first, second);
+        assertEquals("Laptop", second.getName());
+        assertEquals(Money.of("999.00"), second.getPrice());
+        assertEquals("Electronics", second.getCategory().getName());
+
+        Product batched = (Product) ((MultiGetCache) cache).getAll(List.of(1L)).get(1L);
+        assertNotSame(second, batched);
+        assertEquals("Laptop", batched.getName());
+
+        List<Product> list = new ArrayList<>(List.of(second));
+        cache.put("all", list);
+        ((List<?>) cache.get("all").get()).clear();
+        assertEquals(1, ((List<?>) cache.get("all").get()).size());
+        ((Product) ((List<?>) cache.get("all").get()).get(0)).setName("Changed in a list");
+        assertEquals("Laptop", ((Product) ((List<?>) cache.get("all").get()).get(0)).getName());
+    }
+
+    @Test
+    void testGetAllAndPutAllAcrossTiers() {
+        // Test: Multi-get serves local hits, then remote hits, and leaves misses out; putAll fills both tiers
+        MultiGetCache cache = (MultiGetCache) cacheManager.getCache("product");
+        cache.put(1L, "Laptop");
+        remoteCacheManager.getCache("product").put(2L, "Phone");
+
+        Map<Object, Object> found = cache.getAll(List.of(1L, 2L, 3L));
+        assertEquals(Map.of(1L, "Laptop", 2L, "Phone"), found);
+
+        Map<Long, String> entries = new HashMap<>();
+        entries.put(3L, "Tablet");
+        entries.put(4L, null);
+        cache.putAll(entries);
+        assertEquals("Tablet", remoteCacheManager.getCache("product").get(3L).get());
+        assertNull(remoteCacheManager.getCache("product").get(4L));
+        assertEquals(3, cache.getAll(List.of(1L, 2L, 3L, 4L)).size());
+
+        assertEquals(4.0, meterRegistry.get("cache.two-tier.gets").tag("cache", "product").tag("result", "local-hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.two-tier.gets").tag("cache", "product").tag("result", "remote-hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.two-tier.gets").tag("cache", "product").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testGetAllUsesOneRedisBatch() {
+        // Test: With a Redis batch, local misses go out as one multi-get and putAll as one batch write
+        RedisCacheBatch batch = mock(RedisCacheBatch.class);
+        BatchingTwoTierCacheManager batched = new BatchingTwoTierCacheManager(remoteCacheManager, redisTemplate, CHANNEL, 100, Duration.ofMinutes(1),
+                RedisConfig.cacheValueCopier(), null, batch);
+        MultiGetCache cache = (MultiGetCache) batched.getCache("product");
+        cache.put(1L, "Laptop");
+        when(batch.multiGet("product", List.of("2", "3"))).thenReturn(Arrays.asList("Phone", null));
+
+        assertEquals(Map.of(1L, "Laptop", 2L, "Phone"), cache.getAll(List.of(1L, 2L, 3L)));
+        verify(batch, times(1)).multiGet(anyString(), anyList());
+
+        cache.putAll(Map.of(3L, "Tablet"));
+        verify(batch).putAll("product", Map.of("3", "Tablet"));
+        assertEquals(Map.of(3L, "Tablet"), cache.getAll(List.of(3L)));
+        verifyNoMoreInteractions(batch);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.catalog.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisCacheBatchTest {
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisStringCommands stringCommands;
+
+    private final GenericJackson2JsonRedisSerializer valueSerializer = new GenericJackson2JsonRedisSerializer();
+    private RedisCacheBatch batch;
+
+    @BeforeEach
+    void setUp() {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(10))
+                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer));
+        batch = new RedisCacheBatch(connectionFactory, config);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+    }
+
+    @Test
+    void testMultiGetIssuesOneMgetWithCacheKeys() {
+        // Test: All keys go out in one MGET using the cache's key prefix; absent keys come back as null
+        when(stringCommands.mGet(any(byte[][].class)))
+                .thenReturn(Arrays.asList(valueSerializer.serialize("Laptop"), null));
+
+        List<Object> values = batch.multiGet("product", List.of("1", "2"));
+
+        assertEquals(Arrays.asList("Laptop", null), values);
+        ArgumentCaptor<byte[][]> keys = ArgumentCaptor.forClass(byte[][].class);
+        verify(stringCommands, times(1)).mGet(keys.capture());
+        assertEquals("product::1", new String(keys.getValue()[0], StandardCharsets.UTF_8));
+        assertEquals("product::2", new String(keys.getValue()[1], StandardCharsets.UTF_8));
+        verify(connection).close();
+    }
+
+    @Test
+    void testPutAllWritesInOnePipelineWithTtl() {
+        // Test: Entries are written as SET with the cache TTL inside a single pipeline; null values are skipped
+        Map<String, Object> entries = new LinkedHashMap<>();
+        entries.put("1", "Laptop");
+        entries.put("2", null);
+        entries.put("3", "Tablet");
+
+        batch.putAll("product", entries);
+
+        InOrder inOrder = inOrder(connection, stringCommands);
+        inOrder.verify(connection).openPipeline();
+        inOrder.verify(stringCommands).set(eq("product::1".getBytes(StandardCharsets.UTF_8)), any(byte[].class),
+                eq(Expiration.from(Duration.ofMinutes(10))), eq(SetOption.upsert()));
+        inOrder.verify(stringCommands).set(eq("product::3".getBytes(StandardCharsets.UTF_8)), any(byte[].class),
+                eq(Expiration.from(Duration.ofMinutes(10))), eq(SetOption.upsert()));
+        inOrder.verify(connection).closePipeline();
+        verify(stringCommands, times(2)).set(any(byte[].class), any(byte[].class), any(Expiration.class), any(SetOption.class));
+    }
+}
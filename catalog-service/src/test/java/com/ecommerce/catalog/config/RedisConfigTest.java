@@ -1,14 +1,19 @@
 package com.ecommerce.catalog.config;
 
+import com.ecommerce.cache.TwoTierCache;
+import com.ecommerce.cache.TwoTierCacheManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 @ExtendWith(MockitoExtension.class)
 class RedisConfigTest {
@@ -22,7 +27,7 @@ class RedisConfigTest {
     @Test
     void testCacheManagerCreation() {
         // Test: CacheManager is created with proper configuration
-        RedisCacheManager cacheManager = redisConfig.cacheManager(connectionFactory);
+        RedisCacheManager cacheManager = redisConfig.redisCacheManager(connectionFactory);
 
         assertNotNull(cacheManager);
         assertEquals("org.springframework.data.redis.cache.RedisCacheManager",
@@ -32,7 +37,7 @@ class RedisConfigTest {
     @Test
     void testCacheManagerNotNull() {
         // Test: CacheManager instance is not null
-        RedisCacheManager cacheManager = redisConfig.cacheManager(connectionFactory);
+        RedisCacheManager cacheManager = redisConfig.redisCacheManager(connectionFactory);
 
         assertNotNull(cacheManager);
     }
@@ -40,9 +45,23 @@ class RedisConfigTest {
     @Test
     void testCacheManagerIsRedisCacheManager() {
         // Test: CacheManager is instance of RedisCacheManager
-        RedisCacheManager cacheManager = redisConfig.cacheManager(connectionFactory);
+        RedisCacheManager cacheManager = redisConfig.redisCacheManager(connectionFactory);
 
         assertTrue(cacheManager instanceof RedisCacheManager);
     }
-}
 
+    @Test
+    void testTwoTierCacheManagerWrapsRedisCaches() {
+        // Test: Primary cache manager fronts each Redis cache with a local tier
+        RedisCacheManager redisCacheManager = redisConfig.redisCacheManager(connectionFactory);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+
+        TwoTierCacheManager cacheManager = redisConfig.cacheManager(redisCacheManager, connectionFactory, meterRegistry);
+
+        assertNotNull(cacheManager);
+        assertTrue(cacheManager.getCache("product") instanceof TwoTierCache);
+        assertTrue(cacheManager.getCache("product") instanceof MultiGetCache);
+        assertSame(cacheManager.getCache("product"), cacheManager.getCache("product"));
+    }
+}
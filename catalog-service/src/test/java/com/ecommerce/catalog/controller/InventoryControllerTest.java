@@ -0,0 +1,123 @@
+package com.ecommerce.catalog.controller;
+
+import com.ecommerce.catalog.dto.ReservationRequest;
+import com.ecommerce.catalog.dto.RestockRequest;
+import com.ecommerce.catalog.entity.ReservationStatus;
+import com.ecommerce.catalog.entity.StockReservation;
+import com.ecommerce.catalog.exception.GlobalExceptionHandler;
+import com.ecommerce.catalog.exception.InventoryConflictException;
+import com.ecommerce.catalog.service.IInventoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryControllerTest {
+
+    @Mock
+    private IInventoryService inventoryService;
+
+    @InjectMocks
+    private InventoryController inventoryController;
+
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(inventoryController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void testReserveReportsQuantityPerProduct() throws Exception {
+        // Test: Shard lines are summed per product and the TTL is passed through
+        StockReservation reservation = new StockReservation();
+        reservation.setOrderRef("order-1");
+        reservation.setStatus(ReservationStatus.RESERVED);
+        reservation.setExpiresAt(LocalDateTime.now().plusMinutes(2));
+        reservation.addLine(1L, 3, 2);
+        reservation.addLine(1L, 4, 1);
+        reservation.addLine(2L, 0, 1);
+        when(inventoryService.reserve("order-1", Map.of(1L, 3, 2L, 1), Duration.ofSeconds(120))).thenReturn(reservation);
+
+        ReservationRequest request = new ReservationRequest("order-1",
+                List.of(new ReservationRequest.Item(1L, 3), new ReservationRequest.Item(2L, 1)), 120L);
+
+        mockMvc.perform(post("/inventory/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RESERVED"))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].productId").value(1))
+                .andExpect(jsonPath("$.items[0].quantity").value(3))
+                .andExpect(jsonPath("$.items[1].quantity").value(1));
+    }
+
+    @Test
+    void testReserveConflictAndValidation() throws Exception {
+        // Test: A shortage maps to 409; a request without items is rejected before reaching the service
+        when(inventoryService.reserve(eq("order-2"), anyMap(), isNull()))
+                .thenThrow(new InventoryConflictException("Insufficient stock for products: [1]"));
+
+        mockMvc.perform(post("/inventory/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest("order-2",
+                                List.of(new ReservationRequest.Item(1L, 5)), null))))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Insufficient stock for products: [1]"));
+
+        mockMvc.perform(post("/inventory/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest("order-3", List.of(), null))))
+                .andExpect(status().isBadRequest());
+
+        verify(inventoryService, times(1)).reserve(any(), anyMap(), any());
+    }
+
+    @Test
+    void testRestockAddsOrWritesOffUnits() throws Exception {
+        // Test: The quantity is passed on as a delta; a write-off beyond available stock maps to 409
+        when(inventoryService.restock(1L, 20)).thenReturn(23L);
+        when(inventoryService.restock(1L, -50))
+                .thenThrow(new InventoryConflictException("Cannot write off 50 units of product 1: only 23 available"));
+
+        mockMvc.perform(post("/inventory/1/restock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RestockRequest(20))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId").value(1))
+                .andExpect(jsonPath("$.available").value(23));
+
+        mockMvc.perform(post("/inventory/1/restock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RestockRequest(-50))))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/inventory/1/restock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(inventoryService, times(2)).restock(eq(1L), anyInt());
+    }
+}
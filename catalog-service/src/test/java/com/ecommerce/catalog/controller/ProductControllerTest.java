@@ -5,20 +5,29 @@ import com.ecommerce.catalog.dto.ProductDto;
 import com.ecommerce.catalog.entity.Category;
 import com.ecommerce.catalog.entity.Product;
 import com.ecommerce.catalog.service.IProductService;
+import com.ecommerce.money.Money;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,18 +39,19 @@ class ProductControllerTest {
     @Mock
     private IProductService productService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private ProductController productController;
 
     private MockMvc mockMvc;
-    private ObjectMapper objectMapper;
     private Product testProduct;
     private ProductDto testProductDto;
 
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(productController).build();
-        objectMapper = new ObjectMapper();
 
         Category category = new Category();
         category.setId(1L);
@@ -51,14 +61,14 @@ class ProductControllerTest {
         testProduct.setId(1L);
         testProduct.setName("Laptop");
         testProduct.setDescription("Gaming Laptop");
-        testProduct.setPrice(1000.0);
+        testProduct.setPrice(Money.of("1000.00"));
         testProduct.setCategory(category);
 
         testProductDto = new ProductDto();
         testProductDto.setId(1L);
         testProductDto.setName("Laptop");
         testProductDto.setDescription("Gaming Laptop");
-        testProductDto.setPrice(1000.0);
+        testProductDto.setPrice(Money.of("1000.00"));
         CategoryDto categoryDto = new CategoryDto();
         categoryDto.setId(1L);
         categoryDto.setName("Electronics");
@@ -99,5 +109,63 @@ class ProductControllerTest {
         mockMvc.perform(delete("/products/1"))
                 .andExpect(status().isNoContent());
     }
-}
 
+    @Test
+    void testGetProductsByIdsReportsMissing() throws Exception {
+        // Test: Batch lookup returns products in request order and lists ids that were not found
+        Product second = new Product();
+        second.setId(2L);
+        second.setName("Mouse");
+        second.setPrice(Money.of("25.00"));
+        when(productService.getProductsByIds(Arrays.asList(2L, 9L, 1L, 2L))).thenReturn(Arrays.asList(second, testProduct));
+
+        mockMvc.perform(get("/products/batch").param("ids", "2,9,1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(2))
+                .andExpect(jsonPath("$.products[0].id").value(2))
+                .andExpect(jsonPath("$.products[0].price").value(25.0))
+                .andExpect(jsonPath("$.products[1].id").value(1))
+                .andExpect(jsonPath("$.missingIds.length()").value(1))
+                .andExpect(jsonPath("$.missingIds[0]").value(9));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportProductsStreamsNdjson() throws Exception {
+        // Test: Export writes one DTO per line, honours gzip and passes the since filter through
+        Product second = new Product();
+        second.setId(2L);
+        second.setName("Mouse");
+        second.setPrice(Money.of("25.00"));
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(1);
+            consumer.accept(testProduct);
+            consumer.accept(second);
+            return 2L;
+        }).when(productService).exportProducts(any(), any(Consumer.class));
+
+        MvcResult plain = mockMvc.perform(get("/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(plain))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"));
+        String[] lines = plain.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Laptop", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals("Mouse", objectMapper.readTree(lines[1]).get("name").asText());
+
+        MvcResult gzipped = mockMvc.perform(get("/products/export")
+                        .param("format", "json")
+                        .param("since", "2024-01-01T00:00:00")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(gzipped))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+        byte[] body = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray())).readAllBytes();
+        assertEquals(2, objectMapper.readTree(new String(body, StandardCharsets.UTF_8)).size());
+        verify(productService).exportProducts(eq(LocalDateTime.of(2024, 1, 1, 0, 0)), any(Consumer.class));
+    }
+}
@@ -2,7 +2,11 @@ package com.ecommerce.catalog.controller;
 
 import com.ecommerce.catalog.entity.Category;
 import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.search.FacetedPage;
+import com.ecommerce.catalog.search.KeysetPage;
+import com.ecommerce.catalog.search.SearchFacets;
 import com.ecommerce.catalog.service.IProductService;
+import com.ecommerce.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -47,7 +51,7 @@ class SearchControllerTest {
         testProduct.setId(1L);
         testProduct.setName("Laptop");
         testProduct.setDescription("Gaming Laptop");
-        testProduct.setPrice(1000.0);
+        testProduct.setPrice(Money.of("1000.00"));
         testProduct.setCategory(category);
     }
 
@@ -57,7 +61,7 @@ class SearchControllerTest {
         List<Product> products = Arrays.asList(testProduct);
         Page<Product> productPage = new PageImpl<>(products);
 
-        when(productService.searchProducts(anyString(), anyDouble(), anyDouble(), anyLong(), any(Pageable.class)))
+        when(productService.searchProducts(anyString(), any(Money.class), any(Money.class), anyLong(), any(Pageable.class)))
                 .thenReturn(productPage);
 
         mockMvc.perform(get("/search/products")
@@ -76,7 +80,7 @@ class SearchControllerTest {
                 .andExpect(jsonPath("$.totalItems").value(1))
                 .andExpect(jsonPath("$.totalPages").value(1));
 
-        verify(productService, times(1)).searchProducts(anyString(), anyDouble(), anyDouble(), anyLong(), any(Pageable.class));
+        verify(productService, times(1)).searchProducts(anyString(), any(Money.class), any(Money.class), anyLong(), any(Pageable.class));
     }
 
     @Test
@@ -116,7 +120,7 @@ class SearchControllerTest {
     void testSearchByPriceRange() throws Exception {
         // Test: Search products by price range
         List<Product> products = Arrays.asList(testProduct);
-        when(productService.getProductsByPriceRange(500.0, 1500.0)).thenReturn(products);
+        when(productService.getProductsByPriceRange(Money.of("500.00"), Money.of("1500.00"))).thenReturn(products);
 
         mockMvc.perform(get("/search/products/by-price-range")
                 .param("minPrice", "500.0")
@@ -125,14 +129,14 @@ class SearchControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Laptop"))
                 .andExpect(jsonPath("$[0].price").value(1000.0));
 
-        verify(productService, times(1)).getProductsByPriceRange(500.0, 1500.0);
+        verify(productService, times(1)).getProductsByPriceRange(Money.of("500.00"), Money.of("1500.00"));
     }
 
     @Test
     void testSearchProductsEmptyResults() throws Exception {
         // Test: Search with no results
         Page<Product> emptyPage = new PageImpl<>(Arrays.asList());
-        when(productService.searchProducts(eq("NonExistent"), eq(10000.0), eq(20000.0), isNull(), any(Pageable.class)))
+        when(productService.searchProducts(eq("NonExistent"), eq(Money.of("10000.00")), eq(Money.of("20000.00")), isNull(), any(Pageable.class)))
                 .thenReturn(emptyPage);
 
         mockMvc.perform(get("/search/products")
@@ -143,7 +147,79 @@ class SearchControllerTest {
                 .andExpect(jsonPath("$.products").isEmpty())
                 .andExpect(jsonPath("$.totalItems").value(0));
 
-        verify(productService, times(1)).searchProducts(eq("NonExistent"), eq(10000.0), eq(20000.0), isNull(), any(Pageable.class));
+        verify(productService, times(1)).searchProducts(eq("NonExistent"), eq(Money.of("10000.00")), eq(Money.of("20000.00")), isNull(), any(Pageable.class));
     }
-}
 
+    @Test
+    void testSearchProductsWithCursor() throws Exception {
+        // Test: Cursor mode returns the continuation token and skips counting unless asked
+        KeysetPage keysetPage = new KeysetPage(Arrays.asList(testProduct), "next-token", true);
+        when(productService.searchProductsAfter(isNull(), isNull(), isNull(), isNull(), eq("price"), eq("asc"), isNull(), eq(1)))
+                .thenReturn(keysetPage);
+
+        mockMvc.perform(get("/search/products")
+                .param("paging", "cursor")
+                .param("size", "1")
+                .param("sortBy", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].name").value("Laptop"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.totalItems").doesNotExist());
+
+        verify(productService, never()).searchProducts(any(), any(), any(), any(), any(Pageable.class));
+        verify(productService, never()).countProducts(any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testSearchProductsWithCursorAndEstimatedCount() throws Exception {
+        // Test: Passing a cursor implies cursor mode; count=estimate adds an estimated total
+        KeysetPage keysetPage = new KeysetPage(Arrays.asList(testProduct), null, false);
+        when(productService.searchProductsAfter(eq("Laptop"), isNull(), isNull(), isNull(), eq("id"), eq("asc"), eq("token"), eq(10)))
+                .thenReturn(keysetPage);
+        when(productService.countProducts("Laptop", null, null, null, true)).thenReturn(42L);
+
+        mockMvc.perform(get("/search/products")
+                .param("name", "Laptop")
+                .param("cursor", "token")
+                .param("count", "estimate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalItems").value(42))
+                .andExpect(jsonPath("$.totalItemsEstimated").value(true));
+    }
+
+    @Test
+    void testSearchProductsWithFacets() throws Exception {
+        // Test: facets=true returns facet counts alongside the page, in offset and cursor mode
+        SearchFacets facets = new SearchFacets(
+                List.of(new SearchFacets.CategoryFacet(1L, "Electronics", 3)),
+                List.of(new SearchFacets.BrandFacet("Acme", 2)),
+                List.of(new SearchFacets.RangeFacet(500.0, 1000.0, 1), new SearchFacets.RangeFacet(1000.0, null, 2)),
+                List.of(new SearchFacets.RangeFacet(4.0, 5.0, 3)));
+        when(productService.searchProductsWithFacets(eq("lap"), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(new FacetedPage<>(new PageImpl<>(List.of(testProduct)), facets));
+
+        mockMvc.perform(get("/search/products")
+                .param("name", "lap")
+                .param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].name").value("Laptop"))
+                .andExpect(jsonPath("$.facets.categories[0].name").value("Electronics"))
+                .andExpect(jsonPath("$.facets.categories[0].count").value(3))
+                .andExpect(jsonPath("$.facets.brands[0].value").value("Acme"))
+                .andExpect(jsonPath("$.facets.price[1].from").value(1000.0))
+                .andExpect(jsonPath("$.facets.price[1].to").doesNotExist())
+                .andExpect(jsonPath("$.facets.rating[0].count").value(3));
+        verify(productService, never()).searchProducts(any(), any(), any(), any(), any(Pageable.class));
+
+        when(productService.searchProductsAfter(isNull(), isNull(), isNull(), isNull(), eq("id"), eq("asc"), isNull(), eq(10)))
+                .thenReturn(new KeysetPage(List.of(testProduct), null, false));
+        when(productService.getSearchFacets(null, null, null, null)).thenReturn(facets);
+        mockMvc.perform(get("/search/products")
+                .param("paging", "cursor")
+                .param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets.brands[0].count").value(2));
+    }
+}
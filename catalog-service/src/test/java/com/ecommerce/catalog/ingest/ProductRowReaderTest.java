@@ -0,0 +1,76 @@
+package com.ecommerce.catalog.ingest;
+
+import com.ecommerce.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductRowReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testJsonReaderStreamsArrayElements() throws IOException {
+        // Test: Valid elements parse, type mismatches become row errors, broken syntax stops the read
+        String json = "[{\"name\":\"Laptop\",\"price\":999.5,\"category\":{\"id\":3}},"
+                + "{\"name\":\"Mouse\",\"price\":\"cheap\"},"
+                + "{\"name\":\"Pad\",\"pri";
+        try (JsonProductRowReader reader = new JsonProductRowReader(stream(json), objectMapper)) {
+            IngestRow first = reader.next();
+            assertEquals(1, first.row());
+            assertEquals("Laptop", first.product().getName());
+            assertEquals(3L, first.product().getCategory().getId());
+
+            IngestRow second = reader.next();
+            assertEquals(2, second.row());
+            assertNull(second.product());
+            assertTrue(second.error().startsWith("Malformed row"));
+
+            assertThrows(IllegalArgumentException.class, reader::next);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new JsonProductRowReader(stream("{\"name\":\"x\"}"), objectMapper));
+    }
+
+    @Test
+    void testCsvReaderHandlesHeaderAndQuoting() throws IOException {
+        // Test: Columns are matched by header name, quoted fields keep commas, quotes and newlines
+        String csv = "Price,name,brand,categoryId,description\r\n"
+                + "10.5,Mug,Acme,2,\"Big, \"\"blue\"\"\nmug\"\r\n"
+                + "\n"
+                + "abc,Broken,,,\n"
+                + "7,Spoon,,,";
+        try (CsvProductRowReader reader = new CsvProductRowReader(stream(csv), StandardCharsets.UTF_8)) {
+            IngestRow mug = reader.next();
+            assertEquals(1, mug.row());
+            assertEquals("Mug", mug.product().getName());
+            assertEquals(Money.of("10.50"), mug.product().getPrice());
+            assertEquals("Acme", mug.product().getBrand());
+            assertEquals(2L, mug.product().getCategory().getId());
+            assertEquals("Big, \"blue\"\nmug", mug.product().getDescription());
+
+            IngestRow broken = reader.next();
+            assertEquals(2, broken.row());
+            assertTrue(broken.error().contains("invalid price 'abc'"));
+
+            IngestRow spoon = reader.next();
+            assertEquals("Spoon", spoon.product().getName());
+            assertNull(spoon.product().getBrand());
+            assertNull(spoon.product().getCategory());
+
+            assertNull(reader.next());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new CsvProductRowReader(stream("name,brand\n"), StandardCharsets.UTF_8));
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -6,7 +6,12 @@ import com.ecommerce.catalog.entity.Category;
 import com.ecommerce.catalog.entity.Product;
 import com.ecommerce.catalog.repository.CategoryRepository;
 import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.money.Money;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,8 +20,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
@@ -39,6 +50,9 @@ class CatalogServiceIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @BeforeEach
     void setUp() {
         productRepository.deleteAll();
@@ -67,7 +81,7 @@ class CatalogServiceIntegrationTest {
         ProductDto productDto = new ProductDto();
         productDto.setName("Laptop");
         productDto.setDescription("Gaming Laptop");
-        productDto.setPrice(1500.0);
+        productDto.setPrice(Money.of("1500.00"));
         CategoryDto cat = new CategoryDto();
         cat.setId(categoryId);
         cat.setName("Electronics");
@@ -97,7 +111,7 @@ class CatalogServiceIntegrationTest {
 
         // Update product
         productDto.setId(productId);
-        productDto.setPrice(1400.0);
+        productDto.setPrice(Money.of("1400.00"));
         mockMvc.perform(put("/products/" + productId)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(productDto)))
@@ -136,14 +150,14 @@ class CatalogServiceIntegrationTest {
         Product product1 = new Product();
         product1.setName("Cheap Item");
         product1.setDescription("Affordable");
-        product1.setPrice(50.0);
+        product1.setPrice(Money.of("50.00"));
         product1.setCategory(category);
         productRepository.save(product1);
 
         Product product2 = new Product();
         product2.setName("Expensive Item");
         product2.setDescription("Premium");
-        product2.setPrice(500.0);
+        product2.setPrice(Money.of("500.00"));
         product2.setCategory(category);
         productRepository.save(product2);
 
@@ -167,7 +181,7 @@ class CatalogServiceIntegrationTest {
             Product product = new Product();
             product.setName("Book " + i);
             product.setDescription("Description " + i);
-            product.setPrice(10.0 * i);
+            product.setPrice(Money.of("10.00").times(i));
             product.setCategory(category);
             productRepository.save(product);
         }
@@ -191,6 +205,144 @@ class CatalogServiceIntegrationTest {
                 .andExpect(jsonPath("$.products[0].price").value(150.0));
     }
 
+    @Test
+    void testCursorPagination() throws Exception {
+        // Test: Walking cursor pages sorted by price desc visits every product once, in order
+        Category category = new Category();
+        category.setName("Music");
+        category = categoryRepository.save(category);
+
+        for (int i = 1; i <= 12; i++) {
+            Product product = new Product();
+            product.setName("Album " + i);
+            product.setDescription("Description " + i);
+            product.setPrice(Money.of("10.00").times((i % 4) + 1));
+            product.setCategory(category);
+            productRepository.save(product);
+        }
+
+        List<Double> prices = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/search/products")
+                    .param("paging", "cursor")
+                    .param("size", "5")
+                    .param("sortBy", "price")
+                    .param("sortDirection", "desc")
+                    .param("count", "exact");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String response = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalItems").value(12))
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(response);
+            page.get("products").forEach(p -> prices.add(p.get("price").asDouble()));
+            cursor = page.get("hasNext").asBoolean() ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(12, prices.size());
+        for (int i = 1; i < prices.size(); i++) {
+            assertTrue(prices.get(i - 1) >= prices.get(i));
+        }
+
+        // Malformed cursors are rejected
+        mockMvc.perform(get("/search/products")
+                .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchPageStatementCount() throws Exception {
+        // Test: A listing page costs one select (plus count) however many categories its rows span
+        List<Category> categories = new ArrayList<>();
+        for (int c = 1; c <= 5; c++) {
+            Category category = new Category();
+            category.setName("Category " + c);
+            categories.add(categoryRepository.save(category));
+        }
+        for (int i = 1; i <= 30; i++) {
+            Product product = new Product();
+            product.setName("Item " + i);
+            product.setPrice(Money.of("1.00").times(i));
+            product.setCategory(categories.get(i % categories.size()));
+            productRepository.save(product);
+        }
+        Product uncategorized = new Product();
+        uncategorized.setName("Loose item");
+        uncategorized.setPrice(Money.of("99.00"));
+        productRepository.save(uncategorized);
+
+        // Warm-up flushes the inserts and loads the category dictionary
+        mockMvc.perform(get("/search/products").param("size", "10")).andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            mockMvc.perform(get("/search/products")
+                    .param("page", "1")
+                    .param("size", "10")
+                    .param("sortBy", "price"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalItems").value(31))
+                    .andExpect(jsonPath("$.products", hasSize(10)))
+                    .andExpect(jsonPath("$.products[*].category.name", everyItem(startsWith("Category "))));
+            assertEquals(2, statistics.getPrepareStatementCount());
+
+            statistics.clear();
+            mockMvc.perform(get("/products"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(31)));
+            assertEquals(1, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void testBulkIngest() throws Exception {
+        // Test: JSON and CSV bulk payloads create valid rows and report invalid ones per row
+        Category category = new Category();
+        category.setName("Kitchen");
+        category = categoryRepository.save(category);
+
+        String json = "[{\"name\":\"Kettle\",\"price\":30.0,\"category\":{\"id\":" + category.getId() + "}},"
+                + "{\"name\":\"Toaster\",\"price\":-1}]";
+        mockMvc.perform(post("/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("price")));
+
+        String csv = "name,price,stockQuantity,categoryId\n"
+                + "Pan,25,3," + category.getId() + "\n"
+                + "Pot,40,0,\n"
+                + "Lid,12,1,999999\n";
+        mockMvc.perform(post("/products/bulk")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(3));
+
+        assertEquals(3, productRepository.count());
+        assertEquals(2, productRepository.findByCategory_Id(category.getId()).size());
+
+        mockMvc.perform(post("/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Kettle\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testCategoryOperations() throws Exception {
         // Test: Complete category CRUD
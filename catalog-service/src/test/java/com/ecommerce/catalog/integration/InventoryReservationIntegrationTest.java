@@ -0,0 +1,194 @@
+package com.ecommerce.catalog.integration;
+
+import com.ecommerce.catalog.entity.InventoryShard;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.entity.ReservationStatus;
+import com.ecommerce.catalog.entity.StockReservation;
+import com.ecommerce.catalog.exception.InventoryConflictException;
+import com.ecommerce.catalog.repository.InventoryShardRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.repository.StockReservationRepository;
+import com.ecommerce.catalog.service.IInventoryService;
+import com.ecommerce.catalog.service.IProductService;
+import com.ecommerce.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "inventory.shards=8",
+    "inventory.sweep-interval-ms=3600000",
+    "inventory.stock-sync-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class InventoryReservationIntegrationTest {
+
+    @Autowired
+    private IInventoryService inventoryService;
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryShardRepository shardRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        shardRepository.deleteAll();
+    }
+
+    @Test
+    void testParallelReservationsNeverOversell() throws Exception {
+        // Test: 4000 one-unit reservations from 32 threads against 1000 units: exactly 1000 succeed, no shard goes negative
+        Long productId = product("Flash Sale Phone", 1000).getId();
+        int attempts = 4000;
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                String orderRef = "order-" + i;
+                futures.add(executor.submit(() -> {
+                    try {
+                        inventoryService.reserve(orderRef, Map.of(productId, 1), null);
+                        reserved.incrementAndGet();
+                    } catch (InventoryConflictException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1000, reserved.get());
+        assertEquals(attempts - 1000, rejected.get());
+        assertEquals(0, inventoryService.getAvailable(productId));
+        assertTrue(shardRepository.findAll().stream().allMatch(s -> s.getAvailable() >= 0));
+        assertEquals(1000, reservationRepository.count());
+    }
+
+    @Test
+    void testReservationLifecycle() {
+        // Test: Gather across shards, idempotent retry, all-or-nothing, release, commit and expiry
+        Long phone = product("Phone", 10).getId();
+        Long charger = product("Charger", 2).getId();
+
+        // 9 of 10 units spread over 8 shards cannot come from one shard
+        StockReservation first = inventoryService.reserve("order-1", Map.of(phone, 9), null);
+        assertEquals(ReservationStatus.RESERVED, first.getStatus());
+        assertTrue(first.getLines().size() > 1);
+        assertEquals(1, inventoryService.getAvailable(phone));
+        assertEquals(first.getId(), inventoryService.reserve("order-1", Map.of(phone, 9), null).getId());
+        assertEquals(1, inventoryService.getAvailable(phone));
+
+        InventoryConflictException shortage = assertThrows(InventoryConflictException.class,
+                () -> inventoryService.reserve("order-2", Map.of(phone, 1, charger, 3), null));
+        assertEquals("Insufficient stock for products: [" + charger + "]", shortage.getMessage());
+        assertEquals(1, inventoryService.getAvailable(phone));
+        assertEquals(2, inventoryService.getAvailable(charger));
+
+        assertEquals(ReservationStatus.RELEASED, inventoryService.release("order-1").getStatus());
+        assertEquals(10, inventoryService.getAvailable(phone));
+        assertEquals(ReservationStatus.RELEASED, inventoryService.release("order-1").getStatus());
+        assertEquals(10, inventoryService.getAvailable(phone));
+
+        inventoryService.reserve("order-3", Map.of(phone, 4, charger, 2), null);
+        assertEquals(ReservationStatus.COMMITTED, inventoryService.commit("order-3").getStatus());
+        assertThrows(InventoryConflictException.class, () -> inventoryService.release("order-3"));
+        assertEquals(6, inventoryService.getAvailable(phone));
+        assertEquals(0, inventoryService.getAvailable(charger));
+
+        StockReservation stale = inventoryService.reserve("order-4", Map.of(phone, 5), Duration.ofMinutes(5));
+        reservationRepository.findById(stale.getId()).ifPresent(r -> {
+            r.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+            reservationRepository.save(r);
+        });
+        assertThrows(InventoryConflictException.class, () -> inventoryService.commit("order-4"));
+        assertEquals(1, inventoryService.releaseExpired());
+        assertEquals(0, inventoryService.releaseExpired());
+        assertEquals(ReservationStatus.EXPIRED, inventoryService.getReservation("order-4").getStatus());
+        assertEquals(6, inventoryService.getAvailable(phone));
+    }
+
+    @Test
+    void testRestockAndProductStockSync() {
+        // Test: Restock adds to the shards without touching reserved units; the product row catches up on sync
+        Long productId = product("Tablet", 5).getId();
+        inventoryService.reserve("order-1", Map.of(productId, 2), null);
+        assertEquals(1, inventoryService.syncProductStock());
+        assertEquals(0, inventoryService.syncProductStock());
+        assertEquals(3, productRepository.findById(productId).orElseThrow().getStockQuantity());
+
+        assertEquals(23, inventoryService.restock(productId, 20));
+        assertEquals(23, inventoryService.getAvailable(productId));
+        List<InventoryShard> shards = shardRepository.findAll();
+        assertEquals(8, shards.size());
+        assertEquals(23, shards.stream().mapToInt(InventoryShard::getAvailable).sum());
+
+        assertThrows(InventoryConflictException.class, () -> inventoryService.restock(productId, -24));
+        assertEquals(20, inventoryService.restock(productId, -3));
+
+        inventoryService.release("order-1");
+        assertEquals(22, inventoryService.getAvailable(productId));
+        assertEquals(1, inventoryService.syncProductStock());
+        Product synced = productRepository.findById(productId).orElseThrow();
+        assertEquals(22, synced.getStockQuantity());
+        assertTrue(synced.getInStock());
+    }
+
+    @Test
+    void testStaleProductWriteDoesNotResetStock() {
+        // Test: A product update carrying a stock quantity read before a reservation changes neither shards nor row
+        Product stale = product("Headphones", 10);
+        inventoryService.reserve("order-1", Map.of(stale.getId(), 4), null);
+        inventoryService.syncProductStock();
+
+        stale.setName("Headphones Pro");
+        stale.setStockQuantity(10);
+        Product saved = productService.replaceProduct(stale.getId(), stale);
+        assertEquals(6, saved.getStockQuantity());
+        assertEquals(6, inventoryService.getAvailable(stale.getId()));
+
+        inventoryService.commit("order-1");
+        assertEquals(0, inventoryService.syncProductStock());
+        Product current = productRepository.findById(stale.getId()).orElseThrow();
+        assertEquals("Headphones Pro", current.getName());
+        assertEquals(6, current.getStockQuantity());
+    }
+
+    private Product product(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(Money.of("99.00"));
+        product.setStockQuantity(stock);
+        return productRepository.save(product);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.catalog.integration;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.money.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the migrations over a catalog database created at the baseline, then lets Hibernate update
+ * the schema as the new version does on startup.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:catalog-migration;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.jpa.hibernate.ddl-auto=update",
+    "spring.sql.init.mode=always",
+    "spring.sql.init.schema-locations=classpath:db/baseline/schema.sql,"
+            + "classpath:db/migration/V2__product_keyset_indexes.sql,"
+            + "classpath:db/migration/V3__product_updated_at.sql,"
+            + "classpath:db/migration/V4__product_id_generator.sql,"
+            + "classpath:db/migration/V5__product_price_minor_units.sql,"
+            + "classpath:db/migration/V6__inventory_reservations.sql"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class MoneyMigrationIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testProductsWrittenBeforeTheMigrationReadAsMoney() {
+        // Test: Prices stored as DOUBLE by the old version are backfilled as minor units
+        assertEquals(Money.of("19.99"), productRepository.findById(1L).orElseThrow().getPrice());
+    }
+
+    @Test
+    void testNewProductsCanBeInsertedAfterTheMigration() {
+        // Test: The new version writes only the minor unit column; the legacy NOT NULL column must not reject the row
+        Product product = new Product();
+        product.setName("New Product");
+        product.setPrice(Money.of("25.50"));
+        product.setStockQuantity(3);
+
+        Long id = productRepository.saveAndFlush(product).getId();
+
+        assertEquals(2550L, jdbcTemplate.queryForObject("SELECT price_minor FROM product WHERE id = ?", Long.class, id));
+        assertNull(jdbcTemplate.queryForObject("SELECT price FROM product WHERE id = ?", Double.class, id));
+    }
+}
@@ -0,0 +1,214 @@
+package com.ecommerce.catalog.search;
+
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSearchIndex productSearchIndex;
+
+    private Category electronics;
+    private Category books;
+
+    @BeforeEach
+    void setUp() {
+        electronics = new Category(1L, "Electronics");
+        books = new Category(2L, "Books");
+    }
+
+    @Test
+    void testRebuildFromRepository() {
+        // Test: Rebuild pages through the repository by id and marks the index ready
+        Product laptop = product(1L, "Gaming Laptop", 1000.0, electronics);
+        Product phone = product(2L, "Smart Phone", 500.0, electronics);
+        Pageable firstPage = PageRequest.of(0, 1000, Sort.by("id"));
+        when(productRepository.findByIdGreaterThan(eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(laptop, phone), firstPage, false));
+
+        assertFalse(productSearchIndex.isReady());
+        productSearchIndex.rebuild();
+
+        assertTrue(productSearchIndex.isReady());
+        assertEquals(2, productSearchIndex.size());
+        assertEquals(List.of(1L), search("lap", null, null, null).getContent());
+    }
+
+    @Test
+    void testPrefixAndMultiTokenMatching() {
+        // Test: Every query token must prefix-match some name token, case-insensitively
+        productSearchIndex.index(product(1L, "Gaming Laptop", 1000.0, electronics));
+        productSearchIndex.index(product(2L, "Laptop Bag", 50.0, electronics));
+        productSearchIndex.index(product(3L, "Java Programming", 40.0, books));
+
+        assertEquals(List.of(1L, 2L), search("LAP", null, null, null).getContent());
+        assertEquals(List.of(1L), search("gam lap", null, null, null).getContent());
+        assertEquals(List.of(3L), search("prog", null, null, null).getContent());
+        assertTrue(search("tablet", null, null, null).getContent().isEmpty());
+    }
+
+    @Test
+    void testCategoryAndPriceFilters() {
+        // Test: Category and price range filters combine with the name query
+        productSearchIndex.index(product(1L, "Gaming Laptop", 1000.0, electronics));
+        productSearchIndex.index(product(2L, "Laptop Bag", 50.0, electronics));
+        productSearchIndex.index(product(3L, "Laptop Repair Guide", 30.0, books));
+
+        assertEquals(List.of(1L, 2L), search("laptop", 1L, null, null).getContent());
+        assertEquals(List.of(2L, 3L), search("laptop", null, Money.of("10.00"), Money.of("100.00")).getContent());
+        assertEquals(List.of(2L), search(null, 1L, null, Money.of("100.00")).getContent());
+        assertEquals(List.of(1L), search(null, null, Money.of("500.00"), null).getContent());
+    }
+
+    @Test
+    void testIncrementalUpdateAndRemove() {
+        // Test: Re-indexing replaces old tokens/category/price and remove drops the document
+        productSearchIndex.index(product(1L, "Gaming Laptop", 1000.0, electronics));
+
+        productSearchIndex.index(product(1L, "Office Desktop", 800.0, books));
+        assertTrue(search("laptop", null, null, null).getContent().isEmpty());
+        assertEquals(List.of(1L), search("desk", 2L, Money.of("700.00"), Money.of("900.00")).getContent());
+        assertTrue(search(null, 1L, null, null).getContent().isEmpty());
+
+        productSearchIndex.remove(1L);
+        assertTrue(search("desk", null, null, null).getContent().isEmpty());
+        assertEquals(0, productSearchIndex.size());
+    }
+
+    @Test
+    void testSortingAndPagination() {
+        // Test: Sort by price descending with id tie-break, and page slicing with total count
+        productSearchIndex.index(product(1L, "Book One", 10.0, books));
+        productSearchIndex.index(product(2L, "Book Two", 30.0, books));
+        productSearchIndex.index(product(3L, "Book Three", 20.0, books));
+        productSearchIndex.index(product(4L, "Book Four", 30.0, books));
+
+        Page<Long> page = productSearchIndex.search("book", null, null, null,
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "price")));
+        assertEquals(List.of(2L, 4L, 3L), page.getContent());
+        assertEquals(4, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+
+        page = productSearchIndex.search("book", null, null, null,
+                PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "price")));
+        assertEquals(List.of(1L), page.getContent());
+
+        assertTrue(productSearchIndex.supports(Sort.by("price", "name")));
+        assertFalse(productSearchIndex.supports(Sort.by("description")));
+    }
+
+    @Test
+    void testFacetsAreMaintainedIncrementallyAndTalliedPerSearch() {
+        // Test: Catalog-wide facets follow index/remove; filtered facets count only the matches
+        productSearchIndex.index(product(1L, "Gaming Laptop", 1000.0, electronics, "Acme", 4.5));
+        productSearchIndex.index(product(2L, "Laptop Bag", 45.0, electronics, "Acme", 3.0));
+        productSearchIndex.index(product(3L, "Laptop Repair Guide", 5.0, books, "Pressly", 5.0));
+
+        SearchFacets all = productSearchIndex.facets(null, null, null, null);
+        assertEquals(List.of(new SearchFacets.CategoryFacet(1L, null, 2), new SearchFacets.CategoryFacet(2L, null, 1)), all.categories());
+        assertEquals(List.of(new SearchFacets.BrandFacet("Acme", 2), new SearchFacets.BrandFacet("Pressly", 1)), all.brands());
+        assertEquals(List.of(new SearchFacets.RangeFacet(null, 10.0, 1), new SearchFacets.RangeFacet(25.0, 50.0, 1),
+                new SearchFacets.RangeFacet(1000.0, null, 1)), all.price());
+        assertEquals(List.of(new SearchFacets.RangeFacet(4.0, 5.0, 2), new SearchFacets.RangeFacet(3.0, 4.0, 1)), all.rating());
+
+        productSearchIndex.index(product(2L, "Laptop Sleeve", 45.0, books, "Pressly", 3.0));
+        productSearchIndex.remove(3L);
+        all = productSearchIndex.facets(null, null, null, null);
+        assertEquals(List.of(new SearchFacets.CategoryFacet(1L, null, 1), new SearchFacets.CategoryFacet(2L, null, 1)), all.categories());
+        assertEquals(List.of(new SearchFacets.BrandFacet("Acme", 1), new SearchFacets.BrandFacet("Pressly", 1)), all.brands());
+
+        FacetedPage<Long> faceted = productSearchIndex.searchWithFacets("laptop", null, Money.of("10.00"), null, PageRequest.of(0, 1, Sort.by("id")));
+        assertEquals(List.of(1L), faceted.page().getContent());
+        assertEquals(2, faceted.page().getTotalElements());
+        assertEquals(2, faceted.facets().categories().size());
+        assertEquals(List.of(new SearchFacets.RangeFacet(25.0, 50.0, 1), new SearchFacets.RangeFacet(1000.0, null, 1)),
+                faceted.facets().price());
+        assertEquals(1, productSearchIndex.facets(null, 2L, null, null).brands().size());
+    }
+
+    @Test
+    void testChangesOnOneNodeReachTheOtherNodesIndex() {
+        // Test: Two nodes share the update channel; a save or delete on one is re-read from the database by the other
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ProductSearchIndex otherNode = new ProductSearchIndex();
+        ReflectionTestUtils.setField(otherNode, "productRepository", productRepository);
+        for (ProductSearchIndex node : List.of(productSearchIndex, otherNode)) {
+            ReflectionTestUtils.setField(node, "redisTemplate", redisTemplate);
+        }
+        // The channel delivers every message to both nodes, including the sender
+        doAnswer(invocation -> {
+            DefaultMessage message = new DefaultMessage(
+                    ((String) invocation.getArgument(0)).getBytes(StandardCharsets.UTF_8),
+                    ((String) invocation.getArgument(1)).getBytes(StandardCharsets.UTF_8));
+            productSearchIndex.onMessage(message, null);
+            otherNode.onMessage(message, null);
+            return 1L;
+        }).when(redisTemplate).convertAndSend(eq("catalog:search:index"), anyString());
+
+        Product laptop = product(1L, "Gaming Laptop", 1000.0, electronics);
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(laptop));
+        productSearchIndex.index(laptop);
+        assertEquals(List.of(1L), otherNode.search("laptop", null, null, null, PageRequest.of(0, 10)).getContent());
+
+        Product renamed = product(1L, "Office Desktop", 800.0, books);
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(renamed));
+        productSearchIndex.index(renamed);
+        assertTrue(otherNode.search("laptop", null, null, null, PageRequest.of(0, 10)).getContent().isEmpty());
+        assertEquals(List.of(1L), otherNode.search("desk", 2L, null, null, PageRequest.of(0, 10)).getContent());
+
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of());
+        productSearchIndex.remove(1L);
+        assertEquals(0, otherNode.size());
+        // The sender applied its own changes directly and only read the database for its peer
+        verify(productRepository, times(3)).findAllById(List.of(1L));
+    }
+
+    private Page<Long> search(String name, Long categoryId, Money minPrice, Money maxPrice) {
+        return productSearchIndex.search(name, categoryId, minPrice, maxPrice, PageRequest.of(0, 10, Sort.by("id")));
+    }
+
+    private Product product(Long id, String name, Double price, Category category, String brand, Double rating) {
+        Product product = product(id, name, price, category);
+        product.setBrand(brand);
+        product.setRating(rating);
+        return product;
+    }
+
+    private Product product(Long id, String name, Double price, Category category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price != null ? Money.of(BigDecimal.valueOf(price)) : null);
+        product.setCategory(category);
+        return product;
+    }
+}
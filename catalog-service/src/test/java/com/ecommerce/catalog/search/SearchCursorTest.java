@@ -0,0 +1,44 @@
+package com.ecommerce.catalog.search;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        // Test: Cursor survives encoding for each sortable key, including names containing the separator
+        Product product = new Product();
+        product.setId(42L);
+        product.setName("Cable: USB-C");
+        product.setPrice(Money.of("19.99"));
+
+        SearchCursor byName = SearchCursor.decode(SearchCursor.after(product, "name", true).encode());
+        assertEquals("name", byName.sortBy());
+        assertTrue(byName.ascending());
+        assertEquals(42L, byName.lastId());
+        assertEquals("Cable: USB-C", byName.lastValue());
+
+        SearchCursor byPrice = SearchCursor.decode(SearchCursor.after(product, "price", false).encode());
+        assertFalse(byPrice.ascending());
+        assertEquals(Money.of("19.99"), byPrice.lastValue());
+
+        SearchCursor byId = SearchCursor.decode(SearchCursor.after(product, "id", true).encode());
+        assertEquals(42L, byId.lastValue());
+    }
+
+    @Test
+    void testRejectsMalformedCursor() {
+        // Test: Garbage, unknown versions and unsupported sort keys are rejected as bad input
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(
+                Base64.getUrlEncoder().encodeToString("v2:id:asc:1:1".getBytes())));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(
+                Base64.getUrlEncoder().encodeToString("v1:rating:asc:1:4.5".getBytes())));
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryDictionaryTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private CategoryDictionary categoryDictionary;
+
+    @Test
+    void testResolveLoadsOnceAndReloadsOnInvalidateOrUnknownId() {
+        // Test: Repeated lookups reuse one load; invalidation and unseen ids trigger a reload
+        Category electronics = new Category(1L, "Electronics");
+        Category books = new Category(2L, "Books");
+        when(categoryRepository.findAll())
+                .thenReturn(List.of(electronics))
+                .thenReturn(List.of(new Category(1L, "Gadgets")))
+                .thenReturn(List.of(electronics, books));
+
+        assertEquals("Electronics", categoryDictionary.resolve(Set.of(1L)).get(1L).getName());
+        categoryDictionary.resolve(Arrays.asList(1L, null));
+        verify(categoryRepository, times(1)).findAll();
+
+        categoryDictionary.invalidate();
+        assertEquals("Gadgets", categoryDictionary.resolve(Set.of(1L)).get(1L).getName());
+        verify(categoryRepository, times(2)).findAll();
+
+        Map<Long, Category> withBooks = categoryDictionary.resolve(Set.of(1L, 2L));
+        assertEquals("Books", withBooks.get(2L).getName());
+        verify(categoryRepository, times(3)).findAll();
+    }
+}
@@ -21,6 +21,9 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CategoryDictionary categoryDictionary;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -80,6 +83,7 @@ class CategoryServiceImplTest {
         doNothing().when(categoryRepository).deleteById(anyLong());
         categoryService.deleteCategory(1L);
         verify(categoryRepository, times(1)).deleteById(1L);
+        verify(categoryDictionary, times(2)).invalidate();
     }
 }
 
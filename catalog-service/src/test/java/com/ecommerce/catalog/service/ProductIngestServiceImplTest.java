@@ -0,0 +1,152 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.dto.BulkIngestResult;
+import com.ecommerce.catalog.dto.CategoryDto;
+import com.ecommerce.catalog.dto.ProductDto;
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.ingest.IngestRow;
+import com.ecommerce.catalog.ingest.ProductRowReader;
+import com.ecommerce.catalog.repository.CategoryRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.search.ProductSearchIndex;
+import com.ecommerce.money.Money;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductIngestServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private ProductIngestServiceImpl ingestService;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ingestService, "batchSize", 2);
+        category = new Category();
+        category.setId(1L);
+        category.setName("Electronics");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIngestWritesValidRowsInBatchesAndReportsErrors() throws Exception {
+        // Test: Rows are written two per transaction, invalid rows are reported, caches evicted once per batch
+        when(categoryRepository.findAllById(any())).thenReturn(List.of(category));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<List<Product>>) invocation.getArgument(0)).doInTransaction(null));
+        List<Integer> batchSizes = new ArrayList<>();
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            batchSizes.add(products.size());
+            return products;
+        });
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+
+        BulkIngestResult result = ingestService.ingest(reader(
+                IngestRow.parsed(1, product("Laptop", 1000.0, 1L)),
+                IngestRow.parsed(2, product("", 10.0, null)),
+                IngestRow.parsed(3, product("Phone", 500.0, 99L)),
+                IngestRow.failed(4, "Malformed row: bad price"),
+                IngestRow.parsed(5, product("Mouse", 20.0, null))));
+
+        assertEquals(5, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(2, 3, 4), result.getErrors().stream().map(BulkIngestResult.RowError::getRow).toList());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("name:"));
+        assertEquals("category.id: Category 99 not found", result.getErrors().get(1).getMessage());
+        assertEquals(List.of(1, 1), batchSizes);
+        verify(productSearchIndex, times(2)).indexAll(argThat(products -> products.size() == 1));
+        verify(cache, times(2)).evict("all");
+        verify(cache).evict(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIngestReportsFailedBatchAndUnreadablePayload() throws Exception {
+        // Test: A failing write marks its rows as failed; a reader error stops ingest after flushing parsed rows
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("deadlock"));
+        ProductRowReader reader = mock(ProductRowReader.class);
+        when(reader.next())
+                .thenReturn(IngestRow.parsed(1, product("Laptop", 1000.0, null)))
+                .thenThrow(new IllegalArgumentException("Malformed JSON at row 2"));
+
+        BulkIngestResult result = ingestService.ingest(reader);
+
+        assertEquals(1, result.getReceived());
+        assertEquals(0, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertEquals("Batch write failed: deadlock", result.getErrors().get(0).getMessage());
+        assertEquals(2, result.getErrors().get(1).getRow());
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    private ProductDto product(String name, Double price, Long categoryId) {
+        ProductDto dto = new ProductDto();
+        dto.setName(name);
+        dto.setPrice(Money.of(BigDecimal.valueOf(price)));
+        if (categoryId != null) {
+            dto.setCategory(new CategoryDto(categoryId, null));
+        }
+        return dto;
+    }
+
+    private ProductRowReader reader(IngestRow... rows) {
+        Iterator<IngestRow> iterator = List.of(rows).iterator();
+        return new ProductRowReader() {
+            @Override
+            public IngestRow next() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
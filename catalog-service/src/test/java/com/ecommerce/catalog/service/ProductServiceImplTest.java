@@ -1,20 +1,33 @@
 package com.ecommerce.catalog.service;
 
+import com.ecommerce.catalog.config.MultiGetCache;
 import com.ecommerce.catalog.entity.Category;
 import com.ecommerce.catalog.entity.Product;
 import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.repository.ProductRow;
+import com.ecommerce.catalog.search.FacetedPage;
+import com.ecommerce.catalog.search.KeysetPage;
+import com.ecommerce.catalog.search.ProductSearchIndex;
+import com.ecommerce.catalog.search.SearchCursor;
+import com.ecommerce.catalog.search.SearchFacets;
+import com.ecommerce.money.Money;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,6 +39,18 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CategoryDictionary categoryDictionary;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -42,20 +67,22 @@ class ProductServiceImplTest {
         testProduct.setId(1L);
         testProduct.setName("Laptop");
         testProduct.setDescription("Gaming Laptop");
-        testProduct.setPrice(1000.0);
+        testProduct.setPrice(Money.of("1000.00"));
         testProduct.setStockQuantity(10);
         testProduct.setCategory(testCategory);
+
+        lenient().when(categoryDictionary.resolve(any())).thenReturn(Map.of(1L, testCategory));
     }
 
     @Test
     void testGetAndSaveProducts() {
         // Test: Get all products, get by ID (found/not found), save product
-        List<Product> products = Arrays.asList(testProduct);
-        when(productRepository.findAll()).thenReturn(products);
+        when(productRepository.findRows(null, null, null, null, Pageable.unpaged())).thenReturn(new PageImpl<>(rows(testProduct)));
 
         List<Product> result = productService.getAllProducts();
         assertEquals(1, result.size());
         assertEquals("Laptop", result.get(0).getName());
+        assertSame(testCategory, result.get(0).getCategory());
 
         // Test get by ID
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
@@ -72,6 +99,7 @@ class ProductServiceImplTest {
         Product saved = productService.save(testProduct);
         assertNotNull(saved);
         assertEquals("Laptop", saved.getName());
+        verify(productSearchIndex, times(1)).index(testProduct);
     }
 
     @Test
@@ -86,55 +114,258 @@ class ProductServiceImplTest {
         doNothing().when(productRepository).deleteById(anyLong());
         productService.deleteProduct(1L);
         verify(productRepository, times(1)).deleteById(1L);
+        verify(productSearchIndex, times(1)).index(testProduct);
+        verify(productSearchIndex, times(1)).remove(1L);
+    }
+
+    @Test
+    void testUpdateKeepsStoredStockQuantity() {
+        // Test: A product write never changes the stock of an existing product; a new product takes the given stock
+        Product stored = new Product();
+        stored.setId(1L);
+        stored.setStockQuantity(10);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(productRepository.save(any(Product.class))).thenAnswer(i -> i.getArgument(0));
+
+        testProduct.setStockQuantity(25);
+        assertEquals(10, productService.replaceProduct(1L, testProduct).getStockQuantity());
+
+        testProduct.setStockQuantity(0);
+        assertEquals(10, productService.save(testProduct).getStockQuantity());
+
+        Product created = new Product();
+        created.setStockQuantity(7);
+        assertEquals(7, productService.save(created).getStockQuantity());
     }
 
     @Test
     void testSearchProducts() {
         // Test: Search by name, category, price range, combined filters, no filters
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Product> page = new PageImpl<>(Arrays.asList(testProduct));
+        Page<ProductRow> page = new PageImpl<>(rows(testProduct));
 
         // Search by name
-        when(productRepository.findByNameContaining(anyString(), any(Pageable.class))).thenReturn(page);
+        when(productRepository.findRows("Laptop", null, null, null, pageable)).thenReturn(page);
         Page<Product> result = productService.searchProducts("Laptop", null, null, null, pageable);
         assertEquals(1, result.getTotalElements());
 
         // Search by category
-        when(productRepository.findByCategory_Id(anyLong(), any(Pageable.class))).thenReturn(page);
+        when(productRepository.findRows(null, 1L, null, null, pageable)).thenReturn(page);
         result = productService.searchProducts(null, null, null, 1L, pageable);
         assertEquals(1, result.getTotalElements());
+        assertEquals("Electronics", result.getContent().get(0).getCategory().getName());
 
         // Search by price range
-        when(productRepository.findByPriceBetween(anyDouble(), anyDouble(), any(Pageable.class))).thenReturn(page);
-        result = productService.searchProducts(null, 500.0, 1500.0, null, pageable);
+        when(productRepository.findRows(null, null, Money.of("500.00"), Money.of("1500.00"), pageable)).thenReturn(page);
+        result = productService.searchProducts(null, Money.of("500.00"), Money.of("1500.00"), null, pageable);
         assertEquals(1, result.getTotalElements());
 
         // Combined search
-        when(productRepository.findByNameContainingAndCategory_IdAndPriceBetween(
-            anyString(), anyLong(), anyDouble(), anyDouble(), any(Pageable.class))).thenReturn(page);
-        result = productService.searchProducts("Laptop", 500.0, 1500.0, 1L, pageable);
+        when(productRepository.findRows("Laptop", 1L, Money.of("500.00"), Money.of("1500.00"), pageable)).thenReturn(page);
+        result = productService.searchProducts("Laptop", Money.of("500.00"), Money.of("1500.00"), 1L, pageable);
         assertEquals(1, result.getTotalElements());
 
         // No filters
-        when(productRepository.findAll(any(Pageable.class))).thenReturn(page);
+        when(productRepository.findRows(null, null, null, null, pageable)).thenReturn(page);
         result = productService.searchProducts(null, null, null, null, pageable);
         assertEquals(1, result.getTotalElements());
+        verify(categoryDictionary, times(5)).resolve(Set.of(1L));
+    }
+
+    @Test
+    void testWritesEvictOnlyAffectedCacheKeys() {
+        // Test: Moving product 1 from category 1 to 2 evicts product::1, the list, and both category lists
+        Cache productCache = mock(Cache.class);
+        Cache productsCache = mock(Cache.class);
+        Cache byCategoryCache = mock(Cache.class);
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+        when(cacheManager.getCache("products")).thenReturn(productsCache);
+        when(cacheManager.getCache("productsByCategory")).thenReturn(byCategoryCache);
+
+        Category books = new Category(2L, "Books");
+        Product moved = new Product();
+        moved.setName("Laptop");
+        moved.setCategory(books);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productService.replaceProduct(1L, moved);
+
+        verify(productCache).evict(1L);
+        verify(productsCache).evict("all");
+        verify(byCategoryCache).evict(1L);
+        verify(byCategoryCache).evict(2L);
+        verify(productCache, never()).clear();
+        verify(byCategoryCache, never()).clear();
+
+        // Delete evicts the product and its category list only
+        clearInvocations(productCache, productsCache, byCategoryCache);
+        productService.deleteProduct(1L);
+        verify(productCache).evict(1L);
+        verify(productsCache).evict("all");
+        verify(byCategoryCache).evict(1L);
+        verifyNoMoreInteractions(byCategoryCache);
+    }
+
+    @Test
+    void testSearchProductsUsesIndexWhenReady() {
+        // Test: Filtered search resolves ids from the index and loads only that page, in index order
+        Product other = new Product();
+        other.setId(2L);
+        other.setName("Laptop Bag");
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.supports(any())).thenReturn(true);
+        when(productSearchIndex.search("lap", 1L, null, null, pageable))
+                .thenReturn(new PageImpl<>(Arrays.asList(2L, 1L), pageable, 2));
+        when(productRepository.findRowsByIds(Arrays.asList(2L, 1L))).thenReturn(rows(testProduct, other));
+
+        Page<Product> result = productService.searchProducts("lap", null, null, 1L, pageable);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(2L, result.getContent().get(0).getId());
+        assertEquals(1L, result.getContent().get(1).getId());
+        verify(productRepository, never()).findRows(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetProductsByIdsKeepsRequestOrder() {
+        // Test: Batch lookup loads distinct ids in one query and returns hits in request order
+        Product other = new Product();
+        other.setId(2L);
+        other.setName("Laptop Bag");
+        when(productRepository.findRowsByIds(Arrays.asList(2L, 3L, 1L))).thenReturn(rows(testProduct, other));
+
+        List<Product> result = productService.getProductsByIds(Arrays.asList(2L, 3L, 1L, 2L));
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+        assertTrue(productService.getProductsByIds(List.of()).isEmpty());
+        verify(productRepository, times(1)).findRowsByIds(any());
+    }
+
+    @Test
+    void testGetProductsByIdsServesHitsFromCacheAndBackfillsMisses() {
+        // Test: Cached ids come from one multi-get, only misses hit the database, and loaded products are written back
+        MultiGetCache productCache = mock(MultiGetCache.class);
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+        Product cached = new Product();
+        cached.setId(2L);
+        cached.setName("Laptop Bag");
+        when(productCache.getAll(Arrays.asList(3L, 2L, 1L))).thenReturn(Map.of(2L, cached));
+        when(productRepository.findRowsByIds(Arrays.asList(3L, 1L))).thenReturn(rows(testProduct));
+
+        List<Product> result = productService.getProductsByIds(Arrays.asList(3L, 2L, 1L));
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+        verify(productCache).putAll(argThat(entries -> entries.size() == 1 && entries.containsKey(1L)));
+        verify(productRepository, times(1)).findRowsByIds(any());
+
+        when(productCache.getAll(List.of(2L))).thenReturn(Map.of(2L, cached));
+        assertEquals(List.of(cached), productService.getProductsByIds(List.of(2L)));
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    void testSearchProductsWithFacets() {
+        // Test: Filtered search takes page and facets from one index pass; facets get category names
+        Pageable pageable = PageRequest.of(0, 10);
+        SearchFacets facets = new SearchFacets(List.of(new SearchFacets.CategoryFacet(1L, null, 1)),
+                List.of(), List.of(), List.of());
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.supports(any())).thenReturn(true);
+        when(productSearchIndex.searchWithFacets("lap", null, null, null, pageable))
+                .thenReturn(new FacetedPage<>(new PageImpl<>(List.of(1L), pageable, 1), facets));
+        when(productRepository.findRowsByIds(List.of(1L))).thenReturn(rows(testProduct));
+
+        FacetedPage<Product> result = productService.searchProductsWithFacets("lap", null, null, null, pageable);
+
+        assertEquals(1L, result.page().getContent().get(0).getId());
+        assertEquals("Electronics", result.facets().categories().get(0).name());
+        verify(productSearchIndex, never()).search(any(), any(), any(), any(), any());
+
+        // Unfiltered pages come from the repository, facets from the maintained totals
+        when(productRepository.findRows(null, null, null, null, pageable)).thenReturn(new PageImpl<>(rows(testProduct)));
+        when(productSearchIndex.facets(null, null, null, null)).thenReturn(facets);
+        result = productService.searchProductsWithFacets(null, null, null, null, pageable);
+        assertEquals(1, result.page().getTotalElements());
+        assertEquals(1, result.facets().categories().get(0).count());
+
+        // No facets until the index is ready
+        when(productSearchIndex.isReady()).thenReturn(false);
+        assertNull(productService.searchProductsWithFacets(null, null, null, null, pageable).facets());
+    }
+
+    @Test
+    void testSearchProductsAfterCursor() {
+        // Test: Keyset search fetches size + 1 rows, emits a cursor after the last row, and rejects mismatched cursors
+        Product second = new Product();
+        second.setId(2L);
+        second.setPrice(Money.of("1200.00"));
+        when(productRepository.findNextPage(isNull(), isNull(), isNull(), isNull(), eq("price"), eq(true), isNull(), eq(2)))
+                .thenReturn(rows(testProduct, second));
+
+        KeysetPage page = productService.searchProductsAfter(null, null, null, null, "price", "asc", null, 1);
+
+        assertTrue(page.hasNext());
+        assertEquals(1, page.content().size());
+        SearchCursor next = SearchCursor.decode(page.nextCursor());
+        assertEquals(1L, next.lastId());
+        assertEquals(Money.of("1000.00"), next.lastValue());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.searchProductsAfter(null, null, null, null, "price", "desc", page.nextCursor(), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.searchProductsAfter(null, null, null, null, "rating", "asc", null, 1));
+    }
+
+    @Test
+    void testExportProductsStreamsAndDetachesRows() {
+        // Test: Export walks the full or incremental stream, detaches each row and closes the stream
+        Product second = new Product();
+        second.setId(2L);
+        List<Long> closed = new ArrayList<>();
+        when(productRepository.streamAll()).thenReturn(Stream.of(testProduct, second).onClose(() -> closed.add(0L)));
+
+        List<Long> exported = new ArrayList<>();
+        long count = productService.exportProducts(null, p -> exported.add(p.getId()));
+
+        assertEquals(2, count);
+        assertEquals(List.of(1L, 2L), exported);
+        assertEquals(1, closed.size());
+        verify(entityManager).detach(testProduct);
+        verify(entityManager).detach(second);
+
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(productRepository.streamUpdatedSince(since)).thenReturn(Stream.of(second));
+        assertEquals(1, productService.exportProducts(since, p -> { }));
+        verify(productRepository, times(1)).streamAll();
     }
 
     @Test
     void testGetProductsByCategoryAndPriceRange() {
         // Test: Get products by category, get products by price range
-        List<Product> products = Arrays.asList(testProduct);
-
-        when(productRepository.findByCategory_Id(1L)).thenReturn(products);
+        when(productRepository.findRows(null, 1L, null, null, Pageable.unpaged())).thenReturn(new PageImpl<>(rows(testProduct)));
         List<Product> result = productService.getProductsByCategory(1L);
         assertEquals(1, result.size());
         assertEquals("Laptop", result.get(0).getName());
 
-        when(productRepository.findByPriceBetween(500.0, 1500.0)).thenReturn(products);
-        result = productService.getProductsByPriceRange(500.0, 1500.0);
+        when(productRepository.findRows(null, null, Money.of("500.00"), Money.of("1500.00"), Pageable.unpaged())).thenReturn(new PageImpl<>(rows(testProduct)));
+        result = productService.getProductsByPriceRange(Money.of("500.00"), Money.of("1500.00"));
         assertEquals(1, result.size());
-        assertEquals(1000.0, result.get(0).getPrice());
+        assertEquals(Money.of("1000.00"), result.get(0).getPrice());
     }
-}
 
+    private List<ProductRow> rows(Product... products) {
+        List<ProductRow> rows = new ArrayList<>();
+        for (Product p : products) {
+            rows.add(new ProductRow(p.getId(), p.getName(), p.getDescription(), p.getPrice(), p.getStockQuantity(), p.getInStock(),
+                    p.getImageUrl(), p.getBrand(), p.getRating(), p.getCategory() != null ? p.getCategory().getId() : null, p.getUpdatedAt()));
+        }
+        return rows;
+    }
+}
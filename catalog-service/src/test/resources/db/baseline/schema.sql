@@ -0,0 +1,22 @@
+-- The catalog tables as Hibernate created them at the baseline, when the price was a DOUBLE
+-- column, with one product written by that version
+CREATE TABLE category (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100)
+);
+
+CREATE TABLE product (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    brand VARCHAR(255),
+    description VARCHAR(1000),
+    image_url VARCHAR(255),
+    in_stock BOOLEAN,
+    name VARCHAR(255),
+    price DOUBLE NOT NULL,
+    rating DOUBLE,
+    stock_quantity INT,
+    category_id BIGINT,
+    CONSTRAINT fk_product_category FOREIGN KEY (category_id) REFERENCES category (id)
+);
+
+INSERT INTO product (id, name, price, stock_quantity, in_stock) VALUES (1, 'Old Product', 19.99, 5, TRUE);
@@ -0,0 +1,49 @@
+package com.ecommerce.events;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Headers that describe an event's payload. Values are UTF-8 strings. A record without
+ * {@link #EVENT_TYPE} predates the typed events and carries a JSON email instead.
+ */
+public class EventHeaders {
+
+    public static final String EVENT_ID = "event-id";
+    public static final String EVENT_TYPE = "event-type";
+    public static final String SCHEMA_VERSION = "schema-version";
+
+    /** Id that stays the same when the event is published again, e.g. by a relay retry; null if missing. */
+    public static String eventId(Headers headers) {
+        return value(headers, EVENT_ID);
+    }
+
+    public static String eventType(Headers headers) {
+        return value(headers, EVENT_TYPE);
+    }
+
+    /** Schema version of the payload, or 0 when the header is missing or not a number. */
+    public static int schemaVersion(Headers headers) {
+        String version = value(headers, SCHEMA_VERSION);
+        if (version == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public static void set(Headers headers, String name, String value) {
+        headers.remove(name);
+        headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String value(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.events;
+
+/**
+ * An event published to {@value #TOPIC}. Each type is encoded by {@link NotificationEventCodec};
+ * its name and schema version travel in the {@link EventHeaders#EVENT_TYPE} and
+ * {@link EventHeaders#SCHEMA_VERSION} headers.
+ */
+public interface NotificationEvent {
+
+    String TOPIC = "notification-events";
+
+    /** Name sent in the {@link EventHeaders#EVENT_TYPE} header, e.g. {@code OrderPlaced}. */
+    String eventType();
+
+    /** Address the notification is sent to. */
+    String getEmail();
+
+    /** BCP 47 language tag of the recipient, e.g. {@code hi-IN}, or null for the default. */
+    String getLocale();
+}
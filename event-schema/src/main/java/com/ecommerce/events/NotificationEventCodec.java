@@ -0,0 +1,185 @@
+package com.ecommerce.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of {@link NotificationEvent}s. Fields are written in a fixed order per
+ * type with no names or delimiters: integers as zig-zag varints, strings as a varint length plus
+ * UTF-8 bytes (length 0 is null, so a string of length n is written as n + 1).
+ * <p>
+ * The layout of a type may only grow by appending fields, and every append bumps the type's
+ * schema version. A reader decodes the fields its version knows and ignores any trailing ones, so
+ * a newer producer can run alongside an older consumer; fields a payload predates keep their
+ * defaults. A change that cannot be expressed by appending needs a new event type.
+ */
+public final class NotificationEventCodec {
+
+    // Version 2 appended locale to both types
+    public static final int ORDER_PLACED_VERSION = 2;
+    public static final int USER_REGISTERED_VERSION = 2;
+
+    private NotificationEventCodec() {
+    }
+
+    /** Schema version {@link #encode} writes for the event's type. */
+    public static int schemaVersion(NotificationEvent event) {
+        if (event instanceof OrderPlaced) {
+            return ORDER_PLACED_VERSION;
+        }
+        if (event instanceof UserRegistered) {
+            return USER_REGISTERED_VERSION;
+        }
+        throw new SerializationException("Unknown notification event " + event.getClass().getName());
+    }
+
+    public static byte[] encode(NotificationEvent event) {
+        Writer out = new Writer();
+        if (event instanceof OrderPlaced order) {
+            out.writeLong(order.getOrderId());
+            out.writeLong(order.getUserId());
+            out.writeString(order.getEmail());
+            out.writeLong(order.getTotalMinorUnits());
+            out.writeString(order.getCurrency());
+            out.writeLong(order.getItemCount());
+            out.writeLong(order.getPlacedAt());
+            out.writeString(order.getLocale());
+        } else if (event instanceof UserRegistered user) {
+            out.writeLong(user.getUserId());
+            out.writeString(user.getEmail());
+            out.writeLong(user.getRegisteredAt());
+            out.writeString(user.getLocale());
+        } else {
+            throw new SerializationException("Unknown notification event " + event.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    public static NotificationEvent decode(String eventType, int schemaVersion, byte[] data) {
+        if (schemaVersion < 1) {
+            throw new SerializationException("Missing or invalid schema version for " + eventType);
+        }
+        Reader in = new Reader(data);
+        switch (eventType) {
+            case OrderPlaced.TYPE -> {
+                OrderPlaced order = new OrderPlaced();
+                order.setOrderId(in.readLong());
+                order.setUserId(in.readLong());
+                order.setEmail(in.readString());
+                order.setTotalMinorUnits(in.readLong());
+                order.setCurrency(in.readString());
+                order.setItemCount(in.readInt());
+                order.setPlacedAt(in.readLong());
+                if (schemaVersion >= 2) {
+                    order.setLocale(in.readString());
+                }
+                return order;
+            }
+            case UserRegistered.TYPE -> {
+                UserRegistered user = new UserRegistered();
+                user.setUserId(in.readLong());
+                user.setEmail(in.readString());
+                user.setRegisteredAt(in.readLong());
+                if (schemaVersion >= 2) {
+                    user.setLocale(in.readString());
+                }
+                return user;
+            }
+            default -> throw new SerializationException("Unknown notification event type " + eventType);
+        }
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        void writeLong(long value) {
+            long v = (value << 1) ^ (value >> 63);
+            while ((v & ~0x7FL) != 0) {
+                write((byte) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            write((byte) v);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeLong(bytes.length + 1L);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void write(byte b) {
+            ensureCapacity(1);
+            buffer[size++] = b;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        long readLong() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = next();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (v >>> 1) ^ -(v & 1);
+                }
+            }
+            throw new SerializationException("Malformed varint at byte " + position);
+        }
+
+        int readInt() {
+            long value = readLong();
+            if (value != (int) value) {
+                throw new SerializationException("Value " + value + " at byte " + position + " does not fit an int");
+            }
+            return (int) value;
+        }
+
+        String readString() {
+            long length = readLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > data.length - position) {
+                throw new SerializationException("String of " + length + " bytes runs past the end of the payload");
+            }
+            String value = new String(data, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+
+        private byte next() {
+            if (position >= data.length) {
+                throw new SerializationException("Payload ends after " + data.length + " bytes");
+            }
+            return data[position++];
+        }
+    }
+}
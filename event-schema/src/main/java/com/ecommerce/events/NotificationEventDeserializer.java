@@ -0,0 +1,30 @@
+package com.ecommerce.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Reads a {@link NotificationEvent} written by {@link NotificationEventSerializer}. The payload
+ * does not name its type, so the record's headers are required.
+ */
+public class NotificationEventDeserializer implements Deserializer<NotificationEvent> {
+
+    @Override
+    public NotificationEvent deserialize(String topic, byte[] data) {
+        throw new SerializationException("Notification events need the " + EventHeaders.EVENT_TYPE + " and "
+                + EventHeaders.SCHEMA_VERSION + " headers to be read");
+    }
+
+    @Override
+    public NotificationEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        String eventType = EventHeaders.eventType(headers);
+        if (eventType == null) {
+            throw new SerializationException("Record has no " + EventHeaders.EVENT_TYPE + " header");
+        }
+        return NotificationEventCodec.decode(eventType, EventHeaders.schemaVersion(headers), data);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.events;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.UUID;
+
+/**
+ * Writes a {@link NotificationEvent} with {@link NotificationEventCodec} and sets its
+ * {@link EventHeaders#EVENT_TYPE} and {@link EventHeaders#SCHEMA_VERSION} headers. A record
+ * without an {@link EventHeaders#EVENT_ID} gets a random one, so consumers can recognise a
+ * redelivery; a producer that may publish the same event twice sets its own stable id instead.
+ */
+public class NotificationEventSerializer implements Serializer<NotificationEvent> {
+
+    @Override
+    public byte[] serialize(String topic, NotificationEvent data) {
+        return data == null ? null : NotificationEventCodec.encode(data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, NotificationEvent data) {
+        if (data == null) {
+            return null;
+        }
+        EventHeaders.set(headers, EventHeaders.EVENT_TYPE, data.eventType());
+        EventHeaders.set(headers, EventHeaders.SCHEMA_VERSION, String.valueOf(NotificationEventCodec.schemaVersion(data)));
+        if (EventHeaders.eventId(headers) == null) {
+            EventHeaders.set(headers, EventHeaders.EVENT_ID, UUID.randomUUID().toString());
+        }
+        return NotificationEventCodec.encode(data);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPlaced implements NotificationEvent {
+
+    public static final String TYPE = "OrderPlaced";
+
+    private long orderId;
+    private long userId;
+    private String email;
+    // Total as a whole number of minor units of currency (an ISO 4217 code)
+    private long totalMinorUnits;
+    private String currency;
+    private int itemCount;
+    private long placedAt;
+    // Since schema version 2
+    private String locale;
+
+    @Override
+    public String eventType() {
+        return TYPE;
+    }
+}
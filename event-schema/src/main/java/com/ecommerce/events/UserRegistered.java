@@ -0,0 +1,24 @@
+package com.ecommerce.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserRegistered implements NotificationEvent {
+
+    public static final String TYPE = "UserRegistered";
+
+    private long userId;
+    private String email;
+    private long registeredAt;
+    // Since schema version 2
+    private String locale;
+
+    @Override
+    public String eventType() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationEventCodecTest {
+
+    private final OrderPlaced order = new OrderPlaced(1042L, 7L, "ana@example.com", 1999900L, "INR", 3, 1760000000000L, "hi-IN");
+
+    @Test
+    void testOrderPlacedRoundTrip() {
+        // Test: Every field of an order survives encode and decode
+        byte[] data = NotificationEventCodec.encode(order);
+
+        assertEquals(order, NotificationEventCodec.decode(OrderPlaced.TYPE, NotificationEventCodec.ORDER_PLACED_VERSION, data));
+    }
+
+    @Test
+    void testUserRegisteredRoundTrip() {
+        // Test: Quotes, backslashes and non-ASCII text in strings need no escaping
+        UserRegistered user = new UserRegistered(-5L, "\"zoë\\o'brien\"@example.com", 0L, null);
+
+        assertEquals(user, NotificationEventCodec.decode(UserRegistered.TYPE, NotificationEventCodec.USER_REGISTERED_VERSION,
+                NotificationEventCodec.encode(user)));
+    }
+
+    @Test
+    void testNullStringsAndEmptyStringsAreDistinct() {
+        // Test: A null field decodes as null and an empty one as empty
+        OrderPlaced sparse = new OrderPlaced(1L, 2L, null, 0L, "", 0, 0L, null);
+
+        OrderPlaced decoded = (OrderPlaced) NotificationEventCodec.decode(OrderPlaced.TYPE, NotificationEventCodec.ORDER_PLACED_VERSION,
+                NotificationEventCodec.encode(sparse));
+
+        assertNull(decoded.getEmail());
+        assertEquals("", decoded.getCurrency());
+    }
+
+    @Test
+    void testEncodingIsCompact() {
+        // Test: The binary order is well under half the size of the JSON email the services used to send
+        String json = String.format("{\"to\":\"%s\",\"subject\":\"Order Confirmation\",\"body\":\"Your order #%d has been placed successfully!\"}",
+                order.getEmail(), order.getOrderId());
+
+        assertTrue(NotificationEventCodec.encode(order).length * 2 < json.length());
+    }
+
+    @Test
+    void testNewerVersionWithAppendedFieldsIsReadable() {
+        // Test: A payload from a later schema version with extra trailing fields decodes the known fields
+        byte[] data = NotificationEventCodec.encode(order);
+        byte[] newer = Arrays.copyOf(data, data.length + 3);
+        newer[data.length] = 6;
+        newer[data.length + 1] = 'e';
+        newer[data.length + 2] = 'n';
+
+        assertEquals(order, NotificationEventCodec.decode(OrderPlaced.TYPE, 3, newer));
+    }
+
+    @Test
+    void testOlderVersionWithoutAppendedFieldsIsReadable() {
+        // Test: A version 1 payload, written before locale was appended, decodes with no locale
+        OrderPlaced withoutLocale = new OrderPlaced(1042L, 7L, "ana@example.com", 1999900L, "INR", 3, 1760000000000L, null);
+        byte[] data = NotificationEventCodec.encode(withoutLocale);
+        // A null string is a single 0 byte, so version 1 is version 2 minus its last byte
+        byte[] v1 = Arrays.copyOf(data, data.length - 1);
+
+        assertEquals(withoutLocale, NotificationEventCodec.decode(OrderPlaced.TYPE, 1, v1));
+    }
+
+    @Test
+    void testTruncatedPayloadIsRejected() {
+        // Test: A payload cut short fails with a SerializationException rather than returning partial data
+        byte[] data = NotificationEventCodec.encode(order);
+
+        assertThrows(SerializationException.class,
+                () -> NotificationEventCodec.decode(OrderPlaced.TYPE, NotificationEventCodec.ORDER_PLACED_VERSION, Arrays.copyOf(data, data.length - 2)));
+    }
+
+    @Test
+    void testUnknownTypeAndMissingVersionAreRejected() {
+        // Test: An unknown event type or a missing schema version cannot be decoded
+        byte[] data = NotificationEventCodec.encode(order);
+
+        assertThrows(SerializationException.class, () -> NotificationEventCodec.decode("OrderShipped", 1, data));
+        assertThrows(SerializationException.class, () -> NotificationEventCodec.decode(OrderPlaced.TYPE, 0, data));
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationEventSerializerTest {
+
+    private final NotificationEventSerializer serializer = new NotificationEventSerializer();
+    private final NotificationEventDeserializer deserializer = new NotificationEventDeserializer();
+
+    @Test
+    void testSerializeSetsTypeAndVersionHeaders() {
+        // Test: The serializer names the type and schema version in headers, and the deserializer reads them back
+        RecordHeaders headers = new RecordHeaders();
+        UserRegistered user = new UserRegistered(9L, "new@example.com", 1760000000000L, null);
+
+        byte[] data = serializer.serialize(NotificationEvent.TOPIC, headers, user);
+
+        assertEquals(UserRegistered.TYPE, EventHeaders.eventType(headers));
+        assertEquals(NotificationEventCodec.USER_REGISTERED_VERSION, EventHeaders.schemaVersion(headers));
+        assertEquals(user, deserializer.deserialize(NotificationEvent.TOPIC, headers, data));
+    }
+
+    @Test
+    void testSerializeReplacesExistingHeaders() {
+        // Test: Re-serializing onto the same headers leaves one value per header
+        RecordHeaders headers = new RecordHeaders();
+        serializer.serialize(NotificationEvent.TOPIC, headers, new UserRegistered(1L, "a@example.com", 0L, null));
+        serializer.serialize(NotificationEvent.TOPIC, headers, new OrderPlaced(2L, 1L, "a@example.com", 100L, "INR", 1, 0L, null));
+
+        assertEquals(OrderPlaced.TYPE, EventHeaders.eventType(headers));
+        assertEquals(3, headers.toArray().length);
+    }
+
+    @Test
+    void testSerializeStampsAnEventIdUnlessOneIsSet() {
+        // Test: Records get a random event id, but an id set by the producer is kept
+        RecordHeaders stamped = new RecordHeaders();
+        RecordHeaders preset = new RecordHeaders();
+        EventHeaders.set(preset, EventHeaders.EVENT_ID, "outbox-42");
+        UserRegistered user = new UserRegistered(1L, "a@example.com", 0L, null);
+
+        serializer.serialize(NotificationEvent.TOPIC, stamped, user);
+        serializer.serialize(NotificationEvent.TOPIC, preset, user);
+
+        assertNotNull(EventHeaders.eventId(stamped));
+        assertNotEquals(EventHeaders.eventId(stamped), EventHeaders.eventId(serializeWithNewHeaders(user)));
+        assertEquals("outbox-42", EventHeaders.eventId(preset));
+    }
+
+    @Test
+    void testDeserializeWithoutTypeHeaderFails() {
+        // Test: Without headers the payload cannot be read
+        byte[] data = serializer.serialize(NotificationEvent.TOPIC, new UserRegistered(1L, "a@example.com", 0L, null));
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(NotificationEvent.TOPIC, data));
+        assertThrows(SerializationException.class,
+                () -> deserializer.deserialize(NotificationEvent.TOPIC, new RecordHeaders(), data));
+    }
+
+    @Test
+    void testNullsPassThrough() {
+        // Test: Tombstones stay null in both directions
+        assertNull(serializer.serialize(NotificationEvent.TOPIC, new RecordHeaders(), null));
+        assertNull(deserializer.deserialize(NotificationEvent.TOPIC, new RecordHeaders(), (byte[]) null));
+    }
+
+    private RecordHeaders serializeWithNewHeaders(NotificationEvent event) {
+        RecordHeaders headers = new RecordHeaders();
+        serializer.serialize(NotificationEvent.TOPIC, headers, event);
+        return headers;
+    }
+}
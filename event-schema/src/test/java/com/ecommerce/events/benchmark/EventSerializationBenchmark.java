@@ -0,0 +1,86 @@
+package com.ecommerce.events.benchmark;
+
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.events.NotificationEventDeserializer;
+import com.ecommerce.events.NotificationEventSerializer;
+import com.ecommerce.events.OrderPlaced;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing and consuming one order notification: the former String.format JSON read
+ * back with Jackson, the typed event as Jackson JSON, and the typed event through
+ * {@link NotificationEventSerializer} and {@link NotificationEventDeserializer}. Each benchmark
+ * covers both ends, from the event's fields to a usable object on the consumer.
+ * Run with: mvn test -Pbenchmark -Dtest=EventSerializationBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NotificationEventSerializer serializer = new NotificationEventSerializer();
+    private final NotificationEventDeserializer deserializer = new NotificationEventDeserializer();
+
+    private final OrderPlaced order = new OrderPlaced(1042L, 7L, "user@example.com", 1999900L, "INR", 3, 1760000000000L, "en-IN");
+
+    public static class EmailMessage {
+        public String to;
+        public String subject;
+        public String body;
+    }
+
+    @Benchmark
+    public EmailMessage stringFormatJson() throws Exception {
+        String message = String.format("{\"to\":\"%s\",\"subject\":\"Order Confirmation\",\"body\":\"Your order #%d has been placed successfully!\"}",
+                order.getEmail(), order.getOrderId());
+        byte[] data = message.getBytes(StandardCharsets.UTF_8);
+        return objectMapper.readValue(new String(data, StandardCharsets.UTF_8), EmailMessage.class);
+    }
+
+    @Benchmark
+    public OrderPlaced typedJson() throws Exception {
+        byte[] data = objectMapper.writeValueAsBytes(order);
+        return objectMapper.readValue(data, OrderPlaced.class);
+    }
+
+    @Benchmark
+    public NotificationEvent typedBinary() {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] data = serializer.serialize(NotificationEvent.TOPIC, headers, order);
+        return deserializer.deserialize(NotificationEvent.TOPIC, headers, data);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws Exception {
+        System.out.printf("Payload bytes: string JSON %d, typed JSON %d, binary %d%n",
+                String.format("{\"to\":\"%s\",\"subject\":\"Order Confirmation\",\"body\":\"Your order #%d has been placed successfully!\"}",
+                        order.getEmail(), order.getOrderId()).getBytes(StandardCharsets.UTF_8).length,
+                objectMapper.writeValueAsBytes(order).length,
+                serializer.serialize(NotificationEvent.TOPIC, new RecordHeaders(), order).length);
+        new Runner(new OptionsBuilder()
+                .include(EventSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount of money held as a whole number of minor units (paise, cents) of its currency, so sums
+ * and products are exact long arithmetic. Amounts are persisted as minor units by
+ * {@link MoneyConverter} and exchanged as plain decimal numbers in JSON.
+ */
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("INR");
+
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    /**
+     * Converts a decimal amount; amounts finer than the currency's minor unit are rejected rather than rounded.
+     */
+    public static Money of(BigDecimal amount, Currency currency) {
+        try {
+            return new Money(amount.movePointRight(fractionDigits(currency)).longValueExact(), currency);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " is not a whole number of "
+                    + currency.getCurrencyCode() + " minor units");
+        }
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount.trim()));
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return other.minorUnits == 0 ? this : new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return other.minorUnits == 0 ? this : new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long quantity) {
+        return quantity == 1 ? this : new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency.getCurrencyCode()
+                    + " and " + other.currency.getCurrencyCode());
+        }
+    }
+
+    private static int fractionDigits(Currency currency) {
+        // Pseudo-currencies report -1; treat them as having no minor unit
+        return Math.max(0, currency.getDefaultFractionDigits());
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Money} attributes as a BIGINT of minor units in {@link Money#DEFAULT_CURRENCY}.
+ * This package is outside the services' entity scan, so entities name the converter with
+ * {@code @Convert} on each amount; auto-apply covers any service that does scan it.
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money != null ? money.minorUnits() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long minorUnits) {
+        return minorUnits != null ? Money.ofMinor(minorUnits) : null;
+    }
+}
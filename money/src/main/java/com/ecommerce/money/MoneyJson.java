@@ -0,0 +1,65 @@
+package com.ecommerce.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * JSON form of {@link Money}: a decimal number in major units ({@code 19.99}), so payloads keep the
+ * shape they had when amounts were doubles. Strings holding a number are accepted on input. The scalar
+ * base classes also cover the type-wrapped form written by the Redis cache serializers.
+ */
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    public static class Serializer extends StdScalarSerializer<Money> {
+
+        public Serializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.toBigDecimal());
+        }
+    }
+
+    public static class Deserializer extends StdScalarDeserializer<Money> {
+
+        public Deserializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            BigDecimal amount;
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                // Read from the literal text, never through a double
+                amount = p.getDecimalValue();
+            } else if (token == JsonToken.VALUE_STRING) {
+                try {
+                    amount = new BigDecimal(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), "not a decimal amount");
+                }
+            } else {
+                return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+            }
+            try {
+                return Money.of(amount);
+            } catch (IllegalArgumentException e) {
+                return (Money) ctxt.handleWeirdNumberValue(Money.class, amount, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Lets {@code @Positive} apply to {@link Money} fields. Registered with Hibernate Validator
+ * through META-INF/services/jakarta.validation.ConstraintValidator.
+ */
+public class PositiveMoneyValidator implements ConstraintValidator<Positive, Money> {
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        // Null is left to @NotNull, as with the built-in validators
+        return value == null || value.isPositive();
+    }
+}
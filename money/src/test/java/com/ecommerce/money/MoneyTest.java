@@ -0,0 +1,103 @@
+package com.ecommerce.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Positive;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testArithmeticIsExact() {
+        // Test: Minor unit arithmetic, decimal conversion and rejection of sub-minor amounts
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.of("0.10"));
+        }
+        assertEquals(Money.of("1.00"), total);
+        assertEquals(100, total.minorUnits());
+        assertEquals(Money.of("59.97"), Money.of("19.99").times(3));
+        assertEquals(new BigDecimal("0.05"), Money.of("0.15").minus(Money.of("0.10")).toBigDecimal());
+        assertEquals(0, Money.ofMinor(0).signum());
+        assertThrows(IllegalArgumentException.class, () -> Money.of("10.999"));
+        assertThrows(IllegalArgumentException.class, () -> Money.ZERO.plus(Money.ofMinor(1, Currency.getInstance("USD"))));
+        assertEquals(Money.ofMinor(1000, Currency.getInstance("JPY")), Money.of(new BigDecimal("1000"), Currency.getInstance("JPY")));
+    }
+
+    @Test
+    void testJsonRoundTrip() throws Exception {
+        // Test: Amounts are plain decimal numbers in JSON, including the type-wrapped Redis cache form
+        Priced priced = new Priced(Money.of("19.90"));
+        ObjectMapper objectMapper = new ObjectMapper();
+        String json = objectMapper.writeValueAsString(priced);
+        assertTrue(json.contains("\"price\":19.90"));
+        assertEquals(priced, objectMapper.readValue(json, Priced.class));
+        assertEquals(Money.of("0.30"), objectMapper.readValue("{\"price\":\"0.3\"}", Priced.class).getPrice());
+        assertThrows(Exception.class, () -> objectMapper.readValue("{\"price\":0.001}", Priced.class));
+
+        GenericJackson2JsonRedisSerializer redisSerializer = new GenericJackson2JsonRedisSerializer();
+        assertEquals(priced, redisSerializer.deserialize(redisSerializer.serialize(priced)));
+    }
+
+    @Test
+    void testPositiveConstraintAppliesToMoney() {
+        // Test: @Positive on a Money field rejects zero and negative amounts
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        Priced priced = new Priced(Money.of("10.00"));
+        assertTrue(validator.validate(priced).isEmpty());
+
+        priced.setPrice(Money.ZERO);
+        assertEquals("Price must be positive", validator.validate(priced).iterator().next().getMessage());
+        priced.setPrice(Money.of("-1.00"));
+        assertEquals(1, validator.validate(priced).size());
+    }
+
+    @Test
+    void testConverterStoresMinorUnits() {
+        // Test: The JPA converter maps amounts to and from a column of minor units
+        MoneyConverter converter = new MoneyConverter();
+        assertEquals(1999L, converter.convertToDatabaseColumn(Money.of("19.99")));
+        assertEquals(Money.of("19.99"), converter.convertToEntityAttribute(1999L));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    static class Priced {
+
+        @Positive(message = "Price must be positive")
+        private Money price;
+
+        Priced() {
+        }
+
+        Priced(Money price) {
+            this.price = price;
+        }
+
+        public Money getPrice() {
+            return price;
+        }
+
+        public void setPrice(Money price) {
+            this.price = price;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Priced other && Objects.equals(price, other.price);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(price);
+        }
+    }
+}
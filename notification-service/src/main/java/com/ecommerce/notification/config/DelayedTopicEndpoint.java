@@ -0,0 +1,91 @@
+package com.ecommerce.notification.config;
+
+import org.springframework.kafka.config.KafkaListenerEndpoint;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import org.springframework.kafka.support.converter.MessageConverter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Listener endpoint for a topic whose records wait until they are due: a retry tier or the
+ * digest topic. One consumer, batch listener, acknowledged by the listener itself; its own group,
+ * so a paused topic never triggers rebalances in another.
+ */
+class DelayedTopicEndpoint implements KafkaListenerEndpoint {
+
+    private final String id;
+    private final String groupId;
+    private final String topic;
+    private final BatchAcknowledgingMessageListener<String, byte[]> listener;
+
+    DelayedTopicEndpoint(String id, String groupId, String topic, BatchAcknowledgingMessageListener<String, byte[]> listener) {
+        this.id = id;
+        this.groupId = groupId;
+        this.topic = topic;
+        this.listener = listener;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getGroupId() {
+        return groupId;
+    }
+
+    @Override
+    public String getGroup() {
+        return null;
+    }
+
+    @Override
+    public Collection<String> getTopics() {
+        return List.of(topic);
+    }
+
+    @Override
+    public TopicPartitionOffset[] getTopicPartitionsToAssign() {
+        return new TopicPartitionOffset[0];
+    }
+
+    @Override
+    public Pattern getTopicPattern() {
+        return null;
+    }
+
+    @Override
+    public String getClientIdPrefix() {
+        return null;
+    }
+
+    @Override
+    public Integer getConcurrency() {
+        return 1;
+    }
+
+    @Override
+    public Boolean getAutoStartup() {
+        return null;
+    }
+
+    @Override
+    public Boolean getBatchListener() {
+        return true;
+    }
+
+    @Override
+    public void setupListenerContainer(MessageListenerContainer listenerContainer, MessageConverter messageConverter) {
+        listenerContainer.setupMessageListener(listener);
+    }
+
+    @Override
+    public boolean isSplitIterables() {
+        return true;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ecommerce.notification.config;
 
+import com.ecommerce.notification.service.SmtpConnectionPool;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,6 +9,7 @@ import org.springframework.context.annotation.Configuration;
 import javax.mail.Authenticator;
 import javax.mail.PasswordAuthentication;
 import javax.mail.Session;
+import java.time.Duration;
 import java.util.Properties;
 
 @Configuration
@@ -24,6 +27,21 @@ public class EmailConfig {
     @Value("${mail.smtp.password:your_password}")
     private String password;
 
+    @Value("${mail.smtp.timeout-ms:10000}")
+    private int timeoutMs = 10000;
+
+    @Value("${mail.pool.size:8}")
+    private int poolSize = 8;
+
+    @Value("${mail.pool.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection = 100;
+
+    @Value("${mail.pool.idle-timeout:30s}")
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    @Value("${mail.pool.borrow-timeout:30s}")
+    private Duration borrowTimeout = Duration.ofSeconds(30);
+
     @Bean
     public Session mailSession() {
         Properties props = new Properties();
@@ -31,6 +49,9 @@ public class EmailConfig {
         props.put("mail.smtp.port", smtpPort);
         props.put("mail.smtp.auth", "true");
         props.put("mail.smtp.starttls.enable", "true");
+        // JavaMail waits forever by default; a hung server would otherwise pin a pooled connection
+        props.put("mail.smtp.connectiontimeout", String.valueOf(timeoutMs));
+        props.put("mail.smtp.timeout", String.valueOf(timeoutMs));
 
         return Session.getInstance(props, new Authenticator() {
             protected PasswordAuthentication getPasswordAuthentication() {
@@ -38,5 +59,9 @@ public class EmailConfig {
             }
         });
     }
-}
 
+    @Bean(destroyMethod = "close")
+    public SmtpConnectionPool smtpConnectionPool(Session mailSession, MeterRegistry meterRegistry) {
+        return new SmtpConnectionPool(mailSession, poolSize, maxMessagesPerConnection, idleTimeout, borrowTimeout, meterRegistry);
+    }
+}
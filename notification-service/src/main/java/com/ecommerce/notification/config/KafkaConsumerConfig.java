@@ -1,42 +1,150 @@
 package com.ecommerce.notification.config;
 
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.notification.service.INotificationDedupeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 
+/**
+ * Notifications are consumed in batches: each poll of up to {@code notification.consumer.max-poll-records}
+ * records is handed to the listener as one list, and its offsets are committed only after the listener
+ * returns. {@code notification.consumer.concurrency} consumers share the topic's partitions, so it
+ * defaults to {@code notification.topic.partitions}; more consumers than partitions would sit idle.
+ * A consumer that takes longer than {@code notification.consumer.max-poll-interval} over a batch is
+ * dropped from the group and its partitions, with the uncommitted batch, go to another consumer;
+ * partition assignments are passed to the {@link INotificationDedupeService} when there is one.
+ */
 @EnableKafka
 @Configuration
 public class KafkaConsumerConfig {
 
+    public static final String NOTIFICATION_TOPIC = NotificationEvent.TOPIC;
+
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${notification.topic.partitions:6}")
+    private int partitions = 6;
+
+    @Value("${notification.consumer.concurrency:${notification.topic.partitions:6}}")
+    private int concurrency = 6;
+
+    @Value("${notification.consumer.max-poll-records:100}")
+    private int maxPollRecords = 100;
+
+    @Value("${notification.consumer.max-poll-interval:5m}")
+    private Duration maxPollInterval = Duration.ofMinutes(5);
+
+    @Value("${notification.consumer.workers:16}")
+    private int workers = 16;
+
+    @Value("${notification.consumer.queue-capacity:500}")
+    private int queueCapacity = 500;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private INotificationDedupeService notificationDedupeService;
+
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, byte[]> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "notification-group");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        return new DefaultKafkaConsumerFactory<>(props);
+        // Values are decoded by the listener, which needs the raw bytes to hand failures on unchanged
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, (int) maxPollInterval.toMillis());
+        // The container commits once the batch is done; the client must not commit on its own timer
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        DefaultKafkaConsumerFactory<String, byte[]> factory = new DefaultKafkaConsumerFactory<>(props);
+        if (meterRegistry != null) {
+            // Exposes the client's own metrics, e.g. kafka.consumer.fetch.manager.records.lag.max
+            factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        }
+        return factory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        if (notificationDedupeService != null) {
+            factory.getContainerProperties().setConsumerRebalanceListener(new ConsumerRebalanceListener() {
+
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> assigned) {
+                    notificationDedupeService.partitionsAssigned(notificationPartitions(assigned));
+                }
+
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> revoked) {
+                    notificationDedupeService.partitionsRevoked(notificationPartitions(revoked));
+                }
+            });
+        }
         return factory;
     }
-}
 
+    private static List<Integer> notificationPartitions(Collection<TopicPartition> topicPartitions) {
+        return topicPartitions.stream()
+                .filter(topicPartition -> topicPartition.topic().equals(NOTIFICATION_TOPIC))
+                .map(TopicPartition::partition)
+                .toList();
+    }
+
+    /**
+     * Sends the emails of a batch in parallel. The pool is shared by all consumers; when its queue
+     * is full the consumer thread sends the email itself, which slows polling instead of buffering
+     * without bound.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor notificationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
 
+    @Bean
+    public NewTopic notificationTopic() {
+        return TopicBuilder.name(NOTIFICATION_TOPIC).partitions(partitions).build();
+    }
+}
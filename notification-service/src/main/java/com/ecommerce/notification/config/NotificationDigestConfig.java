@@ -0,0 +1,48 @@
+package com.ecommerce.notification.config;
+
+import com.ecommerce.notification.consumer.NotificationConsumer;
+import com.ecommerce.notification.service.NotificationDigestServiceImpl;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * The digest topic, where notifications deferred by {@link NotificationDigestServiceImpl} wait,
+ * keyed by recipient, until their window closes. Its listener works like a retry tier: it stays
+ * paused until the oldest record is due, then sends each recipient's due records as one email.
+ */
+@Configuration
+public class NotificationDigestConfig implements KafkaListenerConfigurer {
+
+    public static final String DIGEST_TOPIC = KafkaConsumerConfig.NOTIFICATION_TOPIC + "-digest";
+
+    @Value("${notification.topic.partitions:6}")
+    private int partitions = 6;
+
+    @Autowired
+    @Qualifier("retryListenerContainerFactory")
+    private ConcurrentKafkaListenerContainerFactory<String, byte[]> delayedListenerContainerFactory;
+
+    @Autowired
+    private ObjectProvider<NotificationConsumer> notificationConsumer;
+
+    @Bean
+    public NewTopic notificationDigestTopic() {
+        return TopicBuilder.name(DIGEST_TOPIC).partitions(partitions).build();
+    }
+
+    @Override
+    public void configureKafkaListeners(KafkaListenerEndpointRegistrar registrar) {
+        registrar.registerEndpoint(new DelayedTopicEndpoint("notification-digest", "notification-group-digest", DIGEST_TOPIC,
+                (records, acknowledgment) -> notificationConsumer.getObject().consumeDigest(records, acknowledgment)),
+                delayedListenerContainerFactory);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.notification.config;
+
+import com.ecommerce.notification.consumer.NotificationConsumer;
+import com.ecommerce.notification.service.RetryPolicy;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-blocking retries: a failed notification is republished to the retry topic of its next
+ * attempt (see {@link RetryPolicy}) and the original partition moves on. Each retry topic has its
+ * own listener container, so a tier waiting out a long delay never holds up a shorter one; while
+ * its oldest record is not yet due the container stays paused but keeps polling.
+ */
+@Configuration
+public class NotificationRetryConfig implements KafkaListenerConfigurer {
+
+    @Value("${notification.topic.partitions:6}")
+    private int partitions = 6;
+
+    @Value("${notification.retry.attempts:3}")
+    private int attempts = 3;
+
+    @Value("${notification.retry.initial-delay:10s}")
+    private Duration initialDelay = Duration.ofSeconds(10);
+
+    @Value("${notification.retry.multiplier:6}")
+    private double multiplier = 6;
+
+    @Value("${notification.retry.max-delay:30m}")
+    private Duration maxDelay = Duration.ofMinutes(30);
+
+    @Autowired
+    private ConsumerFactory<String, byte[]> consumerFactory;
+
+    @Autowired
+    private ObjectProvider<NotificationConsumer> notificationConsumer;
+
+    @Bean
+    public RetryPolicy notificationRetryPolicy() {
+        return new RetryPolicy(KafkaConsumerConfig.NOTIFICATION_TOPIC, attempts, initialDelay, multiplier, maxDelay);
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics notificationRetryTopics() {
+        RetryPolicy policy = notificationRetryPolicy();
+        List<NewTopic> topics = new ArrayList<>();
+        for (String topic : policy.retryTopics()) {
+            topics.add(TopicBuilder.name(topic).partitions(partitions).build());
+        }
+        topics.add(TopicBuilder.name(policy.deadLetterTopic()).partitions(partitions).build());
+        return new KafkaAdmin.NewTopics(topics.toArray(new NewTopic[0]));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> retryListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        // Shared by the retry tiers and the digest topic: the listener acknowledges the due part
+        // of a batch and nacks the rest until it is due
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    @Override
+    public void configureKafkaListeners(KafkaListenerEndpointRegistrar registrar) {
+        RetryPolicy policy = notificationRetryPolicy();
+        for (int attempt = 1; attempt <= policy.maxAttempts(); attempt++) {
+            registrar.registerEndpoint(new DelayedTopicEndpoint("notification-retry-" + attempt,
+                    "notification-group-retry-" + attempt, policy.retryTopic(attempt),
+                    (records, acknowledgment) -> notificationConsumer.getObject().consumeRetry(records, acknowledgment)),
+                    retryListenerContainerFactory());
+        }
+    }
+}
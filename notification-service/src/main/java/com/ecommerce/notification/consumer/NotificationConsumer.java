@@ -1,31 +1,299 @@
 package com.ecommerce.notification.consumer;
 
+import com.ecommerce.events.EventHeaders;
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.events.NotificationEventDeserializer;
+import com.ecommerce.notification.config.KafkaConsumerConfig;
 import com.ecommerce.notification.dto.EmailMessageDTO;
-import com.ecommerce.notification.util.EmailUtil;
+import com.ecommerce.notification.service.IEmailDeliveryService;
+import com.ecommerce.notification.service.INotificationDedupeService;
+import com.ecommerce.notification.service.INotificationDigestService;
+import com.ecommerce.notification.service.INotificationRetryService;
+import com.ecommerce.notification.service.INotificationTemplateService;
+import com.ecommerce.notification.util.RetryHeaders;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
-import javax.mail.Session;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+/**
+ * Receives each poll as one batch and hands its emails to the {@link IEmailDeliveryService},
+ * which sends them in parallel. Records are typed events named by their {@code event-type} header,
+ * decoded with the shared event schema and rendered by the {@link INotificationTemplateService};
+ * records without one are JSON emails. A typed event whose recipient already had an email within
+ * the digest window is deferred by the {@link INotificationDigestService} to the digest topic
+ * instead, and goes out with the recipient's other deferred events as one email. An email that
+ * fails is passed to the {@link INotificationRetryService}, which republishes it to a retry topic
+ * or the dead-letter topic; a failed digest hands on each of its records, which are retried one by
+ * one. The listener returns only when every record of the batch has been sent or handed on, so
+ * the container commits the batch's offsets after the work is done; a crash mid-batch redelivers
+ * the whole batch. Emails of one batch may go out in any order.
+ * <p>
+ * Redelivered batches and events published twice are caught by the
+ * {@link INotificationDedupeService}: a record whose {@code event-id} was already processed, or
+ * appears earlier in the same batch, is skipped, and each record of the notification topic is
+ * marked processed once it has been sent, deferred or handed on. Records without an id are
+ * always processed.
+ * <p>
+ * Publishes {@code notification.batch} (latency per batch), {@code notification.batch.size},
+ * {@code notification.lag} (time from publish to pickup per record), {@code notification.sent}
+ * (emails, a digest counting once), {@code notification.failed} (failed attempts),
+ * {@code notification.retry.latency} (time from the first failure to delivery on a retry),
+ * {@code notification.digest.sent}, {@code notification.digest.size} (events per digest) and
+ * {@code notification.dedupe.duplicates} (records skipped as already processed).
+ */
 @Component
 public class NotificationConsumer {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private final NotificationEventDeserializer eventDeserializer = new NotificationEventDeserializer();
+
+    @Autowired
+    private IEmailDeliveryService emailDeliveryService;
+
+    @Autowired
+    private INotificationRetryService notificationRetryService;
+
+    @Autowired
+    private INotificationTemplateService notificationTemplateService;
+
+    // Absent when notification.digest.enabled=false
+    @Autowired(required = false)
+    private INotificationDigestService notificationDigestService;
+
+    // Absent when notification.dedupe.enabled=false
+    @Autowired(required = false)
+    private INotificationDedupeService notificationDedupeService;
+
     @Autowired
-    private Session mailSession;
+    private MeterRegistry meterRegistry;
+
+    @KafkaListener(id = "notification-consumer", topics = KafkaConsumerConfig.NOTIFICATION_TOPIC, groupId = "notification-group")
+    public void consume(List<ConsumerRecord<String, byte[]>> records) {
+        long start = System.nanoTime();
+        Timer lag = Timer.builder("notification.lag").publishPercentileHistogram().register(meterRegistry);
+        long now = System.currentTimeMillis();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            lag.record(Math.max(0, now - record.timestamp()), TimeUnit.MILLISECONDS);
+        }
+
+        process(withoutDuplicates(records), true);
+
+        DistributionSummary.builder("notification.batch.size").register(meterRegistry).record(records.size());
+        Timer.builder("notification.batch").publishPercentileHistogram().register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Listener for the retry topics. Sends the records that are due and leaves the rest on the
+     * topic, pausing the container until the first of them is due.
+     */
+    public void consumeRetry(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        consumeDue(records, acknowledgment, due -> process(due, false));
+    }
+
+    /**
+     * Listener for the digest topic. Like {@link #consumeRetry}, but the due records of each
+     * recipient go out as one digest email.
+     */
+    public void consumeDigest(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        consumeDue(records, acknowledgment, this::processDigests);
+    }
+
+    private void consumeDue(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment,
+                            Consumer<List<ConsumerRecord<String, byte[]>>> processor) {
+        long now = System.currentTimeMillis();
+        int due = 0;
+        while (due < records.size() && RetryHeaders.dueAt(records.get(due).headers()) <= now) {
+            due++;
+        }
 
-    @KafkaListener(topics = "notification-events", groupId = "notification-group")
-    public void consume(String message) {
+        processor.accept(records.subList(0, due));
+
+        if (due == records.size()) {
+            acknowledgment.acknowledge();
+        } else {
+            // Commits everything before the index and redelivers the rest after the sleep
+            long wait = RetryHeaders.dueAt(records.get(due).headers()) - now;
+            acknowledgment.nack(due, Duration.ofMillis(wait));
+        }
+    }
+
+    private List<ConsumerRecord<String, byte[]>> withoutDuplicates(List<ConsumerRecord<String, byte[]>> records) {
+        if (notificationDedupeService == null) {
+            return records;
+        }
+        Map<Integer, List<String>> idsByPartition = new HashMap<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            String eventId = EventHeaders.eventId(record.headers());
+            if (eventId != null) {
+                idsByPartition.computeIfAbsent(record.partition(), partition -> new ArrayList<>()).add(eventId);
+            }
+        }
+        if (idsByPartition.isEmpty()) {
+            return records;
+        }
+        Set<String> processed = new HashSet<>();
+        idsByPartition.forEach((partition, eventIds) ->
+                processed.addAll(notificationDedupeService.alreadyProcessed(partition, eventIds)));
+
+        List<ConsumerRecord<String, byte[]>> fresh = new ArrayList<>(records.size());
+        Set<String> seen = new HashSet<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            String eventId = EventHeaders.eventId(record.headers());
+            if (eventId != null && (processed.contains(eventId) || !seen.add(eventId))) {
+                logger.debug("Skipping already processed notification {} at {}-{}@{}",
+                        eventId, record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            fresh.add(record);
+        }
+        int duplicates = records.size() - fresh.size();
+        if (duplicates > 0) {
+            Counter.builder("notification.dedupe.duplicates").register(meterRegistry).increment(duplicates);
+        }
+        return fresh;
+    }
+
+    // Only first deliveries are coalesced; a retry is already late and goes out on its own
+    private void process(List<ConsumerRecord<String, byte[]>> records, boolean firstDelivery) {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[records.size()];
+        for (int i = 0; i < sends.length; i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            sends[i] = send(record, firstDelivery);
+            String eventId = EventHeaders.eventId(record.headers());
+            if (firstDelivery && notificationDedupeService != null && eventId != null) {
+                // Not marked if it could not be handed on either: the batch is redelivered
+                sends[i] = sends[i].thenRun(() -> notificationDedupeService.markProcessed(record.partition(), eventId));
+            }
+        }
+        CompletableFuture.allOf(sends).join();
+    }
+
+    private void processDigests(List<ConsumerRecord<String, byte[]>> records) {
+        // The digest topic is keyed by recipient
+        Map<String, List<ConsumerRecord<String, byte[]>>> byRecipient = new LinkedHashMap<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            byRecipient.computeIfAbsent(record.key(), recipient -> new ArrayList<>()).add(record);
+        }
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (List<ConsumerRecord<String, byte[]>> recipientRecords : byRecipient.values()) {
+            sends.add(sendDigest(recipientRecords));
+        }
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private CompletableFuture<Void> send(ConsumerRecord<String, byte[]> record, boolean firstDelivery) {
+        EmailMessageDTO emailMessage;
         try {
-            EmailMessageDTO emailMessage = objectMapper.readValue(message, EmailMessageDTO.class);
-            EmailUtil.sendEmail(mailSession, emailMessage.getTo(), emailMessage.getSubject(), emailMessage.getBody());
-            System.out.println("Email sent successfully to: " + emailMessage.getTo());
+            if (EventHeaders.eventType(record.headers()) == null) {
+                // Published before the typed events, e.g. a replayed dead letter: a JSON email
+                emailMessage = objectMapper.readValue(record.value(), EmailMessageDTO.class);
+            } else {
+                NotificationEvent event = decode(record);
+                long digestDueAt = firstDelivery && notificationDigestService != null
+                        ? notificationDigestService.digestDueAt(event.getEmail()) : 0;
+                if (digestDueAt > 0) {
+                    return notificationDigestService.defer(record, event.getEmail(), digestDueAt)
+                            .handle((deferred, e) -> e != null ? failed(record, e) : CompletableFuture.<Void>completedFuture(null))
+                            .thenCompose(next -> next);
+                }
+                emailMessage = notificationTemplateService.render(event);
+            }
         } catch (Exception e) {
-            System.err.println("Failed to send email: " + e.getMessage());
-            e.printStackTrace();
+            return failed(record, e);
         }
+        // A failed email is handed on rather than holding back the rest of the batch or its offset commit
+        return emailDeliveryService.deliver(emailMessage).handle((ignored, e) -> {
+            if (e != null) {
+                return failed(record, e);
+            }
+            Counter.builder("notification.sent").register(meterRegistry).increment();
+            if (RetryHeaders.attempt(record.headers()) > 0) {
+                long firstFailure = RetryHeaders.firstFailureAt(record.headers(), System.currentTimeMillis());
+                Timer.builder("notification.retry.latency").register(meterRegistry)
+                        .record(Math.max(0, System.currentTimeMillis() - firstFailure), TimeUnit.MILLISECONDS);
+            }
+            logger.debug("Email sent successfully to: {}", emailMessage.getTo());
+            return CompletableFuture.<Void>completedFuture(null);
+        }).thenCompose(next -> next);
+    }
+
+    private CompletableFuture<Void> sendDigest(List<ConsumerRecord<String, byte[]>> records) {
+        List<ConsumerRecord<String, byte[]>> included = new ArrayList<>();
+        List<NotificationEvent> events = new ArrayList<>();
+        List<CompletableFuture<Void>> handedOn = new ArrayList<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                events.add(decode(record));
+                included.add(record);
+            } catch (Exception e) {
+                handedOn.add(failed(record, e));
+            }
+        }
+        if (events.isEmpty()) {
+            return CompletableFuture.allOf(handedOn.toArray(new CompletableFuture<?>[0]));
+        }
+
+        CompletableFuture<Void> digest;
+        try {
+            EmailMessageDTO emailMessage = notificationTemplateService.renderDigest(events);
+            digest = emailDeliveryService.deliver(emailMessage).handle((ignored, e) -> {
+                if (e != null) {
+                    return failedAll(included, e);
+                }
+                Counter.builder("notification.sent").register(meterRegistry).increment();
+                Counter.builder("notification.digest.sent").register(meterRegistry).increment();
+                DistributionSummary.builder("notification.digest.size").register(meterRegistry).record(events.size());
+                logger.debug("Digest of {} notification(s) sent to: {}", events.size(), emailMessage.getTo());
+                return CompletableFuture.<Void>completedFuture(null);
+            }).thenCompose(next -> next);
+        } catch (Exception e) {
+            digest = failedAll(included, e);
+        }
+        handedOn.add(digest);
+        return CompletableFuture.allOf(handedOn.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private NotificationEvent decode(ConsumerRecord<String, byte[]> record) {
+        return eventDeserializer.deserialize(record.topic(), record.headers(), record.value());
+    }
+
+    private CompletableFuture<Void> failedAll(List<ConsumerRecord<String, byte[]>> records, Throwable e) {
+        CompletableFuture<?>[] handedOn = new CompletableFuture<?>[records.size()];
+        for (int i = 0; i < handedOn.length; i++) {
+            handedOn[i] = failed(records.get(i), e);
+        }
+        return CompletableFuture.allOf(handedOn);
+    }
+
+    private CompletableFuture<Void> failed(ConsumerRecord<String, byte[]> record, Throwable e) {
+        Counter.builder("notification.failed").register(meterRegistry).increment();
+        logger.warn("Failed to send email for record {} (attempt {}): {}",
+                record.key(), RetryHeaders.attempt(record.headers()) + 1, e.getMessage());
+        return notificationRetryService.handleFailure(record, e).thenApply(handedOn -> null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.notification.controller;
+
+import com.ecommerce.notification.dto.DeadLetterReplayResponse;
+import com.ecommerce.notification.service.INotificationRetryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Operator endpoints for the dead-letter topic. Not routed through the API gateway; call the
+ * service directly from inside the network.
+ */
+@RestController
+@RequestMapping("/admin/notifications/dead-letters")
+public class DeadLetterController {
+
+    static final int MAX_REPLAY = 10000;
+
+    @Autowired
+    private INotificationRetryService notificationRetryService;
+
+    @GetMapping
+    public Map<String, Long> getPending() {
+        return Map.of("pending", notificationRetryService.pendingDeadLetters());
+    }
+
+    @PostMapping("/replay")
+    public DeadLetterReplayResponse replay(@RequestParam(defaultValue = "1000") int limit) {
+        if (limit < 1 || limit > MAX_REPLAY) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_REPLAY);
+        }
+        return notificationRetryService.replayDeadLetters(limit);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeadLetterReplayResponse {
+    private int replayed;
+    private long remaining;
+}
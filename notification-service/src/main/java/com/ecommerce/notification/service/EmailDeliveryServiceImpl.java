@@ -0,0 +1,50 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.notification.dto.EmailMessageDTO;
+import com.ecommerce.notification.util.EmailUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Delivers emails on the bounded {@code notificationExecutor} over pooled SMTP connections. When
+ * the executor's queue is full the caller sends the email itself, which is the backpressure that
+ * slows the Kafka consumer down to what the mail server accepts.
+ */
+@Service
+public class EmailDeliveryServiceImpl implements IEmailDeliveryService {
+
+    @Autowired
+    private Session mailSession;
+
+    @Autowired
+    private SmtpConnectionPool smtpConnectionPool;
+
+    @Autowired
+    @Qualifier("notificationExecutor")
+    private Executor notificationExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public CompletableFuture<Void> deliver(EmailMessageDTO email) {
+        return CompletableFuture.runAsync(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                smtpConnectionPool.send(EmailUtil.createMessage(mailSession, email.getTo(), email.getSubject(), email.getBody()));
+            } catch (MessagingException e) {
+                throw new RuntimeException("Failed to send email", e);
+            } finally {
+                sample.stop(Timer.builder("mail.send").publishPercentileHistogram().register(meterRegistry));
+            }
+        }, notificationExecutor);
+    }
+}
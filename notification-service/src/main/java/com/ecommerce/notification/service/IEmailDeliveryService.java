@@ -0,0 +1,14 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.notification.dto.EmailMessageDTO;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface IEmailDeliveryService {
+
+    /**
+     * Queues the email for delivery; the future completes once the SMTP server has accepted it,
+     * or exceptionally if it could not be sent.
+     */
+    CompletableFuture<Void> deliver(EmailMessageDTO email);
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.notification.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface INotificationDedupeService {
+
+    /**
+     * The event ids among {@code eventIds}, all read from {@code partition} of the notification
+     * topic, that were already processed within the dedupe TTL. When the store cannot be reached
+     * nothing is reported, so a notification may go out twice but is never dropped.
+     */
+    Set<String> alreadyProcessed(int partition, Collection<String> eventIds);
+
+    /** Records that the event read from {@code partition} has been sent or handed on. */
+    void markProcessed(int partition, String eventId);
+
+    /** Loads the processed ids of newly assigned partitions into their in-memory filters. */
+    void partitionsAssigned(Collection<Integer> partitions);
+
+    void partitionsRevoked(Collection<Integer> partitions);
+}
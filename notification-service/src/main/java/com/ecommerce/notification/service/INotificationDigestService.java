@@ -0,0 +1,23 @@
+package com.ecommerce.notification.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface INotificationDigestService {
+
+    /**
+     * Decides whether a notification for {@code recipient} goes out now or joins a digest. Returns
+     * 0 to send it now, which opens a digest window for the recipient, or the time (epoch
+     * milliseconds) the recipient's open window closes, for the notification to be
+     * {@link #defer deferred} into that window's digest.
+     */
+    long digestDueAt(String recipient);
+
+    /**
+     * Publishes the record to the digest topic, keyed by recipient, to be sent at {@code dueAt}
+     * together with the recipient's other deferred notifications. The future completes when the
+     * broker has acknowledged the record.
+     */
+    CompletableFuture<?> defer(ConsumerRecord<String, byte[]> record, String recipient, long dueAt);
+}
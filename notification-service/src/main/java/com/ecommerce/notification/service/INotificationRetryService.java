@@ -0,0 +1,25 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.notification.dto.DeadLetterReplayResponse;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface INotificationRetryService {
+
+    /**
+     * Hands a record whose delivery failed on to the retry topic of its next attempt, or to the
+     * dead-letter topic once its attempts are used up or the failure cannot succeed on retry. The
+     * future completes when the broker has acknowledged the record.
+     */
+    CompletableFuture<?> handleFailure(ConsumerRecord<String, byte[]> record, Throwable error);
+
+    /**
+     * Republishes up to {@code limit} dead-lettered records to the notification topic with their
+     * attempts reset, oldest first, and remembers how far it got.
+     */
+    DeadLetterReplayResponse replayDeadLetters(int limit);
+
+    /** Dead-lettered records not yet replayed. */
+    long pendingDeadLetters();
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.notification.dto.EmailMessageDTO;
+
+import java.util.List;
+
+public interface INotificationTemplateService {
+
+    /** The email for one event, in the event's locale or the closest one with templates. */
+    EmailMessageDTO render(NotificationEvent event);
+
+    /**
+     * One email combining {@code events}, all for the same recipient, in the locale of the first.
+     * A single event renders as its own email.
+     */
+    EmailMessageDTO renderDigest(List<? extends NotificationEvent> events);
+}
@@ -0,0 +1,255 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.notification.config.KafkaConsumerConfig;
+import com.ecommerce.notification.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which notification events have been processed, so a record redelivered after a
+ * rebalance or a crash, or published twice by a producer, is not emailed again. Each partition
+ * of the notification topic has a Redis sorted set of event ids scored by processing time,
+ * trimmed to {@code notification.dedupe.ttl}. That set is exact but costs a round trip, so each
+ * assigned partition also has an in-memory {@link BloomFilter} of the same ids, loaded from Redis
+ * on assignment and kept up to date as events are processed. An id the filter has never seen is
+ * new without asking Redis; only ids the filter may have seen (almost always real duplicates) are
+ * looked up, in one pipelined round trip per batch.
+ * <p>
+ * Just after an assignment the previous owner may still be finishing its last batch, and its ids
+ * would miss the filter, so for {@code notification.dedupe.assignment-grace} every id is looked
+ * up. The filters rotate every TTL and keep the previous generation, so an id stays in them for at
+ * least as long as Redis keeps it.
+ * <p>
+ * Publishes {@code notification.dedupe.lookups} (tagged {@code filter}: {@code negative}
+ * answered in memory, {@code positive} or {@code bypassed} looked up),
+ * {@code notification.dedupe.false.positives}, the observed
+ * {@code notification.dedupe.false.positive.rate} and {@code notification.dedupe.errors}.
+ */
+@Service
+@ConditionalOnProperty(name = "notification.dedupe.enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationDedupeServiceImpl implements INotificationDedupeService {
+
+    static final String KEY_PREFIX = "notification:processed:" + KafkaConsumerConfig.NOTIFICATION_TOPIC + ":";
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Value("${notification.dedupe.ttl:24h}")
+    private Duration ttl = Duration.ofHours(24);
+
+    @Value("${notification.dedupe.expected-per-partition:100000}")
+    private long expectedPerPartition = 100_000;
+
+    @Value("${notification.dedupe.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    @Value("${notification.dedupe.assignment-grace:${notification.consumer.max-poll-interval:5m}}")
+    private Duration assignmentGrace = Duration.ofMinutes(5);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Integer, PartitionFilter> filters = new ConcurrentHashMap<>();
+
+    // When each partition's set was last trimmed to the TTL
+    private final Map<Integer, Long> trimmedAt = new ConcurrentHashMap<>();
+
+    private final AtomicLong filterNegatives = new AtomicLong();
+
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    @PostConstruct
+    public void registerMetrics() {
+        // Share of new ids the filter sent to Redis anyway; compare with notification.dedupe.false-positive-rate
+        Gauge.builder("notification.dedupe.false.positive.rate", this, service -> {
+            long positives = service.falsePositives.get();
+            long total = positives + service.filterNegatives.get();
+            return total == 0 ? 0 : (double) positives / total;
+        }).register(meterRegistry);
+    }
+
+    @Override
+    public Set<String> alreadyProcessed(int partition, Collection<String> eventIds) {
+        PartitionFilter filter = filters.get(partition);
+        long now = System.currentTimeMillis();
+        List<String> lookups = new ArrayList<>();
+        Set<String> filterPositives = new HashSet<>();
+        for (String eventId : eventIds) {
+            if (filter == null || now < filter.exactUntil) {
+                lookups.add(eventId);
+                lookup("bypassed");
+            } else if (filter.mightContain(eventId)) {
+                lookups.add(eventId);
+                filterPositives.add(eventId);
+                lookup("positive");
+            } else {
+                filterNegatives.incrementAndGet();
+                lookup("negative");
+            }
+        }
+        if (lookups.isEmpty()) {
+            return Set.of();
+        }
+
+        String key = key(partition);
+        List<Object> scores;
+        try {
+            scores = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection strings = (StringRedisConnection) connection;
+                for (String eventId : lookups) {
+                    strings.zScore(key, eventId);
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            error("look up", e);
+            return Set.of();
+        }
+
+        long oldest = now - ttl.toMillis();
+        Set<String> processed = new HashSet<>();
+        for (int i = 0; i < lookups.size(); i++) {
+            if (scores.get(i) instanceof Double score && score >= oldest) {
+                processed.add(lookups.get(i));
+            } else if (filterPositives.contains(lookups.get(i))) {
+                falsePositives.incrementAndGet();
+                Counter.builder("notification.dedupe.false.positives").register(meterRegistry).increment();
+            }
+        }
+        return processed;
+    }
+
+    @Override
+    public void markProcessed(int partition, String eventId) {
+        long now = System.currentTimeMillis();
+        PartitionFilter filter = filters.get(partition);
+        if (filter != null) {
+            filter.put(eventId, now);
+        }
+        try {
+            redisTemplate.opsForZSet().add(key(partition), eventId, now);
+            trim(partition, now);
+        } catch (DataAccessException e) {
+            error("record", e);
+        }
+    }
+
+    @Override
+    public void partitionsAssigned(Collection<Integer> partitions) {
+        for (int partition : partitions) {
+            long now = System.currentTimeMillis();
+            PartitionFilter filter = new PartitionFilter(now);
+            try {
+                String key = key(partition);
+                long loaded = 0;
+                Set<String> page;
+                do {
+                    page = redisTemplate.opsForZSet().rangeByScore(key, now - ttl.toMillis(), Double.POSITIVE_INFINITY, loaded, LOAD_PAGE_SIZE);
+                    if (page != null) {
+                        page.forEach(eventId -> filter.put(eventId, now));
+                        loaded += page.size();
+                    }
+                } while (page != null && page.size() == LOAD_PAGE_SIZE);
+                filters.put(partition, filter);
+                logger.info("Loaded {} processed event id(s) of partition {} into its dedupe filter", loaded, partition);
+            } catch (DataAccessException e) {
+                // Without a filter every id of the partition is looked up
+                filters.remove(partition);
+                error("load", e);
+            }
+        }
+    }
+
+    @Override
+    public void partitionsRevoked(Collection<Integer> partitions) {
+        partitions.forEach(filters::remove);
+    }
+
+    // At most once a minute per partition: drop ids past the TTL, and let an abandoned set expire
+    private void trim(int partition, long now) {
+        Long last = trimmedAt.get(partition);
+        if (last != null && now - last < 60_000) {
+            return;
+        }
+        boolean claimed = last == null ? trimmedAt.putIfAbsent(partition, now) == null : trimmedAt.replace(partition, last, now);
+        if (!claimed) {
+            return;
+        }
+        String key = key(partition);
+        redisTemplate.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, now - ttl.toMillis() - 1);
+        redisTemplate.expire(key, ttl.multipliedBy(2));
+    }
+
+    private void lookup(String filter) {
+        Counter.builder("notification.dedupe.lookups").tag("filter", filter).register(meterRegistry).increment();
+    }
+
+    private void error(String action, DataAccessException e) {
+        Counter.builder("notification.dedupe.errors").register(meterRegistry).increment();
+        logger.warn("Could not {} processed notification ids in Redis: {}", action, e.getMessage());
+    }
+
+    private static String key(int partition) {
+        return KEY_PREFIX + partition;
+    }
+
+    /** Two generations of ids for one partition; the older one is dropped after a further TTL. */
+    private final class PartitionFilter {
+
+        private final long exactUntil;
+        private volatile BloomFilter current = new BloomFilter(expectedPerPartition, falsePositiveRate);
+        private volatile BloomFilter previous;
+        private volatile long rotateAt;
+
+        PartitionFilter(long now) {
+            this.exactUntil = now + assignmentGrace.toMillis();
+            this.rotateAt = now + ttl.toMillis();
+        }
+
+        boolean mightContain(String eventId) {
+            BloomFilter older = previous;
+            return current.mightContain(eventId) || older != null && older.mightContain(eventId);
+        }
+
+        void put(String eventId, long now) {
+            if (now >= rotateAt) {
+                rotate(now);
+            }
+            current.put(eventId);
+        }
+
+        private synchronized void rotate(long now) {
+            if (now >= rotateAt) {
+                previous = current;
+                current = new BloomFilter(expectedPerPartition, falsePositiveRate);
+                rotateAt = now + ttl.toMillis();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.notification.config.NotificationDigestConfig;
+import com.ecommerce.notification.util.RetryHeaders;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Coalesces bursts per recipient. The first notification for a recipient is sent at once and
+ * opens a window of {@code notification.digest.window}; notifications for that recipient arriving
+ * before the window closes wait on the digest topic and go out as one email when it does. A quiet
+ * recipient therefore gets every email without delay, and a busy one at most two per window: the
+ * first notification and a digest of the rest. A window of 0 turns digests off.
+ * <p>
+ * A recipient's open window is a Redis key holding its end, created with {@code SET NX PX}, so all
+ * instances share it: whichever instance sees the first notification opens the window, and every
+ * instance defers the rest to it. If Redis cannot be reached the notification is sent at once.
+ * Deferred notifications live on the topic, not in memory, and survive a restart.
+ */
+@Service
+@ConditionalOnProperty(name = "notification.digest.enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationDigestServiceImpl implements INotificationDigestService {
+
+    static final String KEY_PREFIX = "notification:digest:window:";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Value("${notification.digest.window:60s}")
+    private Duration window = Duration.ofSeconds(60);
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public long digestDueAt(String recipient) {
+        if (recipient == null || window.toMillis() <= 0) {
+            return 0;
+        }
+        String key = KEY_PREFIX + key(recipient);
+        try {
+            // Only the first notification of a window, on whichever instance, creates the key
+            String end = Long.toString(System.currentTimeMillis() + window.toMillis());
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, end, window))) {
+                return 0;
+            }
+            String openUntil = redisTemplate.opsForValue().get(key);
+            // Null when the window closed between the two calls: this notification goes out now
+            return openUntil != null ? Long.parseLong(openUntil) : 0;
+        } catch (DataAccessException e) {
+            Counter.builder("notification.digest.errors").register(meterRegistry).increment();
+            logger.warn("Could not check the digest window of {} in Redis, sending now: {}", recipient, e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public CompletableFuture<?> defer(ConsumerRecord<String, byte[]> record, String recipient, long dueAt) {
+        RecordHeaders headers = new RecordHeaders(record.headers().toArray());
+        RetryHeaders.set(headers, RetryHeaders.DUE_AT, dueAt);
+        Counter.builder("notification.digest.deferred").register(meterRegistry).increment();
+        return kafkaTemplate.send(new ProducerRecord<>(NotificationDigestConfig.DIGEST_TOPIC, null,
+                key(recipient), record.value(), headers));
+    }
+
+    private static String key(String recipient) {
+        return recipient.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,205 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.events.EventHeaders;
+import com.ecommerce.notification.config.KafkaConsumerConfig;
+import com.ecommerce.notification.dto.DeadLetterReplayResponse;
+import com.ecommerce.notification.util.RetryHeaders;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.mail.SendFailedException;
+import javax.mail.internet.AddressException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class NotificationRetryServiceImpl implements INotificationRetryService {
+
+    static final String REPLAY_GROUP = "notification-dlt-replay";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private RetryPolicy retryPolicy;
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private ConsumerFactory<String, byte[]> consumerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public CompletableFuture<?> handleFailure(ConsumerRecord<String, byte[]> record, Throwable error) {
+        long now = System.currentTimeMillis();
+        int attempt = RetryHeaders.attempt(record.headers()) + 1;
+        boolean retryable = isRetryable(error);
+
+        RecordHeaders headers = copyHeaders(record, false);
+        RetryHeaders.set(headers, RetryHeaders.FIRST_FAILURE_AT, RetryHeaders.firstFailureAt(record.headers(), now));
+        RetryHeaders.set(headers, RetryHeaders.ERROR, describe(error));
+
+        String topic;
+        if (retryable && attempt <= retryPolicy.maxAttempts()) {
+            topic = retryPolicy.retryTopic(attempt);
+            RetryHeaders.set(headers, RetryHeaders.ATTEMPT, attempt);
+            RetryHeaders.set(headers, RetryHeaders.DUE_AT, now + retryPolicy.delayFor(attempt).toMillis());
+            Counter.builder("notification.retries").tag("attempt", String.valueOf(attempt)).register(meterRegistry).increment();
+        } else {
+            topic = retryPolicy.deadLetterTopic();
+            String reason = retryable ? "exhausted" : "not-retryable";
+            Counter.builder("notification.dlt").tag("reason", reason).register(meterRegistry).increment();
+            logger.warn("Dead-lettering notification {} after {} attempt(s) ({}): {}", record.key(), attempt, reason, describe(error));
+        }
+        return kafkaTemplate.send(new ProducerRecord<>(topic, null, record.key(), record.value(), headers));
+    }
+
+    @Override
+    public synchronized DeadLetterReplayResponse replayDeadLetters(int limit) {
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(REPLAY_GROUP, "dlt-replay", null)) {
+            List<TopicPartition> partitions = assignAtCommitted(consumer);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            List<CompletableFuture<?>> sends = new ArrayList<>();
+            Map<TopicPartition, OffsetAndMetadata> replayedTo = new HashMap<>();
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (sends.size() < limit && behind(consumer, endOffsets) && System.currentTimeMillis() < deadline) {
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofMillis(500))) {
+                    if (sends.size() == limit) {
+                        break;
+                    }
+                    sends.add(kafkaTemplate.send(new ProducerRecord<>(KafkaConsumerConfig.NOTIFICATION_TOPIC, null,
+                            record.key(), record.value(), replayHeaders(record))));
+                    replayedTo.put(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+            // Only move the group past records the broker has taken back
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).join();
+            consumer.commitSync(replayedTo);
+            Counter.builder("notification.dlt.replayed").register(meterRegistry).increment(sends.size());
+            logger.info("Replayed {} dead-lettered notification(s)", sends.size());
+            return new DeadLetterReplayResponse(sends.size(), pending(consumer, partitions, endOffsets));
+        }
+    }
+
+    @Override
+    public long pendingDeadLetters() {
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(REPLAY_GROUP, "dlt-pending", null)) {
+            List<TopicPartition> partitions = partitions(consumer);
+            return pending(consumer, partitions, consumer.endOffsets(partitions));
+        }
+    }
+
+    // Neither a malformed event nor a bad address gets better by waiting
+    private static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JsonProcessingException || cause instanceof SerializationException
+                    || cause instanceof AddressException) {
+                return false;
+            }
+            if (cause instanceof SendFailedException failed
+                    && failed.getInvalidAddresses() != null && failed.getInvalidAddresses().length > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String describe(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String description = root.getClass().getSimpleName() + ": " + root.getMessage();
+        return description.length() > 500 ? description.substring(0, 500) : description;
+    }
+
+    private static RecordHeaders copyHeaders(ConsumerRecord<String, byte[]> record, boolean dropRetryState) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!dropRetryState || !RetryHeaders.ALL.contains(header.key())) {
+                headers.add(header.key(), header.value());
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * A replay is a new delivery, but the original event id was marked processed when it was first
+     * handed on, so dedupe would drop it. The replay gets an id of its own, taken from the dead
+     * letter's position, which still lets dedupe catch the same dead letter being replayed twice.
+     */
+    private static RecordHeaders replayHeaders(ConsumerRecord<String, byte[]> record) {
+        RecordHeaders headers = copyHeaders(record, true);
+        EventHeaders.set(headers, EventHeaders.EVENT_ID,
+                "replay:" + record.topic() + "-" + record.partition() + "@" + record.offset());
+        return headers;
+    }
+
+    private List<TopicPartition> partitions(Consumer<String, byte[]> consumer) {
+        List<PartitionInfo> infos = consumer.partitionsFor(retryPolicy.deadLetterTopic());
+        if (infos == null) {
+            return List.of();
+        }
+        return infos.stream().map(info -> new TopicPartition(info.topic(), info.partition())).toList();
+    }
+
+    private List<TopicPartition> assignAtCommitted(Consumer<String, byte[]> consumer) {
+        List<TopicPartition> partitions = partitions(consumer);
+        consumer.assign(partitions);
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            if (offset != null) {
+                consumer.seek(partition, offset);
+            } else {
+                consumer.seekToBeginning(List.of(partition));
+            }
+        }
+        return partitions;
+    }
+
+    private static boolean behind(Consumer<String, byte[]> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long pending(Consumer<String, byte[]> consumer, List<TopicPartition> partitions, Map<TopicPartition, Long> endOffsets) {
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+        Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+        long pending = 0;
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            long from = Math.max(offset != null ? offset.offset() : 0, beginning.get(partition));
+            pending += Math.max(0, endOffsets.get(partition) - from);
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,178 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.events.OrderPlaced;
+import com.ecommerce.events.UserRegistered;
+import com.ecommerce.notification.dto.EmailMessageDTO;
+import com.ecommerce.notification.util.CompiledTemplate;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+/**
+ * Renders notification emails from the templates in {@code templates/notifications*.properties}.
+ * Every template of every locale in {@code notification.templates.locales} is parsed into a
+ * {@link CompiledTemplate} at startup and checked against the values its event type provides, so a
+ * broken template stops the service from starting instead of failing emails; rendering is then a
+ * map lookup by locale and template key plus string appends.
+ * <p>
+ * An event's locale resolves to its full tag if that has templates (e.g. {@code hi-IN}), else its
+ * language ({@code hi}), else {@code notification.templates.default-locale}.
+ */
+@Service
+public class NotificationTemplateServiceImpl implements INotificationTemplateService {
+
+    static final String BUNDLE = "templates/notifications";
+
+    private static final Set<String> ORDER_VALUES = Set.of("orderId", "userId", "email", "itemCount", "total");
+    private static final Set<String> USER_VALUES = Set.of("userId", "email");
+
+    // Every template key with the placeholders it may use
+    private static final Map<String, Set<String>> TEMPLATES = Map.of(
+            OrderPlaced.TYPE + ".subject", ORDER_VALUES,
+            OrderPlaced.TYPE + ".body", ORDER_VALUES,
+            UserRegistered.TYPE + ".subject", USER_VALUES,
+            UserRegistered.TYPE + ".body", USER_VALUES,
+            "digest.subject", Set.of("count"),
+            "digest.body", Set.of("count", "items"),
+            "digest.item", Set.of("subject", "body"));
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Value("${notification.templates.locales:en}")
+    private List<String> locales = List.of("en");
+
+    @Value("${notification.templates.default-locale:en}")
+    private String defaultLocale = "en";
+
+    // Language tag -> template key -> template
+    private Map<String, Map<String, CompiledTemplate>> templates = Map.of();
+
+    @PostConstruct
+    public void compileTemplates() {
+        Set<String> tags = new LinkedHashSet<>();
+        tags.add(Locale.forLanguageTag(defaultLocale).toLanguageTag());
+        for (String locale : locales) {
+            tags.add(Locale.forLanguageTag(locale.trim()).toLanguageTag());
+        }
+
+        Map<String, Map<String, CompiledTemplate>> compiled = new HashMap<>();
+        // Without the JVM's default locale as a fallback, a locale with no file of its own gets the base templates
+        ResourceBundle.Control control = ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+        for (String tag : tags) {
+            ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE, Locale.forLanguageTag(tag), control);
+            Map<String, CompiledTemplate> forLocale = new HashMap<>();
+            for (Map.Entry<String, Set<String>> template : TEMPLATES.entrySet()) {
+                forLocale.put(template.getKey(), compile(tag, template.getKey(), bundle.getString(template.getKey()), template.getValue()));
+            }
+            compiled.put(tag, Map.copyOf(forLocale));
+        }
+        templates = Map.copyOf(compiled);
+        logger.info("Compiled {} notification templates for locales {}", TEMPLATES.size() * tags.size(), tags);
+    }
+
+    @Override
+    public EmailMessageDTO render(NotificationEvent event) {
+        Map<String, CompiledTemplate> forLocale = templatesFor(event.getLocale());
+        Map<String, String> values = values(event);
+        return new EmailMessageDTO(event.getEmail(), null,
+                forLocale.get(event.eventType() + ".subject").render(values),
+                forLocale.get(event.eventType() + ".body").render(escaped(values)));
+    }
+
+    @Override
+    public EmailMessageDTO renderDigest(List<? extends NotificationEvent> events) {
+        if (events.isEmpty()) {
+            throw new IllegalArgumentException("A digest needs at least one event");
+        }
+        if (events.size() == 1) {
+            return render(events.get(0));
+        }
+        Map<String, CompiledTemplate> forLocale = templatesFor(events.get(0).getLocale());
+        StringBuilder items = new StringBuilder();
+        for (NotificationEvent event : events) {
+            Map<String, String> values = values(event);
+            items.append(forLocale.get("digest.item").render(Map.of(
+                    "subject", HtmlUtils.htmlEscape(forLocale.get(event.eventType() + ".subject").render(values)),
+                    "body", forLocale.get(event.eventType() + ".body").render(escaped(values)))));
+        }
+        Map<String, String> digest = Map.of("count", String.valueOf(events.size()), "items", items.toString());
+        return new EmailMessageDTO(events.get(0).getEmail(), null,
+                forLocale.get("digest.subject").render(digest), forLocale.get("digest.body").render(digest));
+    }
+
+    private Map<String, CompiledTemplate> templatesFor(String languageTag) {
+        if (languageTag != null && !languageTag.isBlank()) {
+            Locale locale = Locale.forLanguageTag(languageTag);
+            Map<String, CompiledTemplate> forLocale = templates.get(locale.toLanguageTag());
+            if (forLocale == null) {
+                forLocale = templates.get(locale.getLanguage());
+            }
+            if (forLocale != null) {
+                return forLocale;
+            }
+        }
+        return templates.get(Locale.forLanguageTag(defaultLocale).toLanguageTag());
+    }
+
+    private static Map<String, String> values(NotificationEvent event) {
+        Map<String, String> values = new HashMap<>();
+        values.put("email", event.getEmail());
+        if (event instanceof OrderPlaced order) {
+            values.put("orderId", String.valueOf(order.getOrderId()));
+            values.put("userId", String.valueOf(order.getUserId()));
+            values.put("itemCount", String.valueOf(order.getItemCount()));
+            values.put("total", money(order.getTotalMinorUnits(), order.getCurrency()));
+        } else if (event instanceof UserRegistered user) {
+            values.put("userId", String.valueOf(user.getUserId()));
+        } else {
+            throw new IllegalArgumentException("No templates for event type " + event.eventType());
+        }
+        return values;
+    }
+
+    private static Map<String, String> escaped(Map<String, String> values) {
+        Map<String, String> escaped = new HashMap<>();
+        values.forEach((name, value) -> escaped.put(name, value == null ? null : HtmlUtils.htmlEscape(value)));
+        return escaped;
+    }
+
+    private static String money(long minorUnits, String currencyCode) {
+        int fractionDigits = 2;
+        try {
+            fractionDigits = Math.max(0, Currency.getInstance(currencyCode).getDefaultFractionDigits());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            // Not an ISO 4217 code; show the amount with two decimals
+        }
+        return currencyCode + " " + BigDecimal.valueOf(minorUnits, fractionDigits).toPlainString();
+    }
+
+    private static CompiledTemplate compile(String locale, String key, String source, Set<String> allowed) {
+        CompiledTemplate template;
+        try {
+            template = CompiledTemplate.compile(source);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Notification template " + key + " for locale " + locale + ": " + e.getMessage(), e);
+        }
+        for (String variable : template.variables()) {
+            if (!allowed.contains(variable)) {
+                throw new IllegalStateException("Notification template " + key + " for locale " + locale
+                        + " uses {" + variable + "}; available: " + allowed);
+            }
+        }
+        return template;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.notification.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Retry tiers for failed notifications. Attempt {@code n} (1-based) waits on its own topic,
+ * {@code <topic>-retry-<n>}, for {@code initialDelay * multiplier^(n-1)}, capped at
+ * {@code maxDelay}. One topic per delay keeps every topic's records in due order, so a tier only
+ * ever waits on its oldest record. After the last tier a record goes to {@code <topic>-dlt}.
+ */
+public class RetryPolicy {
+
+    private final String topic;
+    private final List<Duration> delays;
+
+    public RetryPolicy(String topic, int attempts, Duration initialDelay, double multiplier, Duration maxDelay) {
+        if (attempts < 0 || multiplier < 1.0) {
+            throw new IllegalArgumentException("notification.retry.attempts must be >= 0 and notification.retry.multiplier >= 1");
+        }
+        this.topic = topic;
+        List<Duration> tiers = new ArrayList<>();
+        double delayMs = initialDelay.toMillis();
+        for (int i = 0; i < attempts; i++) {
+            tiers.add(Duration.ofMillis((long) Math.min(delayMs, maxDelay.toMillis())));
+            delayMs *= multiplier;
+        }
+        this.delays = Collections.unmodifiableList(tiers);
+    }
+
+    public int maxAttempts() {
+        return delays.size();
+    }
+
+    /** Delay before retry attempt {@code attempt}, 1-based. */
+    public Duration delayFor(int attempt) {
+        return delays.get(attempt - 1);
+    }
+
+    public String retryTopic(int attempt) {
+        return topic + "-retry-" + attempt;
+    }
+
+    public String deadLetterTopic() {
+        return topic + "-dlt";
+    }
+
+    public List<String> retryTopics() {
+        List<String> topics = new ArrayList<>();
+        for (int attempt = 1; attempt <= maxAttempts(); attempt++) {
+            topics.add(retryTopic(attempt));
+        }
+        return topics;
+    }
+}
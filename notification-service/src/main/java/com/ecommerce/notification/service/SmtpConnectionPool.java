@@ -0,0 +1,191 @@
+package com.ecommerce.notification.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps up to {@code size} connected, authenticated SMTP {@link Transport}s and sends many
+ * messages over each, instead of the connect, STARTTLS, AUTH and QUIT that the static
+ * {@code Transport.send} pays per message. A connection is closed after
+ * {@code maxMessagesPerConnection} messages, since servers cap messages per session, and when it
+ * has been idle longer than {@code idleTimeout}, since servers drop quiet sessions. A send that
+ * fails on a reused connection is retried once on a fresh one, unless the server rejected a
+ * recipient or already accepted some, so a retry never sends a message twice.
+ * <p>
+ * Publishes {@code mail.pool.active}, {@code mail.pool.idle} and {@code mail.connections.opened}.
+ */
+public class SmtpConnectionPool implements AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Session session;
+    private final int size;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutNanos;
+    private final Duration borrowTimeout;
+
+    private final Semaphore permits;
+    // Most recently used on top, so the ones left underneath are the ones that age out
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Counter opened;
+    private boolean closed;
+
+    public SmtpConnectionPool(Session session, int size, int maxMessagesPerConnection,
+                              Duration idleTimeout, Duration borrowTimeout, MeterRegistry meterRegistry) {
+        if (size < 1 || maxMessagesPerConnection < 1) {
+            throw new IllegalArgumentException("mail.pool.size and mail.pool.max-messages-per-connection must be at least 1");
+        }
+        this.session = session;
+        this.size = size;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.borrowTimeout = borrowTimeout;
+        this.permits = new Semaphore(size, true);
+        this.opened = Counter.builder("mail.connections.opened").register(meterRegistry);
+        Gauge.builder("mail.pool.active", this, SmtpConnectionPool::active).strongReference(true).register(meterRegistry);
+        Gauge.builder("mail.pool.idle", this, SmtpConnectionPool::idleCount).strongReference(true).register(meterRegistry);
+    }
+
+    /**
+     * Sends the message on a pooled connection, waiting up to the borrow timeout for one to free up.
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("No SMTP connection free within " + borrowTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        }
+        try {
+            // Transport.send does this itself; sendMessage does not
+            message.saveChanges();
+            PooledConnection connection = takeIdle();
+            if (connection != null) {
+                try {
+                    sendOn(connection, message);
+                    return;
+                } catch (MessagingException e) {
+                    if (!isConnectionFailure(e)) {
+                        throw e;
+                    }
+                    logger.debug("Pooled SMTP connection failed after {} messages, retrying on a new one: {}",
+                            connection.sent, e.getMessage());
+                }
+            }
+            sendOn(open(), message);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int active() {
+        return size - permits.availablePermits();
+    }
+
+    public synchronized int idleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            while (!idle.isEmpty()) {
+                idle.pop().close();
+            }
+        }
+    }
+
+    private void sendOn(PooledConnection connection, MimeMessage message) throws MessagingException {
+        try {
+            connection.transport.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException e) {
+            connection.close();
+            throw e;
+        }
+        connection.sent++;
+        giveBack(connection);
+    }
+
+    // A dropped session also surfaces as SendFailedException, but without any addresses attached
+    private static boolean isConnectionFailure(MessagingException e) {
+        if (e instanceof SendFailedException failed) {
+            return isEmpty(failed.getValidSentAddresses()) && isEmpty(failed.getInvalidAddresses());
+        }
+        return true;
+    }
+
+    private static boolean isEmpty(Object[] addresses) {
+        return addresses == null || addresses.length == 0;
+    }
+
+    private synchronized PooledConnection takeIdle() {
+        long now = System.nanoTime();
+        while (!idle.isEmpty()) {
+            PooledConnection connection = idle.pop();
+            if (now - connection.lastUsed < idleTimeoutNanos) {
+                return connection;
+            }
+            connection.close();
+        }
+        return null;
+    }
+
+    private void giveBack(PooledConnection connection) {
+        if (connection.sent >= maxMessagesPerConnection) {
+            connection.close();
+            return;
+        }
+        connection.lastUsed = System.nanoTime();
+        synchronized (this) {
+            if (!closed) {
+                idle.push(connection);
+                return;
+            }
+        }
+        connection.close();
+    }
+
+    private PooledConnection open() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        // Host, port and credentials come from the session and its authenticator
+        transport.connect();
+        opened.increment();
+        return new PooledConnection(transport);
+    }
+
+    private class PooledConnection {
+
+        private final Transport transport;
+        private int sent;
+        private long lastUsed;
+
+        private PooledConnection(Transport transport) {
+            this.transport = transport;
+        }
+
+        private void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                logger.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.notification.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A text template parsed once into alternating literal text and {@code {name}} placeholders, so
+ * rendering is a single pass of appends with no scanning or regex work. Values are inserted as
+ * given; callers escape them for the target format. A placeholder with no value renders empty.
+ */
+public final class CompiledTemplate {
+
+    private final String source;
+    // literals has one more entry than variables: literal, variable, literal, ..., literal
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private CompiledTemplate(String source, List<String> literals, List<String> variables) {
+        this.source = source;
+        this.literals = literals.toArray(new String[0]);
+        this.variables = variables.toArray(new String[0]);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Parses {@code source}. Placeholder names are letters and digits; {@code {{} and {@code }}}
+     * write literal braces.
+     *
+     * @throws IllegalArgumentException if a brace is unmatched or a placeholder name is invalid
+     */
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '}') {
+                if (i + 1 < source.length() && source.charAt(i + 1) == '}') {
+                    literal.append('}');
+                    i += 2;
+                    continue;
+                }
+                throw new IllegalArgumentException("Unmatched '}' at " + i + " in template: " + source);
+            }
+            if (c != '{') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (i + 1 < source.length() && source.charAt(i + 1) == '{') {
+                literal.append('{');
+                i += 2;
+                continue;
+            }
+            int end = source.indexOf('}', i);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed '{' at " + i + " in template: " + source);
+            }
+            String name = source.substring(i + 1, end);
+            if (name.isEmpty() || !name.chars().allMatch(Character::isLetterOrDigit)) {
+                throw new IllegalArgumentException("Invalid placeholder '{" + name + "}' in template: " + source);
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            variables.add(name);
+            i = end + 1;
+        }
+        literals.add(literal.toString());
+        return new CompiledTemplate(source, literals, variables);
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(literalLength + 16 * variables.length);
+        out.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            String value = values.get(variables[i]);
+            if (value != null) {
+                out.append(value);
+            }
+            out.append(literals[i + 1]);
+        }
+        return out.toString();
+    }
+
+    /** Placeholder names in order of first use. */
+    public Set<String> variables() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(List.of(variables)));
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -8,14 +8,19 @@ public class EmailUtil {
 
     public static void sendEmail(Session session, String toEmail, String subject, String body) {
         try {
-            MimeMessage message = new MimeMessage(session);
-            message.setFrom(new InternetAddress("noreply@ecommerce.com"));
-            message.setRecipient(Message.RecipientType.TO, new InternetAddress(toEmail));
-            message.setSubject(subject);
-            message.setContent(body, "text/html");
-            Transport.send(message);
+            Transport.send(createMessage(session, toEmail, subject, body));
         } catch (MessagingException e) {
             throw new RuntimeException("Failed to send email", e);
         }
     }
-}
\ No newline at end of file
+
+    public static MimeMessage createMessage(Session session, String toEmail, String subject, String body) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("noreply@ecommerce.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(toEmail));
+        // Explicit so translated templates survive a JVM whose default charset is not UTF-8
+        message.setSubject(subject, "UTF-8");
+        message.setContent(body, "text/html; charset=UTF-8");
+        return message;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.notification.util;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Headers a notification carries through the retry topics. Values are decimal strings, epoch
+ * milliseconds for times; a record without them is on its first attempt.
+ */
+public class RetryHeaders {
+
+    public static final String ATTEMPT = "notification-attempt";
+    public static final String DUE_AT = "notification-due-at";
+    public static final String FIRST_FAILURE_AT = "notification-first-failure-at";
+    public static final String ERROR = "notification-error";
+
+    public static final Set<String> ALL = Set.of(ATTEMPT, DUE_AT, FIRST_FAILURE_AT, ERROR);
+
+    public static int attempt(Headers headers) {
+        return (int) longValue(headers, ATTEMPT, 0);
+    }
+
+    public static long dueAt(Headers headers) {
+        return longValue(headers, DUE_AT, 0);
+    }
+
+    public static long firstFailureAt(Headers headers, long defaultValue) {
+        return longValue(headers, FIRST_FAILURE_AT, defaultValue);
+    }
+
+    public static void set(Headers headers, String name, Object value) {
+        headers.remove(name);
+        headers.add(name, String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long longValue(Headers headers, String name, long defaultValue) {
+        Header header = headers.lastHeader(name);
+        if (header == null || header.value() == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.notification.benchmark;
+
+import com.ecommerce.notification.service.SmtpConnectionPool;
+import com.ecommerce.notification.util.EmailUtil;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.mail.Authenticator;
+import javax.mail.PasswordAuthentication;
+import javax.mail.Session;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Emails per second through the old path (static {@code Transport.send}, one connection and login
+ * per email, on the listener thread) against the pooled engine ({@code benchmark.mail.threads}
+ * workers sharing as many reused connections). Runs against GreenMail on loopback, over plain
+ * SMTP and over TLS; a remote server adds a network round trip to every connection setup, so the
+ * gap there is wider than measured here.
+ * Run with: mvn test -Pbenchmark -Dtest=EmailDeliveryBenchmark
+ */
+@Tag("benchmark")
+class EmailDeliveryBenchmark {
+
+    private static final int EMAILS = Integer.getInteger("benchmark.mail.emails", 2000);
+    private static final int THREADS = Integer.getInteger("benchmark.mail.threads", 8);
+    // The old path manages only a few dozen emails a second, so it gets a smaller sample
+    private static final int PER_EMAIL_CONNECTION_EMAILS = Math.max(1, EMAILS / 10);
+
+    @Test
+    void emailsPerSecond() throws Exception {
+        System.out.printf("%-6s %-28s %12s %14s%n", "smtp", "path", "emails/s", "connections");
+        run("plain", ServerSetupTest.SMTP, false);
+        run("tls", ServerSetupTest.SMTPS, true);
+    }
+
+    private void run(String name, ServerSetup setup, boolean tls) throws Exception {
+        GreenMail greenMail = new GreenMail(setup);
+        greenMail.setUser("mailer", "secret");
+        greenMail.start();
+        try {
+            Session session = session(setup.getPort(), tls);
+
+            // Warm up both paths before timing them
+            perEmailConnection(session, PER_EMAIL_CONNECTION_EMAILS / 10);
+            pooled(session, EMAILS / 10, 1);
+            greenMail.reset();
+            greenMail.setUser("mailer", "secret");
+
+            long start = System.nanoTime();
+            perEmailConnection(session, PER_EMAIL_CONNECTION_EMAILS);
+            print(name, "Transport.send, 1 thread", start, PER_EMAIL_CONNECTION_EMAILS, PER_EMAIL_CONNECTION_EMAILS);
+
+            for (int threads : new int[]{1, THREADS}) {
+                start = System.nanoTime();
+                double connections = pooled(session, EMAILS, threads);
+                print(name, "pooled, " + threads + " thread(s)", start, EMAILS, connections);
+            }
+            assertEquals(PER_EMAIL_CONNECTION_EMAILS + EMAILS * 2, greenMail.getReceivedMessages().length);
+        } finally {
+            greenMail.stop();
+        }
+    }
+
+    private void perEmailConnection(Session session, int emails) {
+        for (int i = 0; i < emails; i++) {
+            EmailUtil.sendEmail(session, "user" + i + "@example.com", "Order Confirmation", body(i));
+        }
+    }
+
+    private double pooled(Session session, int emails, int threads) throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (SmtpConnectionPool pool = new SmtpConnectionPool(session, threads, 100,
+                Duration.ofSeconds(30), Duration.ofSeconds(30), registry)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < emails; i++) {
+                int n = i;
+                futures.add(executor.submit(() -> {
+                    pool.send(EmailUtil.createMessage(session, "user" + n + "@example.com", "Order Confirmation", body(n)));
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return registry.get("mail.connections.opened").counter().count();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void print(String smtp, String path, long start, int emails, double connections) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-6s %-28s %12.0f %14.0f%n", smtp, path, emails / seconds, connections);
+    }
+
+    private static Session session(int port, boolean tls) {
+        Properties props = new Properties();
+        props.put("mail.smtp.host", "127.0.0.1");
+        props.put("mail.smtp.port", String.valueOf(port));
+        props.put("mail.smtp.auth", "true");
+        if (tls) {
+            props.put("mail.smtp.ssl.enable", "true");
+            // GreenMail's certificate is self-signed
+            props.put("mail.smtp.ssl.trust", "*");
+        }
+        return Session.getInstance(props, new Authenticator() {
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return new PasswordAuthentication("mailer", "secret");
+            }
+        });
+    }
+
+    private static String body(int i) {
+        return "<p>Your order #" + (100000 + i) + " has been placed successfully!</p>";
+    }
+}
@@ -1,10 +1,13 @@
 package com.ecommerce.notification.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.junit.jupiter.api.Test;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,7 +20,7 @@ class KafkaConsumerConfigTest {
         KafkaConsumerConfig config = new KafkaConsumerConfig();
         ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
 
-        ConsumerFactory<String, String> factory = config.consumerFactory();
+        ConsumerFactory<String, byte[]> factory = config.consumerFactory();
 
         assertNotNull(factory);
         assertEquals("localhost:9092",
@@ -26,7 +29,7 @@ class KafkaConsumerConfigTest {
             factory.getConfigurationProperties().get(ConsumerConfig.GROUP_ID_CONFIG));
         assertEquals(StringDeserializer.class,
             factory.getConfigurationProperties().get(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG));
-        assertEquals(StringDeserializer.class,
+        assertEquals(ByteArrayDeserializer.class,
             factory.getConfigurationProperties().get(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG));
     }
 
@@ -36,7 +39,7 @@ class KafkaConsumerConfigTest {
         KafkaConsumerConfig config = new KafkaConsumerConfig();
         ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
 
-        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
             config.kafkaListenerContainerFactory();
 
         assertNotNull(factory);
@@ -49,11 +52,30 @@ class KafkaConsumerConfigTest {
         KafkaConsumerConfig config = new KafkaConsumerConfig();
         ReflectionTestUtils.setField(config, "bootstrapServers", "kafka-server:9093");
 
-        ConsumerFactory<String, String> factory = config.consumerFactory();
+        ConsumerFactory<String, byte[]> factory = config.consumerFactory();
 
         assertNotNull(factory);
         assertEquals("kafka-server:9093",
             factory.getConfigurationProperties().get(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG));
     }
-}
 
+    @Test
+    void testBatchListenerSettings() {
+        // Test: Batch listener with one consumer per partition, batch commits and no client auto-commit
+        KafkaConsumerConfig config = new KafkaConsumerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+        ReflectionTestUtils.setField(config, "concurrency", 4);
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = config.kafkaListenerContainerFactory();
+
+        assertTrue(factory.isBatchListener());
+        assertEquals(ContainerProperties.AckMode.BATCH, factory.getContainerProperties().getAckMode());
+        assertEquals(false, factory.getConsumerFactory().getConfigurationProperties().get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+        assertEquals(100, factory.getConsumerFactory().getConfigurationProperties().get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        assertEquals(4, ReflectionTestUtils.getField(factory, "concurrency"));
+
+        ThreadPoolTaskExecutor executor = config.notificationExecutor();
+        assertEquals(16, executor.getMaxPoolSize());
+        assertEquals(500, executor.getQueueCapacity());
+    }
+}
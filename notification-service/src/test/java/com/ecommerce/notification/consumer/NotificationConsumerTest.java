@@ -1,18 +1,43 @@
 package com.ecommerce.notification.consumer;
 
+import com.ecommerce.events.EventHeaders;
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.events.NotificationEventSerializer;
+import com.ecommerce.events.OrderPlaced;
+import com.ecommerce.events.UserRegistered;
 import com.ecommerce.notification.dto.EmailMessageDTO;
-import com.ecommerce.notification.util.EmailUtil;
+import com.ecommerce.notification.service.IEmailDeliveryService;
+import com.ecommerce.notification.service.INotificationDedupeService;
+import com.ecommerce.notification.service.INotificationDigestService;
+import com.ecommerce.notification.service.INotificationRetryService;
+import com.ecommerce.notification.service.NotificationTemplateServiceImpl;
+import com.ecommerce.notification.util.RetryHeaders;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import javax.mail.Session;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -20,17 +45,32 @@ import static org.mockito.Mockito.*;
 class NotificationConsumerTest {
 
     @Mock
-    private Session mailSession;
+    private IEmailDeliveryService emailDeliveryService;
+
+    @Mock
+    private INotificationRetryService notificationRetryService;
+
+    @Mock
+    private INotificationDigestService notificationDigestService;
+
+    @Mock
+    private INotificationDedupeService notificationDedupeService;
 
     @InjectMocks
     private NotificationConsumer notificationConsumer;
 
     private ObjectMapper objectMapper;
     private String validMessage;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(notificationConsumer, "meterRegistry", meterRegistry);
+        NotificationTemplateServiceImpl templates = new NotificationTemplateServiceImpl();
+        templates.compileTemplates();
+        ReflectionTestUtils.setField(notificationConsumer, "notificationTemplateService", templates);
 
         EmailMessageDTO emailDto = new EmailMessageDTO();
         emailDto.setTo("test@example.com");
@@ -46,60 +86,269 @@ class NotificationConsumerTest {
 
     @Test
     void testConsumeValidMessage() {
-        // Test: Valid Kafka message is consumed and email is sent
-        try (MockedStatic<EmailUtil> emailUtilMock = mockStatic(EmailUtil.class)) {
-            emailUtilMock.when(() -> EmailUtil.sendEmail(
-                any(Session.class),
-                eq("test@example.com"),
-                eq("Test Subject"),
-                eq("Test Body")
-            )).thenAnswer(invocation -> null);
-
-            notificationConsumer.consume(validMessage);
-
-            emailUtilMock.verify(() -> EmailUtil.sendEmail(
-                any(Session.class),
-                eq("test@example.com"),
-                eq("Test Subject"),
-                eq("Test Body")
-            ), times(1));
-        }
+        // Test: Valid Kafka message is consumed and handed to the delivery engine
+        when(emailDeliveryService.deliver(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        notificationConsumer.consume(List.of(record(validMessage)));
+
+        verify(emailDeliveryService, times(1)).deliver(new EmailMessageDTO("test@example.com", null, "Test Subject", "Test Body"));
+        assertEquals(1.0, meterRegistry.get("notification.sent").counter().count());
+    }
+
+    @Test
+    void testConsumeTypedEvents() {
+        // Test: Typed events are decoded from their binary payload and rendered from their templates
+        when(emailDeliveryService.deliver(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        notificationConsumer.consume(List.of(
+                record(new OrderPlaced(42L, 7L, "buyer@example.com", 150000L, "INR", 2, 0L, null)),
+                record(new UserRegistered(7L, "new@example.com", 0L, null))));
+
+        verify(emailDeliveryService).deliver(new EmailMessageDTO("buyer@example.com", null, "Order Confirmation",
+                "<p>Your order #42 has been placed successfully!</p><p>2 item(s), total INR 1500.00.</p>"));
+        verify(emailDeliveryService).deliver(new EmailMessageDTO("new@example.com", null, "Welcome to ECommerce",
+                "<p>Thank you for registering!</p>"));
+        assertEquals(2.0, meterRegistry.get("notification.sent").counter().count());
+    }
+
+    @Test
+    void testConsumeDefersEventsForARecipientInAnOpenDigestWindow() {
+        // Test: An event for a recipient with an open digest window goes to the digest topic instead of being sent
+        long dueAt = System.currentTimeMillis() + 60000;
+        when(notificationDigestService.digestDueAt("buyer@example.com")).thenReturn(dueAt);
+        doReturn(CompletableFuture.completedFuture(null)).when(notificationDigestService).defer(any(), any(), anyLong());
+        ConsumerRecord<String, byte[]> record = record(new OrderPlaced(43L, 7L, "buyer@example.com", 5000L, "INR", 1, 0L, null));
+
+        notificationConsumer.consume(List.of(record));
+
+        verify(notificationDigestService).defer(record, "buyer@example.com", dueAt);
+        verify(emailDeliveryService, never()).deliver(any());
+        verify(notificationRetryService, never()).handleFailure(any(), any());
+    }
+
+    @Test
+    void testConsumeRetryNeverDefersToADigest() {
+        // Test: A retried event is sent on its own even if its recipient has an open digest window
+        when(emailDeliveryService.deliver(any())).thenReturn(CompletableFuture.completedFuture(null));
+        ConsumerRecord<String, byte[]> record = record(new UserRegistered(7L, "new@example.com", 0L, null));
+        RetryHeaders.set(record.headers(), RetryHeaders.ATTEMPT, 1);
+
+        notificationConsumer.consumeRetry(List.of(record), mock(Acknowledgment.class));
+
+        verify(notificationDigestService, never()).digestDueAt(any());
+        verify(emailDeliveryService).deliver(any());
+    }
+
+    @Test
+    void testConsumeDigestSendsOneEmailPerRecipient() {
+        // Test: Due digest records are combined per recipient; the first record not yet due is nacked
+        when(emailDeliveryService.deliver(any())).thenReturn(CompletableFuture.completedFuture(null));
+        long now = System.currentTimeMillis();
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        notificationConsumer.consumeDigest(List.of(
+                digestRecord(new OrderPlaced(1L, 7L, "buyer@example.com", 5000L, "INR", 1, 0L, null), now - 10),
+                digestRecord(new UserRegistered(8L, "other@example.com", 0L, null), now - 10),
+                digestRecord(new OrderPlaced(2L, 7L, "buyer@example.com", 7000L, "INR", 2, 0L, null), now - 5),
+                digestRecord(new OrderPlaced(3L, 7L, "buyer@example.com", 9000L, "INR", 3, 0L, null), now + 60000)),
+                acknowledgment);
+
+        ArgumentCaptor<EmailMessageDTO> emails = ArgumentCaptor.forClass(EmailMessageDTO.class);
+        verify(emailDeliveryService, times(2)).deliver(emails.capture());
+        EmailMessageDTO digest = emails.getAllValues().stream().filter(email -> email.getTo().equals("buyer@example.com")).findFirst().orElseThrow();
+        assertEquals("You have 2 new notifications", digest.getSubject());
+        assertTrue(digest.getBody().contains("#1 ") && digest.getBody().contains("#2 ") && !digest.getBody().contains("#3 "));
+        verify(acknowledgment).nack(eq(3), any());
+        assertEquals(2.0, meterRegistry.get("notification.digest.sent").counter().count());
+        assertEquals(3.0, meterRegistry.get("notification.digest.size").summary().totalAmount());
+    }
+
+    @Test
+    void testConsumeDigestHandsOnEveryRecordOfAFailedDigest() {
+        // Test: When a digest cannot be sent, each of its records goes to the retry topics on its own
+        when(emailDeliveryService.deliver(any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Mailbox unavailable")));
+        handedOn();
+        long now = System.currentTimeMillis();
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        notificationConsumer.consumeDigest(List.of(
+                digestRecord(new OrderPlaced(1L, 7L, "buyer@example.com", 5000L, "INR", 1, 0L, null), now),
+                digestRecord(new OrderPlaced(2L, 7L, "buyer@example.com", 7000L, "INR", 2, 0L, null), now)),
+                acknowledgment);
+
+        verify(notificationRetryService, times(2)).handleFailure(any(), any());
+        verify(acknowledgment).acknowledge();
+        assertEquals(2.0, meterRegistry.get("notification.failed").counter().count());
+    }
+
+    @Test
+    void testConsumeUnreadableTypedEvent() {
+        // Test: A typed event whose payload cannot be decoded is handed on as a serialization failure
+        handedOn();
+        ConsumerRecord<String, byte[]> record = record(new UserRegistered(7L, "new@example.com", 0L, null));
+        EventHeaders.set(record.headers(), EventHeaders.EVENT_TYPE, "OrderShipped");
+
+        notificationConsumer.consume(List.of(record));
+
+        verify(emailDeliveryService, never()).deliver(any());
+        verify(notificationRetryService).handleFailure(any(), any(SerializationException.class));
     }
 
     @Test
     void testConsumeInvalidJson() {
         // Test: Invalid JSON message is handled gracefully
         String invalidMessage = "{ invalid json }";
+        handedOn();
 
-        try (MockedStatic<EmailUtil> emailUtilMock = mockStatic(EmailUtil.class)) {
-            notificationConsumer.consume(invalidMessage);
+        notificationConsumer.consume(List.of(record(invalidMessage)));
 
-            emailUtilMock.verify(() -> EmailUtil.sendEmail(
-                any(), anyString(), anyString(), anyString()
-            ), never());
-        }
+        verify(emailDeliveryService, never()).deliver(any());
+        verify(notificationRetryService, times(1)).handleFailure(any(), any(JsonProcessingException.class));
+        assertEquals(1.0, meterRegistry.get("notification.failed").counter().count());
     }
 
     @Test
     void testConsumeEmailSendFailure() {
         // Test: Email sending failure is handled
-        try (MockedStatic<EmailUtil> emailUtilMock = mockStatic(EmailUtil.class)) {
-            emailUtilMock.when(() -> EmailUtil.sendEmail(
-                any(Session.class),
-                anyString(),
-                anyString(),
-                anyString()
-            )).thenThrow(new RuntimeException("Email sending failed"));
-
-            notificationConsumer.consume(validMessage);
-
-            emailUtilMock.verify(() -> EmailUtil.sendEmail(
-                any(Session.class),
-                eq("test@example.com"),
-                eq("Test Subject"),
-                eq("Test Body")
-            ), times(1));
+        when(emailDeliveryService.deliver(any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Email sending failed")));
+        handedOn();
+
+        notificationConsumer.consume(List.of(record(validMessage)));
+
+        verify(emailDeliveryService, times(1)).deliver(any());
+        verify(notificationRetryService, times(1)).handleFailure(any(), any());
+        assertEquals(1.0, meterRegistry.get("notification.failed").counter().count());
+    }
+
+    @Test
+    void testConsumeBatchWaitsForEveryDelivery() throws Exception {
+        // Test: The batch returns only after all deliveries finish; a failed email does not stop the others
+        CompletableFuture<Void> slow = new CompletableFuture<>();
+        handedOn();
+        when(emailDeliveryService.deliver(any())).thenAnswer(invocation -> {
+            EmailMessageDTO email = invocation.getArgument(0);
+            if (email.getTo().equals("bad@example.com")) {
+                return CompletableFuture.failedFuture(new RuntimeException("Mailbox unavailable"));
+            }
+            return email.getTo().equals("slow@example.com") ? slow : CompletableFuture.completedFuture(null);
+        });
+
+        CompletableFuture<Void> batch = CompletableFuture.runAsync(() -> notificationConsumer.consume(List.of(
+                record(message("a@example.com")),
+                record(message("bad@example.com")),
+                record(message("slow@example.com")))));
+
+        Thread.sleep(200);
+        assertFalse(batch.isDone());
+        slow.complete(null);
+        batch.get();
+
+        assertEquals(2.0, meterRegistry.get("notification.sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("notification.failed").counter().count());
+        assertEquals(1, meterRegistry.get("notification.batch").timer().count());
+        assertEquals(3.0, meterRegistry.get("notification.batch.size").summary().totalAmount());
+        assertEquals(3, meterRegistry.get("notification.lag").timer().count());
+    }
+
+    @Test
+    void testConsumeSkipsAlreadyProcessedAndRepeatedEvents() {
+        // Test: Events already processed, or repeated within the batch, are skipped; the others are sent and marked processed
+        when(emailDeliveryService.deliver(any())).thenReturn(CompletableFuture.completedFuture(null));
+        ConsumerRecord<String, byte[]> processed = record(new UserRegistered(1L, "old@example.com", 0L, null));
+        ConsumerRecord<String, byte[]> fresh = record(new UserRegistered(2L, "new@example.com", 0L, null));
+        ConsumerRecord<String, byte[]> repeated = record(new UserRegistered(2L, "new@example.com", 0L, null));
+        repeated.headers().remove(EventHeaders.EVENT_ID);
+        repeated.headers().add(EventHeaders.EVENT_ID, fresh.headers().lastHeader(EventHeaders.EVENT_ID).value());
+        String processedId = EventHeaders.eventId(processed.headers());
+        String freshId = EventHeaders.eventId(fresh.headers());
+        when(notificationDedupeService.alreadyProcessed(0, List.of(processedId, freshId, freshId))).thenReturn(Set.of(processedId));
+
+        notificationConsumer.consume(List.of(processed, fresh, repeated, record(validMessage)));
+
+        verify(emailDeliveryService).deliver(argThat(email -> email.getTo().equals("new@example.com")));
+        verify(emailDeliveryService).deliver(argThat(email -> email.getTo().equals("test@example.com")));
+        verify(emailDeliveryService, times(2)).deliver(any());
+        verify(notificationDedupeService).markProcessed(0, freshId);
+        verify(notificationDedupeService, never()).markProcessed(0, processedId);
+        assertEquals(2.0, meterRegistry.get("notification.dedupe.duplicates").counter().count());
+        assertEquals(4.0, meterRegistry.get("notification.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void testConsumeDoesNotMarkAnEventThatCouldNotBeHandedOn() {
+        // Test: An event whose email failed and could not be handed on stays unprocessed, so its redelivery is sent
+        when(emailDeliveryService.deliver(any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Email sending failed")));
+        doReturn(CompletableFuture.failedFuture(new RuntimeException("Broker unavailable")))
+                .when(notificationRetryService).handleFailure(any(), any());
+
+        assertThrows(RuntimeException.class, () ->
+                notificationConsumer.consume(List.of(record(new UserRegistered(7L, "new@example.com", 0L, null)))));
+
+        verify(notificationDedupeService, never()).markProcessed(anyInt(), any());
+    }
+
+    @Test
+    void testConsumeRetrySendsDueRecordsAndWaitsForTheRest() {
+        // Test: Due retries are sent and their retry latency recorded; the first record not yet due is nacked with its remaining delay
+        when(emailDeliveryService.deliver(any())).thenReturn(CompletableFuture.completedFuture(null));
+        long now = System.currentTimeMillis();
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        notificationConsumer.consumeRetry(List.of(
+                retryRecord(validMessage, 1, now - 1000, now - 11000),
+                retryRecord(validMessage, 1, now - 10, now - 10010),
+                retryRecord(validMessage, 1, now + 60000, now)), acknowledgment);
+
+        verify(emailDeliveryService, times(2)).deliver(any());
+        ArgumentCaptor<Duration> sleep = ArgumentCaptor.forClass(Duration.class);
+        verify(acknowledgment).nack(eq(2), sleep.capture());
+        assertTrue(sleep.getValue().toMillis() > 50000 && sleep.getValue().toMillis() <= 60000);
+        verify(acknowledgment, never()).acknowledge();
+        assertEquals(2, meterRegistry.get("notification.retry.latency").timer().count());
+        assertTrue(meterRegistry.get("notification.retry.latency").timer().max(TimeUnit.MILLISECONDS) >= 11000);
+
+        notificationConsumer.consumeRetry(List.of(retryRecord(validMessage, 2, now, now)), acknowledgment);
+        verify(acknowledgment).acknowledge();
+    }
+
+    private void handedOn() {
+        doReturn(CompletableFuture.completedFuture(null)).when(notificationRetryService).handleFailure(any(), any());
+    }
+
+    private ConsumerRecord<String, byte[]> retryRecord(String value, int attempt, long dueAt, long firstFailureAt) {
+        ConsumerRecord<String, byte[]> record = record(value);
+        RetryHeaders.set(record.headers(), RetryHeaders.ATTEMPT, attempt);
+        RetryHeaders.set(record.headers(), RetryHeaders.DUE_AT, dueAt);
+        RetryHeaders.set(record.headers(), RetryHeaders.FIRST_FAILURE_AT, firstFailureAt);
+        return record;
+    }
+
+    private ConsumerRecord<String, byte[]> digestRecord(NotificationEvent event, long dueAt) {
+        ConsumerRecord<String, byte[]> record = record(event);
+        RetryHeaders.set(record.headers(), RetryHeaders.DUE_AT, dueAt);
+        return new ConsumerRecord<>("notification-events-digest", 0, 0, 0L, TimestampType.CREATE_TIME, 0, 0,
+                event.getEmail(), record.value(), record.headers(), Optional.empty());
+    }
+
+    private ConsumerRecord<String, byte[]> record(String value) {
+        return new ConsumerRecord<>("notification-events", 0, 0, "1", value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ConsumerRecord<String, byte[]> record(NotificationEvent event) {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] value = new NotificationEventSerializer().serialize("notification-events", headers, event);
+        return new ConsumerRecord<>("notification-events", 0, 0, 0L, TimestampType.CREATE_TIME, 0, 0, "1", value,
+                headers, Optional.empty());
+    }
+
+    private String message(String to) {
+        try {
+            return objectMapper.writeValueAsString(new EmailMessageDTO(to, null, "Subject", "Body"));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 }
-
@@ -0,0 +1,79 @@
+package com.ecommerce.notification.controller;
+
+import com.ecommerce.notification.dto.DeadLetterReplayResponse;
+import com.ecommerce.notification.exception.GlobalExceptionHandler;
+import com.ecommerce.notification.service.INotificationRetryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterControllerTest {
+
+    @Mock
+    private INotificationRetryService notificationRetryService;
+
+    @InjectMocks
+    private DeadLetterController deadLetterController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(deadLetterController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void testGetPending() throws Exception {
+        // Test: Number of dead letters waiting for replay
+        when(notificationRetryService.pendingDeadLetters()).thenReturn(7L);
+
+        mockMvc.perform(get("/admin/notifications/dead-letters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pending").value(7));
+    }
+
+    @Test
+    void testReplay() throws Exception {
+        // Test: Replay with an explicit limit
+        when(notificationRetryService.replayDeadLetters(50)).thenReturn(new DeadLetterReplayResponse(50, 12));
+
+        mockMvc.perform(post("/admin/notifications/dead-letters/replay").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replayed").value(50))
+                .andExpect(jsonPath("$.remaining").value(12));
+    }
+
+    @Test
+    void testReplayDefaultLimit() throws Exception {
+        // Test: Replay without a limit uses the default of 1000
+        when(notificationRetryService.replayDeadLetters(1000)).thenReturn(new DeadLetterReplayResponse(3, 0));
+
+        mockMvc.perform(post("/admin/notifications/dead-letters/replay"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replayed").value(3));
+    }
+
+    @Test
+    void testReplayRejectsOutOfRangeLimit() throws Exception {
+        // Test: A limit outside 1..10000 is rejected before anything is replayed
+        mockMvc.perform(post("/admin/notifications/dead-letters/replay").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/admin/notifications/dead-letters/replay").param("limit", "10001"))
+                .andExpect(status().isBadRequest());
+
+        verify(notificationRetryService, never()).replayDeadLetters(anyInt());
+    }
+}
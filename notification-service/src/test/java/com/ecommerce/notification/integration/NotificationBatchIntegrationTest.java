@@ -0,0 +1,95 @@
+package com.ecommerce.notification.integration;
+
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.events.NotificationEventSerializer;
+import com.ecommerce.events.OrderPlaced;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "notification.topic.partitions=3",
+    "notification.consumer.max-poll-records=50",
+    "notification.consumer.workers=8",
+    // Failed emails go to the first retry topic and stay there for this test
+    "notification.retry.initial-delay=1h"
+})
+@EmbeddedKafka(partitions = 3, topics = "notification-events")
+@ActiveProfiles("test")
+class NotificationBatchIntegrationTest {
+
+    private static final int EVENTS = 300;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testBurstIsConsumedInBatchesAndCommitted() throws Exception {
+        // Test: 300 events over 3 partitions are handled by 3 consumers in batches, and every offset is committed
+        MessageListenerContainer container = listenerRegistry.getListenerContainer("notification-consumer");
+        assertEquals(3, ((ConcurrentMessageListenerContainer<?, ?>) container).getConcurrency());
+
+        Map<String, Object> props = KafkaTestUtils.producerProps(embeddedKafka);
+        try (Producer<String, NotificationEvent> producer =
+                     new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new NotificationEventSerializer()).createProducer()) {
+            for (int i = 0; i < EVENTS; i++) {
+                producer.send(new ProducerRecord<>("notification-events", String.valueOf(i),
+                        new OrderPlaced(i, i, "user" + i + "@example.com", 10000L, "INR", 1, System.currentTimeMillis(), null)));
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (committed() < EVENTS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(200);
+        }
+
+        assertEquals(EVENTS, committed());
+        // No SMTP server in tests: every email fails, is counted and handed to the retry topic, and the batch is still committed
+        assertEquals(EVENTS, (long) count("notification.failed"));
+        assertEquals(EVENTS, (long) count("notification.retries"));
+        long batches = meterRegistry.get("notification.batch").timer().count();
+        assertTrue(batches > 0 && batches < EVENTS, "records arrive in batches, got " + batches);
+        assertEquals(EVENTS, (long) meterRegistry.get("notification.batch.size").summary().totalAmount());
+        assertEquals(EVENTS, meterRegistry.get("notification.lag").timer().count());
+        assertTrue(Search.in(meterRegistry).name("kafka.consumer.fetch.manager.records.lag.max").meters().size() > 0);
+    }
+
+    private long committed() throws Exception {
+        try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString()))) {
+            Map<TopicPartition, OffsetAndMetadata> offsets =
+                    admin.listConsumerGroupOffsets("notification-group").partitionsToOffsetAndMetadata().get();
+            return offsets.values().stream().mapToLong(OffsetAndMetadata::offset).sum();
+        }
+    }
+
+    private double count(String counter) {
+        return Search.in(meterRegistry).name(counter).counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.notification.integration;
+
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.events.NotificationEventSerializer;
+import com.ecommerce.events.UserRegistered;
+import com.ecommerce.notification.dto.EmailMessageDTO;
+import com.ecommerce.notification.service.IEmailDeliveryService;
+import com.ecommerce.notification.support.EmbeddedRedis;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+    "notification.topic.partitions=1",
+    // The slow batch below outlasts this, so the consumer is dropped from the group mid-batch
+    "notification.consumer.max-poll-interval=3s",
+    "notification.dedupe.enabled=true",
+    "notification.digest.window=0",
+    "notification.retry.initial-delay=1h",
+    "spring.autoconfigure.exclude="
+})
+@EmbeddedKafka(partitions = 1, topics = "notification-events")
+@ActiveProfiles("test")
+class NotificationDedupeIntegrationTest {
+
+    private static final List<String> RECIPIENTS = List.of(
+            "a@example.com", "b@example.com", "slow@example.com", "c@example.com", "d@example.com");
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private IEmailDeliveryService emailDeliveryService;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        EmbeddedRedis.registerProperties(registry);
+    }
+
+    @Test
+    void testBatchRedeliveredAfterARebalanceIsNotSentAgain() throws Exception {
+        // Test: A batch that outlasts the poll interval loses its partition and is redelivered after the rebalance;
+        // the events it already sent are skipped, so every recipient gets exactly one email
+        Queue<String> delivered = new ConcurrentLinkedQueue<>();
+        when(emailDeliveryService.deliver(any())).thenAnswer(invocation -> {
+            EmailMessageDTO email = invocation.getArgument(0);
+            delivered.add(email.getTo());
+            if (!email.getTo().equals("slow@example.com")) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        });
+
+        Map<String, Object> props = KafkaTestUtils.producerProps(embeddedKafka);
+        try (Producer<String, NotificationEvent> producer =
+                     new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new NotificationEventSerializer()).createProducer()) {
+            long userId = 1;
+            for (String recipient : RECIPIENTS) {
+                producer.send(new ProducerRecord<>("notification-events", recipient,
+                        new UserRegistered(userId++, recipient, System.currentTimeMillis(), null)));
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (count("notification.dedupe.duplicates") < RECIPIENTS.size() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(200);
+        }
+
+        // The client may rejoin more than once before a commit succeeds; each redelivery is skipped in full
+        assertTrue(count("notification.dedupe.duplicates") >= RECIPIENTS.size(), "the whole batch was redelivered");
+        assertEquals(RECIPIENTS.size(), delivered.size());
+        assertEquals(RECIPIENTS.stream().sorted().toList(), delivered.stream().sorted().toList());
+        assertTrue(meterRegistry.get("notification.batch").timer().count() >= 2);
+    }
+
+    private double count(String counter) {
+        return Search.in(meterRegistry).name(counter).counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ecommerce.notification.integration;
+
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.events.NotificationEventSerializer;
+import com.ecommerce.events.OrderPlaced;
+import com.ecommerce.events.UserRegistered;
+import com.ecommerce.notification.support.EmbeddedRedis;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.mail.internet.MimeMessage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "notification.topic.partitions=1",
+    "notification.digest.enabled=true",
+    "notification.digest.window=2s",
+    "notification.templates.locales=en,hi",
+    "mail.smtp.port=3025",
+    "mail.smtp.username=mailer",
+    "mail.smtp.password=secret",
+    "spring.autoconfigure.exclude="
+})
+@EmbeddedKafka(partitions = 1, topics = "notification-events")
+@ActiveProfiles("test")
+class NotificationDigestIntegrationTest {
+
+    private final GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        EmbeddedRedis.registerProperties(registry);
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Windows left open in the shared Redis by other tests would defer the first email
+        StringRedisTemplate redisTemplate = EmbeddedRedis.newTemplate();
+        redisTemplate.delete(redisTemplate.keys("notification:digest:window:*"));
+        greenMail.start();
+        greenMail.setUser("mailer", "secret");
+    }
+
+    @AfterEach
+    void tearDown() {
+        greenMail.stop();
+    }
+
+    @Test
+    void testBurstForOneRecipientIsSentAsOneDigest() throws Exception {
+        // Test: Four orders in a burst reach the buyer as the first confirmation plus one digest of the other three;
+        // another recipient's email is untouched and rendered in their locale
+        long now = System.currentTimeMillis();
+        send(new OrderPlaced(1L, 7L, "buyer@example.com", 10000L, "INR", 1, now, null),
+                new OrderPlaced(2L, 7L, "buyer@example.com", 20000L, "INR", 2, now, null),
+                new UserRegistered(8L, "new@example.com", now, "hi-IN"),
+                new OrderPlaced(3L, 7L, "buyer@example.com", 30000L, "INR", 3, now, null),
+                new OrderPlaced(4L, 7L, "buyer@example.com", 40000L, "INR", 4, now, null));
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (greenMail.getReceivedMessages().length < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        // Nothing else arrives once the digest is out
+        Thread.sleep(500);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        List<String> buyerSubjects = Arrays.stream(received)
+                .filter(message -> recipient(message).equals("buyer@example.com"))
+                .map(NotificationDigestIntegrationTest::subject).toList();
+        assertEquals(List.of("Order Confirmation", "You have 3 new notifications"), buyerSubjects);
+        assertTrue(Arrays.stream(received).anyMatch(message -> recipient(message).equals("new@example.com")
+                && subject(message).equals("ECommerce में आपका स्वागत है")));
+        assertEquals(3.0, meterRegistry.get("notification.digest.deferred").counter().count());
+        assertEquals(1.0, meterRegistry.get("notification.digest.sent").counter().count());
+        assertEquals(3.0, meterRegistry.get("notification.sent").counter().count());
+    }
+
+    private void send(NotificationEvent... events) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(embeddedKafka);
+        try (Producer<String, NotificationEvent> producer =
+                     new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new NotificationEventSerializer()).createProducer()) {
+            for (NotificationEvent event : events) {
+                producer.send(new ProducerRecord<>("notification-events", event.getEmail(), event));
+            }
+        }
+    }
+
+    private static String recipient(MimeMessage message) {
+        try {
+            return message.getAllRecipients()[0].toString();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String subject(MimeMessage message) {
+        try {
+            return message.getSubject();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
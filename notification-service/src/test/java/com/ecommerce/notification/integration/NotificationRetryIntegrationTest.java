@@ -0,0 +1,155 @@
+package com.ecommerce.notification.integration;
+
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.events.NotificationEventSerializer;
+import com.ecommerce.events.OrderPlaced;
+import com.ecommerce.events.UserRegistered;
+import com.ecommerce.notification.dto.DeadLetterReplayResponse;
+import com.ecommerce.notification.service.INotificationRetryService;
+import com.ecommerce.notification.support.EmbeddedRedis;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "notification.topic.partitions=1",
+    "notification.retry.attempts=2",
+    "notification.retry.initial-delay=500ms",
+    "notification.retry.multiplier=4",
+    // first@example.com is emailed twice within a minute; both must go out on their own
+    "notification.digest.window=0",
+    "mail.smtp.port=3025",
+    "mail.smtp.username=mailer",
+    "mail.smtp.password=secret",
+    "mail.smtp.timeout-ms=2000",
+    // Dedupe on: a replayed dead letter must not be taken for its already processed first delivery
+    "notification.dedupe.enabled=true",
+    "spring.autoconfigure.exclude="
+})
+@EmbeddedKafka(partitions = 1, topics = "notification-events")
+@ActiveProfiles("test")
+class NotificationRetryIntegrationTest {
+
+    // Started only once the test wants emails to go through
+    private final GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private INotificationRetryService notificationRetryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        EmbeddedRedis.registerProperties(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        greenMail.stop();
+    }
+
+    @Test
+    void testFailedNotificationsAreRetriedDeadLetteredAndReplayed() throws Exception {
+        // Test: With the mail server down a valid event walks both retry tiers into the DLT, a malformed one goes there
+        // directly; once the server is up a replay delivers the valid one, although its first delivery was marked
+        // processed, and a fresh failure recovers on its retry
+        send("1", new UserRegistered(1L, "first@example.com", System.currentTimeMillis(), null));
+        // A JSON email from before the typed events, and malformed
+        send("2", "{ invalid json }");
+
+        await(() -> notificationRetryService.pendingDeadLetters() == 2, "both events dead-lettered");
+        assertEquals(1.0, count("notification.retries", "attempt", "1"));
+        assertEquals(1.0, count("notification.retries", "attempt", "2"));
+        assertEquals(1.0, count("notification.dlt", "reason", "exhausted"));
+        assertEquals(1.0, count("notification.dlt", "reason", "not-retryable"));
+
+        startMailServer();
+        DeadLetterReplayResponse replay = notificationRetryService.replayDeadLetters(100);
+        assertEquals(2, replay.getReplayed());
+        assertEquals(0, replay.getRemaining());
+
+        await(() -> greenMail.getReceivedMessages().length == 1, "replayed email delivered");
+        assertEquals("first@example.com", greenMail.getReceivedMessages()[0].getAllRecipients()[0].toString());
+        // Still malformed, so straight back to the DLT
+        await(() -> notificationRetryService.pendingDeadLetters() == 1, "malformed event dead-lettered again");
+        assertEquals(2.0, count("notification.dlt.replayed", null, null));
+        assertEquals(0.0, count("notification.dedupe.duplicates", null, null));
+
+        greenMail.stop();
+        send("3", new OrderPlaced(3L, 1L, "second@example.com", 5000L, "INR", 1, System.currentTimeMillis(), null));
+        await(() -> count("notification.retries", "attempt", "1") == 2, "third event on the first retry tier");
+        startMailServer();
+
+        await(() -> greenMail.getReceivedMessages().length == 1, "retried email delivered");
+        assertEquals("second@example.com", greenMail.getReceivedMessages()[0].getAllRecipients()[0].toString());
+        await(() -> meterRegistry.find("notification.retry.latency").timer() != null
+                && meterRegistry.get("notification.retry.latency").timer().count() == 1, "retry latency recorded");
+        assertEquals(1, notificationRetryService.pendingDeadLetters());
+    }
+
+    private void startMailServer() {
+        greenMail.start();
+        greenMail.setUser("mailer", "secret");
+    }
+
+    private void send(String key, NotificationEvent event) {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] value = new NotificationEventSerializer().serialize("notification-events", headers, event);
+        send(new ProducerRecord<>("notification-events", null, key, value, headers));
+    }
+
+    private void send(String key, String json) {
+        send(new ProducerRecord<>("notification-events", key, json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void send(ProducerRecord<String, byte[]> record) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(embeddedKafka);
+        try (Producer<String, byte[]> producer =
+                     new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new ByteArraySerializer()).createProducer()) {
+            producer.send(record);
+        }
+    }
+
+    private double count(String counter, String tag, String value) {
+        Search search = Search.in(meterRegistry).name(counter);
+        if (tag != null) {
+            search = search.tag(tag, value);
+        }
+        return search.counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out waiting for: " + what);
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.notification.support.EmbeddedRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NotificationDedupeServiceImplTest {
+
+    private StringRedisTemplate redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NotificationDedupeServiceImpl dedupeService;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = EmbeddedRedis.newTemplate();
+        redisTemplate.delete(redisTemplate.keys(NotificationDedupeServiceImpl.KEY_PREFIX + "*"));
+        meterRegistry = new SimpleMeterRegistry();
+        dedupeService = newService(redisTemplate, Duration.ZERO);
+    }
+
+    @Test
+    void testProcessedIdsAreFoundWithinTheTtl() {
+        // Test: An id marked processed on a partition is reported for that partition only, until it is older than the TTL
+        dedupeService.markProcessed(0, "a");
+
+        assertEquals(Set.of("a"), dedupeService.alreadyProcessed(0, List.of("a", "b")));
+        assertEquals(Set.of(), dedupeService.alreadyProcessed(1, List.of("a")));
+
+        redisTemplate.opsForZSet().add(NotificationDedupeServiceImpl.KEY_PREFIX + "0", "old", System.currentTimeMillis() - 90_000_000L);
+        assertEquals(Set.of(), dedupeService.alreadyProcessed(0, List.of("old")));
+    }
+
+    @Test
+    void testFilterAnswersNewIdsWithoutRedis() {
+        // Test: Once a partition's filter is loaded, new ids are answered in memory and only filter hits are looked up
+        dedupeService.markProcessed(0, "before-assignment");
+        dedupeService.partitionsAssigned(List.of(0));
+        dedupeService.markProcessed(0, "after-assignment");
+
+        assertEquals(Set.of("before-assignment", "after-assignment"),
+                dedupeService.alreadyProcessed(0, List.of("before-assignment", "after-assignment", "new-1", "new-2")));
+
+        assertEquals(2.0, meterRegistry.get("notification.dedupe.lookups").tag("filter", "positive").counter().count());
+        assertEquals(2.0, meterRegistry.get("notification.dedupe.lookups").tag("filter", "negative").counter().count());
+        assertEquals(0.0, meterRegistry.get("notification.dedupe.false.positive.rate").gauge().value());
+    }
+
+    @Test
+    void testEveryIdIsLookedUpDuringTheAssignmentGrace() {
+        // Test: Right after an assignment the previous owner's ids may be missing from the filter, so every id goes to Redis
+        NotificationDedupeServiceImpl newOwner = newService(redisTemplate, Duration.ofMinutes(5));
+        newOwner.partitionsAssigned(List.of(0));
+        dedupeService.markProcessed(0, "finished-by-previous-owner");
+
+        assertEquals(Set.of("finished-by-previous-owner"),
+                newOwner.alreadyProcessed(0, List.of("finished-by-previous-owner", "new")));
+        assertEquals(2.0, meterRegistry.get("notification.dedupe.lookups").tag("filter", "bypassed").counter().count());
+    }
+
+    @Test
+    void testFalsePositivesAreCounted() {
+        // Test: A filter hit that Redis does not know is counted as a false positive
+        ReflectionTestUtils.setField(dedupeService, "expectedPerPartition", 1L);
+        ReflectionTestUtils.setField(dedupeService, "falsePositiveRate", 0.5);
+        dedupeService.partitionsAssigned(List.of(0));
+        for (int i = 0; i < 50; i++) {
+            dedupeService.markProcessed(0, "processed-" + i);
+        }
+        redisTemplate.delete(NotificationDedupeServiceImpl.KEY_PREFIX + "0");
+
+        assertEquals(Set.of(), dedupeService.alreadyProcessed(0, List.of("new-1", "new-2", "new-3")));
+
+        double falsePositives = meterRegistry.get("notification.dedupe.false.positives").counter().count();
+        assertTrue(falsePositives > 0);
+        assertEquals(falsePositives / 3, meterRegistry.get("notification.dedupe.false.positive.rate").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void testRedisFailuresFailOpen() {
+        // Test: When Redis is unreachable nothing is reported as processed, and the errors are counted
+        StringRedisTemplate broken = mock(StringRedisTemplate.class);
+        when(broken.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+        when(broken.opsForZSet()).thenThrow(new RedisConnectionFailureException("Connection refused"));
+        NotificationDedupeServiceImpl service = newService(broken, Duration.ZERO);
+
+        service.partitionsAssigned(List.of(0));
+        service.markProcessed(0, "a");
+
+        assertEquals(Set.of(), service.alreadyProcessed(0, List.of("a")));
+        assertEquals(3.0, meterRegistry.get("notification.dedupe.errors").counter().count());
+    }
+
+    private NotificationDedupeServiceImpl newService(StringRedisTemplate template, Duration assignmentGrace) {
+        NotificationDedupeServiceImpl service = new NotificationDedupeServiceImpl();
+        ReflectionTestUtils.setField(service, "redisTemplate", template);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "assignmentGrace", assignmentGrace);
+        service.registerMetrics();
+        return service;
+    }
+}
@@ -0,0 +1,127 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.notification.config.NotificationDigestConfig;
+import com.ecommerce.notification.support.EmbeddedRedis;
+import com.ecommerce.notification.util.RetryHeaders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDigestServiceImplTest {
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @InjectMocks
+    private NotificationDigestServiceImpl digestService;
+
+    private StringRedisTemplate redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = EmbeddedRedis.newTemplate();
+        redisTemplate.delete(redisTemplate.keys(NotificationDigestServiceImpl.KEY_PREFIX + "*"));
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(digestService, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(digestService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(digestService, "window", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testFirstNotificationOpensAWindowForTheRest() {
+        // Test: The first notification goes out now; later ones for the same recipient are due when its window closes
+        long before = System.currentTimeMillis();
+
+        assertEquals(0, digestService.digestDueAt("buyer@example.com"));
+        long dueAt = digestService.digestDueAt("buyer@example.com");
+        assertTrue(dueAt >= before + 60000 && dueAt <= System.currentTimeMillis() + 60000);
+        assertEquals(dueAt, digestService.digestDueAt(" Buyer@Example.com"));
+        assertEquals(0, digestService.digestDueAt("other@example.com"));
+    }
+
+    @Test
+    void testWindowIsSharedByInstances() {
+        // Test: A window opened by one instance defers the recipient's notifications on every other instance too
+        NotificationDigestServiceImpl otherInstance = new NotificationDigestServiceImpl();
+        ReflectionTestUtils.setField(otherInstance, "redisTemplate", EmbeddedRedis.newTemplate());
+        ReflectionTestUtils.setField(otherInstance, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(otherInstance, "window", Duration.ofMinutes(1));
+
+        assertEquals(0, otherInstance.digestDueAt("buyer@example.com"));
+        long dueAt = digestService.digestDueAt("buyer@example.com");
+        assertTrue(dueAt > System.currentTimeMillis());
+        assertEquals(dueAt, otherInstance.digestDueAt("buyer@example.com"));
+    }
+
+    @Test
+    void testClosedWindowSendsTheNextNotificationNow() throws Exception {
+        // Test: Once a recipient's window has closed, the next notification is sent at once and opens a new window
+        ReflectionTestUtils.setField(digestService, "window", Duration.ofMillis(100));
+        assertEquals(0, digestService.digestDueAt("buyer@example.com"));
+
+        Thread.sleep(200);
+
+        assertEquals(0, digestService.digestDueAt("buyer@example.com"));
+        assertTrue(digestService.digestDueAt("buyer@example.com") > 0);
+    }
+
+    @Test
+    void testZeroWindowDisablesDigests() {
+        // Test: With a window of 0 every notification is sent at once
+        ReflectionTestUtils.setField(digestService, "window", Duration.ZERO);
+
+        assertEquals(0, digestService.digestDueAt("buyer@example.com"));
+        assertEquals(0, digestService.digestDueAt("buyer@example.com"));
+    }
+
+    @Test
+    void testRedisFailureSendsAtOnce() {
+        // Test: When Redis is unreachable no window can be checked, so the notification is sent and the error counted
+        StringRedisTemplate broken = mock(StringRedisTemplate.class);
+        when(broken.opsForValue()).thenThrow(new RedisConnectionFailureException("Connection refused"));
+        ReflectionTestUtils.setField(digestService, "redisTemplate", broken);
+
+        assertEquals(0, digestService.digestDueAt("buyer@example.com"));
+        assertEquals(0, digestService.digestDueAt("buyer@example.com"));
+        assertEquals(2.0, meterRegistry.get("notification.digest.errors").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDeferPublishesToTheDigestTopicByRecipient() {
+        // Test: A deferred record keeps its value and headers and is keyed by recipient, with its due time
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("notification-events", 0, 0, "42", new byte[]{1, 2, 3});
+        record.headers().add("event-type", "OrderPlaced".getBytes(StandardCharsets.UTF_8));
+
+        digestService.defer(record, "Buyer@example.com", 12345L);
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        assertEquals(NotificationDigestConfig.DIGEST_TOPIC, sent.getValue().topic());
+        assertEquals("buyer@example.com", sent.getValue().key());
+        assertArrayEquals(new byte[]{1, 2, 3}, sent.getValue().value());
+        assertNotNull(sent.getValue().headers().lastHeader("event-type"));
+        assertEquals(12345L, RetryHeaders.dueAt(sent.getValue().headers()));
+        assertEquals(1.0, meterRegistry.get("notification.digest.deferred").counter().count());
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.events.OrderPlaced;
+import com.ecommerce.events.UserRegistered;
+import com.ecommerce.notification.dto.EmailMessageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationTemplateServiceImplTest {
+
+    private NotificationTemplateServiceImpl templateService;
+
+    @BeforeEach
+    void setUp() {
+        templateService = new NotificationTemplateServiceImpl();
+        ReflectionTestUtils.setField(templateService, "locales", List.of("en", "hi"));
+        templateService.compileTemplates();
+    }
+
+    @Test
+    void testRenderOrderPlaced() {
+        // Test: The order email carries the order number, item count and total in major units
+        EmailMessageDTO email = templateService.render(new OrderPlaced(42L, 7L, "buyer@example.com", 1999900L, "INR", 3, 0L, null));
+
+        assertEquals("buyer@example.com", email.getTo());
+        assertEquals("Order Confirmation", email.getSubject());
+        assertEquals("<p>Your order #42 has been placed successfully!</p><p>3 item(s), total INR 19999.00.</p>", email.getBody());
+    }
+
+    @Test
+    void testRenderUsesTheClosestLocale() {
+        // Test: A regional tag falls back to its language, and an unsupported or missing locale to the default
+        UserRegistered user = new UserRegistered(7L, "new@example.com", 0L, "hi-IN");
+
+        assertEquals("ECommerce में आपका स्वागत है", templateService.render(user).getSubject());
+        user.setLocale("fr-FR");
+        assertEquals("Welcome to ECommerce", templateService.render(user).getSubject());
+        user.setLocale(null);
+        assertEquals("Welcome to ECommerce", templateService.render(user).getSubject());
+    }
+
+    @Test
+    void testBodyValuesAreHtmlEscaped() {
+        // Test: Event values cannot inject markup into the HTML body
+        EmailMessageDTO email = templateService.render(new OrderPlaced(1L, 7L, "buyer@example.com", 100L, "<b>", 1, 0L, null));
+
+        assertTrue(email.getBody().contains("total &lt;b&gt; 1.00"));
+    }
+
+    @Test
+    void testRenderDigest() {
+        // Test: Several events become one email listing each of them, in the first event's locale
+        EmailMessageDTO digest = templateService.renderDigest(List.of(
+                new OrderPlaced(1L, 7L, "buyer@example.com", 5000L, "INR", 1, 0L, "en"),
+                new OrderPlaced(2L, 7L, "buyer@example.com", 7500L, "INR", 2, 0L, "hi")));
+
+        assertEquals("buyer@example.com", digest.getTo());
+        assertEquals("You have 2 new notifications", digest.getSubject());
+        assertTrue(digest.getBody().contains("<li><strong>Order Confirmation</strong><p>Your order #1 has been placed successfully!</p>"));
+        assertTrue(digest.getBody().contains("total INR 75.00"));
+    }
+
+    @Test
+    void testDigestOfOneEventIsThatEventsEmail() {
+        // Test: A digest that collected a single event is sent as the event's own email
+        UserRegistered user = new UserRegistered(7L, "new@example.com", 0L, null);
+
+        assertEquals(templateService.render(user), templateService.renderDigest(List.of(user)));
+        assertThrows(IllegalArgumentException.class, () -> templateService.renderDigest(List.of()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.notification.service;
+
+import com.ecommerce.notification.config.EmailConfig;
+import com.ecommerce.notification.util.EmailUtil;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.mail.Authenticator;
+import javax.mail.MessagingException;
+import javax.mail.PasswordAuthentication;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmtpConnectionPoolTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("mailer", "secret"));
+
+    private Session session;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        EmailConfig emailConfig = new EmailConfig();
+        ReflectionTestUtils.setField(emailConfig, "smtpHost", "127.0.0.1");
+        ReflectionTestUtils.setField(emailConfig, "smtpPort", String.valueOf(ServerSetupTest.SMTP.getPort()));
+        ReflectionTestUtils.setField(emailConfig, "username", "mailer");
+        ReflectionTestUtils.setField(emailConfig, "password", "secret");
+        session = emailConfig.mailSession();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testConcurrentSendsReuseConnections() throws Exception {
+        // Test: 60 emails from 6 threads over a pool of 3 connections, each retired after 25 messages
+        try (SmtpConnectionPool pool = pool(3, 25)) {
+            ExecutorService executor = Executors.newFixedThreadPool(6);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 60; i++) {
+                    int n = i;
+                    futures.add(executor.submit(() -> {
+                        pool.send(message("user" + n + "@example.com"));
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(60, greenMail.getReceivedMessages().length);
+            double opened = meterRegistry.get("mail.connections.opened").counter().count();
+            assertTrue(opened >= 3 && opened <= 6, "connections opened: " + opened);
+            assertEquals(0.0, meterRegistry.get("mail.pool.active").gauge().value());
+            assertTrue(pool.idleCount() <= 3);
+        }
+    }
+
+    @Test
+    void testDroppedConnectionIsReplaced() throws Exception {
+        // Test: After the server restarts, the stale pooled connection fails once and the email goes out on a new one
+        try (SmtpConnectionPool pool = pool(1, 100)) {
+            pool.send(message("first@example.com"));
+            assertEquals(1, pool.idleCount());
+
+            greenMail.reset();
+            greenMail.setUser("mailer", "secret");
+            pool.send(message("second@example.com"));
+
+            assertEquals(1, greenMail.getReceivedMessages().length);
+            assertEquals(2.0, meterRegistry.get("mail.connections.opened").counter().count());
+        }
+    }
+
+    @Test
+    void testIdleConnectionsExpireAndCloseEmptiesPool() throws Exception {
+        // Test: A connection idle past the timeout is not reused; closing the pool closes the idle ones
+        SmtpConnectionPool pool = new SmtpConnectionPool(session, 2, 100, Duration.ZERO, Duration.ofSeconds(5), meterRegistry);
+        pool.send(message("a@example.com"));
+        pool.send(message("b@example.com"));
+        assertEquals(2.0, meterRegistry.get("mail.connections.opened").counter().count());
+
+        pool.close();
+        assertEquals(0, pool.idleCount());
+        assertEquals(2, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void testWrongCredentialsFail() {
+        // Test: Authentication failures surface to the caller instead of being swallowed
+        Session badSession = Session.getInstance(session.getProperties(), new Authenticator() {
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return new PasswordAuthentication("mailer", "wrong");
+            }
+        });
+        try (SmtpConnectionPool pool = new SmtpConnectionPool(badSession, 1, 100, Duration.ofSeconds(30), Duration.ofSeconds(5), meterRegistry)) {
+            assertThrows(MessagingException.class, () -> pool.send(EmailUtil.createMessage(badSession, "a@example.com", "Subject", "Body")));
+            assertEquals(0.0, meterRegistry.get("mail.pool.active").gauge().value());
+        }
+    }
+
+    private SmtpConnectionPool pool(int size, int maxMessagesPerConnection) {
+        return new SmtpConnectionPool(session, size, maxMessagesPerConnection, Duration.ofSeconds(30), Duration.ofSeconds(5), meterRegistry);
+    }
+
+    private MimeMessage message(String to) throws MessagingException {
+        return EmailUtil.createMessage(session, to, "Order Confirmation", "Your order has been placed successfully!");
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.notification.support;
+
+import com.github.fppt.jedismock.RedisServer;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * In-process Redis stand-in (RESP server with Lua support) shared by the tests of one JVM.
+ */
+public final class EmbeddedRedis {
+
+    private static RedisServer server;
+
+    private EmbeddedRedis() {
+    }
+
+    public static synchronized RedisServer start() {
+        if (server == null) {
+            try {
+                server = RedisServer.newRedisServer().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return server;
+    }
+
+    public static void registerProperties(DynamicPropertyRegistry registry) {
+        RedisServer redis = start();
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getBindPort);
+    }
+
+    public static StringRedisTemplate newTemplate() {
+        RedisServer redis = start();
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+        template.afterPropertiesSet();
+        return template;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.notification.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void testEveryAddedValueIsFound() {
+        // Test: A filter never misses a value it was given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("event-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("event-" + i));
+        }
+        assertEquals(10_000, filter.insertions());
+    }
+
+    @Test
+    void testFalsePositiveRateIsCloseToTheTarget() {
+        // Test: At its expected size a filter wrongly reports roughly the false-positive rate it was sized for
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("event-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2000, "false positives: " + falsePositives);
+        // About 9.6 bits per value for 1%
+        assertTrue(filter.sizeInBytes() >= 11_000 && filter.sizeInBytes() <= 13_000);
+    }
+
+    @Test
+    void testRejectsImpossibleSizing() {
+        // Test: A filter needs a positive size and a rate strictly between 0 and 1
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.notification.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTemplateTest {
+
+    @Test
+    void testRenderReplacesEveryPlaceholder() {
+        // Test: Placeholders anywhere in the text are replaced, including repeats and adjacent ones
+        CompiledTemplate template = CompiledTemplate.compile("{greeting}, order #{orderId}{suffix} ({orderId})");
+
+        assertEquals("Hi, order #42! (42)", template.render(Map.of("greeting", "Hi", "orderId", "42", "suffix", "!")));
+        assertEquals(Set.of("greeting", "orderId", "suffix"), template.variables());
+    }
+
+    @Test
+    void testMissingValueRendersEmptyAndBracesCanBeEscaped() {
+        // Test: A placeholder without a value renders as nothing; doubled braces are literal braces
+        CompiledTemplate template = CompiledTemplate.compile("{{json}} {name}.");
+
+        assertEquals("{json} .", template.render(Map.of()));
+        assertEquals(Set.of("name"), template.variables());
+    }
+
+    @Test
+    void testPlainTextHasNoVariables() {
+        // Test: A template without placeholders renders unchanged
+        CompiledTemplate template = CompiledTemplate.compile("Thank you for registering!");
+
+        assertEquals("Thank you for registering!", template.render(Map.of("unused", "x")));
+        assertTrue(template.variables().isEmpty());
+    }
+
+    @Test
+    void testMalformedTemplatesAreRejected() {
+        // Test: Unmatched braces and invalid placeholder names fail at compile time, not when rendering
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("Order #{orderId"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("Order #orderId}"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("Order #{order id}"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("Order #{}"));
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.order.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+@Component
+public class CartClient {
+
+    private final RestClient restClient;
+
+    public CartClient(RestClient.Builder restClientBuilder,
+                      @Value("${order.clients.cart-url:http://cart-service}") String cartUrl) {
+        this.restClient = restClientBuilder.clone().baseUrl(cartUrl).build();
+    }
+
+    public CartView getCart(Long userId) {
+        try {
+            return restClient.get()
+                    .uri("/cart/user/{userId}", userId)
+                    .retrieve()
+                    .body(CartView.class);
+        } catch (RestClientException e) {
+            throw new RuntimeException("Cart lookup failed: " + e.getMessage(), e);
+        }
+    }
+
+    public void clearCart(Long userId) {
+        restClient.delete()
+                .uri("/cart/clear/{userId}", userId)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.order.client;
+
+import com.ecommerce.money.Money;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A user's cart as cart-service returns it. Line prices are what the user saw when adding the
+ * item; checkout reprices every line from the catalog and never trusts them.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CartView {
+    private Long id;
+    private Long userId;
+    private List<Line> items = new ArrayList<>();
+    private Money totalAmount;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Line {
+        private Long productId;
+        private String productName;
+        private Integer quantity;
+        private Money price;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.order.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class CatalogClient {
+
+    // Matches the per-request cap of catalog-service's /products/batch
+    static final int MAX_IDS_PER_CALL = 500;
+
+    private final RestClient restClient;
+
+    public CatalogClient(RestClient.Builder restClientBuilder,
+                         @Value("${order.clients.catalog-url:http://catalog-service}") String catalogUrl) {
+        this.restClient = restClientBuilder.clone().baseUrl(catalogUrl).build();
+    }
+
+    /**
+     * Looks up all the given products with one /products/batch call (one per 500 ids for larger
+     * sets). Ids the catalog does not know are reported in missingIds rather than failing.
+     */
+    public CatalogProductBatch getProducts(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        CatalogProductBatch result = new CatalogProductBatch();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_CALL) {
+            CatalogProductBatch batch = fetch(ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_CALL)));
+            result.getProducts().addAll(batch.getProducts());
+            result.getMissingIds().addAll(batch.getMissingIds());
+        }
+        return result;
+    }
+
+    /**
+     * Holds stock for all the given quantities or none of them. A shortfall comes back as 409
+     * and is rethrown with the catalog's message, e.g. "Insufficient stock for products: [10]".
+     */
+    public void reserveStock(String orderRef, Map<Long, Integer> quantities) {
+        try {
+            restClient.post()
+                    .uri("/inventory/reservations")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(StockReservationRequest.of(orderRef, quantities))
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (HttpClientErrorException.Conflict e) {
+            throw new RuntimeException(e.getResponseBodyAsString(), e);
+        } catch (RestClientException e) {
+            throw new RuntimeException("Stock reservation failed: " + e.getMessage(), e);
+        }
+    }
+
+    public void commitStock(String orderRef) {
+        try {
+            restClient.post()
+                    .uri("/inventory/reservations/{orderRef}/commit", orderRef)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            throw new RuntimeException("Stock commit failed: " + e.getMessage(), e);
+        }
+    }
+
+    public void releaseStock(String orderRef) {
+        restClient.post()
+                .uri("/inventory/reservations/{orderRef}/release", orderRef)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    private CatalogProductBatch fetch(List<Long> ids) {
+        String joined = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            CatalogProductBatch batch = restClient.get()
+                    .uri(uri -> uri.path("/products/batch").queryParam("ids", joined).build())
+                    .retrieve()
+                    .body(CatalogProductBatch.class);
+            return batch != null ? batch : new CatalogProductBatch();
+        } catch (RestClientException e) {
+            throw new RuntimeException("Catalog lookup failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.order.client;
+
+import com.ecommerce.money.Money;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The fields of a catalog-service product that checkout prices against. Stock is checked by reserving it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CatalogProduct {
+    private Long id;
+    private String name;
+    private Money price;
+    private Integer stockQuantity;
+    private Boolean inStock;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.order.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CatalogProductBatch {
+    private List<CatalogProduct> products = new ArrayList<>();
+    private List<Long> missingIds = new ArrayList<>();
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.order.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Body of catalog-service's POST /inventory/reservations.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservationRequest {
+    private String orderRef;
+    private List<Item> items = new ArrayList<>();
+
+    public static StockReservationRequest of(String orderRef, Map<Long, Integer> quantities) {
+        StockReservationRequest request = new StockReservationRequest();
+        request.setOrderRef(orderRef);
+        quantities.forEach((productId, quantity) -> request.getItems().add(new Item(productId, quantity)));
+        return request;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+        private Long productId;
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.order.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.client.RestClientBuilderConfigurer;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+/**
+ * RestClient.Builder shared by the cart and catalog clients. By default their base URLs are
+ * Eureka service ids resolved through the load balancer; with order.clients.load-balanced=false
+ * they are plain host URLs (tests, local stubs).
+ */
+@Configuration
+public class RestClientConfig {
+
+    @Value("${order.clients.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${order.clients.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Bean
+    @LoadBalanced
+    @ConditionalOnProperty(name = "order.clients.load-balanced", havingValue = "true", matchIfMissing = true)
+    public RestClient.Builder loadBalancedRestClientBuilder(RestClientBuilderConfigurer configurer) {
+        return restClientBuilder(configurer);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "order.clients.load-balanced", havingValue = "false")
+    public RestClient.Builder directRestClientBuilder(RestClientBuilderConfigurer configurer) {
+        return restClientBuilder(configurer);
+    }
+
+    private RestClient.Builder restClientBuilder(RestClientBuilderConfigurer configurer) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        return configurer.configure(RestClient.builder()).requestFactory(requestFactory);
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.order.controller;
 
+import com.ecommerce.order.dto.CheckoutRequest;
 import com.ecommerce.order.dto.OrderDto;
 import com.ecommerce.order.service.IOrderService;
 import jakarta.validation.Valid;
@@ -27,6 +28,12 @@ public class OrderController {
         }
     }
 
+    @PostMapping("/checkout")
+    public ResponseEntity<OrderDto> checkout(@Valid @RequestBody CheckoutRequest request) {
+        OrderDto order = orderService.checkout(request);
+        return ResponseEntity.ok(order);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderDto> getOrderById(@PathVariable Long id) {
         try {
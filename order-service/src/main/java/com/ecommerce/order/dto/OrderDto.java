@@ -1,5 +1,6 @@
 package com.ecommerce.order.dto;
 
+import com.ecommerce.money.Money;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -22,7 +23,7 @@ public class OrderDto {
 
     @NotNull(message = "Total amount is required")
     @Positive(message = "Total amount must be positive")
-    private Double totalAmount;
+    private Money totalAmount;
 
     private String status;
 
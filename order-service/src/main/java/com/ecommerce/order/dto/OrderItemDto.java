@@ -1,5 +1,6 @@
 package com.ecommerce.order.dto;
 
+import com.ecommerce.money.Money;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -26,6 +27,6 @@ public class OrderItemDto {
 
     @NotNull(message = "Price is required")
     @Positive(message = "Price must be positive")
-    private Double price;
+    private Money price;
 }
 
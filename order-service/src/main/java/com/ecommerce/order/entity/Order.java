@@ -1,5 +1,7 @@
 package com.ecommerce.order.entity;
 
+import com.ecommerce.money.Money;
+import com.ecommerce.money.MoneyConverter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -30,7 +32,9 @@ public class Order {
 
     @NotNull(message = "Total amount is required")
     @Positive(message = "Total amount must be positive")
-    private Double totalAmount;
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "total_amount_minor")
+    private Money totalAmount;
 
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
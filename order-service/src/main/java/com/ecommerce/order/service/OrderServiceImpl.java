@@ -1,29 +1,59 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.events.OrderPlaced;
+import com.ecommerce.money.Money;
+import com.ecommerce.order.client.CartClient;
+import com.ecommerce.order.client.CartView;
+import com.ecommerce.order.client.CatalogClient;
+import com.ecommerce.order.client.CatalogProduct;
+import com.ecommerce.order.client.CatalogProductBatch;
+import com.ecommerce.order.dto.CheckoutRequest;
 import com.ecommerce.order.dto.OrderDto;
 import com.ecommerce.order.dto.OrderItemDto;
 import com.ecommerce.order.entity.Order;
 import com.ecommerce.order.entity.OrderItem;
 import com.ecommerce.order.entity.OrderStatus;
 import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.outbox.OutboxEvent;
+import com.ecommerce.outbox.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderServiceImpl implements IOrderService {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionOperations transactionTemplate;
+
+    @Autowired
+    private CartClient cartClient;
+
+    @Autowired
+    private CatalogClient catalogClient;
 
     @Override
+    @Transactional
     public OrderDto createOrder(OrderDto orderDto) {
         Order order = new Order();
         order.setUserId(orderDto.getUserId());
@@ -46,12 +76,84 @@ public class OrderServiceImpl implements IOrderService {
         order.setItems(items);
 
         Order savedOrder = orderRepository.save(order);
+        enqueueOrderConfirmation(savedOrder);
+        return convertToDto(savedOrder);
+    }
 
-        // Send notification
-        String message = String.format("{\"to\":\"user@example.com\",\"subject\":\"Order Confirmation\",\"body\":\"Your order #%d has been placed successfully!\"}",
-                savedOrder.getId());
-        kafkaTemplate.send("notification-events", message);
+    /**
+     * Turns the user's cart into an order priced entirely server-side: all cart products are
+     * fetched from the catalog in one batched call, each line takes the catalog's current price
+     * and the total is summed here. The order and its items are written by a single cascading
+     * save after the lookups, so the only remote call made inside the transaction is the stock commit.
+     */
+    @Override
+    public OrderDto checkout(CheckoutRequest request) {
+        CartView cart = cartClient.getCart(request.getUserId());
+        if (cart == null || cart.getItems() == null || cart.getItems().isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartView.Line line : cart.getItems()) {
+            if (line.getProductId() == null || line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid cart line for product " + line.getProductId());
+            }
+            quantities.merge(line.getProductId(), line.getQuantity(), Math::addExact);
+        }
 
+        CatalogProductBatch batch = catalogClient.getProducts(List.copyOf(quantities.keySet()));
+        Map<Long, CatalogProduct> products = batch.getProducts().stream()
+                .collect(Collectors.toMap(CatalogProduct::getId, Function.identity(), (a, b) -> a));
+        List<Long> unavailable = quantities.keySet().stream()
+                .filter(id -> !products.containsKey(id) || products.get(id).getPrice() == null)
+                .collect(Collectors.toList());
+        if (!unavailable.isEmpty()) {
+            throw new RuntimeException("Products not available: " + unavailable);
+        }
+        Order order = new Order();
+        order.setUserId(request.getUserId());
+        order.setStatus(OrderStatus.PENDING);
+        order.setShippingAddress(request.getShippingAddress());
+
+        List<OrderItem> items = new ArrayList<>(quantities.size());
+        Money total = Money.ZERO;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            CatalogProduct product = products.get(entry.getKey());
+            OrderItem item = new OrderItem();
+            item.setProductId(product.getId());
+            item.setProductName(product.getName());
+            item.setQuantity(entry.getValue());
+            item.setPrice(product.getPrice());
+            item.setOrder(order);
+            items.add(item);
+            total = total.plus(product.getPrice().times(entry.getValue()));
+        }
+        order.setItems(items);
+        order.setTotalAmount(total);
+
+        // The reservation is the stock check: it takes every unit or none, so concurrent checkouts cannot oversell
+        String reservationRef = "checkout-" + UUID.randomUUID();
+        catalogClient.reserveStock(reservationRef, quantities);
+        Order savedOrder;
+        try {
+            // The stock commit is the last step inside the transaction: if it fails the order and its
+            // confirmation roll back, and if the database commit fails afterwards stock is undersold, never oversold
+            savedOrder = transactionTemplate.execute(status -> {
+                Order saved = orderRepository.save(order);
+                enqueueOrderConfirmation(saved);
+                catalogClient.commitStock(reservationRef);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            releaseStockQuietly(reservationRef);
+            throw e;
+        }
+        try {
+            cartClient.clearCart(request.getUserId());
+        } catch (RuntimeException e) {
+            // The order stands; a cart left behind is only an inconvenience for the user
+            logger.warn("Could not clear cart for user {} after order {}: {}", request.getUserId(), savedOrder.getId(), e.getMessage());
+        }
         return convertToDto(savedOrder);
     }
 
@@ -87,6 +189,26 @@ public class OrderServiceImpl implements IOrderService {
         orderRepository.save(order);
     }
 
+    private void releaseStockQuietly(String reservationRef) {
+        try {
+            catalogClient.releaseStock(reservationRef);
+        } catch (RuntimeException e) {
+            // Left alone, the hold is returned when its TTL runs out
+            logger.warn("Could not release stock reservation {}: {}", reservationRef, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the confirmation to the outbox in the caller's transaction; {@link OutboxRelay} publishes it.
+     */
+    private void enqueueOrderConfirmation(Order order) {
+        // Customer addresses live in the auth service; confirmations still go to the placeholder recipient
+        OrderPlaced event = new OrderPlaced(order.getId(), order.getUserId(), "user@example.com",
+                order.getTotalAmount().minorUnits(), order.getTotalAmount().currency().getCurrencyCode(),
+                order.getItems().size(), System.currentTimeMillis(), null);
+        outboxEventRepository.save(OutboxEvent.of(NotificationEvent.TOPIC, String.valueOf(order.getId()), event));
+    }
+
     private OrderDto convertToDto(Order order) {
         OrderDto dto = new OrderDto();
         dto.setId(order.getId());
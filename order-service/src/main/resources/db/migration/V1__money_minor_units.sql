@@ -0,0 +1,16 @@
+-- Amounts move from DOUBLE columns to BIGINT minor units (paise) read through MoneyConverter.
+-- Run before starting the new version; the UPDATEs only fill rows not yet converted, so run them
+-- again once the last old instance has stopped to pick up rows it wrote in between.
+ALTER TABLE orders ADD COLUMN total_amount_minor BIGINT;
+ALTER TABLE order_item ADD COLUMN price_minor BIGINT;
+
+-- The new version writes only the minor unit columns, so total_amount must accept NULL like
+-- order_item.price already does
+ALTER TABLE orders MODIFY COLUMN total_amount DOUBLE NULL;
+
+UPDATE orders SET total_amount_minor = ROUND(total_amount * 100) WHERE total_amount_minor IS NULL AND total_amount IS NOT NULL;
+UPDATE order_item SET price_minor = ROUND(price * 100) WHERE price_minor IS NULL AND price IS NOT NULL;
+
+-- Once no old instance is left the DOUBLE columns can be dropped:
+-- ALTER TABLE orders DROP COLUMN total_amount;
+-- ALTER TABLE order_item DROP COLUMN price;
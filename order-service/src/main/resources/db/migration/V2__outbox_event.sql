@@ -0,0 +1,13 @@
+-- Notification events are written here in the order's transaction and published to Kafka by
+-- OutboxRelay, which deletes each row once the broker has acknowledged it.
+CREATE TABLE outbox_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_id VARCHAR(36) NOT NULL,
+    topic VARCHAR(200) NOT NULL,
+    message_key VARCHAR(200),
+    payload LONGTEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    created_at DATETIME(6),
+    CONSTRAINT uk_outbox_event_event_id UNIQUE (event_id)
+);
@@ -0,0 +1,6 @@
+-- Outbox payloads become binary typed events from the event-schema module; their type and schema
+-- version are sent as Kafka headers. Rows already in the table keep their JSON text as bytes and
+-- have no type, which the notification service still reads as a JSON email.
+ALTER TABLE outbox_event ADD COLUMN event_type VARCHAR(100);
+ALTER TABLE outbox_event ADD COLUMN schema_version INT;
+ALTER TABLE outbox_event MODIFY COLUMN payload LONGBLOB NOT NULL;
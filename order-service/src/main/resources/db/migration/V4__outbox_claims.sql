@@ -0,0 +1,8 @@
+-- The relay commits its claim on a batch before sending it instead of holding row locks while it
+-- waits for the broker, and parks events that keep failing. Rows already in the table are pending
+-- and keep the attempts counted so far.
+ALTER TABLE outbox_event ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+ALTER TABLE outbox_event ADD COLUMN claimed_until DATETIME(6);
+
+-- The relay reads pending rows in id order
+CREATE INDEX idx_outbox_event_status_id ON outbox_event (status, id);
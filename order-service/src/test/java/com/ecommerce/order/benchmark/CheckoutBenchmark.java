@@ -0,0 +1,173 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.money.Money;
+import com.ecommerce.order.dto.CheckoutRequest;
+import com.ecommerce.order.dto.OrderDto;
+import com.ecommerce.order.service.IOrderService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end checkout latency for carts of 1 to 200 lines: cart fetch, one batched catalog
+ * lookup, server-side pricing, the stock reservation and commit, and the order insert. Cart and
+ * catalog are served by a local JDK HTTP stub so the numbers cover this service's work plus four
+ * loopback round trips.
+ * Run with: mvn test -Pbenchmark -Dtest=CheckoutBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "order.clients.load-balanced=false")
+@ActiveProfiles("test")
+class CheckoutBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.checkout.iterations", 200);
+    private static final int[] LINE_COUNTS = {1, 10, 50, 100, 200};
+
+    private static final AtomicLong catalogCalls = new AtomicLong();
+    private static HttpServer stub;
+    private static ExecutorService stubExecutor;
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) throws IOException {
+        // Headers and body go out as separate writes; without TCP_NODELAY each exchange waits on a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stubExecutor = Executors.newFixedThreadPool(4);
+        stub.setExecutor(stubExecutor);
+        stub.createContext("/cart/user/", CheckoutBenchmark::cart);
+        stub.createContext("/cart/clear/", exchange -> respond(exchange, 200, ""));
+        stub.createContext("/products/batch", CheckoutBenchmark::products);
+        stub.createContext("/inventory/reservations", exchange -> respond(exchange, 200, "{}"));
+        stub.start();
+        String url = "http://127.0.0.1:" + stub.getAddress().getPort();
+        registry.add("order.clients.cart-url", () -> url);
+        registry.add("order.clients.catalog-url", () -> url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @MockBean
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Test
+    void checkoutLatencyByLineCount() {
+        System.out.printf("%-8s %12s %12s %12s %16s%n", "lines", "mean (ms)", "p50 (ms)", "p99 (ms)", "catalog calls");
+        for (int lines : LINE_COUNTS) {
+            // The stub gives user N a cart of N lines
+            CheckoutRequest request = new CheckoutRequest((long) lines, "1 Benchmark Way");
+            for (int i = 0; i < Math.max(10, ITERATIONS / 10); i++) {
+                orderService.checkout(request);
+            }
+
+            long callsBefore = catalogCalls.get();
+            long[] nanos = new long[ITERATIONS];
+            OrderDto order = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                order = orderService.checkout(request);
+                nanos[i] = System.nanoTime() - start;
+            }
+            long calls = catalogCalls.get() - callsBefore;
+
+            assertEquals(lines, order.getItems().size());
+            assertEquals(expectedTotal(lines), order.getTotalAmount());
+            assertEquals(ITERATIONS, calls, "one catalog call per checkout");
+
+            Arrays.sort(nanos);
+            System.out.printf("%-8d %12.3f %12.3f %12.3f %16.2f%n", lines,
+                    Arrays.stream(nanos).average().orElse(0) / 1e6,
+                    nanos[ITERATIONS / 2] / 1e6,
+                    nanos[Math.min(ITERATIONS - 1, (int) (ITERATIONS * 0.99))] / 1e6,
+                    (double) calls / ITERATIONS);
+        }
+    }
+
+    private static Money priceOf(long productId) {
+        return Money.ofMinor(100 + productId * 7);
+    }
+
+    private static Money expectedTotal(int lines) {
+        Money total = Money.ZERO;
+        for (long id = 1; id <= lines; id++) {
+            total = total.plus(priceOf(id).times(quantityOf(id)));
+        }
+        return total;
+    }
+
+    private static int quantityOf(long productId) {
+        return 1 + (int) (productId % 3);
+    }
+
+    private static void cart(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        int lines = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+        StringBuilder json = new StringBuilder("{\"id\":").append(lines).append(",\"userId\":").append(lines).append(",\"items\":[");
+        for (long id = 1; id <= lines; id++) {
+            if (id > 1) {
+                json.append(',');
+            }
+            // Cart prices are deliberately wrong; checkout must take the catalog's
+            json.append("{\"productId\":").append(id)
+                    .append(",\"productName\":\"Product ").append(id)
+                    .append("\",\"quantity\":").append(quantityOf(id))
+                    .append(",\"price\":0.01}");
+        }
+        json.append("],\"totalAmount\":0.01}");
+        respond(exchange, 200, json.toString());
+    }
+
+    private static void products(HttpExchange exchange) throws IOException {
+        catalogCalls.incrementAndGet();
+        String query = exchange.getRequestURI().getQuery();
+        String[] ids = query.substring(query.indexOf("ids=") + 4).split(",");
+        StringBuilder json = new StringBuilder("{\"products\":[");
+        for (int i = 0; i < ids.length; i++) {
+            long id = Long.parseLong(ids[i]);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(id)
+                    .append(",\"name\":\"Product ").append(id)
+                    .append("\",\"description\":\"Stub product\",\"price\":").append(priceOf(id).toBigDecimal().toPlainString())
+                    .append(",\"stockQuantity\":1000,\"inStock\":true,\"brand\":\"Stub\",\"rating\":4.0}");
+        }
+        json.append("],\"missingIds\":[]}");
+        respond(exchange, 200, json.toString());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
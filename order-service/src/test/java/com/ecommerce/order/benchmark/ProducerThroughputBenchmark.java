@@ -0,0 +1,132 @@
+package com.ecommerce.order.benchmark;
+
+import com.ecommerce.outbox.KafkaProducerProfile;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Publishing throughput of each {@link KafkaProducerProfile} against the producer settings this
+ * service used before profiles existed (no linger, no compression, default batch size). Records
+ * are notification-event sized JSON documents sent asynchronously to a local single-node broker,
+ * so the numbers show batching and compression effects rather than network cost.
+ * Run with: mvn test -Pbenchmark -Dtest=ProducerThroughputBenchmark
+ */
+@Tag("benchmark")
+class ProducerThroughputBenchmark {
+
+    private static final int EVENTS = Integer.getInteger("benchmark.producer.events", 100_000);
+    private static final String TOPIC = "producer-benchmark";
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void eventsPerSecondByProfile() throws Exception {
+        System.out.printf("%-12s %14s %14s %16s %16s %14s%n",
+                "profile", "events/s", "MB/s", "batch-size-avg", "compression", "p99 ack (ms)");
+
+        Map<String, Object> legacy = baseConfig();
+        legacy.put(ProducerConfig.ACKS_CONFIG, "1");
+        legacy.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+        run("legacy", legacy);
+
+        for (KafkaProducerProfile profile : KafkaProducerProfile.values()) {
+            Map<String, Object> config = baseConfig();
+            profile.applyTo(config);
+            run(profile.name().toLowerCase(), config);
+        }
+    }
+
+    private void run(String name, Map<String, Object> config) throws Exception {
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(config)) {
+            // Warm up metadata, connections and the JIT before the timed run
+            send(producer, EVENTS / 10);
+
+            long start = System.nanoTime();
+            long[] ackNanos = send(producer, EVENTS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(ackNanos);
+            System.out.printf("%-12s %14.0f %14.2f %16.0f %16.2f %14.2f%n", name,
+                    EVENTS / seconds,
+                    EVENTS * (double) payload(0).length() / seconds / (1024 * 1024),
+                    metric(producer, "batch-size-avg"),
+                    metric(producer, "compression-rate-avg"),
+                    ackNanos[(int) (ackNanos.length * 0.99)] / 1e6);
+        }
+    }
+
+    private long[] send(KafkaProducer<String, String> producer, int events) throws InterruptedException {
+        long[] ackNanos = new long[events];
+        CountDownLatch acked = new CountDownLatch(events);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < events; i++) {
+            int index = i;
+            long sentAt = System.nanoTime();
+            producer.send(new ProducerRecord<>(TOPIC, String.valueOf(i % 1000), payload(i)), (metadata, exception) -> {
+                if (exception != null) {
+                    failures.incrementAndGet();
+                }
+                ackNanos[index] = System.nanoTime() - sentAt;
+                acked.countDown();
+            });
+        }
+        assertTrue(acked.await(2, TimeUnit.MINUTES), "all sends acknowledged");
+        assertEquals(0, failures.get());
+        return ackNanos;
+    }
+
+    private static Map<String, Object> baseConfig() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        return config;
+    }
+
+    private static double metric(KafkaProducer<String, String> producer, String name) {
+        for (Map.Entry<MetricName, ? extends Metric> entry : producer.metrics().entrySet()) {
+            if (entry.getKey().name().equals(name) && entry.getKey().group().equals("producer-metrics")) {
+                return ((Number) entry.getValue().metricValue()).doubleValue();
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static String payload(int i) {
+        return "{\"eventType\":\"ORDER_CONFIRMATION\",\"orderId\":" + (100000 + i % 1000)
+                + ",\"userId\":" + (i % 5000)
+                + ",\"email\":\"customer" + (i % 5000) + "@example.com\""
+                + ",\"subject\":\"Your order has been confirmed\""
+                + ",\"message\":\"Thank you for your order. We will let you know as soon as it ships.\""
+                + ",\"totalAmount\":\"149.99\",\"status\":\"CONFIRMED\"}";
+    }
+}
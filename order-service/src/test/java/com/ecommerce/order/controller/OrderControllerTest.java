@@ -1,5 +1,7 @@
 package com.ecommerce.order.controller;
 
+import com.ecommerce.money.Money;
+import com.ecommerce.order.dto.CheckoutRequest;
 import com.ecommerce.order.dto.OrderDto;
 import com.ecommerce.order.dto.OrderItemDto;
 import com.ecommerce.order.service.IOrderService;
@@ -44,7 +46,7 @@ class OrderControllerTest {
         testOrderDto = new OrderDto();
         testOrderDto.setId(1L);
         testOrderDto.setUserId(1L);
-        testOrderDto.setTotalAmount(200.0);
+        testOrderDto.setTotalAmount(Money.of("200.00"));
         testOrderDto.setStatus("PENDING");
         testOrderDto.setShippingAddress("123 Main St");
         testOrderDto.setItems(new ArrayList<>());
@@ -53,7 +55,7 @@ class OrderControllerTest {
         item.setProductId(1L);
         item.setProductName("Product 1");
         item.setQuantity(2);
-        item.setPrice(100.0);
+        item.setPrice(Money.of("100.00"));
         testOrderDto.getItems().add(item);
     }
 
@@ -98,5 +100,22 @@ class OrderControllerTest {
         mockMvc.perform(delete("/orders/1"))
                 .andExpect(status().isNoContent());
     }
-}
 
+    @Test
+    void testCheckout() throws Exception {
+        // Test: Checkout passes the request through and returns the server-priced order; invalid request rejected
+        when(orderService.checkout(any(CheckoutRequest.class))).thenReturn(testOrderDto);
+
+        mockMvc.perform(post("/orders/checkout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":1,\"shippingAddress\":\"123 Main St\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalAmount").value(200.0));
+
+        mockMvc.perform(post("/orders/checkout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":1}"))
+                .andExpect(status().isBadRequest());
+        verify(orderService, times(1)).checkout(any(CheckoutRequest.class));
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.order.integration;
+
+import com.ecommerce.money.Money;
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.entity.OrderItem;
+import com.ecommerce.order.entity.OrderStatus;
+import com.ecommerce.order.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the migrations over an order database created at the baseline, then lets Hibernate update
+ * the schema as the new version does on startup.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:order-migration;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.jpa.hibernate.ddl-auto=update",
+    "spring.sql.init.mode=always",
+    "spring.sql.init.schema-locations=classpath:db/baseline/schema.sql,"
+            + "classpath:db/migration/V1__money_minor_units.sql,"
+            + "classpath:db/migration/V2__outbox_event.sql,"
+            + "classpath:db/migration/V3__outbox_typed_events.sql"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class MoneyMigrationIntegrationTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testOrdersWrittenBeforeTheMigrationReadAsMoney() {
+        // Test: Amounts stored as DOUBLE by the old version are backfilled as minor units
+        Order order = orderRepository.findById(1L).orElseThrow();
+        assertEquals(Money.of("39.98"), order.getTotalAmount());
+        assertEquals(Money.of("19.99"), order.getItems().get(0).getPrice());
+    }
+
+    @Test
+    void testNewOrdersCanBeInsertedAfterTheMigration() {
+        // Test: The new version writes only the minor unit columns; the legacy NOT NULL column must not reject the row
+        Order order = new Order();
+        order.setUserId(8L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setShippingAddress("2 New Street");
+        order.setTotalAmount(Money.of("25.50"));
+        OrderItem item = new OrderItem();
+        item.setProductId(4L);
+        item.setProductName("New Product");
+        item.setQuantity(1);
+        item.setPrice(Money.of("25.50"));
+        item.setOrder(order);
+        order.setItems(List.of(item));
+
+        Long id = orderRepository.saveAndFlush(order).getId();
+
+        assertEquals(2550L, jdbcTemplate.queryForObject("SELECT total_amount_minor FROM orders WHERE id = ?", Long.class, id));
+        assertNull(jdbcTemplate.queryForObject("SELECT total_amount FROM orders WHERE id = ?", Double.class, id));
+    }
+}
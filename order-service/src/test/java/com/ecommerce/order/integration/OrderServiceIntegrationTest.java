@@ -1,5 +1,6 @@
 package com.ecommerce.order.integration;
 
+import com.ecommerce.money.Money;
 import com.ecommerce.order.dto.OrderDto;
 import com.ecommerce.order.dto.OrderItemDto;
 import com.ecommerce.order.entity.Order;
@@ -50,21 +51,21 @@ class OrderServiceIntegrationTest {
         OrderDto orderDto = new OrderDto();
         orderDto.setUserId(1L);
         orderDto.setShippingAddress("123 Main St");
-        orderDto.setTotalAmount(500.0);
+        orderDto.setTotalAmount(Money.of("500.00"));
 
         List<OrderItemDto> items = new ArrayList<>();
         OrderItemDto item1 = new OrderItemDto();
         item1.setProductId(101L);
         item1.setProductName("Product A");
         item1.setQuantity(2);
-        item1.setPrice(150.0);
+        item1.setPrice(Money.of("150.00"));
         items.add(item1);
 
         OrderItemDto item2 = new OrderItemDto();
         item2.setProductId(102L);
         item2.setProductName("Product B");
         item2.setQuantity(1);
-        item2.setPrice(200.0);
+        item2.setPrice(Money.of("200.00"));
         items.add(item2);
 
         orderDto.setItems(items);
@@ -125,7 +126,7 @@ class OrderServiceIntegrationTest {
             OrderDto orderDto = new OrderDto();
             orderDto.setUserId(userId);
             orderDto.setShippingAddress("Address " + i);
-            orderDto.setTotalAmount(100.0 * i);
+            orderDto.setTotalAmount(Money.of("100.00").times(i));
             orderDto.setItems(new ArrayList<>());
 
             mockMvc.perform(post("/orders")
@@ -146,7 +147,7 @@ class OrderServiceIntegrationTest {
         OrderDto orderDto = new OrderDto();
         orderDto.setUserId(3L);
         orderDto.setShippingAddress("Test Address");
-        orderDto.setTotalAmount(200.0);
+        orderDto.setTotalAmount(Money.of("200.00"));
         orderDto.setItems(new ArrayList<>());
 
         String response = mockMvc.perform(post("/orders")
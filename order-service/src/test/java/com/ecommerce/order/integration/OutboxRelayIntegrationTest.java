@@ -0,0 +1,221 @@
+package com.ecommerce.order.integration;
+
+import com.ecommerce.events.EventHeaders;
+import com.ecommerce.events.NotificationEventCodec;
+import com.ecommerce.events.NotificationEventDeserializer;
+import com.ecommerce.events.OrderPlaced;
+import com.ecommerce.money.Money;
+import com.ecommerce.order.dto.OrderDto;
+import com.ecommerce.order.dto.OrderItemDto;
+import com.ecommerce.order.service.IOrderService;
+import com.ecommerce.outbox.OutboxEvent;
+import com.ecommerce.outbox.OutboxEventRepository;
+import com.ecommerce.outbox.OutboxRelay;
+import com.ecommerce.outbox.OutboxStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "outbox.relay.enabled=true",
+    // Only the run at startup is scheduled; the tests drive the relay themselves
+    "outbox.relay.interval-ms=3600000",
+    "outbox.relay.batch-size=100",
+    "outbox.relay.max-attempts=3"
+})
+@EmbeddedKafka(partitions = 1, topics = {"notification-events", "outbox-bulk", "outbox-claims"})
+@ActiveProfiles("test")
+class OutboxRelayIntegrationTest {
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @SpyBean
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Consumer<String, byte[]> consumer;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-test-" + System.nanoTime(), "false", embeddedKafka);
+        consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ByteArrayDeserializer()).createConsumer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+    }
+
+    @Test
+    void testOrderConfirmationGoesThroughOutbox() {
+        // Test: The typed event is stored with the order, published by the relay with its id, type and version headers, then removed
+        OrderDto order = orderService.createOrder(order(Money.of("150.00")));
+        List<OutboxEvent> pending = outboxEventRepository.findAll();
+        assertEquals(1, pending.size());
+        assertTrue(meterRegistry.get("outbox.lag").gauge().value() >= 0);
+
+        outboxRelay.relay();
+
+        embeddedKafka.consumeFromAnEmbeddedTopic(consumer, "notification-events");
+        ConsumerRecord<String, byte[]> record = KafkaTestUtils.getSingleRecord(consumer, "notification-events", Duration.ofSeconds(10));
+        assertEquals(String.valueOf(order.getId()), record.key());
+        assertEquals(OrderPlaced.TYPE, EventHeaders.eventType(record.headers()));
+        assertEquals(NotificationEventCodec.ORDER_PLACED_VERSION, EventHeaders.schemaVersion(record.headers()));
+        OrderPlaced event = (OrderPlaced) new NotificationEventDeserializer().deserialize(record.topic(), record.headers(), record.value());
+        assertEquals(order.getId(), event.getOrderId());
+        assertEquals(15000L, event.getTotalMinorUnits());
+        assertEquals("INR", event.getCurrency());
+        assertEquals(1, event.getItemCount());
+        assertEquals(pending.get(0).getEventId(),
+                new String(record.headers().lastHeader(OutboxRelay.EVENT_ID_HEADER).value(), StandardCharsets.UTF_8));
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(0.0, meterRegistry.get("outbox.pending").gauge().value());
+        assertEquals(0.0, meterRegistry.get("outbox.lag").gauge().value());
+    }
+
+    @Test
+    void testRolledBackOrderLeavesNoEvent() {
+        // Test: An order that fails validation on insert takes its outbox event down with it
+        assertThrows(RuntimeException.class, () -> orderService.createOrder(order(null)));
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void testRelayDrainsInBatchesAndKeepsFailedEvents() {
+        // Test: 250 events drain in batches of 100 with distinct ids; an unsendable event stays for the next round
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            events.add(OutboxEvent.of("outbox-bulk", "key-" + (i % 7), ("payload-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        outboxEventRepository.saveAll(events);
+        double publishedBefore = meterRegistry.get("outbox.published").counter().count();
+
+        outboxRelay.relay();
+
+        embeddedKafka.consumeFromAnEmbeddedTopic(consumer, "outbox-bulk");
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (records.size() < 250 && System.currentTimeMillis() < deadline) {
+            KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(1)).forEach(records::add);
+        }
+        assertEquals(250, records.size());
+        Set<String> eventIds = new HashSet<>();
+        records.forEach(r -> eventIds.add(new String(r.headers().lastHeader(OutboxRelay.EVENT_ID_HEADER).value(), StandardCharsets.UTF_8)));
+        assertEquals(250, eventIds.size());
+        // Raw payloads carry no type headers
+        assertNull(EventHeaders.eventType(records.get(0).headers()));
+        assertEquals(250.0, meterRegistry.get("outbox.published").counter().count() - publishedBefore);
+        assertEquals(0, outboxEventRepository.count());
+
+        // Topic names may not contain spaces, so the broker never accepts this one
+        outboxEventRepository.save(OutboxEvent.of("not a topic", null, "payload".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(0, outboxRelay.relayBatch());
+        OutboxEvent failed = outboxEventRepository.findAll().get(0);
+        assertEquals(1, failed.getAttempts());
+        assertNotNull(failed.getLastError());
+        assertEquals(OutboxStatus.PENDING, failed.getStatus());
+        assertNull(failed.getClaimedUntil());
+        assertTrue(meterRegistry.get("outbox.send.failures").counter().count() >= 1);
+    }
+
+    @Test
+    void testClaimIsCommittedBeforeSending() {
+        // Test: Events are sent outside any transaction, and their claim is already visible to other relays
+        OutboxEvent event = outboxEventRepository.save(OutboxEvent.of("outbox-claims", "key", "payload".getBytes(StandardCharsets.UTF_8)));
+        AtomicBoolean sentInTransaction = new AtomicBoolean(true);
+        AtomicReference<OutboxEvent> seenWhileSending = new AtomicReference<>();
+        doAnswer(invocation -> {
+            sentInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            seenWhileSending.set(outboxEventRepository.findById(event.getId()).orElseThrow());
+            return invocation.callRealMethod();
+        }).when(kafkaTemplate).send(any(ProducerRecord.class));
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        assertFalse(sentInTransaction.get());
+        assertNotNull(seenWhileSending.get().getClaimedUntil());
+        assertEquals(1, seenWhileSending.get().getAttempts());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void testPoisonEventIsParkedWithoutHoldingUpTheRest() {
+        // Test: An event the broker always rejects is parked after max-attempts; events behind it still go out
+        OutboxEvent poison = outboxEventRepository.save(OutboxEvent.of("not a topic", null, "payload".getBytes(StandardCharsets.UTF_8)));
+        outboxEventRepository.save(OutboxEvent.of("outbox-claims", "key", "payload".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, outboxRelay.relayBatch());
+        assertEquals(0, outboxRelay.relayBatch());
+        assertEquals(OutboxStatus.PENDING, outboxEventRepository.findById(poison.getId()).orElseThrow().getStatus());
+        assertEquals(0, outboxRelay.relayBatch());
+
+        OutboxEvent parked = outboxEventRepository.findById(poison.getId()).orElseThrow();
+        assertEquals(OutboxStatus.PARKED, parked.getStatus());
+        assertEquals(3, parked.getAttempts());
+        assertNotNull(parked.getLastError());
+        assertEquals(1.0, meterRegistry.get("outbox.parked").gauge().value());
+        assertEquals(0.0, meterRegistry.get("outbox.pending").gauge().value());
+
+        // Parked events are no longer claimed
+        assertEquals(0, outboxRelay.relayBatch());
+        assertEquals(3, outboxEventRepository.findById(poison.getId()).orElseThrow().getAttempts());
+    }
+
+    private OrderDto order(Money total) {
+        OrderDto dto = new OrderDto();
+        dto.setUserId(1L);
+        dto.setShippingAddress("123 Main St");
+        dto.setTotalAmount(total);
+        OrderItemDto item = new OrderItemDto();
+        item.setProductId(101L);
+        item.setProductName("Product A");
+        item.setQuantity(1);
+        item.setPrice(Money.of("150.00"));
+        dto.setItems(new ArrayList<>(List.of(item)));
+        return dto;
+    }
+}
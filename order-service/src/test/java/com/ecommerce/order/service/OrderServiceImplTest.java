@@ -1,18 +1,30 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.events.OrderPlaced;
+import com.ecommerce.money.Money;
+import com.ecommerce.order.client.CartClient;
+import com.ecommerce.order.client.CartView;
+import com.ecommerce.order.client.CatalogClient;
+import com.ecommerce.order.client.CatalogProduct;
+import com.ecommerce.order.client.CatalogProductBatch;
+import com.ecommerce.order.dto.CheckoutRequest;
 import com.ecommerce.order.dto.OrderDto;
 import com.ecommerce.order.dto.OrderItemDto;
 import com.ecommerce.order.entity.Order;
 import com.ecommerce.order.entity.OrderItem;
 import com.ecommerce.order.entity.OrderStatus;
 import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.outbox.OutboxEventRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.*;
 
@@ -27,7 +39,13 @@ class OrderServiceImplTest {
     private OrderRepository orderRepository;
 
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private CartClient cartClient;
+
+    @Mock
+    private CatalogClient catalogClient;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -37,10 +55,11 @@ class OrderServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(orderService, "transactionTemplate", TransactionOperations.withoutTransaction());
         testOrder = new Order();
         testOrder.setId(1L);
         testOrder.setUserId(1L);
-        testOrder.setTotalAmount(200.0);
+        testOrder.setTotalAmount(Money.of("200.00"));
         testOrder.setStatus(OrderStatus.PENDING);
         testOrder.setShippingAddress("123 Main St");
         testOrder.setItems(new ArrayList<>());
@@ -50,13 +69,13 @@ class OrderServiceImplTest {
         item.setProductId(1L);
         item.setProductName("Product 1");
         item.setQuantity(2);
-        item.setPrice(100.0);
+        item.setPrice(Money.of("100.00"));
         item.setOrder(testOrder);
         testOrder.getItems().add(item);
 
         testOrderDto = new OrderDto();
         testOrderDto.setUserId(1L);
-        testOrderDto.setTotalAmount(200.0);
+        testOrderDto.setTotalAmount(Money.of("200.00"));
         testOrderDto.setShippingAddress("123 Main St");
         testOrderDto.setItems(new ArrayList<>());
 
@@ -64,13 +83,13 @@ class OrderServiceImplTest {
         itemDto.setProductId(1L);
         itemDto.setProductName("Product 1");
         itemDto.setQuantity(2);
-        itemDto.setPrice(100.0);
+        itemDto.setPrice(Money.of("100.00"));
         testOrderDto.getItems().add(itemDto);
     }
 
     @Test
     void testCreateOrder() {
-        // Test: Create order with items, Kafka notification sent
+        // Test: Create order with items, confirmation written to the outbox
         when(orderRepository.save(any(Order.class))).thenAnswer(i -> {
             Order o = i.getArgument(0);
             o.setId(1L);
@@ -81,10 +100,11 @@ class OrderServiceImplTest {
 
         assertNotNull(result);
         assertEquals(1L, result.getUserId());
-        assertEquals(200.0, result.getTotalAmount());
+        assertEquals(Money.of("200.00"), result.getTotalAmount());
         assertEquals("PENDING", result.getStatus());
         assertEquals(1, result.getItems().size());
-        verify(kafkaTemplate, times(1)).send(eq("notification-events"), anyString());
+        verify(outboxEventRepository, times(1)).save(argThat(e -> "notification-events".equals(e.getTopic())
+                && OrderPlaced.TYPE.equals(e.getEventType())));
         verify(orderRepository, times(1)).save(any(Order.class));
     }
 
@@ -129,5 +149,88 @@ class OrderServiceImplTest {
         assertThrows(RuntimeException.class, () -> orderService.updateOrderStatus(999L, "SHIPPED"));
         assertThrows(RuntimeException.class, () -> orderService.cancelOrder(999L));
     }
-}
 
+    @Test
+    void testCheckoutPricesCartFromCatalog() {
+        // Test: Checkout merges cart lines, reprices them from one catalog batch, sums the total and clears the cart
+        CartView cart = new CartView(1L, 1L, Arrays.asList(
+                new CartView.Line(10L, "Stale name", 2, Money.of("1.00")),
+                new CartView.Line(20L, "Mouse", 1, Money.of("1.00")),
+                new CartView.Line(10L, "Stale name", 1, Money.of("1.00"))), Money.of("3.00"));
+        when(cartClient.getCart(1L)).thenReturn(cart);
+        when(catalogClient.getProducts(List.of(10L, 20L))).thenReturn(new CatalogProductBatch(Arrays.asList(
+                new CatalogProduct(20L, "Mouse", Money.of("25.50"), 5, true),
+                new CatalogProduct(10L, "Laptop", Money.of("1000.00"), 3, true)), new ArrayList<>()));
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> {
+            Order o = i.getArgument(0);
+            o.setId(7L);
+            return o;
+        });
+        doThrow(new RuntimeException("cart-service down")).when(cartClient).clearCart(1L);
+
+        OrderDto result = orderService.checkout(new CheckoutRequest(1L, "123 Main St"));
+
+        assertEquals(7L, result.getId());
+        assertEquals(Money.of("3025.50"), result.getTotalAmount());
+        assertEquals(2, result.getItems().size());
+        assertEquals("Laptop", result.getItems().get(0).getProductName());
+        assertEquals(3, result.getItems().get(0).getQuantity());
+        assertEquals(Money.of("1000.00"), result.getItems().get(0).getPrice());
+        verify(catalogClient, times(1)).getProducts(any());
+        InOrder stock = inOrder(catalogClient, orderRepository);
+        stock.verify(catalogClient).reserveStock(startsWith("checkout-"), eq(Map.of(10L, 3, 20L, 1)));
+        stock.verify(orderRepository).save(any(Order.class));
+        stock.verify(catalogClient).commitStock(startsWith("checkout-"));
+        verify(catalogClient, never()).releaseStock(anyString());
+        verify(outboxEventRepository, times(1)).save(argThat(e -> "notification-events".equals(e.getTopic())));
+    }
+
+    @Test
+    void testCheckoutRejectsEmptyCartMissingProductsAndShortStock() {
+        // Test: Empty cart, unknown product and insufficient stock all fail before anything is saved
+        CheckoutRequest request = new CheckoutRequest(1L, "123 Main St");
+        when(cartClient.getCart(1L)).thenReturn(new CartView(1L, 1L, new ArrayList<>(), Money.ZERO));
+        RuntimeException empty = assertThrows(RuntimeException.class, () -> orderService.checkout(request));
+        assertEquals("Cart is empty", empty.getMessage());
+
+        when(cartClient.getCart(1L)).thenReturn(new CartView(1L, 1L, Arrays.asList(
+                new CartView.Line(10L, "Laptop", 4, Money.of("1.00")),
+                new CartView.Line(30L, "Gone", 1, Money.of("1.00"))), Money.of("5.00")));
+        when(catalogClient.getProducts(List.of(10L, 30L))).thenReturn(new CatalogProductBatch(
+                new ArrayList<>(List.of(new CatalogProduct(10L, "Laptop", Money.of("1000.00"), 3, true))),
+                new ArrayList<>(List.of(30L))));
+        RuntimeException missing = assertThrows(RuntimeException.class, () -> orderService.checkout(request));
+        assertEquals("Products not available: [30]", missing.getMessage());
+
+        when(cartClient.getCart(1L)).thenReturn(new CartView(1L, 1L, Arrays.asList(
+                new CartView.Line(10L, "Laptop", 4, Money.of("1.00"))), Money.of("4.00")));
+        when(catalogClient.getProducts(List.of(10L))).thenReturn(new CatalogProductBatch(
+                new ArrayList<>(List.of(new CatalogProduct(10L, "Laptop", Money.of("1000.00"), 3, true))), new ArrayList<>()));
+        doThrow(new RuntimeException("Insufficient stock for products: [10]"))
+                .when(catalogClient).reserveStock(anyString(), eq(Map.of(10L, 4)));
+        RuntimeException stock = assertThrows(RuntimeException.class, () -> orderService.checkout(request));
+        assertEquals("Insufficient stock for products: [10]", stock.getMessage());
+
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(cartClient, never()).clearCart(anyLong());
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void testCheckoutReleasesStockWhenOrderCannotBeSaved() {
+        // Test: A failed order insert gives the reserved units back instead of waiting for the hold to expire
+        when(cartClient.getCart(1L)).thenReturn(new CartView(1L, 1L, Arrays.asList(
+                new CartView.Line(10L, "Laptop", 1, Money.of("1.00"))), Money.of("1.00")));
+        when(catalogClient.getProducts(List.of(10L))).thenReturn(new CatalogProductBatch(
+                new ArrayList<>(List.of(new CatalogProduct(10L, "Laptop", Money.of("1000.00"), 3, true))), new ArrayList<>()));
+        when(orderRepository.save(any(Order.class))).thenThrow(new RuntimeException("database down"));
+
+        assertThrows(RuntimeException.class, () -> orderService.checkout(new CheckoutRequest(1L, "123 Main St")));
+
+        ArgumentCaptor<String> ref = ArgumentCaptor.forClass(String.class);
+        verify(catalogClient).reserveStock(ref.capture(), eq(Map.of(10L, 1)));
+        verify(catalogClient).releaseStock(ref.getValue());
+        verify(catalogClient, never()).commitStock(anyString());
+        verifyNoInteractions(outboxEventRepository);
+    }
+}
@@ -0,0 +1,24 @@
+-- The order tables as Hibernate created them at the baseline, when amounts were DOUBLE columns,
+-- with one order written by that version
+CREATE TABLE orders (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    created_at DATETIME(6),
+    shipping_address VARCHAR(255),
+    status VARCHAR(255),
+    total_amount DOUBLE NOT NULL,
+    updated_at DATETIME(6),
+    user_id BIGINT NOT NULL
+);
+
+CREATE TABLE order_item (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    price DOUBLE,
+    product_id BIGINT,
+    product_name VARCHAR(255),
+    quantity INT,
+    order_id BIGINT,
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES orders (id)
+);
+
+INSERT INTO orders (id, shipping_address, status, total_amount, user_id) VALUES (1, '1 Old Street', 'PENDING', 39.98, 7);
+INSERT INTO order_item (price, product_id, product_name, quantity, order_id) VALUES (19.99, 3, 'Old Product', 2, 1);
@@ -0,0 +1,94 @@
+package com.ecommerce.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Producer settings come from {@code kafka.producer.profile} (see {@link KafkaProducerProfile});
+ * {@code linger-ms}, {@code batch-size}, {@code compression-type} and {@code max-in-flight} under
+ * the same prefix override single values of the chosen profile.
+ */
+@Configuration
+public class KafkaProducerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${kafka.producer.profile:balanced}")
+    private String profile = "balanced";
+
+    @Value("${kafka.producer.linger-ms:#{null}}")
+    private Integer lingerMs;
+
+    @Value("${kafka.producer.batch-size:#{null}}")
+    private Integer batchSize;
+
+    @Value("${kafka.producer.compression-type:#{null}}")
+    private String compressionType;
+
+    @Value("${kafka.producer.max-in-flight:#{null}}")
+    private Integer maxInFlight;
+
+    // Bounds how long send() may block a caller when the buffer is full or metadata is missing
+    @Value("${kafka.producer.max-block-ms:10000}")
+    private int maxBlockMs = 10000;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Bean
+    public ProducerFactory<String, byte[]> producerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        // Payloads are encoded when they are written to the outbox (see NotificationEventCodec)
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        KafkaProducerProfile.from(profile).applyTo(configProps);
+        if (lingerMs != null) {
+            configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        }
+        if (batchSize != null) {
+            configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        }
+        if (compressionType != null) {
+            configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        }
+        if (maxInFlight != null) {
+            if (maxInFlight < 1 || maxInFlight > KafkaProducerProfile.MAX_IN_FLIGHT) {
+                throw new IllegalArgumentException("kafka.producer.max-in-flight must be between 1 and "
+                        + KafkaProducerProfile.MAX_IN_FLIGHT + " for an idempotent producer");
+            }
+            configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlight);
+        }
+
+        DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(configProps);
+        if (meterRegistry != null) {
+            // Exposes the client's own metrics, e.g. kafka.producer.batch.size.avg and kafka.producer.record.send.rate
+            factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        }
+        return factory;
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
+        KafkaTemplate<String, byte[]> kafkaTemplate = new KafkaTemplate<>(producerFactory());
+        if (meterRegistry != null) {
+            kafkaTemplate.setProducerListener(new KafkaSendListener(meterRegistry));
+        }
+        return kafkaTemplate;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.outbox;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Named producer tunings, picked with {@code kafka.producer.profile}. Every profile keeps the
+ * producer idempotent with {@code acks=all} and at most 5 requests in flight per connection, the
+ * most idempotence allows while still preserving order. Profiles differ only in how long records
+ * wait to fill a batch and how batches are compressed.
+ */
+public enum KafkaProducerProfile {
+
+    /** Sends as soon as possible; for low volumes where per-event latency matters most. */
+    LATENCY(0, 16 * 1024, "none"),
+
+    /** A few milliseconds of linger and cheap lz4 compression; the default. */
+    BALANCED(5, 64 * 1024, "lz4"),
+
+    /** Larger, longer-lived batches and zstd; for bulk publishing such as draining a backed-up outbox. */
+    THROUGHPUT(25, 256 * 1024, "zstd");
+
+    static final int MAX_IN_FLIGHT = 5;
+
+    private final int lingerMs;
+    private final int batchSize;
+    private final String compressionType;
+
+    KafkaProducerProfile(int lingerMs, int batchSize, String compressionType) {
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+        this.compressionType = compressionType;
+    }
+
+    public static KafkaProducerProfile from(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown kafka.producer.profile '" + name + "', expected one of latency, balanced, throughput");
+        }
+    }
+
+    public void applyTo(Map<String, Object> configProps) {
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, MAX_IN_FLIGHT);
+    }
+}
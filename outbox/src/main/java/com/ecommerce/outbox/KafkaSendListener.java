@@ -0,0 +1,52 @@
+package com.ecommerce.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.ProducerListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles every send result on the producer's I/O thread, so callers never have to block on the
+ * returned future to find out whether a record made it. Records {@code kafka.producer.send}
+ * (time from send to broker ack, tagged by topic) and {@code kafka.producer.send.errors} (tagged
+ * by topic and exception), and logs failures.
+ */
+public class KafkaSendListener implements ProducerListener<String, byte[]> {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final MeterRegistry meterRegistry;
+
+    public KafkaSendListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onSuccess(ProducerRecord<String, byte[]> record, RecordMetadata metadata) {
+        // Records are sent without a timestamp, so the producer stamps them when send() is called
+        if (metadata.hasTimestamp()) {
+            long elapsed = Math.max(0, System.currentTimeMillis() - metadata.timestamp());
+            Timer.builder("kafka.producer.send")
+                    .tag("topic", record.topic())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void onError(ProducerRecord<String, byte[]> record, RecordMetadata metadata, Exception exception) {
+        Counter.builder("kafka.producer.send.errors")
+                .tag("topic", record.topic())
+                .tag("exception", exception.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+        logger.warn("Kafka send to {} failed (key {}): {}", record.topic(), record.key(), exception.getMessage());
+    }
+}
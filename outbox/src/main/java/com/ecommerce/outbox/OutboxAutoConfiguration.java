@@ -0,0 +1,20 @@
+package com.ecommerce.outbox;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Sets up the outbox in every service that has this module on its classpath: {@link OutboxEvent}
+ * and its repository join the service's own entities and repositories, and the producer from
+ * {@link KafkaProducerConfig} and the {@link OutboxRelay} are registered. It runs before the JPA
+ * and Kafka auto-configurations so they see the outbox package and back off from their own
+ * producer beans.
+ */
+@AutoConfiguration(before = {HibernateJpaAutoConfiguration.class, KafkaAutoConfiguration.class})
+@AutoConfigurationPackage(basePackageClasses = OutboxEvent.class)
+@Import({KafkaProducerConfig.class, OutboxRelay.class})
+public class OutboxAutoConfiguration {
+}
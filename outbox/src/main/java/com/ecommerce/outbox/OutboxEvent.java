@@ -0,0 +1,84 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.events.NotificationEvent;
+import com.ecommerce.events.NotificationEventCodec;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A Kafka record waiting to be published. Rows are written in the same transaction as the
+ * change they announce and removed by {@link OutboxRelay} once the broker has acknowledged them,
+ * or parked once they have failed too often.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_event_status_id", columnList = "status, id"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Sent as the event-id header; stays the same on every re-send so consumers can drop repeats
+    @Column(nullable = false, unique = true, length = 36)
+    private String eventId;
+
+    @Column(nullable = false, length = 200)
+    private String topic;
+
+    @Column(length = 200)
+    private String messageKey;
+
+    // Type and schema version of a typed payload, sent as headers; null for raw payloads
+    @Column(length = 100)
+    private String eventType;
+
+    private Integer schemaVersion;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    // Counted when the relay claims the row, so a row that takes the relay down is counted too
+    private int attempts;
+
+    // Set while a relay is sending the row; once past, the row can be claimed again
+    private LocalDateTime claimedUntil;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public static OutboxEvent of(String topic, String messageKey, NotificationEvent event) {
+        OutboxEvent outboxEvent = of(topic, messageKey, NotificationEventCodec.encode(event));
+        outboxEvent.setEventType(event.eventType());
+        outboxEvent.setSchemaVersion(NotificationEventCodec.schemaVersion(event));
+        return outboxEvent;
+    }
+
+    public static OutboxEvent of(String topic, String messageKey, byte[] payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventId(UUID.randomUUID().toString());
+        event.setTopic(topic);
+        event.setMessageKey(messageKey);
+        event.setPayload(payload);
+        event.setStatus(OutboxStatus.PENDING);
+        return event;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.outbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest pending events that no relay holds a live claim on, for the calling
+     * transaction. Rows locked by another relay instance's claim are skipped (lock timeout -2 is
+     * SKIP LOCKED) where the database supports it, so instances claim disjoint batches instead of
+     * queueing on each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = com.ecommerce.outbox.OutboxStatus.PENDING"
+            + " AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) ORDER BY e.id")
+    List<OutboxEvent> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(OutboxStatus status);
+
+    Optional<OutboxEvent> findFirstByStatusOrderByIdAsc(OutboxStatus status);
+}
@@ -0,0 +1,212 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.events.EventHeaders;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox to Kafka. No transaction or row lock is held while waiting for the broker;
+ * each round has three steps:
+ * <ol>
+ * <li>A short transaction locks up to {@code outbox.relay.batch-size} of the oldest pending
+ * events that no relay has a live claim on, counts an attempt on each, claims them until
+ * {@code outbox.relay.claim-ttl} from now and commits.</li>
+ * <li>The claimed events are all sent without waiting in between, then their acks are awaited
+ * for up to {@code outbox.relay.send-timeout}.</li>
+ * <li>A second short transaction deletes the acknowledged rows and releases the others with
+ * their error, to be retried next round.</li>
+ * </ol>
+ * A relay that stops between the steps leaves its claims to expire, and the rows are sent again.
+ * An event that has had {@code outbox.relay.max-attempts} attempts is parked rather than retried,
+ * so one the broker always rejects cannot hold up the rest. Every record carries its event id in
+ * the {@value #EVENT_ID_HEADER} header, so a re-send after a crash between ack and delete can be
+ * recognised downstream, and a typed event also its {@link EventHeaders#EVENT_TYPE} and
+ * {@link EventHeaders#SCHEMA_VERSION}.
+ * <p>
+ * Publishes {@code outbox.lag} (age of the oldest pending event, in seconds),
+ * {@code outbox.pending}, {@code outbox.parked}, {@code outbox.published} and
+ * {@code outbox.send.failures}.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    public static final String EVENT_ID_HEADER = EventHeaders.EVENT_ID;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private TransactionOperations transactionTemplate;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${outbox.relay.send-timeout:10s}")
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    // Must outlast the send timeout, or another relay may claim events this one is still sending
+    @Value("${outbox.relay.claim-ttl:60s}")
+    private Duration claimTtl = Duration.ofSeconds(60);
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    private final Counter published;
+    private final Counter failures;
+
+    public OutboxRelay(MeterRegistry meterRegistry) {
+        this.published = Counter.builder("outbox.published").register(meterRegistry);
+        this.failures = Counter.builder("outbox.send.failures").register(meterRegistry);
+        Gauge.builder("outbox.lag", this, OutboxRelay::lagSeconds).baseUnit("seconds")
+                .strongReference(true).register(meterRegistry);
+        Gauge.builder("outbox.pending", this, relay -> relay.count(OutboxStatus.PENDING))
+                .strongReference(true).register(meterRegistry);
+        Gauge.builder("outbox.parked", this, relay -> relay.count(OutboxStatus.PARKED))
+                .strongReference(true).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        // A full batch means there is probably more waiting; a short one (or a failure) waits for the next tick
+        while (relayBatch() == batchSize) {
+            logger.debug("Outbox batch full, draining again");
+        }
+    }
+
+    /**
+     * Publishes one batch and returns how many events were acknowledged and removed.
+     */
+    public int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(send(event));
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> acknowledged = new ArrayList<>(batch.size());
+        Map<Long, String> failed = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(event.getId());
+            } catch (ExecutionException | TimeoutException e) {
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                failed.put(event.getId(), failure(event, cause));
+            } catch (InterruptedException e) {
+                // Events not yet awaited keep their claim and are sent again once it expires
+                Thread.currentThread().interrupt();
+                failed.put(event.getId(), failure(event, e));
+                break;
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!acknowledged.isEmpty()) {
+                outboxEventRepository.deleteAllByIdInBatch(acknowledged);
+            }
+            if (!failed.isEmpty()) {
+                for (OutboxEvent event : outboxEventRepository.findAllById(failed.keySet())) {
+                    event.setLastError(failed.get(event.getId()));
+                    event.setClaimedUntil(null);
+                    if (event.getAttempts() >= maxAttempts) {
+                        park(event);
+                    }
+                }
+            }
+        });
+        published.increment(acknowledged.size());
+        return acknowledged.size();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> claimed = new ArrayList<>();
+        for (OutboxEvent event : outboxEventRepository.findClaimable(now, PageRequest.of(0, batchSize))) {
+            if (event.getAttempts() >= maxAttempts) {
+                // Its last claim expired without a result, e.g. because sending it took the relay down
+                park(event);
+            } else {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setClaimedUntil(now.plus(claimTtl));
+                claimed.add(event);
+            }
+        }
+        return claimed;
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> send(OutboxEvent event) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(event.getTopic(), event.getMessageKey(), event.getPayload());
+        record.headers().add(EVENT_ID_HEADER, event.getEventId().getBytes(StandardCharsets.UTF_8));
+        if (event.getEventType() != null) {
+            EventHeaders.set(record.headers(), EventHeaders.EVENT_TYPE, event.getEventType());
+            EventHeaders.set(record.headers(), EventHeaders.SCHEMA_VERSION, String.valueOf(event.getSchemaVersion()));
+        }
+        try {
+            return kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            // The producer can fail synchronously, e.g. when it cannot fetch metadata in time
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private String failure(OutboxEvent event, Throwable cause) {
+        failures.increment();
+        String message = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        logger.warn("Outbox event {} to {} not published (attempt {} of {}): {}", event.getEventId(), event.getTopic(),
+                event.getAttempts(), maxAttempts, message);
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private void park(OutboxEvent event) {
+        event.setStatus(OutboxStatus.PARKED);
+        event.setClaimedUntil(null);
+        logger.error("Outbox event {} to {} parked after {} attempts; last error: {}", event.getEventId(), event.getTopic(),
+                event.getAttempts(), event.getLastError());
+    }
+
+    private double count(OutboxStatus status) {
+        return outboxEventRepository.countByStatus(status);
+    }
+
+    private double lagSeconds() {
+        return outboxEventRepository.findFirstByStatusOrderByIdAsc(OutboxStatus.PENDING)
+                .map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toMillis() / 1000.0)
+                .orElse(0.0);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.outbox;
+
+public enum OutboxStatus {
+    /** Waiting to be sent, or being sent by the relay that holds its claim. */
+    PENDING,
+    /** Failed {@code outbox.relay.max-attempts} times; kept for inspection and no longer sent. */
+    PARKED
+}
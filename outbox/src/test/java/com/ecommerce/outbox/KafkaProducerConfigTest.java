@@ -0,0 +1,133 @@
+package com.ecommerce.outbox;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KafkaProducerConfigTest {
+
+    @Test
+    void testProducerFactoryCreation() {
+        // Test: ProducerFactory is created with correct configuration
+        KafkaProducerConfig config = new KafkaProducerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+
+        ProducerFactory<String, byte[]> factory = config.producerFactory();
+
+        assertNotNull(factory);
+        assertEquals("localhost:9092",
+            factory.getConfigurationProperties().get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
+        assertEquals(StringSerializer.class,
+            factory.getConfigurationProperties().get(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG));
+        assertEquals(ByteArraySerializer.class,
+            factory.getConfigurationProperties().get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+    }
+
+    @Test
+    void testKafkaTemplateCreation() {
+        // Test: KafkaTemplate is created with producer factory
+        KafkaProducerConfig config = new KafkaProducerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+
+        KafkaTemplate<String, byte[]> kafkaTemplate = config.kafkaTemplate();
+
+        assertNotNull(kafkaTemplate);
+        assertNotNull(kafkaTemplate.getProducerFactory());
+    }
+
+    @Test
+    void testProducerFactoryWithCustomBootstrapServers() {
+        // Test: ProducerFactory with custom bootstrap servers
+        KafkaProducerConfig config = new KafkaProducerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "kafka-server:9093");
+
+        ProducerFactory<String, byte[]> factory = config.producerFactory();
+
+        assertEquals("kafka-server:9093",
+            factory.getConfigurationProperties().get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
+    }
+
+    @Test
+    void testProducerFactorySerializers() {
+        // Test: Keys are strings; values are bytes already encoded in the outbox
+        KafkaProducerConfig config = new KafkaProducerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+
+        ProducerFactory<String, byte[]> factory = config.producerFactory();
+
+        assertEquals(StringSerializer.class,
+            factory.getConfigurationProperties().get(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG));
+        assertEquals(ByteArraySerializer.class,
+            factory.getConfigurationProperties().get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+    }
+
+    @Test
+    void testDefaultProfileIsIdempotentWithBoundedInFlight() {
+        // Test: Without settings the balanced profile applies: short linger, lz4, acks=all, idempotent, 5 in flight
+        KafkaProducerConfig config = new KafkaProducerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+
+        Map<String, Object> props = config.producerFactory().getConfigurationProperties();
+
+        assertEquals(5, props.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals("lz4", props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals("all", props.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(true, props.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals(5, props.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION));
+        assertEquals(10000, props.get(ProducerConfig.MAX_BLOCK_MS_CONFIG));
+    }
+
+    @Test
+    void testProfileOverridesAndValidation() {
+        // Test: Single settings override the chosen profile; unknown profiles and unsafe in-flight counts are rejected
+        KafkaProducerConfig config = new KafkaProducerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+        ReflectionTestUtils.setField(config, "profile", "Throughput");
+        ReflectionTestUtils.setField(config, "lingerMs", 50);
+
+        Map<String, Object> props = config.producerFactory().getConfigurationProperties();
+        assertEquals(50, props.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(256 * 1024, props.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("zstd", props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+
+        ReflectionTestUtils.setField(config, "maxInFlight", 8);
+        assertThrows(IllegalArgumentException.class, config::producerFactory);
+        ReflectionTestUtils.setField(config, "maxInFlight", 0);
+        assertThrows(IllegalArgumentException.class, config::producerFactory);
+        ReflectionTestUtils.setField(config, "maxInFlight", null);
+        ReflectionTestUtils.setField(config, "profile", "fastest");
+        assertThrows(IllegalArgumentException.class, config::producerFactory);
+    }
+
+    @Test
+    void testSendListenerRecordsLatencyAndErrors() {
+        // Test: Acks feed the send timer, failures the error counter, both tagged by topic
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        KafkaSendListener listener = new KafkaSendListener(registry);
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>("notification-events", "1", new byte[0]);
+
+        listener.onSuccess(record, new RecordMetadata(new TopicPartition("notification-events", 0), 0, 0,
+                System.currentTimeMillis() - 20, 1, 2));
+        listener.onError(record, null, new TimeoutException("expired"));
+
+        Timer timer = registry.get("kafka.producer.send").tag("topic", "notification-events").timer();
+        assertEquals(1, timer.count());
+        assertTrue(timer.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        assertEquals(1.0, registry.get("kafka.producer.send.errors").tag("exception", "TimeoutException").counter().count());
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.payment.dto;
 
+import com.ecommerce.money.Money;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -19,7 +20,7 @@ public class PaymentRequestDTO {
 
     @NotNull(message = "Amount is required")
     @Positive(message = "Amount must be positive")
-    private Double amount;
+    private Money amount;
 
     private String currency;
 
@@ -1,5 +1,6 @@
 package com.ecommerce.payment.dto;
 
+import com.ecommerce.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,7 +12,7 @@ public class PaymentResponseDTO {
     private String paymentId;
     private String status;
     private String message;
-    private Double amount;
+    private Money amount;
     private String currency;
 }
 
@@ -1,5 +1,7 @@
 package com.ecommerce.payment.entity;
 
+import com.ecommerce.money.Money;
+import com.ecommerce.money.MoneyConverter;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -8,6 +10,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Currency;
 
 @Entity
 @Data
@@ -28,7 +31,9 @@ public class Payment {
 
     @NotNull(message = "Amount is required")
     @Positive(message = "Amount must be positive")
-    private Double amount;
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "amount_minor")
+    private Money amount;
 
     private String currency;
 
@@ -54,5 +59,13 @@ public class Payment {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
+
+    @PostLoad
+    protected void onLoad() {
+        // The column holds minor units of the payment's own currency, not the converter's default
+        if (amount != null && currency != null) {
+            amount = Money.ofMinor(amount.minorUnits(), Currency.getInstance(currency));
+        }
+    }
 }
 
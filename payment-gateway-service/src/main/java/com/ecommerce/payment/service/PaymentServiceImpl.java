@@ -1,5 +1,6 @@
 package com.ecommerce.payment.service;
 
+import com.ecommerce.money.Money;
 import com.ecommerce.payment.dto.PaymentRequestDTO;
 import com.ecommerce.payment.dto.PaymentResponseDTO;
 import com.ecommerce.payment.entity.Payment;
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Currency;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -34,8 +36,10 @@ public class PaymentServiceImpl implements IPaymentService {
         Payment payment = new Payment();
         payment.setOrderId(request.getOrderId());
         payment.setUserId(request.getUserId());
-        payment.setAmount(request.getAmount());
-        payment.setCurrency(request.getCurrency() != null ? request.getCurrency() : "INR");
+        Currency currency = currencyOf(request.getCurrency() != null ? request.getCurrency() : "INR");
+        // The amount is parsed before its currency is known; restate it in that currency's minor units
+        payment.setAmount(Money.of(request.getAmount().toBigDecimal(), currency));
+        payment.setCurrency(currency.getCurrencyCode());
         payment.setStatus(PaymentStatus.INITIATED);
 
         // Set payment method and process based on gateway
@@ -166,6 +170,14 @@ public class PaymentServiceImpl implements IPaymentService {
                 .collect(Collectors.toList());
     }
 
+    private Currency currencyOf(String code) {
+        try {
+            return Currency.getInstance(code);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported currency: " + code);
+        }
+    }
+
     private PaymentResponseDTO convertToResponseDto(Payment payment) {
         PaymentResponseDTO response = new PaymentResponseDTO();
         response.setPaymentId(payment.getPaymentId());
@@ -0,0 +1,16 @@
+-- Payment amounts move from a DOUBLE column to BIGINT minor units of each payment's currency.
+-- Run before starting the new version; the UPDATE only fills rows not yet converted, so run it
+-- again once the last old instance has stopped to pick up rows it wrote in between.
+ALTER TABLE payment ADD COLUMN amount_minor BIGINT;
+
+-- The new version writes only the minor unit column, so the old one must accept NULL
+ALTER TABLE payment MODIFY COLUMN amount DOUBLE NULL;
+
+UPDATE payment SET amount_minor = ROUND(amount * CASE
+        WHEN currency IN ('JPY', 'KRW', 'VND', 'CLP', 'ISK', 'UGX') THEN 1
+        WHEN currency IN ('BHD', 'KWD', 'OMR', 'JOD', 'TND', 'IQD', 'LYD') THEN 1000
+        ELSE 100 END)
+    WHERE amount_minor IS NULL AND amount IS NOT NULL;
+
+-- Once no old instance is left the DOUBLE column can be dropped:
+-- ALTER TABLE payment DROP COLUMN amount;
@@ -1,5 +1,6 @@
 package com.ecommerce.payment.controller;
 
+import com.ecommerce.money.Money;
 import com.ecommerce.payment.dto.PaymentRequestDTO;
 import com.ecommerce.payment.dto.PaymentResponseDTO;
 import com.ecommerce.payment.service.IPaymentService;
@@ -44,14 +45,14 @@ class PaymentControllerTest {
         testRequest = new PaymentRequestDTO();
         testRequest.setOrderId(1L);
         testRequest.setUserId(1L);
-        testRequest.setAmount(1000.0);
+        testRequest.setAmount(Money.of("1000.00"));
         testRequest.setCurrency("INR");
         testRequest.setMethod("razorpay");
 
         testResponse = new PaymentResponseDTO();
         testResponse.setPaymentId("PAY_123");
         testResponse.setStatus("PENDING");
-        testResponse.setAmount(1000.0);
+        testResponse.setAmount(Money.of("1000.00"));
         testResponse.setCurrency("INR");
         testResponse.setMessage("Payment initiated successfully");
     }
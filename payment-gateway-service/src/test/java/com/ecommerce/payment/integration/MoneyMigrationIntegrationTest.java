@@ -0,0 +1,61 @@
+package com.ecommerce.payment.integration;
+
+import com.ecommerce.money.Money;
+import com.ecommerce.payment.entity.Payment;
+import com.ecommerce.payment.entity.PaymentMethod;
+import com.ecommerce.payment.entity.PaymentStatus;
+import com.ecommerce.payment.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the migration over a payment database created at the baseline, then lets Hibernate update
+ * the schema as the new version does on startup.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:payment-migration;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.jpa.hibernate.ddl-auto=update",
+    "spring.sql.init.mode=always",
+    "spring.sql.init.schema-locations=classpath:db/baseline/schema.sql,classpath:db/migration/V1__money_minor_units.sql"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class MoneyMigrationIntegrationTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testPaymentsWrittenBeforeTheMigrationReadAsMoney() {
+        // Test: Amounts stored as DOUBLE by the old version are backfilled as minor units
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM payment WHERE payment_id = 'pay_old'", Long.class);
+        assertEquals(Money.of("499.50"), paymentRepository.findById(id).orElseThrow().getAmount());
+    }
+
+    @Test
+    void testNewPaymentsCanBeInsertedAfterTheMigration() {
+        // Test: The new version writes only the minor unit column; the legacy NOT NULL column must not reject the row
+        Payment payment = new Payment();
+        payment.setPaymentId("pay_new");
+        payment.setOrderId(2L);
+        payment.setUserId(8L);
+        payment.setAmount(Money.of("25.50"));
+        payment.setCurrency("INR");
+        payment.setStatus(PaymentStatus.INITIATED);
+        payment.setMethod(PaymentMethod.UPI);
+
+        Long id = paymentRepository.saveAndFlush(payment).getId();
+
+        assertEquals(2550L, jdbcTemplate.queryForObject("SELECT amount_minor FROM payment WHERE id = ?", Long.class, id));
+        assertNull(jdbcTemplate.queryForObject("SELECT amount FROM payment WHERE id = ?", Double.class, id));
+    }
+}
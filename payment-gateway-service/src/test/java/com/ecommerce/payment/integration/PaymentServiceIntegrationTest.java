@@ -1,5 +1,6 @@
 package com.ecommerce.payment.integration;
 
+import com.ecommerce.money.Money;
 import com.ecommerce.payment.dto.PaymentRequestDTO;
 import com.ecommerce.payment.dto.PaymentResponseDTO;
 import com.ecommerce.payment.entity.Payment;
@@ -47,7 +48,7 @@ class PaymentServiceIntegrationTest {
         PaymentRequestDTO request = new PaymentRequestDTO();
         request.setOrderId(1L);
         request.setUserId(1L);
-        request.setAmount(1000.0);
+        request.setAmount(Money.of("1000.00"));
         request.setCurrency("INR");
         request.setMethod("razorpay");
 
@@ -92,7 +93,7 @@ class PaymentServiceIntegrationTest {
             PaymentRequestDTO request = new PaymentRequestDTO();
             request.setOrderId((long) (i + 1));
             request.setUserId(1L);
-            request.setAmount(500.0 * (i + 1));
+            request.setAmount(Money.of("500.00").times(i + 1));
             request.setCurrency("INR");
             request.setMethod(methods[i]);
 
@@ -141,7 +142,7 @@ class PaymentServiceIntegrationTest {
             PaymentRequestDTO request = new PaymentRequestDTO();
             request.setOrderId(100L);
             request.setUserId(2L);
-            request.setAmount(1000.0);
+            request.setAmount(Money.of("1000.00"));
             request.setCurrency(currency);
             request.setMethod("razorpay");
 
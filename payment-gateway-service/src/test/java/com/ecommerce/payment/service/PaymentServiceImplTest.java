@@ -1,5 +1,6 @@
 package com.ecommerce.payment.service;
 
+import com.ecommerce.money.Money;
 import com.ecommerce.payment.dto.PaymentRequestDTO;
 import com.ecommerce.payment.dto.PaymentResponseDTO;
 import com.ecommerce.payment.entity.Payment;
@@ -39,7 +40,7 @@ class PaymentServiceImplTest {
         testPayment.setPaymentId("PAY_123");
         testPayment.setOrderId(1L);
         testPayment.setUserId(1L);
-        testPayment.setAmount(1000.0);
+        testPayment.setAmount(Money.of("1000.00"));
         testPayment.setCurrency("INR");
         testPayment.setStatus(PaymentStatus.PENDING);
         testPayment.setMethod(PaymentMethod.RAZORPAY);
@@ -48,7 +49,7 @@ class PaymentServiceImplTest {
         testRequest = new PaymentRequestDTO();
         testRequest.setOrderId(1L);
         testRequest.setUserId(1L);
-        testRequest.setAmount(1000.0);
+        testRequest.setAmount(Money.of("1000.00"));
         testRequest.setCurrency("INR");
         testRequest.setMethod("razorpay");
     }
@@ -83,6 +84,16 @@ class PaymentServiceImplTest {
         testRequest.setCurrency(null);
         result = paymentService.initiatePayment(testRequest);
         assertEquals("INR", result.getCurrency());
+        assertEquals(100000, result.getAmount().minorUnits());
+
+        // Amounts are held in the minor units of the payment's currency
+        testRequest.setCurrency("JPY");
+        result = paymentService.initiatePayment(testRequest);
+        assertEquals(1000, result.getAmount().minorUnits());
+
+        testRequest.setCurrency("XYZ");
+        RuntimeException unsupported = assertThrows(RuntimeException.class, () -> paymentService.initiatePayment(testRequest));
+        assertEquals("Unsupported currency: XYZ", unsupported.getMessage());
     }
 
     @Test
@@ -94,7 +105,7 @@ class PaymentServiceImplTest {
         assertNotNull(result);
         assertEquals("PAY_123", result.getPaymentId());
         assertEquals("PENDING", result.getStatus());
-        assertEquals(1000.0, result.getAmount());
+        assertEquals(Money.of("1000.00"), result.getAmount());
 
         when(paymentRepository.findByPaymentId("INVALID")).thenReturn(Optional.empty());
         assertThrows(RuntimeException.class, () -> paymentService.getPaymentStatus("INVALID"));
@@ -140,7 +151,7 @@ class PaymentServiceImplTest {
         when(paymentRepository.findByOrderId(1L)).thenReturn(payments);
         List<PaymentResponseDTO> orderPayments = paymentService.getPaymentsByOrderId(1L);
         assertEquals(1, orderPayments.size());
-        assertEquals(1000.0, orderPayments.get(0).getAmount());
+        assertEquals(Money.of("1000.00"), orderPayments.get(0).getAmount());
     }
 }
 
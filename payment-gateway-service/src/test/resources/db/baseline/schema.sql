@@ -0,0 +1,17 @@
+-- The payment table as Hibernate created it at the baseline, when the amount was a DOUBLE column,
+-- with one payment written by that version
+CREATE TABLE payment (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    amount DOUBLE NOT NULL,
+    created_at DATETIME(6),
+    currency VARCHAR(255),
+    method VARCHAR(255),
+    order_id BIGINT NOT NULL,
+    payment_id VARCHAR(255),
+    status VARCHAR(255),
+    transaction_id VARCHAR(255),
+    updated_at DATETIME(6),
+    user_id BIGINT NOT NULL
+);
+
+INSERT INTO payment (amount, currency, method, order_id, payment_id, status, user_id) VALUES (499.5, 'INR', 'RAZORPAY', 1, 'pay_old', 'SUCCESS', 7);